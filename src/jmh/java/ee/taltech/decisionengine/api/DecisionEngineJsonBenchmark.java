@@ -0,0 +1,74 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.service.Decision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of reading requests and writing responses with the same Jackson setup that the controller uses, compared
+ * with the {@link DecisionEngineJsonCodec}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionEngineJsonBenchmark {
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private DecisionEngineJsonCodec codec;
+    private byte[] requestBody;
+    private DecisionEngineResponse response;
+    private int decision;
+
+    @Setup
+    public void setup() throws JsonProcessingException {
+        codec = new DecisionEngineJsonCodec(objectMapper);
+        requestBody = "{\"personalCode\":\"50301103485\",\"loanAmount\":9577,\"loanPeriod\":58}"
+                .getBytes(StandardCharsets.UTF_8);
+        decision = Decision.counterOffer(5800, 58);
+        response = DecisionEngineResponse.fromDecision(decision);
+    }
+
+    @Benchmark
+    public DecisionEngineRequest readRequest() throws IOException {
+        return objectMapper.readValue(requestBody, DecisionEngineRequest.class);
+    }
+
+    @Benchmark
+    public byte[] writeResponse() throws JsonProcessingException {
+        return objectMapper.writeValueAsBytes(response);
+    }
+
+    @Benchmark
+    public byte[] roundTrip() throws IOException {
+        DecisionEngineRequest request = objectMapper.readValue(requestBody, DecisionEngineRequest.class);
+        return objectMapper.writeValueAsBytes(DecisionEngineResponse.fromDecision(
+                Decision.of(request.getLoanAmount(), request.getLoanPeriod())));
+    }
+
+    @Benchmark
+    public DecisionEngineRequest codecReadRequest() throws IOException {
+        return codec.readRequest(requestBody);
+    }
+
+    @Benchmark
+    public byte[] codecWriteResponse() {
+        return codec.writeAcceptedResponse(decision);
+    }
+
+    @Benchmark
+    public byte[] codecRoundTrip() throws IOException {
+        DecisionEngineRequest request = codec.readRequest(requestBody);
+        return codec.writeAcceptedResponse(Decision.of(request.getLoanAmount(), request.getLoanPeriod()));
+    }
+}
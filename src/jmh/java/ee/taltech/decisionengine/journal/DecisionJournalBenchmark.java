@@ -0,0 +1,61 @@
+package ee.taltech.decisionengine.journal;
+
+import ee.taltech.decisionengine.service.Decision;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Time that journaling a decision adds to a request, with one thread and with many threads appending at once,
+ * while the journal is committed in the background.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionJournalBenchmark {
+    private final int decision = Decision.counterOffer(3600, 24);
+    private Path directory;
+    private DecisionJournal journal;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        directory = Files.createTempDirectory("decision-journal");
+        journal = new DecisionJournal(directory, 1 << 20, Duration.ofMillis(10));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        journal.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                Files.delete(file);
+            }
+        }
+    }
+
+    @Benchmark
+    public void append() {
+        journal.append("50301103800", 4000, 24, decision, 1);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public void appendConcurrently() {
+        journal.append("50301103800", 4000, 24, decision, 1);
+    }
+}
@@ -0,0 +1,61 @@
+package ee.taltech.decisionengine.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of {@link BatchDecisionEngine} for different batch sizes and thread counts.
+ * <p>
+ * Results are batches per second, multiply by the batch size to get decisions per second.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class BatchDecisionEngineBenchmark {
+    private static final String[] personalCodes = {
+            "50301104100", "50301103300", "50301102400", "50301105599", "50301108600", "50301103800"
+    };
+
+    @Param({"1", "10", "100", "1000", "10000"})
+    private int batchSize;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private BatchDecisionEngine batchEngine;
+    private String[] codes;
+    private int[] amounts;
+    private int[] periods;
+
+    @Setup
+    public void setup() {
+        batchEngine = new BatchDecisionEngine(new DecisionEngine(), threads);
+        codes = new String[batchSize];
+        amounts = new int[batchSize];
+        periods = new int[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            codes[i] = personalCodes[i % personalCodes.length];
+            amounts[i] = 2000 + (i * 131) % 8001;
+            periods[i] = 12 + (i * 7) % 49;
+        }
+    }
+
+    @TearDown
+    public void tearDown() {
+        batchEngine.shutdown();
+    }
+
+    @Benchmark
+    public int[] batch() {
+        return batchEngine.getDecisions(codes, amounts, periods);
+    }
+}
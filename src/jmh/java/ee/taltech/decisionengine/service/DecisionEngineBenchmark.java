@@ -0,0 +1,65 @@
+package ee.taltech.decisionengine.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link DecisionEngine#getDecision} for every credit modifier segment and every rejection path.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionEngineBenchmark {
+    @Param({
+            "SEGMENT_100", "SEGMENT_300", "SEGMENT_1000", "COUNTER_OFFER",
+            "UNKNOWN_CREDIT_MODIFIER", "CLIENT_IN_DEBT",
+            "PERSONAL_CODE_INVALID", "LOAN_AMOUNT_INVALID", "LOAN_PERIOD_INVALID"
+    })
+    private String scenario;
+
+    private final DecisionEngine engine = new DecisionEngine();
+    private String personalCode;
+    private int loanAmount;
+    private int loanPeriod;
+
+    @Setup
+    public void setup() {
+        loanAmount = 2000;
+        loanPeriod = 20;
+        switch (scenario) {
+            case "SEGMENT_100" -> personalCode = "50301102400";
+            case "SEGMENT_300" -> personalCode = "50301108600";
+            case "SEGMENT_1000" -> personalCode = "50301103800";
+            case "COUNTER_OFFER" -> {
+                personalCode = "50301103485";
+                loanAmount = 9577;
+                loanPeriod = 58;
+            }
+            case "UNKNOWN_CREDIT_MODIFIER" -> personalCode = "50301104100";
+            case "CLIENT_IN_DEBT" -> personalCode = "50301103300";
+            case "PERSONAL_CODE_INVALID" -> personalCode = "0000000080a";
+            case "LOAN_AMOUNT_INVALID" -> {
+                personalCode = "50301103800";
+                loanAmount = 10001;
+            }
+            case "LOAN_PERIOD_INVALID" -> {
+                personalCode = "50301103800";
+                loanPeriod = 11;
+            }
+            default -> throw new IllegalArgumentException(scenario);
+        }
+    }
+
+    @Benchmark
+    public int getDecision() {
+        return engine.getDecision(personalCode, loanAmount, loanPeriod);
+    }
+}
@@ -0,0 +1,40 @@
+package ee.taltech.decisionengine.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compare a per-request {@link LoanCalculator} with a lookup from the precomputed {@link DecisionTable}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionTableBenchmark {
+    @Param({"100", "300", "1000"})
+    private int creditModifier;
+
+    private DecisionTable table;
+
+    @Setup
+    public void setup() {
+        table = new DecisionTable(100, 300, 1000);
+    }
+
+    @Benchmark
+    public int loanCalculator() {
+        return new LoanCalculator(9577, 58, creditModifier).getLoanResult();
+    }
+
+    @Benchmark
+    public int decisionTable() {
+        return table.getDecision(creditModifier, 9577, 58);
+    }
+}
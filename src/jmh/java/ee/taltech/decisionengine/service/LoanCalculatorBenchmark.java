@@ -0,0 +1,51 @@
+package ee.taltech.decisionengine.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link LoanCalculator#getLoanResult} for each of its branches.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class LoanCalculatorBenchmark {
+    @Param({"PARAMS_DONT_NEED_CHANGING", "LOAN_AMOUNT_NEEDS_LOWERING", "LOAN_PERIOD_NEEDS_INCREASING",
+            "LARGEST_LOAN_FOR_ANY_PERIOD", "NO_POSSIBLE_LOANS"})
+    private String scenario;
+
+    private int loanAmount;
+    private int loanPeriod;
+    private int creditModifier;
+
+    @Setup
+    public void setup() {
+        switch (scenario) {
+            case "PARAMS_DONT_NEED_CHANGING" -> set(5432, 30, 300);
+            case "LOAN_AMOUNT_NEEDS_LOWERING" -> set(10000, 60, 145);
+            case "LOAN_PERIOD_NEEDS_INCREASING" -> set(5996, 15, 100);
+            case "LARGEST_LOAN_FOR_ANY_PERIOD" -> set(9623, 13, 123);
+            case "NO_POSSIBLE_LOANS" -> set(9999, 59, 5);
+            default -> throw new IllegalArgumentException(scenario);
+        }
+    }
+
+    @Benchmark
+    public int getLoanResult() {
+        return new LoanCalculator(loanAmount, loanPeriod, creditModifier).getLoanResult();
+    }
+
+    private void set(int loanAmount, int loanPeriod, int creditModifier) {
+        this.loanAmount = loanAmount;
+        this.loanPeriod = loanPeriod;
+        this.creditModifier = creditModifier;
+    }
+}
@@ -0,0 +1,64 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link OfferSolver} compared to finding the same offers by trying every amount and period.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class OfferSolverBenchmark {
+    private final LoanLimits limits = LoanLimits.defaultLimits;
+
+    @Param({"34", "123", "300"})
+    private int creditModifier;
+
+    @Param({"9623"})
+    private int loanAmount;
+
+    @Benchmark
+    public int getMaximumAmountClosedForm() {
+        return OfferSolver.getMaximumAmount(limits, creditModifier);
+    }
+
+    @Benchmark
+    public int getMaximumAmountByEnumeration() {
+        for (int amount = DecisionEngineConstants.maximumLoanAmount;
+             amount >= DecisionEngineConstants.minimumLoanAmount; amount--) {
+            for (int period = DecisionEngineConstants.minimumLoanPeriod;
+                 period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+                if ((long) creditModifier * period >= amount) {
+                    return amount;
+                }
+            }
+        }
+        return 0;
+    }
+
+    @Benchmark
+    public int getShortestPeriodClosedForm() {
+        return OfferSolver.getShortestPeriod(limits, creditModifier, loanAmount);
+    }
+
+    @Benchmark
+    public int getShortestPeriodByEnumeration() {
+        for (int period = DecisionEngineConstants.minimumLoanPeriod;
+             period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+            if ((long) creditModifier * period >= loanAmount) {
+                return period;
+            }
+        }
+        return 0;
+    }
+}
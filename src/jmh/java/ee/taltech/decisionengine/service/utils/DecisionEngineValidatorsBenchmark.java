@@ -0,0 +1,41 @@
+package ee.taltech.decisionengine.service.utils;
+
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of {@link DecisionEngineValidators#validateAllParameters} for valid input and for each invalid field.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DecisionEngineValidatorsBenchmark {
+    @Param({"VALID", "PERSONAL_CODE_INVALID", "LOAN_AMOUNT_INVALID", "LOAN_PERIOD_INVALID"})
+    private String scenario;
+
+    private final DecisionEngineValidators validators = new DecisionEngineValidators();
+    private String personalCode;
+    private int loanAmount;
+    private int loanPeriod;
+
+    @Setup
+    public void setup() {
+        personalCode = scenario.equals("PERSONAL_CODE_INVALID") ? "5000000000a" : "50301117000";
+        loanAmount = scenario.equals("LOAN_AMOUNT_INVALID") ? 1999 : 5000;
+        loanPeriod = scenario.equals("LOAN_PERIOD_INVALID") ? 61 : 20;
+    }
+
+    @Benchmark
+    public InvalidDataException.Reason validateAllParameters() {
+        return validators.validateAllParameters(personalCode, loanAmount, loanPeriod);
+    }
+}
@@ -0,0 +1,40 @@
+package ee.taltech.decisionengine;
+
+import ee.taltech.decisionengine.journal.JournalReplay;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import ee.taltech.decisionengine.service.modifier.DigitRuleCreditModifierProvider;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+
+import java.nio.file.Path;
+
+/**
+ * Replay a decision journal through the decision engine to check that the same requests get the same decisions.
+ * <p>
+ * Usage: DecisionEngineReplay journal-directory [policy-file]
+ * <p>
+ * Credit modifiers are derived from the personal codes by the policy's bands. The exit status is 1 when any request
+ * got another decision under the same policy version.
+ */
+public class DecisionEngineReplay {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.err.println("Usage: DecisionEngineReplay <journal-directory> [policy-file]");
+            System.exit(2);
+        }
+
+        final CreditPolicy policy = args.length > 1 ? CreditPolicy.load(Path.of(args[1])) : CreditPolicy.getDefault();
+        final DecisionEngine engine =
+                new DecisionEngine(policy, new DigitRuleCreditModifierProvider(policy), DecisionMetrics.disabled());
+        final long startTime = System.nanoTime();
+
+        JournalReplay replay = new JournalReplay(engine).replay(Path.of(args[0]));
+
+        System.out.print(replay);
+        System.out.println("seconds=" + (System.nanoTime() - startTime) / 1_000_000_000.0);
+        if (replay.getMismatches() > 0) {
+            System.exit(1);
+        }
+    }
+}
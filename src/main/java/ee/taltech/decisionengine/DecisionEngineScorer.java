@@ -0,0 +1,30 @@
+package ee.taltech.decisionengine;
+
+import ee.taltech.decisionengine.scorer.FileScorer;
+import ee.taltech.decisionengine.scorer.ScoringTotals;
+import ee.taltech.decisionengine.service.DecisionEngine;
+
+import java.nio.file.Path;
+
+/**
+ * Score a file of loan requests without starting the API.
+ * <p>
+ * Usage: DecisionEngineScorer input-file output-file [threads]
+ */
+public class DecisionEngineScorer {
+
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: DecisionEngineScorer <input.csv|input.ndjson> <output.csv> [threads]");
+            System.exit(2);
+        }
+
+        final int threads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+        final long startTime = System.nanoTime();
+
+        ScoringTotals totals = new FileScorer(new DecisionEngine(), threads).score(Path.of(args[0]), Path.of(args[1]));
+
+        System.out.print(totals);
+        System.out.println("seconds=" + (System.nanoTime() - startTime) / 1_000_000_000.0);
+    }
+}
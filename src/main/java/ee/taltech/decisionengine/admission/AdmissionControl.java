@@ -0,0 +1,204 @@
+package ee.taltech.decisionengine.admission;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Decide whether a request is let in before any work is done for it.
+ * <p>
+ * A request is first checked against its client's token bucket, and then it has to get a place under the
+ * concurrency limit. A request that is refused for the concurrency limit gives its token back, so a client isn't
+ * charged for the service being overloaded. Refusing a request costs a hash lookup and a compare-and-set, so
+ * under overload the service keeps deciding the requests it has let in at their usual latency and refuses the
+ * rest right away, instead of letting every request wait longer. Requests without a personal code share one
+ * bucket.
+ * <p>
+ * A batch takes one place and a token from the bucket of every request in it. The chunks that a large batch is
+ * split into run in parallel on the batch thread pool, so they are bounded by the size of that pool and not by
+ * the concurrency limit. A stream takes one place for as long as it is open and a token for every line, and a
+ * line whose client has no token left is refused on its own.
+ */
+@Component
+public class AdmissionControl {
+    /**
+     * Whether a request was let in.
+     */
+    public enum Admission {
+        ADMITTED,
+        RATE_LIMITED,
+        OVERLOADED
+    }
+
+    private static final String noPersonalCode = "";
+
+    private final ConcurrencyLimit concurrencyLimit;
+    private final ClientRateLimiter rateLimiter;
+    private final LongAdder[] counts = new LongAdder[Admission.values().length];
+
+    @Autowired
+    public AdmissionControl(@Value("${decision-engine.admission.max-in-flight:10000}") int maximumInFlight,
+                            @Value("${decision-engine.admission.adaptive:false}") boolean adaptive,
+                            @Value("${decision-engine.admission.min-in-flight:16}") int minimumInFlight,
+                            @Value("${decision-engine.admission.target-latency:PT0.1S}") Duration targetLatency,
+                            @Value("${decision-engine.admission.client.requests-per-second:0}") double clientRate,
+                            @Value("${decision-engine.admission.client.burst:10}") int clientBurst,
+                            @Value("${decision-engine.admission.client.stripes:64}") int stripes,
+                            @Value("${decision-engine.admission.client.maximum-clients:100000}") int maximumClients) {
+        this(adaptive
+                        ? ConcurrencyLimit.adaptive(maximumInFlight, Math.min(minimumInFlight, maximumInFlight),
+                                maximumInFlight, targetLatency.toNanos())
+                        : ConcurrencyLimit.fixed(maximumInFlight),
+                clientRate > 0 ? new ClientRateLimiter(clientRate, clientBurst, stripes, maximumClients) : null);
+    }
+
+    /**
+     * @param concurrencyLimit limit on the requests in flight
+     * @param rateLimiter limit on the rate of every client's requests, null if clients aren't limited
+     */
+    public AdmissionControl(ConcurrencyLimit concurrencyLimit, ClientRateLimiter rateLimiter) {
+        this.concurrencyLimit = concurrencyLimit;
+        this.rateLimiter = rateLimiter;
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     * Check whether a request may be decided.
+     * <p>
+     * An admitted request must be released with {@link #release(long)} when it has been answered.
+     * @param personalCode client's personal code as it was sent, may be invalid or null
+     * @return whether the request was admitted, or why it was refused
+     */
+    public Admission admit(String personalCode) {
+        final String client = getClient(personalCode);
+        final Admission admission;
+        if (rateLimiter != null && !rateLimiter.tryAcquire(client)) {
+            admission = Admission.RATE_LIMITED;
+        } else if (!concurrencyLimit.tryAcquire()) {
+            if (rateLimiter != null) {
+                rateLimiter.refund(client);
+            }
+            admission = Admission.OVERLOADED;
+        } else {
+            admission = Admission.ADMITTED;
+        }
+        counts[admission.ordinal()].increment();
+        return admission;
+    }
+
+    /**
+     * Check whether a batch of requests may be decided.
+     * <p>
+     * The batch is refused as rate limited if any of its clients has no token left, and then the tokens that it
+     * has taken are given back. An admitted batch must be released with {@link #release(long)} when it has been
+     * answered.
+     * @param personalCodes clients' personal codes as they were sent, may be invalid or null
+     * @return whether the batch was admitted, or why it was refused
+     */
+    public Admission admitBatch(String[] personalCodes) {
+        int taken = 0;
+        if (rateLimiter != null) {
+            while (taken < personalCodes.length && rateLimiter.tryAcquire(getClient(personalCodes[taken]))) {
+                taken++;
+            }
+        }
+
+        final Admission admission;
+        if (rateLimiter != null && taken < personalCodes.length) {
+            refund(personalCodes, taken);
+            admission = Admission.RATE_LIMITED;
+        } else if (!concurrencyLimit.tryAcquire()) {
+            refund(personalCodes, taken);
+            admission = Admission.OVERLOADED;
+        } else {
+            admission = Admission.ADMITTED;
+        }
+        counts[admission.ordinal()].increment();
+        return admission;
+    }
+
+    /**
+     * Check whether a stream may be opened.
+     * <p>
+     * The stream only needs a place, and its lines are checked against their clients' buckets with
+     * {@link #admitStreamLine(String)}. An admitted stream must be released with {@link #releaseStream()}.
+     * @return whether the stream was admitted, or why it was refused
+     */
+    public Admission admitStream() {
+        final Admission admission = concurrencyLimit.tryAcquire() ? Admission.ADMITTED : Admission.OVERLOADED;
+        counts[admission.ordinal()].increment();
+        return admission;
+    }
+
+    /**
+     * Check whether one line of an admitted stream may be decided.
+     * <p>
+     * The stream already holds a place, so the line only takes a token from its client's bucket.
+     * @param personalCode client's personal code as it was sent, may be invalid or null
+     * @return true if the line may be decided
+     */
+    public boolean admitStreamLine(String personalCode) {
+        if (rateLimiter == null || rateLimiter.tryAcquire(getClient(personalCode))) {
+            return true;
+        }
+        counts[Admission.RATE_LIMITED.ordinal()].increment();
+        return false;
+    }
+
+    /**
+     * Release an admitted request that has been answered.
+     * @param startNanos {@link System#nanoTime()} from just before the request was admitted
+     */
+    public void release(long startNanos) {
+        concurrencyLimit.release(startNanos);
+    }
+
+    /**
+     * Release an admitted stream that has ended.
+     * <p>
+     * A stream is open for as long as its client keeps sending, so its latency doesn't change the limit.
+     */
+    public void releaseStream() {
+        concurrencyLimit.release();
+    }
+
+    /**
+     * Get the number of requests that were admitted or refused for a reason since startup.
+     * @param admission whether the requests were admitted
+     * @return number of requests
+     */
+    public long getCount(Admission admission) {
+        return counts[admission.ordinal()].sum();
+    }
+
+    /**
+     * Get the current concurrency limit.
+     * @return largest number of requests in flight
+     */
+    public int getLimit() {
+        return concurrencyLimit.getLimit();
+    }
+
+    /**
+     * Get the number of admitted requests that haven't been released.
+     * @return requests in flight
+     */
+    public int getInFlight() {
+        return concurrencyLimit.getInFlight();
+    }
+
+    private static String getClient(String personalCode) {
+        return personalCode == null ? noPersonalCode : personalCode;
+    }
+
+    private void refund(String[] personalCodes, int taken) {
+        for (int i = 0; i < taken; i++) {
+            rateLimiter.refund(getClient(personalCodes[i]));
+        }
+    }
+}
@@ -0,0 +1,123 @@
+package ee.taltech.decisionengine.admission;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Token buckets that limit how often every client can send requests.
+ * <p>
+ * Every client has a bucket that holds at most the burst size of tokens and is refilled at a steady rate, and a
+ * request is let through when it can take a token. The buckets are split into stripes by the hash of the client's
+ * key, and every stripe is locked on its own, so requests of different clients rarely wait for each other. Every
+ * stripe keeps the buckets of the clients it has seen most recently, and a forgotten client starts again with a
+ * full bucket.
+ */
+public class ClientRateLimiter {
+    private static final long nanosPerSecond = 1_000_000_000L;
+
+    private final Stripe[] stripes;
+    private final double tokensPerNano;
+    private final double burst;
+
+    /**
+     * @param requestsPerSecond rate at which every client's bucket is refilled
+     * @param burst largest number of requests that a client can send at once
+     * @param stripes number of stripes, rounded up to a power of two
+     * @param maximumClients number of clients whose buckets are remembered
+     */
+    public ClientRateLimiter(double requestsPerSecond, int burst, int stripes, int maximumClients) {
+        if (requestsPerSecond <= 0 || burst < 1 || stripes < 1 || maximumClients < 1) {
+            throw new IllegalArgumentException("Rate, burst, stripes and maximum clients must be positive");
+        }
+        final int stripeCount = stripes == 1 ? 1 : Integer.highestOneBit(stripes - 1) << 1;
+        final int clientsPerStripe = Math.max(1, maximumClients / stripeCount);
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(clientsPerStripe);
+        }
+        this.tokensPerNano = requestsPerSecond / nanosPerSecond;
+        this.burst = burst;
+    }
+
+    /**
+     * Take a token from a client's bucket if it has one.
+     * @param client key of the client
+     * @return true if the client's request may be let through
+     */
+    public boolean tryAcquire(String client) {
+        return tryAcquire(client, System.nanoTime());
+    }
+
+    boolean tryAcquire(String client, long now) {
+        final Stripe stripe = getStripe(client);
+        synchronized (stripe) {
+            Bucket bucket = stripe.get(client);
+            if (bucket == null) {
+                bucket = new Bucket(burst, now);
+                stripe.put(client, bucket);
+            } else {
+                bucket.tokens = Math.min(burst, bucket.tokens + (now - bucket.refilled) * tokensPerNano);
+                bucket.refilled = now;
+            }
+            if (bucket.tokens < 1) {
+                return false;
+            }
+            bucket.tokens--;
+            return true;
+        }
+    }
+
+    /**
+     * Give back a token that was taken for a request that was refused for another reason.
+     * <p>
+     * The bucket never holds more than the burst size, and a client that has been forgotten in the meantime
+     * already starts again with a full bucket.
+     * @param client key of the client
+     */
+    public void refund(String client) {
+        final Stripe stripe = getStripe(client);
+        synchronized (stripe) {
+            final Bucket bucket = stripe.get(client);
+            if (bucket != null) {
+                bucket.tokens = Math.min(burst, bucket.tokens + 1);
+            }
+        }
+    }
+
+    /**
+     * Get the number of stripes that the buckets are split into.
+     * @return number of stripes
+     */
+    public int getStripeCount() {
+        return stripes.length;
+    }
+
+    private Stripe getStripe(String client) {
+        final int hash = client.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static final class Bucket {
+        private double tokens;
+        private long refilled;
+
+        private Bucket(double tokens, long refilled) {
+            this.tokens = tokens;
+            this.refilled = refilled;
+        }
+    }
+
+    private static final class Stripe extends LinkedHashMap<String, Bucket> {
+        private final int maximumSize;
+
+        private Stripe(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+            return size() > maximumSize;
+        }
+    }
+}
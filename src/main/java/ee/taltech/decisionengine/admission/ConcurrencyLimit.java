@@ -0,0 +1,136 @@
+package ee.taltech.decisionengine.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Limit on the number of requests being decided at once.
+ * <p>
+ * A fixed limit never changes. An adaptive limit follows the latency of the requests that finish: whenever one
+ * takes longer than the target latency the limit is cut by a tenth, at most once per target latency so that one
+ * slow burst is only punished once, and every time a limit's worth of requests have finished in time while the
+ * limit was at least half used, it grows by one. The limit then settles where requests are decided in about the
+ * target latency, and requests over it are refused right away instead of queueing for a thread.
+ */
+public class ConcurrencyLimit {
+    private static final double decreaseRatio = 0.9;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger successes = new AtomicInteger();
+    private final AtomicLong nextDecrease;
+    private final int minimumLimit;
+    private final int maximumLimit;
+    private final long targetLatencyNanos;
+    private volatile int limit;
+
+    private ConcurrencyLimit(int initialLimit, int minimumLimit, int maximumLimit, long targetLatencyNanos) {
+        if (minimumLimit < 1 || minimumLimit > initialLimit || initialLimit > maximumLimit) {
+            throw new IllegalArgumentException("Concurrency limits must satisfy 1 <= minimum <= initial <= maximum, "
+                    + "got " + minimumLimit + ", " + initialLimit + " and " + maximumLimit);
+        }
+        this.limit = initialLimit;
+        this.minimumLimit = minimumLimit;
+        this.maximumLimit = maximumLimit;
+        this.targetLatencyNanos = targetLatencyNanos;
+        this.nextDecrease = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Create a limit that never changes.
+     * @param limit largest number of requests in flight
+     * @return fixed limit
+     */
+    public static ConcurrencyLimit fixed(int limit) {
+        return new ConcurrencyLimit(limit, limit, limit, 0);
+    }
+
+    /**
+     * Create a limit that follows the latency of the requests.
+     * @param initialLimit limit to start from
+     * @param minimumLimit limit that is never cut below
+     * @param maximumLimit limit that is never grown above
+     * @param targetLatencyNanos latency that requests should be decided in, in nanoseconds
+     * @return adaptive limit
+     */
+    public static ConcurrencyLimit adaptive(int initialLimit, int minimumLimit, int maximumLimit,
+                                            long targetLatencyNanos) {
+        if (targetLatencyNanos <= 0) {
+            throw new IllegalArgumentException("Target latency must be positive, got " + targetLatencyNanos);
+        }
+        return new ConcurrencyLimit(initialLimit, minimumLimit, maximumLimit, targetLatencyNanos);
+    }
+
+    /**
+     * Take a place for a request if the limit allows it.
+     * <p>
+     * Every request that gets a place must give it back with {@link #release(long)}.
+     * @return true if the request may be decided
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * Give back the place of a finished request and adapt the limit to its latency.
+     * @param startNanos {@link System#nanoTime()} when the request was admitted
+     */
+    public void release(long startNanos) {
+        final long now = System.nanoTime();
+        final int wasInFlight = inFlight.getAndDecrement();
+        if (targetLatencyNanos == 0) {
+            return;
+        }
+
+        if (now - startNanos > targetLatencyNanos) {
+            final long next = nextDecrease.get();
+            if (now - next >= 0 && nextDecrease.compareAndSet(next, now + targetLatencyNanos)) {
+                decrease();
+            }
+        } else if (wasInFlight * 2 >= limit && successes.incrementAndGet() >= limit) {
+            increase();
+        }
+    }
+
+    /**
+     * Give back the place of a finished request without adapting the limit, for requests whose latency doesn't
+     * depend on the load.
+     */
+    public void release() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void decrease() {
+        limit = Math.max(minimumLimit, Math.min(limit - 1, (int) (limit * decreaseRatio)));
+        successes.set(0);
+    }
+
+    private synchronized void increase() {
+        if (successes.get() >= limit) {
+            limit = Math.min(maximumLimit, limit + 1);
+            successes.set(0);
+        }
+    }
+
+    /**
+     * Get the current limit.
+     * @return largest number of requests in flight
+     */
+    public int getLimit() {
+        return limit;
+    }
+
+    /**
+     * Get the number of requests that hold a place.
+     * @return requests in flight
+     */
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,126 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.logging.DecisionLog;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Non-blocking API endpoint for single requests.
+ * <p>
+ * Takes the same requests and gives the same responses as {@link DecisionEngineController}, but the request thread
+ * is returned to the server as soon as the credit modifier lookup has started, and the response is written when
+ * the lookup finishes. A request in flight then only holds a few small objects instead of a thread. The number of
+ * requests in flight is limited, and requests over the limit are answered with 503 Service Unavailable right away,
+ * so a slow credit modifier provider pushes back on clients instead of letting waiting requests pile up. Requests
+ * also go through {@link AdmissionControl} like single requests, and hold their place until they are answered.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping(path = "/api/engine")
+public class DecisionEngineAsyncController {
+    private static final String retryAfterSeconds = "1";
+
+    private final DecisionEngine engine;
+    private final DecisionEngineResponseBodies responseBodies;
+    private final DecisionLog decisionLog;
+    private final AdmissionControl admissionControl;
+    private final Semaphore inFlight;
+
+    @Autowired
+    public DecisionEngineAsyncController(DecisionEngine engine,
+                                         DecisionEngineResponseBodies responseBodies,
+                                         DecisionLog decisionLog,
+                                         AdmissionControl admissionControl,
+                                         @Value("${decision-engine.async.max-in-flight:10000}") int maximumInFlight) {
+        this.engine = engine;
+        this.responseBodies = responseBodies;
+        this.decisionLog = decisionLog;
+        this.admissionControl = admissionControl;
+        this.inFlight = new Semaphore(maximumInFlight);
+    }
+
+    /**
+     * Receive data from a POST request and send back a fitting response once the decision has been made.
+     * @param request request object that contains request parameters
+     * @return response with parameters, when the decision has been made
+     */
+    @PostMapping(path = "/async")
+    public CompletableFuture<ResponseEntity<byte[]>> receiveRequestAndRespondAsync(
+            @RequestBody DecisionEngineRequest request) {
+        if (!inFlight.tryAcquire()) {
+            return CompletableFuture.completedFuture(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                    .build());
+        }
+        final long start = System.nanoTime();
+        final AdmissionControl.Admission admission = admissionControl.admit(request.getPersonalCode());
+        if (admission != AdmissionControl.Admission.ADMITTED) {
+            inFlight.release();
+            return CompletableFuture.completedFuture(refuse(admission));
+        }
+
+        CompletableFuture<Integer> decision;
+        try {
+            decision = engine.getDecisionAsync(
+                    request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod());
+        } catch (RuntimeException e) {
+            decision = CompletableFuture.failedFuture(e);
+        }
+
+        return decision.handle((result, failure) -> {
+            inFlight.release();
+            admissionControl.release(start);
+            try {
+                if (failure == null) {
+                    decisionLog.log(request.getLoanAmount(), request.getLoanPeriod(), result);
+                    return ResponseEntity.ok()
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .body(responseBodies.getBody(result));
+                }
+            } catch (Exception e) {
+                // Answered with the unknown error below
+            }
+            decisionLog.logUnknownError(request.getLoanAmount(), request.getLoanPeriod());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseBodies.getUnknownErrorBody());
+        });
+    }
+
+    /**
+     * Answer a request that wasn't admitted.
+     * @param admission why the request was refused
+     * @return 429 Too Many Requests or 503 Service Unavailable with a pre-encoded body
+     */
+    private ResponseEntity<byte[]> refuse(AdmissionControl.Admission admission) {
+        final boolean rateLimited = admission == AdmissionControl.Admission.RATE_LIMITED;
+        return ResponseEntity.status(rateLimited ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(rateLimited ? responseBodies.getRateLimitedBody() : responseBodies.getOverloadedBody());
+    }
+
+    /**
+     * Get the number of requests that can still be taken before new ones are refused.
+     * @return number of free places for requests in flight
+     */
+    public int getAvailablePermits() {
+        return inFlight.availablePermits();
+    }
+}
@@ -0,0 +1,26 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+
+import java.util.Map;
+
+/**
+ * Result of a single request in a batch.
+ * <p>
+ * @param status whether the loan was approved as requested, counter-offered or rejected
+ * @param result the same response that a single request would get
+ */
+public record DecisionEngineBatchItem(Decision.Outcome status, DecisionEngineResponse result) {
+
+    /**
+     * Create the batch item for a decision made by the engine.
+     * @param decision packed decision
+     * @param rejectionMessages messages of the policy the decision was made under, by rejection reason
+     * @return batch item describing the decision
+     */
+    public static DecisionEngineBatchItem fromDecision(int decision, Map<RejectionReason, String> rejectionMessages) {
+        return new DecisionEngineBatchItem(Decision.getOutcome(decision),
+                DecisionEngineResponse.fromDecision(decision, rejectionMessages));
+    }
+}
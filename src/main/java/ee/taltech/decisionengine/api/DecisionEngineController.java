@@ -1,67 +1,273 @@
 package ee.taltech.decisionengine.api;
 
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.logging.DecisionLog;
+import ee.taltech.decisionengine.service.BatchDecisionEngine;
 import ee.taltech.decisionengine.service.DecisionEngine;
-import ee.taltech.decisionengine.exceptions.CantLoanException;
-import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.PolicySnapshot;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
 /**
- * API endpoint for post requests. Receiving requests and sending responses happens within this branch.
+ * API endpoint for post and get requests. Receiving requests and sending responses happens within this branch.
+ * <p>
+ * Every request goes through {@link AdmissionControl} first, and a batch is admitted as a whole. Requests of a
+ * client that sends too many are refused with 429 Too Many Requests, and requests over the concurrency limit with
+ * 503 Service Unavailable, both with a Retry-After header and a body that was encoded at startup.
  */
 @RestController
 @CrossOrigin
 @RequestMapping(path = "/api/engine")
 public class DecisionEngineController {
-    private final DecisionEngineResponse response;
+    private static final String retryAfterSeconds = "1";
+
     private final DecisionEngine engine;
+    private final BatchDecisionEngine batchEngine;
+    private final DecisionEngineResponseBodies responseBodies;
+    private final DecisionLog decisionLog;
+    private final AdmissionControl admissionControl;
+    private final int maximumBatchSize;
+    private final CacheControl cacheControl;
 
     @Autowired
-    public DecisionEngineController(DecisionEngineResponse response, DecisionEngine engine) {
-        this.response = response;
+    public DecisionEngineController(DecisionEngine engine,
+                                    BatchDecisionEngine batchEngine,
+                                    DecisionEngineResponseBodies responseBodies,
+                                    DecisionLog decisionLog,
+                                    AdmissionControl admissionControl,
+                                    @Value("${decision-engine.batch.max-size:1000}") int maximumBatchSize,
+                                    @Value("${decision-engine.get.max-age:PT1M}") Duration maximumAge) {
         this.engine = engine;
+        this.batchEngine = batchEngine;
+        this.responseBodies = responseBodies;
+        this.decisionLog = decisionLog;
+        this.admissionControl = admissionControl;
+        this.maximumBatchSize = maximumBatchSize;
+        this.cacheControl = CacheControl.maxAge(maximumAge);
     }
 
     /**
      * Receive data from a POST request and send back a fitting response.
      * <p>
+     * Accepted loans get a new response object, rejections are answered with a body that was encoded at startup.
      * @param request request object that contains request parameters
      * @return response with parameters
      */
     @PostMapping
-    public ResponseEntity<DecisionEngineResponse> receiveRequestAndRespond(@RequestBody DecisionEngineRequest request) {
+    public ResponseEntity<?> receiveRequestAndRespond(@RequestBody DecisionEngineRequest request) {
+        final long start = System.nanoTime();
+        final AdmissionControl.Admission admission = admissionControl.admit(request.getPersonalCode());
+        if (admission != AdmissionControl.Admission.ADMITTED) {
+            return refuse(admission);
+        }
+
+        try {
+            final int decision = engine.getDecision(request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod());
+            decisionLog.log(request.getLoanAmount(), request.getLoanPeriod(), decision);
+
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseBodies.getBody(decision));
+
+        } catch (Exception e) {
+            decisionLog.logUnknownError(request.getLoanAmount(), request.getLoanPeriod());
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseBodies.getUnknownErrorBody());
+        } finally {
+            admissionControl.release(start);
+        }
+    }
+
+    /**
+     * Receive the request's parameters in a GET request and send back the same response as for a POST request.
+     * <p>
+     * The response can be cached for the configured maximum age. Its ETag is made of what the decision depends on:
+     * the policy digest, the client's credit modifier and the requested amount and period. A request whose
+     * If-None-Match has the current ETag gets 304 Not Modified before any decision is made, so it is not
+     * calculated, recorded or journaled again.
+     * @param personalCode client's personal code
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @param ifNoneMatch ETags of the responses that the client already has, if any
+     * @return response with parameters, or 304 Not Modified
+     */
+    @GetMapping
+    public ResponseEntity<byte[]> receiveQueryAndRespond(@RequestParam String personalCode,
+                                                         @RequestParam int loanAmount,
+                                                         @RequestParam int loanPeriod,
+                                                         @RequestHeader(value = HttpHeaders.IF_NONE_MATCH,
+                                                                 required = false) String ifNoneMatch) {
+        final long start = System.nanoTime();
+        final AdmissionControl.Admission admission = admissionControl.admit(personalCode);
+        if (admission != AdmissionControl.Admission.ADMITTED) {
+            return refuse(admission);
+        }
+
         try {
-            Integer[] loanInfo = engine.getDecision(request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod());
-
-            // Can offer a loan if no exception occurs.
-            response.setResponse(true);
-            response.setLoanAmount(loanInfo[0].toString());
-            response.setLoanPeriod(loanInfo[1].toString());
-            response.setMessage(
-                    request.getLoanAmount().equals(loanInfo[0]) && request.getLoanPeriod().equals(loanInfo[1])
-                            ? "Success! We can offer you this loan:"
-                            : "We can offer you this loan instead:" // Triggers when loan amount or period gets changed
-            );
-            System.out.println(response);
-            return ResponseEntity.ok().body(response);
-
-        } catch (CantLoanException | InvalidDataException e ) {
-            response.setMessage(e.getMessage());
+            final String eTag = '"' + engine.getDecisionTag(personalCode, loanAmount, loanPeriod) + '"';
+            if (ifNoneMatch != null && matchesETag(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).cacheControl(cacheControl).build();
+            }
+
+            final int decision = engine.getDecision(personalCode, loanAmount, loanPeriod);
+            decisionLog.log(loanAmount, loanPeriod, decision);
+
+            final ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(cacheControl);
+            // The policy may have been replaced after the tag was made, and then the tag may not fit the decision
+            if (eTag.startsWith(engine.getPolicyDigest(), 1)) {
+                response.eTag(eTag);
+            }
+            return response.body(responseBodies.getBody(decision));
 
         } catch (Exception e) {
-            System.out.println(e.getMessage());
-            response.setMessage("An unknown error occurred.");
+            decisionLog.logUnknownError(loanAmount, loanPeriod);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noStore())
+                    .body(responseBodies.getUnknownErrorBody());
+        } finally {
+            admissionControl.release(start);
+        }
+    }
 
+    /**
+     * Send back the largest loan amount that the client can get for every loan period.
+     * <p>
+     * The curve is the same for every client with the same credit modifier, so it is not calculated for the
+     * request. It can be cached for the same maximum age as a single decision.
+     * @param personalCode client's personal code
+     * @return the client's offers, or the reason why there are none
+     */
+    @GetMapping(path = "/offers")
+    public ResponseEntity<?> receiveOfferCurveRequestAndRespond(@RequestParam String personalCode) {
+        final long start = System.nanoTime();
+        final AdmissionControl.Admission admission = admissionControl.admit(personalCode);
+        if (admission != AdmissionControl.Admission.ADMITTED) {
+            return refuse(admission);
+        }
+
+        try {
+            return ResponseEntity.ok()
+                    .cacheControl(cacheControl)
+                    .body(DecisionEngineOfferCurveResponse.fromOfferCurve(engine.getOfferCurve(personalCode)));
+
+        } catch (Exception e) {
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .cacheControl(CacheControl.noStore())
+                    .body(responseBodies.getUnknownErrorBody());
+        } finally {
+            admissionControl.release(start);
+        }
+    }
+
+    /**
+     * Receive many requests in one POST request and send back a response for each of them.
+     * <p>
+     * The requests are evaluated in parallel and the results are returned in the same order as the requests.
+     * Batches larger than the configured maximum are refused with 413 Payload Too Large. A batch takes one place
+     * under the concurrency limit and a token from the bucket of every request's client, and it is refused as a
+     * whole if any of them has none left. Its parallel chunks are bounded by the batch thread pool instead.
+     * @param requests request objects that contain request parameters
+     * @return a status and response for every request
+     */
+    @PostMapping(path = "/batch")
+    public ResponseEntity<?> receiveBatchAndRespond(@RequestBody List<DecisionEngineRequest> requests) {
+        if (requests.size() > maximumBatchSize) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).build();
+        }
+
+        final long start = System.nanoTime();
+        final int count = requests.size();
+        final String[] personalCodes = new String[count];
+        final int[] loanAmounts = new int[count];
+        final int[] loanPeriods = new int[count];
+        for (int i = 0; i < count; i++) {
+            DecisionEngineRequest request = requests.get(i);
+            if (request != null) {
+                personalCodes[i] = request.getPersonalCode();
+                loanAmounts[i] = request.getLoanAmount();
+                loanPeriods[i] = request.getLoanPeriod();
+            }
+        }
+        final AdmissionControl.Admission admission = admissionControl.admitBatch(personalCodes);
+        if (admission != AdmissionControl.Admission.ADMITTED) {
+            return refuse(admission);
+        }
+
+        try {
+            final PolicySnapshot snapshot = engine.getSnapshot();
+            final int[] decisions = batchEngine.getDecisions(snapshot, personalCodes, loanAmounts, loanPeriods);
+            final Map<RejectionReason, String> rejectionMessages = snapshot.getRejectionMessages();
+            final List<DecisionEngineBatchItem> items = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                decisionLog.log(loanAmounts[i], loanPeriods[i], decisions[i]);
+                items.add(DecisionEngineBatchItem.fromDecision(decisions[i], rejectionMessages));
+            }
+            return ResponseEntity.ok().body(items);
+
+        } catch (Exception e) {
+            decisionLog.logUnknownError(0, 0);
+            return ResponseEntity.ok()
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .body(responseBodies.getUnknownErrorBody());
+        } finally {
+            admissionControl.release(start);
+        }
+    }
+
+    /**
+     * Answer a request that wasn't admitted.
+     * @param admission why the request was refused
+     * @return 429 Too Many Requests or 503 Service Unavailable with a pre-encoded body
+     */
+    private ResponseEntity<byte[]> refuse(AdmissionControl.Admission admission) {
+        final boolean rateLimited = admission == AdmissionControl.Admission.RATE_LIMITED;
+        return ResponseEntity.status(rateLimited ? HttpStatus.TOO_MANY_REQUESTS : HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, retryAfterSeconds)
+                .contentType(MediaType.APPLICATION_JSON)
+                .cacheControl(CacheControl.noStore())
+                .body(rateLimited ? responseBodies.getRateLimitedBody() : responseBodies.getOverloadedBody());
+    }
+
+    /**
+     * Check an If-None-Match header against an ETag, comparing weakly as the header requires.
+     * @param ifNoneMatch value of the If-None-Match header
+     * @param eTag ETag of the current response
+     * @return true if the client already has the current response
+     */
+    private static boolean matchesETag(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
         }
-        response.setResponse(false);
-        response.setLoanAmount(null);
-        response.setLoanPeriod(null);
-        System.out.println(response);
-        return ResponseEntity.ok().body(response);
+        return false;
     }
 }
@@ -0,0 +1,330 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.service.Decision;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * JSON reading and writing for the engine's requests and accepted responses, without going through data binding.
+ * <p>
+ * Requests are parsed straight from their bytes when they are a plain object of the three request fields, which is
+ * what clients send. Anything else, like escaped characters, nested values or numbers that Jackson would coerce, is
+ * handed to the application's object mapper, so every request is read exactly as Jackson would read it. Accepted
+ * responses are written from fragments that were encoded by the object mapper at startup, with only the loan
+ * amount and period written for every response.
+ */
+@Component
+public class DecisionEngineJsonCodec {
+    private static final String personalCodeField = "personalCode";
+    private static final String loanAmountField = "loanAmount";
+    private static final String loanPeriodField = "loanPeriod";
+    private static final String loanAmountMarker = "{loanAmount}";
+    private static final String loanPeriodMarker = "{loanPeriod}";
+    private static final int maximumIntegerDigits = 9;
+
+    private final ObjectMapper objectMapper;
+    private final byte[][][] acceptedFragments = new byte[Decision.Outcome.values().length][][];
+
+    @Autowired
+    public DecisionEngineJsonCodec(ObjectMapper objectMapper) throws JsonProcessingException {
+        this.objectMapper = objectMapper;
+        acceptedFragments[Decision.Outcome.APPROVED.ordinal()] = encodeFragments(Decision.of(2000, 12));
+        acceptedFragments[Decision.Outcome.COUNTER_OFFER.ordinal()] = encodeFragments(Decision.counterOffer(2000, 12));
+    }
+
+    /**
+     * Read a request from its JSON body.
+     * @param body request body
+     * @return the request, null if the body is JSON null
+     * @throws IOException when the body is not a valid request
+     */
+    public DecisionEngineRequest readRequest(byte[] body) throws IOException {
+        final DecisionEngineRequest request = parseRequest(body, 0, body.length);
+        if (request != null) {
+            return request;
+        }
+        return objectMapper.readValue(body, DecisionEngineRequest.class);
+    }
+
+    /**
+     * Write the response for an accepted loan.
+     * @param decision packed decision that was not rejected
+     * @return JSON body of the response, the same as the object mapper would write
+     */
+    public byte[] writeAcceptedResponse(int decision) {
+        final byte[][] fragments = acceptedFragments[Decision.getOutcome(decision).ordinal()];
+        final int loanAmount = Decision.getLoanAmount(decision);
+        final int loanPeriod = Decision.getLoanPeriod(decision);
+        final int loanAmountDigits = countDigits(loanAmount);
+        final int loanPeriodDigits = countDigits(loanPeriod);
+
+        final byte[] body = new byte[fragments[0].length + loanAmountDigits + fragments[1].length
+                + loanPeriodDigits + fragments[2].length];
+        int position = copy(fragments[0], body, 0);
+        position = writeDigits(loanAmount, loanAmountDigits, body, position);
+        position = copy(fragments[1], body, position);
+        position = writeDigits(loanPeriod, loanPeriodDigits, body, position);
+        copy(fragments[2], body, position);
+        return body;
+    }
+
+    /**
+     * Parse a request that is a plain JSON object of the three request fields.
+     * <p>
+     * The personal code must be a string without escapes or null, the loan amount and period integers without
+     * leading zeros, or such integers in quotes. Other fields may appear with simple values and are ignored.
+     * @param body buffer with the request body
+     * @param from index of the first byte of the body
+     * @param to index after the last byte of the body
+     * @return the request, null if the body is outside of this simple form and has to be read by Jackson
+     */
+    static DecisionEngineRequest parseRequest(byte[] body, int from, int to) {
+        int i = skipWhitespace(body, from, to);
+        if (i >= to || body[i] != '{') {
+            return null;
+        }
+        i = skipWhitespace(body, i + 1, to);
+
+        String personalCode = null;
+        long loanAmount = Long.MIN_VALUE;
+        long loanPeriod = Long.MIN_VALUE;
+        boolean hasPersonalCode = false;
+
+        while (i < to && body[i] == '"') {
+            final int keyStart = i + 1;
+            final int keyEnd = findStringEnd(body, keyStart, to);
+            if (keyEnd < 0) {
+                return null;
+            }
+            i = skipWhitespace(body, keyEnd + 1, to);
+            if (i >= to || body[i] != ':') {
+                return null;
+            }
+            i = skipWhitespace(body, i + 1, to);
+            if (i >= to) {
+                return null;
+            }
+
+            if (isKey(body, keyStart, keyEnd, personalCodeField)) {
+                if (hasPersonalCode) {
+                    return null;
+                }
+                hasPersonalCode = true;
+                if (body[i] == '"') {
+                    final int valueEnd = findStringEnd(body, i + 1, to);
+                    if (valueEnd < 0) {
+                        return null;
+                    }
+                    personalCode = new String(body, i + 1, valueEnd - i - 1, StandardCharsets.US_ASCII);
+                    i = valueEnd + 1;
+                } else if (isLiteral(body, i, to, "null")) {
+                    i += 4;
+                } else {
+                    return null;
+                }
+            } else if (isKey(body, keyStart, keyEnd, loanAmountField)) {
+                if (loanAmount != Long.MIN_VALUE) {
+                    return null;
+                }
+                final long value = parseInteger(body, i, to);
+                if (value == Long.MIN_VALUE) {
+                    return null;
+                }
+                loanAmount = value;
+                i = skipInteger(body, i, to);
+            } else if (isKey(body, keyStart, keyEnd, loanPeriodField)) {
+                if (loanPeriod != Long.MIN_VALUE) {
+                    return null;
+                }
+                final long value = parseInteger(body, i, to);
+                if (value == Long.MIN_VALUE) {
+                    return null;
+                }
+                loanPeriod = value;
+                i = skipInteger(body, i, to);
+            } else {
+                i = skipSimpleValue(body, i, to);
+                if (i < 0) {
+                    return null;
+                }
+            }
+
+            i = skipWhitespace(body, i, to);
+            if (i >= to || body[i] != ',') {
+                break;
+            }
+            i = skipWhitespace(body, i + 1, to);
+            if (i >= to || body[i] != '"') {
+                return null;
+            }
+        }
+
+        if (i >= to || body[i] != '}' || skipWhitespace(body, i + 1, to) != to) {
+            return null;
+        }
+        if (!hasPersonalCode || loanAmount == Long.MIN_VALUE || loanPeriod == Long.MIN_VALUE) {
+            return null;
+        }
+        return new DecisionEngineRequest(personalCode, (int) loanAmount, (int) loanPeriod);
+    }
+
+    private byte[][] encodeFragments(int decision) throws JsonProcessingException {
+        final String message = DecisionEngineResponse.fromDecision(decision).message();
+        final String template = new String(objectMapper.writeValueAsBytes(
+                new DecisionEngineResponse(true, loanAmountMarker, loanPeriodMarker, message)),
+                StandardCharsets.UTF_8);
+        final int amountIndex = template.indexOf(loanAmountMarker);
+        final int periodIndex = template.indexOf(loanPeriodMarker);
+        if (amountIndex < 0 || periodIndex < amountIndex
+                || template.indexOf(loanAmountMarker, amountIndex + 1) >= 0
+                || template.indexOf(loanPeriodMarker, periodIndex + 1) >= 0) {
+            throw new IllegalStateException("Unexpected response format: " + template);
+        }
+        return new byte[][] {
+                template.substring(0, amountIndex).getBytes(StandardCharsets.UTF_8),
+                template.substring(amountIndex + loanAmountMarker.length(), periodIndex)
+                        .getBytes(StandardCharsets.UTF_8),
+                template.substring(periodIndex + loanPeriodMarker.length()).getBytes(StandardCharsets.UTF_8)
+        };
+    }
+
+    private static int copy(byte[] fragment, byte[] body, int position) {
+        System.arraycopy(fragment, 0, body, position, fragment.length);
+        return position + fragment.length;
+    }
+
+    private static int countDigits(int value) {
+        int digits = 1;
+        while (value >= 10) {
+            value /= 10;
+            digits++;
+        }
+        return digits;
+    }
+
+    private static int writeDigits(int value, int digits, byte[] body, int position) {
+        for (int i = position + digits - 1; i >= position; i--) {
+            body[i] = (byte) ('0' + value % 10);
+            value /= 10;
+        }
+        return position + digits;
+    }
+
+    private static int skipWhitespace(byte[] body, int i, int to) {
+        while (i < to && (body[i] == ' ' || body[i] == '\n' || body[i] == '\r' || body[i] == '\t')) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Find the closing quote of a string that has only printable ASCII characters and no escapes.
+     * @return index of the closing quote, -1 if the string is not that simple
+     */
+    private static int findStringEnd(byte[] body, int i, int to) {
+        for (; i < to; i++) {
+            final byte b = body[i];
+            if (b == '"') {
+                return i;
+            }
+            if (b == '\\' || b < 0x20 || b == 0x7f) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static boolean isKey(byte[] body, int from, int to, String key) {
+        if (to - from != key.length()) {
+            return false;
+        }
+        for (int i = 0; i < key.length(); i++) {
+            if (body[from + i] != key.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isLiteral(byte[] body, int i, int to, String literal) {
+        return i + literal.length() <= to && isKey(body, i, i + literal.length(), literal);
+    }
+
+    /**
+     * Parse an integer that Jackson reads as the same int, either bare or in quotes.
+     * @return the integer, Long.MIN_VALUE if it is not that simple
+     */
+    private static long parseInteger(byte[] body, int i, int to) {
+        final boolean quoted = body[i] == '"';
+        if (quoted) {
+            i++;
+        }
+        final boolean negative = i < to && body[i] == '-';
+        if (negative) {
+            i++;
+        }
+        final int start = i;
+        long value = 0;
+        while (i < to && body[i] >= '0' && body[i] <= '9') {
+            value = value * 10 + (body[i] - '0');
+            i++;
+        }
+        final int digits = i - start;
+        if (digits == 0 || digits > maximumIntegerDigits || (body[start] == '0' && (digits > 1 || negative))) {
+            return Long.MIN_VALUE;
+        }
+        if (quoted ? i >= to || body[i] != '"' : i < to && !isValueEnd(body[i])) {
+            return Long.MIN_VALUE;
+        }
+        return negative ? -value : value;
+    }
+
+    private static int skipInteger(byte[] body, int i, int to) {
+        if (body[i] == '"') {
+            i++;
+            while (body[i] != '"') {
+                i++;
+            }
+            return i + 1;
+        }
+        if (body[i] == '-') {
+            i++;
+        }
+        while (i < to && body[i] >= '0' && body[i] <= '9') {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Skip a string without escapes, a number or a literal.
+     * @return index after the value, -1 if the value is not that simple
+     */
+    private static int skipSimpleValue(byte[] body, int i, int to) {
+        final byte first = body[i];
+        if (first == '"') {
+            final int end = findStringEnd(body, i + 1, to);
+            return end < 0 ? -1 : end + 1;
+        }
+        if (isLiteral(body, i, to, "true") || isLiteral(body, i, to, "null")) {
+            return i + 4;
+        }
+        if (isLiteral(body, i, to, "false")) {
+            return i + 5;
+        }
+        if (first == '-' || (first >= '0' && first <= '9')) {
+            final long value = parseInteger(body, i, to);
+            return value == Long.MIN_VALUE ? -1 : skipInteger(body, i, to);
+        }
+        return -1;
+    }
+
+    private static boolean isValueEnd(byte b) {
+        return b == ',' || b == '}' || b == ' ' || b == '\n' || b == '\r' || b == '\t';
+    }
+}
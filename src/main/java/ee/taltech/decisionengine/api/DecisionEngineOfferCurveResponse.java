@@ -0,0 +1,46 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.service.OfferCurve;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Response data of an offer curve request.
+ * <p>
+ * @param response whether any loan can be given to the client
+ * @param offers the largest loan amount for every loan period that has one, ordered by period
+ * @param message message for the client
+ */
+public record DecisionEngineOfferCurveResponse(boolean response, List<Offer> offers, String message) {
+    public static final String offersMessage = "We can offer you these loans:";
+
+    /**
+     * Largest loan that can be given for a loan period.
+     * <p>
+     * @param loanPeriod loan period in months
+     * @param maximumLoanAmount largest loan amount in euros
+     */
+    public record Offer(String loanPeriod, String maximumLoanAmount) {
+    }
+
+    /**
+     * Create the response for a client's offer curve.
+     * @param curve offer curve made by the engine
+     * @return response listing the offers, or the reason why there are none
+     */
+    public static DecisionEngineOfferCurveResponse fromOfferCurve(OfferCurve curve) {
+        if (curve.isRejected()) {
+            return new DecisionEngineOfferCurveResponse(false, List.of(), curve.getRejectionReason().getMessage());
+        }
+
+        final List<Offer> offers = new ArrayList<>();
+        for (int period = 1; period <= curve.getMaximumPeriod(); period++) {
+            final int amount = curve.getMaximumAmount(period);
+            if (amount > 0) {
+                offers.add(new Offer(String.valueOf(period), String.valueOf(amount)));
+            }
+        }
+        return new DecisionEngineOfferCurveResponse(true, offers, offersMessage);
+    }
+}
@@ -10,6 +10,6 @@ import lombok.Getter;
 @AllArgsConstructor
 public class DecisionEngineRequest {
     private final String personalCode;
-    private final Integer loanAmount;
-    private final Integer loanPeriod;
+    private final int loanAmount;
+    private final int loanPeriod;
 }
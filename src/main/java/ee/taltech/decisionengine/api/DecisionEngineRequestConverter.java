@@ -0,0 +1,54 @@
+package ee.taltech.decisionengine.api;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+
+/**
+ * Message converter that reads request bodies of single requests with the {@link DecisionEngineJsonCodec}.
+ * <p>
+ * Spring Boot puts converter beans ahead of its own, so this one is used instead of the Jackson converter for
+ * {@link DecisionEngineRequest} bodies. It only reads, responses are written as they were before.
+ */
+@Component
+public class DecisionEngineRequestConverter extends AbstractHttpMessageConverter<DecisionEngineRequest> {
+    private final DecisionEngineJsonCodec codec;
+
+    @Autowired
+    public DecisionEngineRequestConverter(DecisionEngineJsonCodec codec) {
+        super(MediaType.APPLICATION_JSON, new MediaType("application", "*+json"));
+        this.codec = codec;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return DecisionEngineRequest.class == clazz;
+    }
+
+    @Override
+    public boolean canWrite(Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected DecisionEngineRequest readInternal(Class<? extends DecisionEngineRequest> clazz,
+                                                 HttpInputMessage inputMessage) throws IOException {
+        final byte[] body = inputMessage.getBody().readAllBytes();
+        try {
+            return codec.readRequest(body);
+        } catch (IOException e) {
+            throw new HttpMessageNotReadableException("Invalid request: " + e.getMessage(), e, inputMessage);
+        }
+    }
+
+    @Override
+    protected void writeInternal(DecisionEngineRequest request, HttpOutputMessage outputMessage) {
+        throw new UnsupportedOperationException("Requests are only read.");
+    }
+}
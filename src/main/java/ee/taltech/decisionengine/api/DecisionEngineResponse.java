@@ -1,20 +1,82 @@
 package ee.taltech.decisionengine.api;
 
-import lombok.Getter;
-import lombok.Setter;
-import org.springframework.stereotype.Component;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+
+import java.util.Map;
 
 /**
- * Store response data before sending it.
+ * Response data of a single request.
+ * <p>
+ * Every request gets its own immutable response, so concurrent requests can never overwrite each other's values.
  */
-@Setter
-@Getter
-@Component
-public class DecisionEngineResponse {
-    private boolean response;
-    private String loanAmount;
-    private String loanPeriod;
-    private String message;
-}
+public record DecisionEngineResponse(boolean response, String loanAmount, String loanPeriod, String message) {
+    public static final String approvedMessage = "Success! We can offer you this loan:";
+    public static final String counterOfferMessage = "We can offer you this loan instead:";
+    public static final String unknownErrorMessage = "An unknown error occurred.";
+    public static final String rateLimitedMessage = "Too many requests. Please try again later.";
+    public static final String overloadedMessage = "The service is busy. Please try again later.";
+
+    /**
+     * Create the response for a decision made by the engine, with rejection messages that quote the default limits.
+     * <p>
+     * @param decision packed decision
+     * @return response describing the decision
+     */
+    public static DecisionEngineResponse fromDecision(int decision) {
+        return switch (Decision.getOutcome(decision)) {
+            case APPROVED -> accepted(decision, approvedMessage);
+            // Triggers when loan amount or period gets changed
+            case COUNTER_OFFER -> accepted(decision, counterOfferMessage);
+            case REJECTED -> rejected(Decision.getRejectionReason(decision).getMessage());
+        };
+    }
+
+    /**
+     * Create the response for a decision made by the engine.
+     * @param decision packed decision
+     * @param rejectionMessages messages of the policy the decision was made under, by rejection reason
+     * @return response describing the decision
+     */
+    public static DecisionEngineResponse fromDecision(int decision, Map<RejectionReason, String> rejectionMessages) {
+        if (Decision.isRejected(decision)) {
+            return rejected(rejectionMessages.get(Decision.getRejectionReason(decision)));
+        }
+        return fromDecision(decision);
+    }
 
+    /**
+     * Create the response for a request that failed unexpectedly.
+     * @return response with a generic error message
+     */
+    public static DecisionEngineResponse unknownError() {
+        return rejected(unknownErrorMessage);
+    }
 
+    /**
+     * Create the response for a request that was refused because its client sent too many requests.
+     * @return response asking the client to try again later
+     */
+    public static DecisionEngineResponse rateLimited() {
+        return rejected(rateLimitedMessage);
+    }
+
+    /**
+     * Create the response for a request that was refused because the service had too many requests in flight.
+     * @return response asking the client to try again later
+     */
+    public static DecisionEngineResponse overloaded() {
+        return rejected(overloadedMessage);
+    }
+
+    private static DecisionEngineResponse accepted(int decision, String message) {
+        return new DecisionEngineResponse(true,
+                String.valueOf(Decision.getLoanAmount(decision)),
+                String.valueOf(Decision.getLoanPeriod(decision)),
+                message);
+    }
+
+    private static DecisionEngineResponse rejected(String message) {
+        return new DecisionEngineResponse(false, null, null, message);
+    }
+}
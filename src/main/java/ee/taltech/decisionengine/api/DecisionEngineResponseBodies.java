@@ -0,0 +1,132 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.UncheckedIOException;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * JSON bodies of the responses.
+ * <p>
+ * Every rejection has exactly one possible response under a credit policy, so these are encoded once with the
+ * application's object mapper and written to the client as they are. Rejection messages quote the policy's limits,
+ * so the rejection bodies are encoded again for the first response after the policy is replaced. Responses for
+ * accepted loans are written by the {@link DecisionEngineJsonCodec} for every request.
+ */
+@Component
+public class DecisionEngineResponseBodies {
+    private final ObjectMapper objectMapper;
+    private final DecisionEngine engine;
+    private final byte[] unknownErrorBody;
+    private final byte[] rateLimitedBody;
+    private final byte[] overloadedBody;
+    private final DecisionEngineJsonCodec codec;
+    private final DecisionMetrics metrics;
+    private volatile RejectionBodies rejectionBodies;
+
+    /**
+     * Rejection bodies encoded from one policy's rejection messages.
+     * @param messages rejection messages the bodies were encoded from
+     * @param bodies encoded bodies by rejection reason
+     */
+    private record RejectionBodies(Map<RejectionReason, String> messages, Map<RejectionReason, byte[]> bodies) {
+    }
+
+    @Autowired
+    public DecisionEngineResponseBodies(ObjectMapper objectMapper, DecisionEngineJsonCodec codec,
+                                        DecisionMetrics metrics, DecisionEngine engine)
+            throws JsonProcessingException {
+        this.objectMapper = objectMapper;
+        this.engine = engine;
+        this.codec = codec;
+        this.metrics = metrics;
+        this.rejectionBodies = encodeRejections(engine.getRejectionMessages());
+        unknownErrorBody = objectMapper.writeValueAsBytes(DecisionEngineResponse.unknownError());
+        rateLimitedBody = objectMapper.writeValueAsBytes(DecisionEngineResponse.rateLimited());
+        overloadedBody = objectMapper.writeValueAsBytes(DecisionEngineResponse.overloaded());
+    }
+
+    /**
+     * Get the encoded response for a decision.
+     * <p>
+     * Encoding an accepted loan's response is timed as the serialization stage.
+     * @param decision packed decision
+     * @return JSON body of the response
+     */
+    public byte[] getBody(int decision) {
+        if (Decision.isRejected(decision)) {
+            return getRejectionBody(Decision.getRejectionReason(decision));
+        }
+        final long start = metrics.now();
+        final byte[] body = codec.writeAcceptedResponse(decision);
+        metrics.recordStage(DecisionMetrics.Stage.SERIALIZATION, start);
+        return body;
+    }
+
+    /**
+     * Get the encoded response for a rejected request.
+     * @param reason reason why the request was rejected
+     * @return JSON body of the response
+     */
+    public byte[] getRejectionBody(RejectionReason reason) {
+        final Map<RejectionReason, String> messages = engine.getRejectionMessages();
+        RejectionBodies current = rejectionBodies;
+        if (current.messages() != messages) {
+            // Threads that see the new policy at once may all encode its bodies, the last one is kept
+            try {
+                current = encodeRejections(messages);
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+            rejectionBodies = current;
+        }
+        return current.bodies().get(reason);
+    }
+
+    /**
+     * Get the encoded response for a request that failed unexpectedly.
+     * @return JSON body of the response
+     */
+    public byte[] getUnknownErrorBody() {
+        return unknownErrorBody;
+    }
+
+    /**
+     * Get the encoded response for a request that was refused because its client sent too many requests.
+     * @return JSON body of the response
+     */
+    public byte[] getRateLimitedBody() {
+        return rateLimitedBody;
+    }
+
+    /**
+     * Get the encoded response for a request that was refused because the service was overloaded.
+     * @return JSON body of the response
+     */
+    public byte[] getOverloadedBody() {
+        return overloadedBody;
+    }
+
+    private RejectionBodies encodeRejections(Map<RejectionReason, String> messages) throws JsonProcessingException {
+        final Map<RejectionReason, byte[]> bodies = new IdentityHashMap<>();
+        for (CantLoanException.Reason reason : CantLoanException.Reason.values()) {
+            bodies.put(reason, objectMapper.writeValueAsBytes(
+                    DecisionEngineResponse.fromDecision(Decision.rejected(reason), messages)));
+        }
+        for (InvalidDataException.Reason reason : InvalidDataException.Reason.values()) {
+            bodies.put(reason, objectMapper.writeValueAsBytes(
+                    DecisionEngineResponse.fromDecision(Decision.rejected(reason), messages)));
+        }
+        return new RejectionBodies(messages, bodies);
+    }
+}
@@ -0,0 +1,184 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.logging.DecisionLog;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import ee.taltech.decisionengine.service.PolicySnapshot;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.CrossOrigin;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * API endpoint for streaming many requests as newline-delimited JSON.
+ * <p>
+ * Every line of the request body is one request, and every line of the response body is the result for the line
+ * with the same number. Lines are read, decided and written one at a time on the request thread, so a client
+ * that stops reading results also stops the server from reading more requests and memory use does not depend on
+ * the size of the input. Every decided line is logged to the {@link DecisionLog}, like every request of a batch.
+ * <p>
+ * A stream goes through {@link AdmissionControl} like a batch: it holds one place for as long as it is open and is
+ * refused as a whole with 503 Service Unavailable when there is none, and every line takes a token from its
+ * client's bucket, so a line of a client that sends too many gets a rejected result.
+ */
+@RestController
+@CrossOrigin
+@RequestMapping(path = "/api/engine")
+public class DecisionEngineStreamController {
+    public static final String ndjson = "application/x-ndjson";
+    private static final int maximumLineLength = 4096;
+    private static final int endOfStream = 0;
+    private static final int lineRead = 1;
+    private static final int lineTooLong = 2;
+    private static final String retryAfterSeconds = "1";
+
+    private final DecisionEngine engine;
+    private final DecisionEngineJsonCodec codec;
+    private final ObjectWriter itemWriter;
+    private final DecisionEngineResponseBodies responseBodies;
+    private final AdmissionControl admissionControl;
+    private final DecisionLog decisionLog;
+
+    @Autowired
+    public DecisionEngineStreamController(DecisionEngine engine, DecisionEngineJsonCodec codec,
+                                          ObjectMapper objectMapper, DecisionEngineResponseBodies responseBodies,
+                                          AdmissionControl admissionControl, DecisionLog decisionLog) {
+        this.engine = engine;
+        this.codec = codec;
+        this.itemWriter = objectMapper.writerFor(DecisionEngineBatchItem.class);
+        this.responseBodies = responseBodies;
+        this.admissionControl = admissionControl;
+        this.decisionLog = decisionLog;
+    }
+
+    /**
+     * Receive newline-delimited requests and stream back a result for each of them.
+     * <p>
+     * Blank lines are skipped. Lines that are not valid requests, or longer than 4096 characters, get a
+     * rejected result instead of failing the whole stream. A stream that can't be admitted gets 503 Service
+     * Unavailable with a Retry-After header and a JSON body instead of results.
+     * @param request request with a newline-delimited JSON body
+     * @param response response that the results are written to
+     * @throws IOException when reading the request or writing the response fails
+     */
+    @PostMapping(path = "/stream", consumes = ndjson, produces = ndjson)
+    public void receiveStreamAndRespond(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (admissionControl.admitStream() != AdmissionControl.Admission.ADMITTED) {
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, retryAfterSeconds);
+            response.setHeader(HttpHeaders.CACHE_CONTROL, "no-store");
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getOutputStream().write(responseBodies.getOverloadedBody());
+            return;
+        }
+        try {
+            respond(request, response);
+        } finally {
+            admissionControl.releaseStream();
+        }
+    }
+
+    /**
+     * Read the lines of an admitted stream and write a result for each of them.
+     * @param request request with a newline-delimited JSON body
+     * @param response response that the results are written to
+     * @throws IOException when reading the request or writing the response fails
+     */
+    private void respond(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        response.setContentType(ndjson);
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+
+        final BufferedReader reader =
+                new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+        final OutputStream output = response.getOutputStream();
+        final StringBuilder line = new StringBuilder();
+
+        int lineStatus;
+        while ((lineStatus = readLine(reader, line)) != endOfStream) {
+            if (lineStatus == lineRead && line.toString().isBlank()) {
+                continue;
+            }
+
+            final DecisionEngineBatchItem item = lineStatus == lineRead ? decide(line.toString()) : rejectTooLong();
+            output.write(itemWriter.writeValueAsBytes(item));
+            output.write('\n');
+
+            // Only flush when the client has nothing more buffered for us, so bulk input gets bulk writes.
+            if (!reader.ready()) {
+                output.flush();
+            }
+        }
+        output.flush();
+    }
+
+    /**
+     * Read one line into the buffer, without ever holding more than the maximum line length in memory.
+     * @param reader reader of the request body
+     * @param line buffer that gets the line's contents
+     * @return whether a line was read, the line was too long or the stream ended
+     * @throws IOException when reading fails
+     */
+    private static int readLine(BufferedReader reader, StringBuilder line) throws IOException {
+        line.setLength(0);
+        boolean tooLong = false;
+        int c = reader.read();
+        if (c == -1) {
+            return endOfStream;
+        }
+
+        while (c != -1 && c != '\n') {
+            if (line.length() < maximumLineLength) {
+                line.append((char) c);
+            } else {
+                tooLong = true;
+            }
+            c = reader.read();
+        }
+        return tooLong ? lineTooLong : lineRead;
+    }
+
+    private DecisionEngineBatchItem decide(String line) {
+        final PolicySnapshot snapshot = engine.getSnapshot();
+        int loanAmount = 0;
+        int loanPeriod = 0;
+        int decision;
+        try {
+            DecisionEngineRequest request = codec.readRequest(line.getBytes(StandardCharsets.UTF_8));
+            if (request == null) {
+                decision = Decision.rejected(InvalidDataException.Reason.DATA_INVALID);
+            } else if (!admissionControl.admitStreamLine(request.getPersonalCode())) {
+                return new DecisionEngineBatchItem(Decision.Outcome.REJECTED, DecisionEngineResponse.rateLimited());
+            } else {
+                loanAmount = request.getLoanAmount();
+                loanPeriod = request.getLoanPeriod();
+                decision = engine.getDecision(snapshot, request.getPersonalCode(), loanAmount, loanPeriod);
+            }
+        } catch (IOException e) {
+            decision = Decision.rejected(InvalidDataException.Reason.DATA_INVALID);
+        }
+        decisionLog.log(loanAmount, loanPeriod, decision);
+        return DecisionEngineBatchItem.fromDecision(decision, snapshot.getRejectionMessages());
+    }
+
+    private DecisionEngineBatchItem rejectTooLong() {
+        final int decision = Decision.rejected(InvalidDataException.Reason.DATA_INVALID);
+        decisionLog.log(0, 0, decision);
+        return DecisionEngineBatchItem.fromDecision(decision, engine.getSnapshot().getRejectionMessages());
+    }
+}
@@ -2,13 +2,27 @@ package ee.taltech.decisionengine.exceptions;
 
 /**
  * Exception that occurs when a loan can not be given.
+ * <p>
+ * Rejections are returned as a packed decision by the service, the exception is only for callers that need to
+ * propagate a rejection as a fault.
  */
 public class CantLoanException extends Throwable {
     private final Reason reason;
-    public enum Reason {
-        CLIENT_IN_DEBT,
-        NO_POSSIBLE_LOANS,
-        UNKNOWN_CREDIT_MODIFIER
+    public enum Reason implements RejectionReason {
+        CLIENT_IN_DEBT("Client is in debt! Can't loan any money :("),
+        NO_POSSIBLE_LOANS("No loans are currently available for you. Try again with different values."),
+        UNKNOWN_CREDIT_MODIFIER("Your personal code's credit modifier value is unknown (more info in repository readme).");
+
+        private final String message;
+
+        Reason(String message) {
+            this.message = message;
+        }
+
+        @Override
+        public String getMessage() {
+            return message;
+        }
     }
     public CantLoanException(Reason reason) {
         this.reason = reason;
@@ -22,15 +36,7 @@ public class CantLoanException extends Throwable {
      */
     @Override
     public String getMessage() {
-        if (reason.equals(Reason.CLIENT_IN_DEBT)) {
-            return "Client is in debt! Can't loan any money :(";
-        } else if (reason.equals(Reason.NO_POSSIBLE_LOANS)) {
-            return "No loans are currently available for you. Try again with different values.";
-        } else if (reason.equals(Reason.UNKNOWN_CREDIT_MODIFIER)) {
-            return "Your personal code's credit modifier value is unknown (more info in repository readme).";
-        } else {
-            return "Loan could not be given.";
-        }
+        return reason.getMessage();
     }
 
     public Reason getReason() {
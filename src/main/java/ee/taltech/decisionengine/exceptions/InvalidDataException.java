@@ -1,15 +1,59 @@
 package ee.taltech.decisionengine.exceptions;
 
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+
+import java.util.function.ToIntFunction;
+
 /**
  * Exception that occurs when a received variable is in an incorrect format or not in the correct range.
+ * <p>
+ * Invalid data is returned as a packed decision by the service, the exception is only for callers that need to
+ * propagate it as a fault.
  */
 public class InvalidDataException extends Throwable {
     private final Reason reason;
-    public enum Reason {
-        PERSONAL_CODE_INVALID,
-        LOAN_AMOUNT_INVALID,
-        LOAN_PERIOD_INVALID,
-        DATA_INVALID
+    public enum Reason implements RejectionReason {
+        PERSONAL_CODE_INVALID("Invalid personal code. Must be a valid Estonian personal code."),
+        LOAN_AMOUNT_INVALID("Invalid loan amount. Must be between %d and %d euros.",
+                LoanLimits::minimumLoanAmount, LoanLimits::maximumLoanAmount),
+        LOAN_PERIOD_INVALID("Invalid loan period. Must be between %d and %d months.",
+                LoanLimits::minimumLoanPeriod, LoanLimits::maximumLoanPeriod),
+        DATA_INVALID("Some of the data was invalid.");
+
+        private final String message;
+        private final ToIntFunction<LoanLimits> minimum;
+        private final ToIntFunction<LoanLimits> maximum;
+        private final String defaultMessage;
+
+        Reason(String message) {
+            this(message, null, null);
+        }
+
+        Reason(String message, ToIntFunction<LoanLimits> minimum, ToIntFunction<LoanLimits> maximum) {
+            this.message = message;
+            this.minimum = minimum;
+            this.maximum = maximum;
+            this.defaultMessage = getMessage(LoanLimits.defaultLimits);
+        }
+
+        /**
+         * Get the message with the default loan limits.
+         * <p>
+         * The message is formatted once, when the reason is created.
+         * @return a string that describes what went wrong
+         */
+        @Override
+        public String getMessage() {
+            return defaultMessage;
+        }
+
+        @Override
+        public String getMessage(LoanLimits limits) {
+            if (minimum == null) {
+                return message;
+            }
+            return message.formatted(minimum.applyAsInt(limits), maximum.applyAsInt(limits));
+        }
     }
 
     public InvalidDataException(Reason reason) {
@@ -24,15 +68,7 @@ public class InvalidDataException extends Throwable {
      */
     @Override
     public String getMessage() {
-        if (reason.equals(Reason.PERSONAL_CODE_INVALID)) {
-            return "Invalid personal code. Must consist of 11 digits.";
-        } else if (reason.equals(Reason.LOAN_AMOUNT_INVALID)) {
-            return "Invalid loan amount. Must be between 2000 and 10000 euros.";
-        } else if (reason.equals(Reason.LOAN_PERIOD_INVALID)) {
-            return "Invalid loan period. Must be between 12 and 60 months.";
-        } else {
-            return "Some of the data was invalid.";
-        }
+        return reason.getMessage();
     }
 
     public Reason getReason() {
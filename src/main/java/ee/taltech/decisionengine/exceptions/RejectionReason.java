@@ -0,0 +1,24 @@
+package ee.taltech.decisionengine.exceptions;
+
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+
+/**
+ * Reason why a loan request was rejected.
+ */
+public interface RejectionReason {
+
+    /**
+     * Get a message describing what happened to the client.
+     * @return a string that describes what went wrong
+     */
+    String getMessage();
+
+    /**
+     * Get a message describing what happened to the client, quoting the limits of the policy that rejected it.
+     * @param limits loan limits of the policy the request was decided under
+     * @return a string that describes what went wrong
+     */
+    default String getMessage(LoanLimits limits) {
+        return getMessage();
+    }
+}
@@ -0,0 +1,39 @@
+package ee.taltech.decisionengine.execution;
+
+import org.apache.coyote.ProtocolHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Opt-in mode that handles every HTTP request on its own virtual thread.
+ * <p>
+ * By default Tomcat handles requests on its pool of platform threads, which caps how many requests can wait for a
+ * slow credit modifier provider at once. With decision-engine.threads.virtual=true a request that blocks only parks
+ * its virtual thread, so the number of concurrent requests is no longer bounded by the pool. The credit modifier
+ * registry's lookups and refreshes also move to virtual threads, see CreditModifierConfiguration. On a Java runtime
+ * without virtual threads the setting is ignored and the thread pools are kept.
+ */
+@Configuration
+public class VirtualThreadConfiguration {
+    private static final Logger logger = LoggerFactory.getLogger(VirtualThreadConfiguration.class);
+
+    @Bean
+    public TomcatProtocolHandlerCustomizer<ProtocolHandler> virtualThreadProtocolHandlerCustomizer(
+            @Value("${decision-engine.threads.virtual:false}") boolean virtualThreads) {
+        return protocolHandler -> {
+            if (!virtualThreads) {
+                return;
+            }
+            if (!VirtualThreads.isSupported()) {
+                logger.warn("decision-engine.threads.virtual is set, but Java {} has no virtual threads. "
+                        + "Requests are handled on the thread pool.", Runtime.version().feature());
+                return;
+            }
+            protocolHandler.setExecutor(VirtualThreads.newThreadPerTaskExecutor("http-virtual-"));
+        };
+    }
+}
@@ -0,0 +1,78 @@
+package ee.taltech.decisionengine.execution;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * Create virtual threads on Java runtimes that have them.
+ * <p>
+ * The project is built for Java 17, which has no virtual threads, so they are created through reflection. On older
+ * runtimes {@link #isSupported()} is false and nothing else may be called.
+ */
+public final class VirtualThreads {
+    private static final Method ofVirtual = findMethod(Thread.class, "ofVirtual");
+    private static final Method newThreadPerTaskExecutor =
+            findMethod(Executors.class, "newThreadPerTaskExecutor", ThreadFactory.class);
+
+    private VirtualThreads() {
+    }
+
+    /**
+     * Check whether the running Java runtime has virtual threads.
+     * @return true if virtual threads can be created
+     */
+    public static boolean isSupported() {
+        return ofVirtual != null && newThreadPerTaskExecutor != null;
+    }
+
+    /**
+     * Create a factory of virtual threads.
+     * @param namePrefix prefix of the threads' names, followed by a counter
+     * @return factory of virtual threads
+     * @throws UnsupportedOperationException when the runtime has no virtual threads
+     */
+    public static ThreadFactory newThreadFactory(String namePrefix) {
+        requireSupport();
+        try {
+            final Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            Object builder = ofVirtual.invoke(null);
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, namePrefix, 0L);
+            return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException("Could not create a virtual thread factory.", e);
+        }
+    }
+
+    /**
+     * Create an executor that runs every task on a new virtual thread.
+     * @param namePrefix prefix of the threads' names, followed by a counter
+     * @return executor with a virtual thread per task
+     * @throws UnsupportedOperationException when the runtime has no virtual threads
+     */
+    public static ExecutorService newThreadPerTaskExecutor(String namePrefix) {
+        final ThreadFactory factory = newThreadFactory(namePrefix);
+        try {
+            return (ExecutorService) newThreadPerTaskExecutor.invoke(null, factory);
+        } catch (IllegalAccessException | InvocationTargetException e) {
+            throw new IllegalStateException("Could not create a virtual thread executor.", e);
+        }
+    }
+
+    private static void requireSupport() {
+        if (!isSupported()) {
+            throw new UnsupportedOperationException(
+                    "Virtual threads need Java 21 or newer, this is Java " + Runtime.version().feature() + ".");
+        }
+    }
+
+    private static Method findMethod(Class<?> type, String name, Class<?>... parameterTypes) {
+        try {
+            return type.getMethod(name, parameterTypes);
+        } catch (NoSuchMethodException e) {
+            return null;
+        }
+    }
+}
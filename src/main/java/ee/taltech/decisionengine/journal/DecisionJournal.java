@@ -0,0 +1,298 @@
+package ee.taltech.decisionengine.journal;
+
+import ee.taltech.decisionengine.service.DecisionEngine;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Append-only journal of every decision, for audit and for replaying them later.
+ * <p>
+ * Records have a fixed width and are written into memory-mapped segment files of a fixed number of records. A
+ * request thread claims a slot with one atomic increment and writes its record straight into the mapping, so
+ * journaling a decision takes well under a microsecond and never waits for I/O. A record that has been written
+ * survives the process crashing, because it is already in the operating system's page cache. A background thread
+ * commits the records written by all requests in one go every commit interval by forcing them to disk, so at most
+ * one interval of decisions can be lost if the whole machine goes down.
+ * <p>
+ * Every start opens a new segment after the existing ones, and full segments are never written again. The next
+ * segment is created ahead of time by the background thread, so requests don't wait for a file to be created.
+ * Segments are named by their index, so reading them in name order reads the decisions in the order they were
+ * made, give or take the records that were written at the same time.
+ * <p>
+ * Journaling never fails a decision. If the next segment can't be created when one is full, the decision is not
+ * recorded and is counted as dropped instead. Until the background thread manages to create the segment, every
+ * decision is dropped without a lock or any I/O, so requests don't queue up behind a failing disk.
+ */
+@Component
+public class DecisionJournal implements AutoCloseable {
+    public static final String segmentPrefix = "decisions-";
+    public static final String segmentSuffix = ".journal";
+    private static final Logger logger = LoggerFactory.getLogger(DecisionJournal.class);
+    private static final long shutdownMillis = 5000;
+
+    private final Path directory;
+    private final int segmentRecords;
+    private final long commitIntervalNanos;
+    private final Queue<JournalSegment> uncommitted = new ConcurrentLinkedQueue<>();
+    private final Object commitLock = new Object();
+    private final Thread committerThread;
+    private final LongAdder dropped = new LongAdder();
+    private volatile JournalSegment current;
+    private volatile boolean running = true;
+    private JournalSegment next;
+    private volatile boolean rollFailing;
+
+    @Autowired
+    public DecisionJournal(DecisionEngine engine,
+                           @Value("${decision-engine.journal.directory:}") String directory,
+                           @Value("${decision-engine.journal.segment-records:1048576}") int segmentRecords,
+                           @Value("${decision-engine.journal.commit-interval:PT0.01S}") Duration commitInterval)
+            throws IOException {
+        this(directory.isBlank() ? null : Path.of(directory), segmentRecords, commitInterval);
+        if (this.directory != null) {
+            engine.setJournal(this);
+        }
+    }
+
+    /**
+     * Open a journal in a directory, after the segments that are already in it, and start committing it.
+     * @param directory directory of the segment files, null for a journal that is closed from the start
+     * @param segmentRecords number of records in every segment file
+     * @param commitInterval time between commits
+     * @throws IOException when the directory can't be read or the first segment can't be created
+     */
+    public DecisionJournal(Path directory, int segmentRecords, Duration commitInterval) throws IOException {
+        if (segmentRecords < 1) {
+            throw new IllegalArgumentException("Journal segments must hold at least one record");
+        }
+        this.directory = directory;
+        this.segmentRecords = segmentRecords;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        if (directory == null) {
+            this.running = false;
+            this.committerThread = null;
+            return;
+        }
+
+        Files.createDirectories(directory);
+        final List<Path> segments = getSegments(directory);
+        final long firstIndex = segments.isEmpty() ? 0 : getIndex(segments.get(segments.size() - 1)) + 1;
+        this.current = createSegment(firstIndex);
+        this.committerThread = new Thread(this::commitSegments, "decision-journal-committer");
+        this.committerThread.setDaemon(true);
+        this.committerThread.start();
+    }
+
+    /**
+     * Append a decision to the journal.
+     * <p>
+     * Decisions appended after the journal was closed are not recorded, and neither are decisions that need a new
+     * segment that can't be created, which are counted as dropped.
+     * @param personalCode client's personal code as it was sent, may be invalid or null
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision
+     * @param policyVersion number of the policy version the decision was made under
+     */
+    public void append(String personalCode, int loanAmount, int loanPeriod, int decision, long policyVersion) {
+        final long time = System.currentTimeMillis();
+        final long packedCode = JournalRecord.packPersonalCode(personalCode);
+        JournalSegment segment = current;
+        while (segment != null) {
+            final int slot = segment.claim();
+            if (slot >= 0) {
+                segment.write(slot, time, packedCode, policyVersion, loanAmount, loanPeriod, decision);
+                return;
+            }
+            segment = roll(segment);
+        }
+    }
+
+    /**
+     * Get the number of decisions that couldn't be recorded because a new segment couldn't be created.
+     * @return dropped decisions since startup
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Force every record written so far to disk.
+     * <p>
+     * Called by the background thread every commit interval, and may be called by anyone who needs the records
+     * on disk now. Commits have a lock of their own, so a request that moves on to the next segment never waits
+     * for a commit.
+     */
+    public void commit() {
+        synchronized (commitLock) {
+            final JournalSegment segment = current;
+            uncommitted.removeIf(JournalSegment::commit);
+            if (segment != null) {
+                segment.commit();
+            }
+        }
+    }
+
+    /**
+     * Get the directory of the segment files.
+     * @return journal directory, null if journaling is off
+     */
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Stop appending decisions and commit every record written so far.
+     * @throws InterruptedException when interrupted while waiting for the committer
+     */
+    @PreDestroy
+    @Override
+    public void close() throws InterruptedException {
+        if (committerThread == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(committerThread);
+        committerThread.join(shutdownMillis);
+        synchronized (this) {
+            if (current != null) {
+                uncommitted.add(current);
+                current = null;
+            }
+            if (next != null) {
+                try {
+                    Files.deleteIfExists(next.getPath());
+                } catch (IOException e) {
+                    logger.warn("Unused decision journal segment {} could not be deleted", next.getPath(), e);
+                }
+                next = null;
+            }
+        }
+        commit();
+    }
+
+    /**
+     * Get the segment files of a journal in the order they were written.
+     * @param directory journal directory
+     * @return paths of the segment files
+     * @throws IOException when the directory can't be read
+     */
+    public static List<Path> getSegments(Path directory) throws IOException {
+        try (var files = Files.list(directory)) {
+            return files.filter(DecisionJournal::isSegment).sorted().toList();
+        }
+    }
+
+    private static boolean isSegment(Path path) {
+        final String name = path.getFileName().toString();
+        return name.startsWith(segmentPrefix) && name.endsWith(segmentSuffix);
+    }
+
+    private static long getIndex(Path segment) {
+        final String name = segment.getFileName().toString();
+        return Long.parseLong(name.substring(segmentPrefix.length(), name.length() - segmentSuffix.length()));
+    }
+
+    private JournalSegment createSegment(long index) throws IOException {
+        final Path path = directory.resolve(String.format("%s%012d%s", segmentPrefix, index, segmentSuffix));
+        return JournalSegment.create(path, index, segmentRecords);
+    }
+
+    /**
+     * Replace a full segment with the next one, unless another thread already did.
+     * <p>
+     * When the next segment can't be created, the decision is dropped and the full segment stays current. Later
+     * decisions are dropped right away until {@link #prepareNextSegment()} creates the segment.
+     * @param full the segment that was full
+     * @return the segment to append to, null if the journal is closed or the decision is dropped
+     */
+    private JournalSegment roll(JournalSegment full) {
+        final JournalSegment segment = current;
+        if (segment != full) {
+            return segment;
+        } else if (rollFailing) {
+            dropped.increment();
+            return null;
+        }
+        return rollLocked(full);
+    }
+
+    private synchronized JournalSegment rollLocked(JournalSegment full) {
+        if (current != full) {
+            return current;
+        } else if (rollFailing) {
+            dropped.increment();
+            return null;
+        }
+        JournalSegment segment = next;
+        next = null;
+        if (segment == null) {
+            try {
+                segment = createSegment(full.getIndex() + 1);
+            } catch (IOException | RuntimeException e) {
+                dropped.increment();
+                rollFailing = true;
+                logger.error("Can't create the next decision journal segment in {}, dropping decisions until "
+                        + "it can be created", directory, e);
+                return null;
+            }
+        }
+        uncommitted.add(full);
+        current = segment;
+        return segment;
+    }
+
+    private void commitSegments() {
+        while (running) {
+            try {
+                prepareNextSegment();
+                commit();
+            } catch (RuntimeException | IOException e) {
+                logger.error("Committing the decision journal in {} failed", directory, e);
+            }
+            LockSupport.parkNanos(this, commitIntervalNanos);
+        }
+    }
+
+    /**
+     * Create the next segment ahead of time, and move on to it if appending is waiting for it.
+     * @throws IOException when the segment can't be created, unless that was already reported by a failed roll
+     */
+    private synchronized void prepareNextSegment() throws IOException {
+        final JournalSegment segment = current;
+        // Created once the current segment is half full, so that a quiet journal doesn't leave empty files behind.
+        if (segment != null && next == null && segment.getClaimedCount() >= segmentRecords / 2) {
+            try {
+                next = createSegment(segment.getIndex() + 1);
+            } catch (IOException | RuntimeException e) {
+                if (rollFailing) {
+                    // Tried again at the next commit, and the failure has been logged once already
+                    return;
+                }
+                throw e;
+            }
+        }
+        if (rollFailing && segment != null && next != null) {
+            uncommitted.add(segment);
+            current = next;
+            next = null;
+            rollFailing = false;
+            logger.info("Decision journal segment {} created, {} decisions were dropped in total",
+                    current.getPath(), dropped.sum());
+        }
+    }
+}
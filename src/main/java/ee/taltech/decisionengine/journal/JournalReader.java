@@ -0,0 +1,66 @@
+package ee.taltech.decisionengine.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.function.Consumer;
+
+/**
+ * Read the records of a decision journal.
+ * <p>
+ * Segments are mapped read-only one at a time and read in the order they were written. Slots that were never
+ * written are skipped, and records that were only partly written, because the process stopped while they were
+ * being written, are counted instead of read.
+ */
+public final class JournalReader {
+
+    private JournalReader() {
+    }
+
+    /**
+     * Read every record of a journal.
+     * @param directory journal directory
+     * @param consumer gets every record that was completely written
+     * @return number of records that were only partly written
+     * @throws IOException when a segment can't be read or isn't a journal segment
+     */
+    public static long read(Path directory, Consumer<JournalRecord> consumer) throws IOException {
+        long torn = 0;
+        for (Path segment : DecisionJournal.getSegments(directory)) {
+            torn += readSegment(segment, consumer);
+        }
+        return torn;
+    }
+
+    /**
+     * Read every record of one segment file.
+     * @param segment segment file
+     * @param consumer gets every record that was completely written
+     * @return number of records that were only partly written
+     * @throws IOException when the segment can't be read or isn't a journal segment
+     */
+    public static long readSegment(Path segment, Consumer<JournalRecord> consumer) throws IOException {
+        final MappedByteBuffer buffer;
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.READ)) {
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+        final int capacity = JournalSegment.readCapacity(buffer, segment);
+
+        long torn = 0;
+        for (int slot = 0; slot < capacity; slot++) {
+            final int offset = JournalSegment.headerSize + slot * JournalRecord.size;
+            if (JournalRecord.isEmpty(buffer, offset)) {
+                continue;
+            }
+            final JournalRecord record = JournalRecord.read(buffer, offset);
+            if (record == null) {
+                torn++;
+            } else {
+                consumer.accept(record);
+            }
+        }
+        return torn;
+    }
+}
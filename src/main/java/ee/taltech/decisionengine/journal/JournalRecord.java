@@ -0,0 +1,142 @@
+package ee.taltech.decisionengine.journal;
+
+import java.nio.ByteBuffer;
+
+/**
+ * One decision in the journal.
+ * <p>
+ * Every record takes {@link #size} bytes, so a record is found by its index without reading the ones before it:
+ * <pre>
+ *  0  time             long, epoch milliseconds
+ *  8  personalCode     long, the 11 digits as a number, {@link #noPersonalCode} if it wasn't 11 digits
+ * 16  policyVersion    long, policy version number the decision was made under
+ * 24  loanAmount       int, requested loan amount
+ * 28  loanPeriod       int, requested loan period
+ * 32  decision         int, packed decision with the offered amount and period or the rejection reason
+ * 36  checksum         int, checksum of the fields above
+ * </pre>
+ * A record that was never written is all zeros, and a record that was only partly written has a wrong checksum.
+ * @param time when the decision was made, in epoch milliseconds
+ * @param personalCode packed personal code
+ * @param policyVersion policy version number
+ * @param loanAmount requested loan amount
+ * @param loanPeriod requested loan period
+ * @param decision packed decision
+ */
+public record JournalRecord(long time, long personalCode, long policyVersion, int loanAmount, int loanPeriod,
+                            int decision) {
+    public static final int size = 40;
+    public static final long noPersonalCode = -1;
+    private static final int personalCodeLength = 11;
+    private static final int checksumSeed = 0x5bd1e995;
+
+    /**
+     * Pack a personal code into a long.
+     * <p>
+     * Any code that isn't exactly 11 digits is invalid whatever it was, so all of them are packed the same way.
+     * @param personalCode personal code as it was sent, may be null
+     * @return the digits as a number, or {@link #noPersonalCode}
+     */
+    public static long packPersonalCode(String personalCode) {
+        if (personalCode == null || personalCode.length() != personalCodeLength) {
+            return noPersonalCode;
+        }
+        long packed = 0;
+        for (int i = 0; i < personalCodeLength; i++) {
+            final char c = personalCode.charAt(i);
+            if (c < '0' || c > '9') {
+                return noPersonalCode;
+            }
+            packed = packed * 10 + (c - '0');
+        }
+        return packed;
+    }
+
+    /**
+     * Unpack a personal code packed by {@link #packPersonalCode(String)}.
+     * @param packed packed personal code
+     * @return the 11 digits, null if the code wasn't 11 digits
+     */
+    public static String unpackPersonalCode(long packed) {
+        if (packed == noPersonalCode) {
+            return null;
+        }
+        final char[] digits = new char[personalCodeLength];
+        for (int i = personalCodeLength - 1; i >= 0; i--) {
+            digits[i] = (char) ('0' + packed % 10);
+            packed /= 10;
+        }
+        return new String(digits);
+    }
+
+    /**
+     * Get the personal code of the record.
+     * @return the 11 digits, null if the code wasn't 11 digits
+     */
+    public String getPersonalCode() {
+        return unpackPersonalCode(personalCode);
+    }
+
+    /**
+     * Write a record with absolute puts, so that many threads can write their own records into the same buffer.
+     * @param buffer buffer to write into
+     * @param offset position of the record in the buffer
+     * @param time when the decision was made, in epoch milliseconds
+     * @param personalCode packed personal code
+     * @param policyVersion policy version number
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision
+     */
+    static void write(ByteBuffer buffer, int offset, long time, long personalCode, long policyVersion,
+                      int loanAmount, int loanPeriod, int decision) {
+        buffer.putLong(offset, time);
+        buffer.putLong(offset + 8, personalCode);
+        buffer.putLong(offset + 16, policyVersion);
+        buffer.putInt(offset + 24, loanAmount);
+        buffer.putInt(offset + 28, loanPeriod);
+        buffer.putInt(offset + 32, decision);
+        buffer.putInt(offset + 36, checksum(time, personalCode, policyVersion, loanAmount, loanPeriod, decision));
+    }
+
+    /**
+     * Check whether the record at an offset was never written.
+     * @param buffer buffer to read from
+     * @param offset position of the record in the buffer
+     * @return true if every byte of the record is 0
+     */
+    static boolean isEmpty(ByteBuffer buffer, int offset) {
+        for (int i = 0; i < size; i += 8) {
+            if (buffer.getLong(offset + i) != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Read the record at an offset.
+     * @param buffer buffer to read from
+     * @param offset position of the record in the buffer
+     * @return the record, null if it was only partly written
+     */
+    static JournalRecord read(ByteBuffer buffer, int offset) {
+        final JournalRecord record = new JournalRecord(buffer.getLong(offset), buffer.getLong(offset + 8),
+                buffer.getLong(offset + 16), buffer.getInt(offset + 24), buffer.getInt(offset + 28),
+                buffer.getInt(offset + 32));
+        final int checksum = checksum(record.time, record.personalCode, record.policyVersion, record.loanAmount,
+                record.loanPeriod, record.decision);
+        return checksum == buffer.getInt(offset + 36) ? record : null;
+    }
+
+    private static int checksum(long time, long personalCode, long policyVersion, int loanAmount, int loanPeriod,
+                                int decision) {
+        long hash = time;
+        hash = hash * 31 + personalCode;
+        hash = hash * 31 + policyVersion;
+        hash = hash * 31 + loanAmount;
+        hash = hash * 31 + loanPeriod;
+        hash = hash * 31 + decision;
+        return (int) (hash ^ (hash >>> 32)) ^ checksumSeed;
+    }
+}
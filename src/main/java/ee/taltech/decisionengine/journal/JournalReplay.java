@@ -0,0 +1,141 @@
+package ee.taltech.decisionengine.journal;
+
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Feed the requests of a decision journal back through a {@link DecisionEngine} and compare the decisions.
+ * <p>
+ * A request that was decided under the same policy version as the engine's must get the same decision again, so
+ * every difference under the same version is a mismatch: the code changed how requests are decided, or a credit
+ * modifier changed. Differences for requests that were decided under another policy version are counted apart,
+ * because they are what the policy change did.
+ */
+public class JournalReplay {
+    private static final int maximumExamples = 20;
+
+    private final DecisionEngine engine;
+    private final List<String> mismatchExamples = new ArrayList<>();
+    private long records;
+    private long otherPolicyRecords;
+    private long mismatches;
+    private long changedByPolicy;
+    private long tornRecords;
+
+    /**
+     * @param engine engine that decides the requests again, with the policy to compare against
+     */
+    public JournalReplay(DecisionEngine engine) {
+        this.engine = engine;
+    }
+
+    /**
+     * Replay every record of a journal.
+     * @param directory journal directory
+     * @return this replay, with the counts of every journal replayed so far
+     * @throws IOException when the journal can't be read
+     */
+    public JournalReplay replay(Path directory) throws IOException {
+        tornRecords += JournalReader.read(directory, this::replay);
+        return this;
+    }
+
+    private void replay(JournalRecord record) {
+        records++;
+        final boolean samePolicy = record.policyVersion() == engine.getPolicyVersionNumber();
+        if (!samePolicy) {
+            otherPolicyRecords++;
+        }
+        final int decision = engine.getDecision(record.getPersonalCode(), record.loanAmount(), record.loanPeriod());
+        if (decision == record.decision()) {
+            return;
+        }
+
+        if (!samePolicy) {
+            changedByPolicy++;
+            return;
+        }
+        mismatches++;
+        if (mismatchExamples.size() < maximumExamples) {
+            mismatchExamples.add(Instant.ofEpochMilli(record.time()) + " " + record.getPersonalCode()
+                    + " " + record.loanAmount() + " " + record.loanPeriod()
+                    + ": journal " + describe(record.decision()) + ", replay " + describe(decision));
+        }
+    }
+
+    private static String describe(int decision) {
+        return Decision.isRejected(decision)
+                ? Decision.Outcome.REJECTED + " " + Decision.getRejectionReason(decision)
+                : Decision.getOutcome(decision) + " " + Decision.getLoanAmount(decision)
+                        + " " + Decision.getLoanPeriod(decision);
+    }
+
+    /**
+     * Get the number of records that were replayed.
+     * @return number of records
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Get the number of records that were decided under another policy version than the engine's.
+     * @return number of records
+     */
+    public long getOtherPolicyRecords() {
+        return otherPolicyRecords;
+    }
+
+    /**
+     * Get the number of records that got another decision under the same policy version.
+     * @return number of records
+     */
+    public long getMismatches() {
+        return mismatches;
+    }
+
+    /**
+     * Get the number of records that got another decision because they were decided under another policy version.
+     * @return number of records
+     */
+    public long getChangedByPolicy() {
+        return changedByPolicy;
+    }
+
+    /**
+     * Get the number of records that were only partly written and couldn't be replayed.
+     * @return number of records
+     */
+    public long getTornRecords() {
+        return tornRecords;
+    }
+
+    /**
+     * Get the first few mismatches, one line each.
+     * @return descriptions of the mismatches
+     */
+    public List<String> getMismatchExamples() {
+        return mismatchExamples;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("policyVersion=").append(engine.getPolicyVersion()).append('\n');
+        report.append("records=").append(records).append('\n');
+        report.append("otherPolicyRecords=").append(otherPolicyRecords).append('\n');
+        report.append("mismatches=").append(mismatches).append('\n');
+        report.append("changedByPolicy=").append(changedByPolicy).append('\n');
+        report.append("tornRecords=").append(tornRecords).append('\n');
+        for (String example : mismatchExamples) {
+            report.append("mismatch ").append(example).append('\n');
+        }
+        return report.toString();
+    }
+}
@@ -0,0 +1,193 @@
+package ee.taltech.decisionengine.journal;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * One memory-mapped journal file with room for a fixed number of records.
+ * <p>
+ * The file is created at its full size and mapped once. A writer claims the next free slot with an atomic
+ * increment and writes its record straight into the mapping, so writers never lock or wait for each other, and the
+ * record is in the page cache as soon as it is written. {@link #commit()} forces the written records to disk.
+ * Every slot has a bit that its writer sets once the record is written, so the committer knows which records are
+ * complete without waiting for the writers.
+ * <p>
+ * The file starts with a header as large as a record: the magic number, the format version, the record size and
+ * the number of slots as ints, then the segment index and the creation time as longs.
+ */
+final class JournalSegment {
+    static final int magic = 0x444a524e;
+    static final int formatVersion = 1;
+    static final int headerSize = JournalRecord.size;
+
+    private final Path path;
+    private final long index;
+    private final int capacity;
+    private final MappedByteBuffer buffer;
+    private final AtomicInteger claimed = new AtomicInteger();
+    private final AtomicLongArray writtenSlots;
+    private int committed;
+
+    private JournalSegment(Path path, long index, int capacity, MappedByteBuffer buffer) {
+        this.path = path;
+        this.index = index;
+        this.capacity = capacity;
+        this.buffer = buffer;
+        this.writtenSlots = new AtomicLongArray((capacity + Long.SIZE - 1) / Long.SIZE);
+    }
+
+    /**
+     * Create a new segment file and map it.
+     * @param path path of the new file, which must not exist
+     * @param index index of the segment in the journal
+     * @param capacity number of records the segment holds
+     * @return the new segment
+     * @throws IOException when the file can't be created or mapped
+     */
+    static JournalSegment create(Path path, long index, int capacity) throws IOException {
+        final long size = headerSize + (long) capacity * JournalRecord.size;
+        if (size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Journal segments must be smaller than 2 GB, got " + size + " bytes");
+        }
+        final FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try (channel) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+            buffer.putInt(0, magic);
+            buffer.putInt(4, formatVersion);
+            buffer.putInt(8, JournalRecord.size);
+            buffer.putInt(12, capacity);
+            buffer.putLong(16, index);
+            buffer.putLong(24, System.currentTimeMillis());
+            buffer.force(0, headerSize);
+            return new JournalSegment(path, index, capacity, buffer);
+        } catch (IOException | RuntimeException e) {
+            // The file was created here, so it is removed to let the segment be created again
+            try {
+                Files.deleteIfExists(path);
+            } catch (IOException deleteFailure) {
+                e.addSuppressed(deleteFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Check the header of a mapped segment file and get the number of records it has room for.
+     * @param buffer mapped segment file
+     * @param path path of the file, for the error message
+     * @return number of slots in the segment
+     * @throws IOException when the file is not a journal segment this version can read
+     */
+    static int readCapacity(ByteBuffer buffer, Path path) throws IOException {
+        if (buffer.capacity() < headerSize || buffer.getInt(0) != magic) {
+            throw new IOException("Not a decision journal segment: " + path);
+        }
+        if (buffer.getInt(4) != formatVersion || buffer.getInt(8) != JournalRecord.size) {
+            throw new IOException("Unsupported decision journal format " + buffer.getInt(4) + ": " + path);
+        }
+        final int capacity = buffer.getInt(12);
+        if (capacity < 0 || headerSize + (long) capacity * JournalRecord.size > buffer.capacity()) {
+            throw new IOException("Truncated decision journal segment: " + path);
+        }
+        return capacity;
+    }
+
+    /**
+     * Claim the next free slot.
+     * <p>
+     * A full segment is only read, so however often it is asked for a slot while the next one can't be created,
+     * the count of claimed slots never goes far past the capacity.
+     * @return index of the claimed slot, -1 if the segment is full
+     */
+    int claim() {
+        if (claimed.get() >= capacity) {
+            return -1;
+        }
+        final int slot = claimed.getAndIncrement();
+        return slot >= 0 && slot < capacity ? slot : -1;
+    }
+
+    /**
+     * Write a record into a claimed slot.
+     * @param slot slot claimed with {@link #claim()}
+     * @param time when the decision was made, in epoch milliseconds
+     * @param personalCode packed personal code
+     * @param policyVersion policy version number
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision
+     */
+    void write(int slot, long time, long personalCode, long policyVersion, int loanAmount, int loanPeriod,
+               int decision) {
+        JournalRecord.write(buffer, headerSize + slot * JournalRecord.size,
+                time, personalCode, policyVersion, loanAmount, loanPeriod, decision);
+        writtenSlots.getAndAccumulate(slot / Long.SIZE, 1L << (slot % Long.SIZE), (bits, bit) -> bits | bit);
+    }
+
+    /**
+     * Force the records written since the last commit to disk.
+     * <p>
+     * Only one thread may commit a segment. Records are written out of order, so only the slots from the end of the
+     * last commit up to the first slot that hasn't been written yet are forced. The records after that slot are
+     * forced by a later commit, once the record before them has been written, and no slot is ever forced twice.
+     * @return true once every slot of the segment has been written and forced
+     */
+    boolean commit() {
+        final int end = getWrittenPrefix(committed);
+        if (end > committed) {
+            buffer.force(headerSize + committed * JournalRecord.size, (end - committed) * JournalRecord.size);
+            committed = end;
+        }
+        return committed == capacity;
+    }
+
+    /**
+     * Find the end of the written slots that follow a slot.
+     * @param from first slot to look at
+     * @return the first slot from there that hasn't been written, the capacity if every one has
+     */
+    private int getWrittenPrefix(int from) {
+        int slot = from;
+        while (slot < capacity) {
+            // Slots past the end of the word shift in as written, and are looked at with the next word
+            final long unwritten = ~writtenSlots.get(slot / Long.SIZE) >>> (slot % Long.SIZE);
+            if (unwritten != 0) {
+                return Math.min(capacity, slot + Long.numberOfTrailingZeros(unwritten));
+            }
+            slot = (slot / Long.SIZE + 1) * Long.SIZE;
+        }
+        return capacity;
+    }
+
+    /**
+     * Get the number of slots that have been claimed.
+     * @return claimed slots, at most the capacity
+     */
+    int getClaimedCount() {
+        return Math.min(claimed.get(), capacity);
+    }
+
+    /**
+     * Get the number of slots that have been written and forced, which are always the first ones.
+     * @return committed slots
+     */
+    int getCommittedCount() {
+        return committed;
+    }
+
+    Path getPath() {
+        return path;
+    }
+
+    long getIndex() {
+        return index;
+    }
+}
@@ -0,0 +1,169 @@
+package ee.taltech.decisionengine.logging;
+
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Structured log of the decisions made for requests.
+ * <p>
+ * Request threads only put a fixed-size record into a {@link DecisionLogBuffer}, they never format, lock or wait
+ * for I/O. A background thread turns the records into JSON lines and writes them out. When the writer falls behind
+ * and the buffer fills up, new records are dropped and the number of dropped records is logged instead.
+ * Decisions can be sampled so that only about one in every n of them is logged; unknown errors are always logged.
+ */
+@Component
+public class DecisionLog {
+    public static final int unknownError = -1;
+    private static final long idleNanos = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final long shutdownMillis = 5000;
+
+    private final DecisionLogBuffer buffer;
+    private final int sampleEvery;
+    private final Writer out;
+    private final StringBuilder line = new StringBuilder(256);
+    private final DecisionLogBuffer.RecordHandler lineWriter = this::writeRecord;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    private long reportedDrops;
+
+    @Autowired
+    public DecisionLog(@Value("${decision-engine.log.capacity:65536}") int capacity,
+                       @Value("${decision-engine.log.sample-every:1}") int sampleEvery) {
+        this(capacity, sampleEvery, new BufferedWriter(
+                new OutputStreamWriter(new FileOutputStream(FileDescriptor.out), StandardCharsets.UTF_8), 1 << 16));
+    }
+
+    /**
+     * Create a log and start its writer thread.
+     * @param capacity largest number of records waiting to be written
+     * @param sampleEvery log about one in every this many decisions, 1 logs every decision
+     * @param out where the JSON lines are written
+     */
+    public DecisionLog(int capacity, int sampleEvery, Writer out) {
+        this.buffer = new DecisionLogBuffer(capacity);
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.out = out;
+        this.writerThread = new Thread(this::writeRecords, "decision-log-writer");
+        this.writerThread.setDaemon(true);
+        this.writerThread.start();
+    }
+
+    /**
+     * Log a decision, unless it isn't sampled or the log is full.
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision
+     */
+    public void log(int loanAmount, int loanPeriod, int decision) {
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return;
+        }
+        buffer.offer(System.currentTimeMillis(), loanAmount, loanPeriod, decision);
+    }
+
+    /**
+     * Log a request that failed with an unexpected error, unless the log is full.
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     */
+    public void logUnknownError(int loanAmount, int loanPeriod) {
+        buffer.offer(System.currentTimeMillis(), loanAmount, loanPeriod, unknownError);
+    }
+
+    /**
+     * Get the number of records that were dropped because the log was full.
+     * @return number of dropped records
+     */
+    public long getDroppedCount() {
+        return buffer.getDroppedCount();
+    }
+
+    /**
+     * Stop the writer thread after it has written every record logged so far.
+     * @throws InterruptedException when interrupted while waiting for the writer
+     */
+    @PreDestroy
+    public void close() throws InterruptedException {
+        running = false;
+        LockSupport.unpark(writerThread);
+        writerThread.join(shutdownMillis);
+    }
+
+    private void writeRecords() {
+        while (true) {
+            final boolean stopping = !running;
+            try {
+                if (buffer.drainTo(lineWriter) > 0) {
+                    continue;
+                }
+                writeDrops();
+                out.flush();
+            } catch (IOException e) {
+                // Nowhere left to report it, the failed records are lost and writing carries on.
+            }
+            if (stopping) {
+                return;
+            }
+            LockSupport.parkNanos(this, idleNanos);
+        }
+    }
+
+    private void writeRecord(long time, int loanAmount, int loanPeriod, int decision) throws IOException {
+        startLine(time);
+        line.append(",\"requestedAmount\":").append(loanAmount)
+                .append(",\"requestedPeriod\":").append(loanPeriod);
+
+        if (decision == unknownError) {
+            line.append(",\"outcome\":\"ERROR\"");
+        } else {
+            line.append(",\"outcome\":\"").append(Decision.getOutcome(decision).name()).append('"');
+            final RejectionReason reason = Decision.getRejectionReason(decision);
+            if (reason != null) {
+                line.append(",\"reason\":\"").append(reason).append('"');
+            } else {
+                line.append(",\"loanAmount\":").append(Decision.getLoanAmount(decision))
+                        .append(",\"loanPeriod\":").append(Decision.getLoanPeriod(decision));
+            }
+        }
+        endLine();
+    }
+
+    private void writeDrops() throws IOException {
+        final long drops = buffer.getDroppedCount();
+        if (drops != reportedDrops) {
+            startLine(System.currentTimeMillis());
+            line.append(",\"dropped\":").append(drops - reportedDrops);
+            endLine();
+            reportedDrops = drops;
+        }
+    }
+
+    private void startLine(long time) {
+        line.setLength(0);
+        line.append("{\"time\":\"");
+        DateTimeFormatter.ISO_INSTANT.formatTo(Instant.ofEpochMilli(time), line);
+        line.append('"');
+    }
+
+    private void endLine() throws IOException {
+        line.append("}\n");
+        out.append(line);
+    }
+}
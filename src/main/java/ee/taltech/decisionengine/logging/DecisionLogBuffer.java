@@ -0,0 +1,139 @@
+package ee.taltech.decisionengine.logging;
+
+import java.io.IOException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Bounded lock-free ring buffer of fixed-size decision records, written by many threads and read by one.
+ * <p>
+ * Records are stored in preallocated primitive arrays, so offering a record allocates nothing. Every slot has a
+ * sequence number that tells writers when the slot is free and the reader when it has been filled. When the buffer
+ * is full a record is dropped and counted instead of waiting for the reader.
+ */
+public final class DecisionLogBuffer {
+    private final int mask;
+    private final AtomicLongArray sequences;
+    private final long[] times;
+    private final int[] loanAmounts;
+    private final int[] loanPeriods;
+    private final int[] decisions;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    private long head;
+
+    /**
+     * Handles records that are drained from the buffer.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+
+        /**
+         * Handle a single record.
+         * @param time time of the decision in epoch milliseconds
+         * @param loanAmount requested loan amount
+         * @param loanPeriod requested loan period
+         * @param decision packed decision
+         * @throws IOException when the record can't be written
+         */
+        void handle(long time, int loanAmount, int loanPeriod, int decision) throws IOException;
+    }
+
+    /**
+     * Create an empty buffer.
+     * @param capacity largest number of records held at once, rounded up to a power of two
+     */
+    public DecisionLogBuffer(int capacity) {
+        if (capacity < 1 || capacity > 1 << 30) {
+            throw new IllegalArgumentException("Capacity must be between 1 and 2^30.");
+        }
+        int size = 1;
+        while (size < capacity) {
+            size <<= 1;
+        }
+        this.mask = size - 1;
+        this.sequences = new AtomicLongArray(size);
+        this.times = new long[size];
+        this.loanAmounts = new int[size];
+        this.loanPeriods = new int[size];
+        this.decisions = new int[size];
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add a record without blocking.
+     * @param time time of the decision in epoch milliseconds
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision
+     * @return true if the record was added, false if the buffer was full and the record was dropped
+     */
+    public boolean offer(long time, int loanAmount, int loanPeriod, int decision) {
+        long position = tail.get();
+        while (true) {
+            final int index = (int) position & mask;
+            final long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    times[index] = time;
+                    loanAmounts[index] = loanAmount;
+                    loanPeriods[index] = loanPeriod;
+                    decisions[index] = decision;
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+
+    /**
+     * Hand every record that has been added so far to a handler, oldest first.
+     * <p>
+     * Only one thread may drain the buffer.
+     * @param handler handler of the records
+     * @return number of records drained
+     * @throws IOException when the handler fails, the failed record is not handed over again
+     */
+    public int drainTo(RecordHandler handler) throws IOException {
+        int count = 0;
+        while (true) {
+            final int index = (int) head & mask;
+            if (sequences.get(index) != head + 1) {
+                return count;
+            }
+            final long time = times[index];
+            final int loanAmount = loanAmounts[index];
+            final int loanPeriod = loanPeriods[index];
+            final int decision = decisions[index];
+            sequences.set(index, head + mask + 1);
+            head++;
+            count++;
+            handler.handle(time, loanAmount, loanPeriod, decision);
+        }
+    }
+
+    /**
+     * Get the number of records that were dropped because the buffer was full.
+     * @return number of dropped records
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Get the largest number of records held at once.
+     * @return capacity of the buffer
+     */
+    public int getCapacity() {
+        return mask + 1;
+    }
+}
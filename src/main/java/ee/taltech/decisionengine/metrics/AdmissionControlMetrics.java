@@ -0,0 +1,44 @@
+package ee.taltech.decisionengine.metrics;
+
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Publish how many requests admission control lets in and refuses, and where the concurrency limit is.
+ * <p>
+ * The values are read from the admission control's own counters when metrics are scraped.
+ */
+@Component
+public class AdmissionControlMetrics implements MeterBinder {
+    public static final String requestsName = "decision.engine.admission.requests";
+    public static final String limitName = "decision.engine.admission.limit";
+    public static final String inFlightName = "decision.engine.admission.in.flight";
+
+    private final AdmissionControl admissionControl;
+
+    @Autowired
+    public AdmissionControlMetrics(AdmissionControl admissionControl) {
+        this.admissionControl = admissionControl;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (AdmissionControl.Admission admission : AdmissionControl.Admission.values()) {
+            FunctionCounter.builder(requestsName, admissionControl, control -> control.getCount(admission))
+                    .description("Requests, batches and streams by whether they were admitted or why they were refused")
+                    .tag("result", admission.name())
+                    .register(registry);
+        }
+        Gauge.builder(limitName, admissionControl, AdmissionControl::getLimit)
+                .description("Largest number of requests, batches and streams in flight")
+                .register(registry);
+        Gauge.builder(inFlightName, admissionControl, AdmissionControl::getInFlight)
+                .description("Admitted requests, batches and streams that haven't been answered")
+                .register(registry);
+    }
+}
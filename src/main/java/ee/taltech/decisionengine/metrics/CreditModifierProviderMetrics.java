@@ -0,0 +1,92 @@
+package ee.taltech.decisionengine.metrics;
+
+import ee.taltech.decisionengine.service.modifier.BatchingCreditModifierProvider;
+import ee.taltech.decisionengine.service.modifier.CachingCreditModifierProvider;
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+import ee.taltech.decisionengine.service.modifier.SingleFlightCreditModifierProvider;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.FunctionTimer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publish how the credit modifier cache, lookup coalescing and lookup batching perform, for the ones in use.
+ * <p>
+ * The values are read from the providers' own counters when metrics are scraped, so lookups don't pay for them.
+ */
+@Component
+public class CreditModifierProviderMetrics implements MeterBinder {
+    public static final String cacheRequestsName = "decision.engine.credit.modifier.cache.requests";
+    public static final String cacheRefreshesName = "decision.engine.credit.modifier.cache.refreshes";
+    public static final String cacheEvictionsName = "decision.engine.credit.modifier.cache.evictions";
+    public static final String cacheSizeName = "decision.engine.credit.modifier.cache.size";
+    public static final String coalescedName = "decision.engine.credit.modifier.coalesced";
+    public static final String batchesName = "decision.engine.credit.modifier.batches";
+    public static final String batchedLookupsName = "decision.engine.credit.modifier.batched.lookups";
+
+    private final CreditModifierProvider provider;
+
+    @Autowired
+    public CreditModifierProviderMetrics(CreditModifierProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CreditModifierProvider current = provider;
+        while (current != null) {
+            if (current instanceof CachingCreditModifierProvider cache) {
+                bindCache(registry, cache);
+                current = cache.getProvider();
+            } else if (current instanceof SingleFlightCreditModifierProvider singleFlight) {
+                FunctionCounter.builder(coalescedName, singleFlight,
+                                SingleFlightCreditModifierProvider::getCoalescedCount)
+                        .description("Lookups that shared another request's lookup of the same client")
+                        .register(registry);
+                current = singleFlight.getProvider();
+            } else if (current instanceof BatchingCreditModifierProvider batching) {
+                bindBatching(registry, batching);
+                current = batching.getProvider();
+            } else {
+                current = null;
+            }
+        }
+    }
+
+    private static void bindCache(MeterRegistry registry, CachingCreditModifierProvider cache) {
+        FunctionCounter.builder(cacheRequestsName, cache, CachingCreditModifierProvider::getHitCount)
+                .description("Credit modifier lookups by whether they were answered from the cache")
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder(cacheRequestsName, cache, CachingCreditModifierProvider::getMissCount)
+                .description("Credit modifier lookups by whether they were answered from the cache")
+                .tag("result", "miss")
+                .register(registry);
+        FunctionCounter.builder(cacheRefreshesName, cache, CachingCreditModifierProvider::getRefreshCount)
+                .description("Credit modifiers refreshed in the background")
+                .register(registry);
+        FunctionCounter.builder(cacheEvictionsName, cache, CachingCreditModifierProvider::getEvictionCount)
+                .description("Clients evicted to keep the cache under its maximum size")
+                .register(registry);
+        Gauge.builder(cacheSizeName, cache, CachingCreditModifierProvider::size)
+                .description("Clients in the credit modifier cache")
+                .register(registry);
+    }
+
+    private static void bindBatching(MeterRegistry registry, BatchingCreditModifierProvider batching) {
+        FunctionTimer.builder(batchesName, batching,
+                        BatchingCreditModifierProvider::getBatchCount,
+                        BatchingCreditModifierProvider::getLookupNanos,
+                        TimeUnit.NANOSECONDS)
+                .description("Bulk credit modifier lookups and the time they took")
+                .register(registry);
+        FunctionCounter.builder(batchedLookupsName, batching, BatchingCreditModifierProvider::getBatchedLookupCount)
+                .description("Clients looked up in bulk, divided by batches this is the average batch size")
+                .register(registry);
+    }
+}
@@ -0,0 +1,26 @@
+package ee.taltech.decisionengine.metrics;
+
+/**
+ * Metrics that record nothing, used when the engine runs outside the API.
+ */
+final class DisabledDecisionMetrics implements DecisionMetrics {
+    static final DisabledDecisionMetrics instance = new DisabledDecisionMetrics();
+
+    private DisabledDecisionMetrics() {
+    }
+
+    @Override
+    public long now() {
+        return 0;
+    }
+
+    @Override
+    public long recordStage(Stage stage, long startNanos) {
+        return 0;
+    }
+
+    @Override
+    public int recordDecision(int decision) {
+        return decision;
+    }
+}
@@ -0,0 +1,88 @@
+package ee.taltech.decisionengine.metrics;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decision metrics that are published through Micrometer, and scraped from /actuator/prometheus.
+ * <p>
+ * Every timer and counter is registered at startup, so recording is only a clock read and an update of striped
+ * counters, and it is cheap enough to leave on at full load.
+ */
+@Component
+public class MicrometerDecisionMetrics implements DecisionMetrics {
+    public static final String stageTimerName = "decision.engine.stage";
+    public static final String decisionCounterName = "decision.engine.decisions";
+    private static final String noReason = "NONE";
+
+    private final Timer[] stageTimers = new Timer[Stage.values().length];
+    private final Counter[] acceptedCounters = new Counter[Decision.Outcome.values().length];
+    private final Map<RejectionReason, Counter> rejectedCounters = new IdentityHashMap<>();
+
+    @Autowired
+    public MicrometerDecisionMetrics(MeterRegistry registry) {
+        for (Stage stage : Stage.values()) {
+            stageTimers[stage.ordinal()] = Timer.builder(stageTimerName)
+                    .description("Time spent in each stage of a decision")
+                    .tag("stage", stage.name())
+                    .publishPercentileHistogram()
+                    .minimumExpectedValue(Duration.ofNanos(100))
+                    .maximumExpectedValue(Duration.ofMillis(100))
+                    .register(registry);
+        }
+
+        acceptedCounters[Decision.Outcome.APPROVED.ordinal()] =
+                registerCounter(registry, Decision.Outcome.APPROVED, noReason);
+        acceptedCounters[Decision.Outcome.COUNTER_OFFER.ordinal()] =
+                registerCounter(registry, Decision.Outcome.COUNTER_OFFER, noReason);
+        for (CantLoanException.Reason reason : CantLoanException.Reason.values()) {
+            rejectedCounters.put(reason, registerCounter(registry, Decision.Outcome.REJECTED, reason.name()));
+        }
+        for (InvalidDataException.Reason reason : InvalidDataException.Reason.values()) {
+            rejectedCounters.put(reason, registerCounter(registry, Decision.Outcome.REJECTED, reason.name()));
+        }
+    }
+
+    @Override
+    public long now() {
+        return System.nanoTime();
+    }
+
+    @Override
+    public long recordStage(Stage stage, long startNanos) {
+        final long now = System.nanoTime();
+        stageTimers[stage.ordinal()].record(now - startNanos, TimeUnit.NANOSECONDS);
+        return now;
+    }
+
+    @Override
+    public int recordDecision(int decision) {
+        final RejectionReason reason = Decision.getRejectionReason(decision);
+        if (reason == null) {
+            acceptedCounters[Decision.getOutcome(decision).ordinal()].increment();
+        } else {
+            rejectedCounters.get(reason).increment();
+        }
+        return decision;
+    }
+
+    private static Counter registerCounter(MeterRegistry registry, Decision.Outcome outcome, String reason) {
+        return Counter.builder(decisionCounterName)
+                .description("Decisions by outcome and rejection reason")
+                .tag("outcome", outcome.name())
+                .tag("reason", reason)
+                .register(registry);
+    }
+}
@@ -0,0 +1,61 @@
+package ee.taltech.decisionengine.metrics;
+
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import ee.taltech.decisionengine.service.ShadowEvaluation;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Publish how a candidate credit policy compares with the live one, while it is being evaluated.
+ * <p>
+ * The values are read from the running evaluation when metrics are scraped and start from 0 for every new
+ * candidate. Without a candidate every value is 0.
+ */
+@Component
+public class ShadowEvaluationMetrics implements MeterBinder {
+    public static final String requestsName = "decision.engine.shadow.requests";
+    public static final String disagreementsName = "decision.engine.shadow.disagreements";
+    public static final String disagreementRateName = "decision.engine.shadow.disagreement.rate";
+    public static final String droppedName = "decision.engine.shadow.dropped";
+
+    private final DecisionEngine engine;
+
+    @Autowired
+    public ShadowEvaluationMetrics(DecisionEngine engine) {
+        this.engine = engine;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (Decision.Outcome outcome : Decision.Outcome.values()) {
+            register(registry, requestsName, "Requests evaluated under the candidate policy, by live outcome",
+                    outcome, evaluation -> evaluation.getRequestCount(outcome));
+            register(registry, disagreementsName, "Requests the candidate policy decided differently, by live outcome",
+                    outcome, evaluation -> evaluation.getDisagreementCount(outcome));
+            register(registry, disagreementRateName, "Share of evaluated requests the candidate decided differently",
+                    outcome, evaluation -> evaluation.getDisagreementRate(outcome));
+        }
+        Gauge.builder(droppedName, this, metrics -> metrics.read(ShadowEvaluation::getDroppedCount))
+                .description("Sampled requests that were not evaluated under the candidate policy")
+                .register(registry);
+    }
+
+    private void register(MeterRegistry registry, String name, String description, Decision.Outcome outcome,
+                          ToDoubleFunction<ShadowEvaluation> value) {
+        Gauge.builder(name, this, metrics -> metrics.read(value))
+                .description(description)
+                .tag("outcome", outcome.name())
+                .register(registry);
+    }
+
+    private double read(ToDoubleFunction<ShadowEvaluation> value) {
+        final ShadowEvaluation evaluation = engine.getShadowEvaluation();
+        return evaluation == null ? 0 : value.applyAsDouble(evaluation);
+    }
+}
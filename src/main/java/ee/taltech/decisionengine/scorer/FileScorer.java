@@ -0,0 +1,153 @@
+package ee.taltech.decisionengine.scorer;
+
+import ee.taltech.decisionengine.service.DecisionEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Score a CSV or NDJSON file of loan requests on all cores.
+ * <p>
+ * The input is split into chunks at line boundaries, every chunk is memory-mapped and scored by its own task,
+ * and the tasks' part files are joined into the output file in input order. The totals are written next to the
+ * output file with a ".summary" suffix.
+ * <p>
+ * CSV input has the columns personalCode, loanAmount and loanPeriod and may start with a header line.
+ * NDJSON input has one JSON object per line with the same fields as the API's request.
+ */
+public class FileScorer {
+    // Keeps every mapped chunk well below the 2 GB limit of a single mapping.
+    private static final long maximumChunkBytes = 1L << 30;
+    private static final int scanBufferSize = 8192;
+
+    private final DecisionEngine engine;
+    private final int threads;
+
+    public FileScorer(DecisionEngine engine, int threads) {
+        this.engine = engine;
+        this.threads = Math.max(1, threads);
+    }
+
+    /**
+     * Score every line of the input file.
+     * <p>
+     * @param input CSV or NDJSON file of loan requests
+     * @param output CSV file that gets one result line per request
+     * @return number of decisions per outcome and rejection reason
+     * @throws IOException when reading the input or writing the output fails
+     * @throws InterruptedException when interrupted while waiting for the tasks
+     */
+    public ScoringTotals score(Path input, Path output) throws IOException, InterruptedException {
+        final List<Path> parts = new ArrayList<>();
+        final ScoringTotals totals = new ScoringTotals();
+
+        try (FileChannel channel = FileChannel.open(input, StandardOpenOption.READ)) {
+            final boolean json = isJson(channel);
+            final long[] bounds = split(channel);
+            final List<Future<ScoringTotals>> tasks = new ArrayList<>();
+            final ExecutorService executor = Executors.newFixedThreadPool(threads);
+
+            try {
+                for (int i = 0; i + 1 < bounds.length; i++) {
+                    Path part = output.resolveSibling(output.getFileName() + ".part" + i);
+                    parts.add(part);
+                    tasks.add(executor.submit(
+                            new ScoringTask(engine, channel, bounds[i], bounds[i + 1], json, i == 0 && !json, part)));
+                }
+                for (Future<ScoringTotals> task : tasks) {
+                    totals.merge(task.get());
+                }
+            } catch (ExecutionException e) {
+                throw new IOException("Scoring failed.", e.getCause());
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+
+        join(parts, output);
+        Files.writeString(output.resolveSibling(output.getFileName() + ".summary"), totals.toString());
+        return totals;
+    }
+
+    private static boolean isJson(FileChannel channel) throws IOException {
+        final ByteBuffer buffer = ByteBuffer.allocate(scanBufferSize);
+        channel.read(buffer, 0);
+        buffer.flip();
+
+        while (buffer.hasRemaining()) {
+            final byte b = buffer.get();
+            if (b != ' ' && b != '\t' && b != '\r' && b != '\n') {
+                return b == '{';
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Split the file into chunks that start at the beginning of a line.
+     * @param channel input file
+     * @return start of every chunk, followed by the size of the file
+     * @throws IOException when reading the file fails
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        final long size = channel.size();
+        final int chunkCount = (int) Math.max(threads, (size + maximumChunkBytes - 1) / maximumChunkBytes);
+        final long[] bounds = new long[chunkCount + 1];
+
+        for (int i = 1; i < chunkCount; i++) {
+            bounds[i] = Math.max(bounds[i - 1], nextLineStart(channel, size * i / chunkCount, size));
+        }
+        bounds[chunkCount] = size;
+        return bounds;
+    }
+
+    private static long nextLineStart(FileChannel channel, long position, long size) throws IOException {
+        if (position == 0) {
+            return 0;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.allocate(scanBufferSize);
+        // Start one byte early, so a position right after a newline is already a line start.
+        long offset = position - 1;
+        while (offset < size) {
+            buffer.clear();
+            final int read = channel.read(buffer, offset);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return offset + i + 1;
+                }
+            }
+            offset += read;
+        }
+        return size;
+    }
+
+    private static void join(List<Path> parts, Path output) throws IOException {
+        try (FileChannel out = FileChannel.open(output,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            for (Path part : parts) {
+                try (FileChannel in = FileChannel.open(part, StandardOpenOption.READ)) {
+                    final long size = in.size();
+                    long position = 0;
+                    while (position < size) {
+                        position += in.transferTo(position, size - position, out);
+                    }
+                }
+                Files.delete(part);
+            }
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package ee.taltech.decisionengine.scorer;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * One loan request parsed from a line of an input file.
+ * <p>
+ * A single instance is reused for every line of a chunk. Lines are read straight from the mapped file, only the
+ * personal code is turned into a string because that is what the decision engine takes.
+ */
+class RequestLine {
+    static final int invalidNumber = Integer.MIN_VALUE;
+    static final int maximumFieldLength = 64;
+
+    private static final byte[] personalCodeKey = "\"personalCode\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] loanAmountKey = "\"loanAmount\"".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] loanPeriodKey = "\"loanPeriod\"".getBytes(StandardCharsets.US_ASCII);
+
+    private final byte[] scratch = new byte[maximumFieldLength];
+
+    String personalCode;
+    int loanAmount;
+    int loanPeriod;
+
+    /**
+     * Parse a CSV line with the columns personalCode, loanAmount and loanPeriod.
+     * @param buffer mapped input
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @return false if the line does not have three columns
+     */
+    boolean parseCsv(ByteBuffer buffer, int start, int end) {
+        final int firstComma = indexOf(buffer, (byte) ',', start, end);
+        final int secondComma = firstComma < 0 ? -1 : indexOf(buffer, (byte) ',', firstComma + 1, end);
+        if (secondComma < 0) {
+            return false;
+        }
+        final int thirdComma = indexOf(buffer, (byte) ',', secondComma + 1, end);
+
+        personalCode = readText(buffer, start, firstComma);
+        loanAmount = readNumber(buffer, firstComma + 1, secondComma);
+        loanPeriod = readNumber(buffer, secondComma + 1, thirdComma < 0 ? end : thirdComma);
+        return true;
+    }
+
+    /**
+     * Parse a JSON object line with the fields personalCode, loanAmount and loanPeriod.
+     * <p>
+     * Missing fields are treated the same way as the JSON API treats them: the personal code becomes null and the
+     * numbers become 0.
+     * @param buffer mapped input
+     * @param start index of the first byte of the line
+     * @param end index after the last byte of the line
+     * @return false if the line is not a JSON object
+     */
+    boolean parseJson(ByteBuffer buffer, int start, int end) {
+        start = skipWhitespace(buffer, start, end);
+        if (start >= end || buffer.get(start) != '{') {
+            return false;
+        }
+
+        personalCode = null;
+        loanAmount = 0;
+        loanPeriod = 0;
+
+        int value = findValue(buffer, personalCodeKey, start, end);
+        if (value >= 0 && buffer.get(value) == '"') {
+            final int closingQuote = indexOf(buffer, (byte) '"', value + 1, end);
+            if (closingQuote < 0) {
+                return false;
+            }
+            personalCode = readText(buffer, value + 1, closingQuote);
+        }
+
+        value = findValue(buffer, loanAmountKey, start, end);
+        if (value >= 0) {
+            loanAmount = readNumber(buffer, value, numberEnd(buffer, value, end));
+        }
+
+        value = findValue(buffer, loanPeriodKey, start, end);
+        if (value >= 0) {
+            loanPeriod = readNumber(buffer, value, numberEnd(buffer, value, end));
+        }
+        return true;
+    }
+
+    static int indexOf(ByteBuffer buffer, byte target, int from, int to) {
+        for (int i = from; i < to; i++) {
+            if (buffer.get(i) == target) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    static int skipWhitespace(ByteBuffer buffer, int from, int to) {
+        while (from < to && isWhitespace(buffer.get(from))) {
+            from++;
+        }
+        return from;
+    }
+
+    private String readText(ByteBuffer buffer, int from, int to) {
+        from = skipWhitespace(buffer, from, to);
+        while (to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+        if (to - from >= 2 && buffer.get(from) == '"' && buffer.get(to - 1) == '"') {
+            from++;
+            to--;
+        }
+
+        final int length = Math.min(to - from, maximumFieldLength);
+        for (int i = 0; i < length; i++) {
+            scratch[i] = buffer.get(from + i);
+        }
+        return new String(scratch, 0, length, StandardCharsets.ISO_8859_1);
+    }
+
+    // Anything that is not a plain (optionally negative) integer is an invalid number.
+    private static int readNumber(ByteBuffer buffer, int from, int to) {
+        from = skipWhitespace(buffer, from, to);
+        while (to > from && isWhitespace(buffer.get(to - 1))) {
+            to--;
+        }
+
+        final boolean negative = from < to && buffer.get(from) == '-';
+        if (negative) {
+            from++;
+        }
+        // Loan amounts and periods never need more than 9 digits, so the value can't overflow.
+        if (from >= to || to - from > 9) {
+            return invalidNumber;
+        }
+
+        int number = 0;
+        for (int i = from; i < to; i++) {
+            final byte digit = buffer.get(i);
+            if (digit < '0' || digit > '9') {
+                return invalidNumber;
+            }
+            number = number * 10 + (digit - '0');
+        }
+        return negative ? -number : number;
+    }
+
+    private static int findValue(ByteBuffer buffer, byte[] key, int from, int to) {
+        final int last = to - key.length;
+        for (int i = from; i <= last; i++) {
+            if (matches(buffer, key, i)) {
+                int value = skipWhitespace(buffer, i + key.length, to);
+                if (value < to && buffer.get(value) == ':') {
+                    value = skipWhitespace(buffer, value + 1, to);
+                    return value < to ? value : -1;
+                }
+            }
+        }
+        return -1;
+    }
+
+    private static boolean matches(ByteBuffer buffer, byte[] key, int at) {
+        for (int k = 0; k < key.length; k++) {
+            if (buffer.get(at + k) != key[k]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int numberEnd(ByteBuffer buffer, int from, int to) {
+        int i = from;
+        while (i < to) {
+            final byte b = buffer.get(i);
+            if (b == ',' || b == '}' || isWhitespace(b)) {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n';
+    }
+}
@@ -0,0 +1,194 @@
+package ee.taltech.decisionengine.scorer;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.Callable;
+
+/**
+ * Score one chunk of an input file.
+ * <p>
+ * The chunk is memory-mapped and read line by line, and the results are written to the chunk's own part file so
+ * that tasks never have to coordinate. A chunk always starts at the beginning of a line and ends after a newline
+ * (or at the end of the file).
+ */
+class ScoringTask implements Callable<ScoringTotals> {
+    private static final int outputBufferSize = 1 << 20;
+    private static final int longestOutputLine = RequestLine.maximumFieldLength + 128;
+    private static final byte[][] outcomeNames = getOutcomeNames();
+    private static final Map<RejectionReason, byte[]> reasonNames = getReasonNames();
+
+    private final DecisionEngine engine;
+    private final FileChannel input;
+    private final long start;
+    private final long end;
+    private final boolean json;
+    private final boolean mayHaveHeader;
+    private final Path part;
+
+    ScoringTask(DecisionEngine engine, FileChannel input, long start, long end, boolean json, boolean mayHaveHeader,
+                Path part) {
+        this.engine = engine;
+        this.input = input;
+        this.start = start;
+        this.end = end;
+        this.json = json;
+        this.mayHaveHeader = mayHaveHeader;
+        this.part = part;
+    }
+
+    @Override
+    public ScoringTotals call() throws IOException {
+        final ScoringTotals totals = new ScoringTotals();
+        final MappedByteBuffer buffer = input.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+        final int limit = buffer.limit();
+        final ByteBuffer output = ByteBuffer.allocate(outputBufferSize);
+        final RequestLine line = new RequestLine();
+
+        try (FileChannel partChannel = FileChannel.open(part,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            boolean firstLine = true;
+            int position = 0;
+
+            while (position < limit) {
+                final int newline = RequestLine.indexOf(buffer, (byte) '\n', position, limit);
+                final int lineEnd = newline < 0 ? limit : newline;
+                final int lineStart = RequestLine.skipWhitespace(buffer, position, lineEnd);
+                position = lineEnd + 1;
+
+                if (lineStart == lineEnd) {
+                    continue;
+                } else if (firstLine && mayHaveHeader && isHeader(buffer, lineStart)) {
+                    firstLine = false;
+                    continue;
+                }
+                firstLine = false;
+
+                final boolean readable = json
+                        ? line.parseJson(buffer, lineStart, lineEnd)
+                        : line.parseCsv(buffer, lineStart, lineEnd);
+                final int decision = readable
+                        ? engine.getDecision(line.personalCode, line.loanAmount, line.loanPeriod)
+                        : Decision.rejected(InvalidDataException.Reason.DATA_INVALID);
+
+                if (!readable) {
+                    totals.addUnreadableLine();
+                }
+                totals.add(decision);
+
+                if (output.remaining() < longestOutputLine) {
+                    flush(output, partChannel);
+                }
+                writeResult(output, readable ? line : null, decision);
+            }
+            flush(output, partChannel);
+        }
+        return totals;
+    }
+
+    private static boolean isHeader(ByteBuffer buffer, int lineStart) {
+        byte first = buffer.get(lineStart);
+        if (first == '"' && lineStart + 1 < buffer.limit()) {
+            first = buffer.get(lineStart + 1);
+        }
+        return (first >= 'a' && first <= 'z') || (first >= 'A' && first <= 'Z');
+    }
+
+    // Columns: personalCode,loanAmount,loanPeriod,outcome,offeredAmount,offeredPeriod,reason
+    private static void writeResult(ByteBuffer output, RequestLine line, int decision) {
+        if (line != null) {
+            writePersonalCode(output, line.personalCode);
+            output.put((byte) ',');
+            writeNumber(output, line.loanAmount);
+            output.put((byte) ',');
+            writeNumber(output, line.loanPeriod);
+        } else {
+            output.put((byte) ',').put((byte) ',');
+        }
+        output.put((byte) ',');
+        output.put(outcomeNames[Decision.getOutcome(decision).ordinal()]);
+        output.put((byte) ',');
+
+        final RejectionReason reason = Decision.getRejectionReason(decision);
+        if (reason == null) {
+            writeNumber(output, Decision.getLoanAmount(decision));
+            output.put((byte) ',');
+            writeNumber(output, Decision.getLoanPeriod(decision));
+            output.put((byte) ',');
+        } else {
+            output.put((byte) ',').put((byte) ',');
+            output.put(reasonNames.get(reason));
+        }
+        output.put((byte) '\n');
+    }
+
+    private static void writePersonalCode(ByteBuffer output, String personalCode) {
+        if (personalCode == null) {
+            return;
+        }
+        for (int i = 0; i < personalCode.length(); i++) {
+            final char c = personalCode.charAt(i);
+            // Keep every result on one CSV line, whatever the input contained.
+            output.put(c == ',' || c == '"' || c < ' ' ? (byte) '_' : (byte) c);
+        }
+    }
+
+    private static void writeNumber(ByteBuffer output, int number) {
+        if (number == RequestLine.invalidNumber) {
+            return;
+        }
+        if (number < 0) {
+            output.put((byte) '-');
+            number = -number;
+        }
+
+        int divisor = 1;
+        while (number / divisor >= 10) {
+            divisor *= 10;
+        }
+        while (divisor > 0) {
+            output.put((byte) ('0' + number / divisor % 10));
+            divisor /= 10;
+        }
+    }
+
+    private static void flush(ByteBuffer output, FileChannel channel) throws IOException {
+        output.flip();
+        while (output.hasRemaining()) {
+            channel.write(output);
+        }
+        output.clear();
+    }
+
+    private static byte[][] getOutcomeNames() {
+        final Decision.Outcome[] outcomes = Decision.Outcome.values();
+        final byte[][] names = new byte[outcomes.length][];
+        for (Decision.Outcome outcome : outcomes) {
+            names[outcome.ordinal()] = outcome.name().getBytes(StandardCharsets.US_ASCII);
+        }
+        return names;
+    }
+
+    private static Map<RejectionReason, byte[]> getReasonNames() {
+        final Map<RejectionReason, byte[]> names = new IdentityHashMap<>();
+        for (CantLoanException.Reason reason : CantLoanException.Reason.values()) {
+            names.put(reason, reason.name().getBytes(StandardCharsets.US_ASCII));
+        }
+        for (InvalidDataException.Reason reason : InvalidDataException.Reason.values()) {
+            names.put(reason, reason.name().getBytes(StandardCharsets.US_ASCII));
+        }
+        return names;
+    }
+}
@@ -0,0 +1,89 @@
+package ee.taltech.decisionengine.scorer;
+
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.Decision;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Number of decisions per outcome and per rejection reason.
+ * <p>
+ * Every scoring task counts into its own instance, the instances are merged when all tasks are done.
+ */
+public class ScoringTotals {
+    private final long[] outcomes = new long[Decision.Outcome.values().length];
+    private final Map<RejectionReason, Long> rejectionReasons = new LinkedHashMap<>();
+    private long unreadableLines;
+
+    void add(int decision) {
+        outcomes[Decision.getOutcome(decision).ordinal()]++;
+        final RejectionReason reason = Decision.getRejectionReason(decision);
+        if (reason != null) {
+            rejectionReasons.merge(reason, 1L, Long::sum);
+        }
+    }
+
+    void addUnreadableLine() {
+        unreadableLines++;
+    }
+
+    void merge(ScoringTotals other) {
+        for (int i = 0; i < outcomes.length; i++) {
+            outcomes[i] += other.outcomes[i];
+        }
+        other.rejectionReasons.forEach((reason, count) -> rejectionReasons.merge(reason, count, Long::sum));
+        unreadableLines += other.unreadableLines;
+    }
+
+    /**
+     * Get the number of decisions with the given outcome.
+     * @param outcome outcome of the decisions
+     * @return number of decisions
+     */
+    public long getOutcomeCount(Decision.Outcome outcome) {
+        return outcomes[outcome.ordinal()];
+    }
+
+    /**
+     * Get the number of rejections with the given reason.
+     * @param reason reason of the rejections
+     * @return number of rejections
+     */
+    public long getRejectionCount(RejectionReason reason) {
+        return rejectionReasons.getOrDefault(reason, 0L);
+    }
+
+    /**
+     * Get the total number of scored lines.
+     * @return number of decisions
+     */
+    public long getTotal() {
+        long total = 0;
+        for (long count : outcomes) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Get the number of lines that could not be read as a request (they are also counted as rejections).
+     * @return number of unreadable lines
+     */
+    public long getUnreadableLines() {
+        return unreadableLines;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder report = new StringBuilder();
+        report.append("total=").append(getTotal()).append('\n');
+        for (Decision.Outcome outcome : Decision.Outcome.values()) {
+            report.append(outcome).append('=').append(getOutcomeCount(outcome)).append('\n');
+        }
+        rejectionReasons.forEach((reason, count) ->
+                report.append(Decision.Outcome.REJECTED).append('.').append(reason).append('=').append(count).append('\n'));
+        report.append("UNREADABLE_LINES=").append(unreadableLines).append('\n');
+        return report.toString();
+    }
+}
@@ -0,0 +1,117 @@
+package ee.taltech.decisionengine.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Make decisions for many loan requests at once.
+ * <p>
+ * A batch is split into contiguous chunks that are evaluated in parallel on a bounded thread pool. The calling
+ * thread evaluates the first chunk itself, and when the pool's queue is full it runs the other chunks too, so
+ * bursts of batches slow down their callers instead of piling up work.
+ */
+@Service
+public class BatchDecisionEngine {
+    private static final int minimumChunkSize = 256;
+    private static final int queuedChunksPerThread = 16;
+
+    private final DecisionEngine engine;
+    private final int threads;
+    private final ThreadPoolExecutor executor;
+
+    @Autowired
+    public BatchDecisionEngine(DecisionEngine engine, @Value("${decision-engine.batch.threads:0}") int threads) {
+        this.engine = engine;
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+
+        final AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.threads, this.threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.threads * queuedChunksPerThread),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "decision-batch-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Get decisions for a batch of loan requests.
+     * <p>
+     * The request at index i is described by the values at index i of every array.
+     * @param personalCodes clients' personal codes
+     * @param loanAmounts loan amounts in euros
+     * @param loanPeriods loan periods in months
+     * @return packed {@link Decision}s in the same order as the requests
+     */
+    public int[] getDecisions(String[] personalCodes, int[] loanAmounts, int[] loanPeriods) {
+        return getDecisions(engine.getSnapshot(), personalCodes, loanAmounts, loanPeriods);
+    }
+
+    /**
+     * Get decisions for a batch of loan requests, all under one snapshot of the credit policy.
+     * <p>
+     * The request at index i is described by the values at index i of every array.
+     * @param snapshot snapshot from {@link DecisionEngine#getSnapshot()} that every decision is made under
+     * @param personalCodes clients' personal codes
+     * @param loanAmounts loan amounts in euros
+     * @param loanPeriods loan periods in months
+     * @return packed {@link Decision}s in the same order as the requests
+     */
+    public int[] getDecisions(PolicySnapshot snapshot, String[] personalCodes, int[] loanAmounts,
+                              int[] loanPeriods) {
+        final int count = personalCodes.length;
+        final int[] decisions = new int[count];
+        final int chunkCount = Math.min(threads, (count + minimumChunkSize - 1) / minimumChunkSize);
+
+        if (chunkCount <= 1) {
+            decide(snapshot, personalCodes, loanAmounts, loanPeriods, decisions, 0, count);
+            return decisions;
+        }
+
+        final int chunkSize = (count + chunkCount - 1) / chunkCount;
+        final List<Future<?>> chunks = new ArrayList<>(chunkCount - 1);
+        for (int from = chunkSize; from < count; from += chunkSize) {
+            final int chunkFrom = from;
+            final int chunkTo = Math.min(from + chunkSize, count);
+            chunks.add(executor.submit(
+                    () -> decide(snapshot, personalCodes, loanAmounts, loanPeriods, decisions, chunkFrom, chunkTo)));
+        }
+        decide(snapshot, personalCodes, loanAmounts, loanPeriods, decisions, 0, chunkSize);
+
+        for (Future<?> chunk : chunks) {
+            try {
+                chunk.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for batch decisions.", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Batch decision failed.", e.getCause());
+            }
+        }
+        return decisions;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdown();
+    }
+
+    private void decide(PolicySnapshot snapshot, String[] personalCodes, int[] loanAmounts, int[] loanPeriods,
+                        int[] decisions, int from, int to) {
+        for (int i = from; i < to; i++) {
+            decisions[i] = engine.getDecision(snapshot, personalCodes[i], loanAmounts[i], loanPeriods[i]);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reload the credit policy file and the candidate policy file when they change.
+ * <p>
+ * A changed policy file replaces the live policy without a restart. While the candidate file exists, its policy is
+ * evaluated in the shadow of the live one, and deleting it stops the evaluation. Promoting a candidate is copying
+ * it over the policy file. A file that can't be loaded is reported and left alone until it changes again, and the
+ * policy in use stays as it was. A file that fails in any other way, such as running out of memory while its
+ * decisions are precomputed, is reported and tried again at the next check, and the policy in use stays as it was.
+ */
+@Component
+public class CreditPolicyReloader implements AutoCloseable {
+    private static final Logger logger = LoggerFactory.getLogger(CreditPolicyReloader.class);
+
+    private final DecisionEngine engine;
+    private final Path policyFile;
+    private final Path candidateFile;
+    private final int sampleEvery;
+    private final int capacity;
+    private final int maximumDecisions;
+    private final ScheduledExecutorService scheduler;
+    private FileTime policyModified;
+    private FileTime candidateModified;
+
+    @Autowired
+    public CreditPolicyReloader(DecisionEngine engine,
+                                @Value("${decision-engine.policy.file:}") String policyFile,
+                                @Value("${decision-engine.policy.candidate-file:}") String candidateFile,
+                                @Value("${decision-engine.policy.reload-interval:PT5S}") Duration reloadInterval,
+                                @Value("${decision-engine.policy.shadow.sample-every:10}") int sampleEvery,
+                                @Value("${decision-engine.policy.shadow.capacity:4096}") int capacity,
+                                @Value("${decision-engine.policy.maximum-decisions:16000000}") int maximumDecisions) {
+        this.engine = engine;
+        this.policyFile = policyFile.isBlank() ? null : Path.of(policyFile);
+        this.candidateFile = candidateFile.isBlank() ? null : Path.of(candidateFile);
+        this.sampleEvery = sampleEvery;
+        this.capacity = capacity;
+        this.maximumDecisions = maximumDecisions;
+        this.policyModified = this.policyFile == null ? null : getModified(this.policyFile);
+        checkCandidate();
+
+        if (this.policyFile == null && this.candidateFile == null) {
+            this.scheduler = null;
+        } else {
+            this.scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+                final Thread thread = new Thread(task, "credit-policy-reloader");
+                thread.setDaemon(true);
+                return thread;
+            });
+            final long intervalMillis = reloadInterval.toMillis();
+            this.scheduler.scheduleWithFixedDelay(this::check, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    /**
+     * Reload the files that changed since they were last checked.
+     * <p>
+     * Nothing is thrown, so a failure never stops the scheduled checks.
+     */
+    synchronized void check() {
+        try {
+            checkPolicy();
+        } catch (RuntimeException | Error e) {
+            logger.error("Credit policy {} could not be applied, keeping the current one.", policyFile, e);
+        }
+        try {
+            checkCandidate();
+        } catch (RuntimeException | Error e) {
+            logger.error("Candidate credit policy {} could not be evaluated, keeping the current one.",
+                    candidateFile, e);
+        }
+    }
+
+    /**
+     * Stop checking the files and stop evaluating the candidate policy.
+     */
+    @PreDestroy
+    @Override
+    public synchronized void close() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+        engine.stopShadowEvaluation();
+    }
+
+    private void checkPolicy() {
+        if (policyFile == null) {
+            return;
+        }
+        final FileTime modified = getModified(policyFile);
+        if (modified == null || modified.equals(policyModified)) {
+            return;
+        }
+        final CreditPolicy policy = load(policyFile);
+        if (policy != null) {
+            engine.setPolicy(policy);
+            logger.info("Credit policy {} loaded from {}.", engine.getPolicyVersion(), policyFile);
+        }
+        // Only recorded once the file is applied or refused, so a file that fails unexpectedly is tried again
+        policyModified = modified;
+    }
+
+    private void checkCandidate() {
+        if (candidateFile == null) {
+            return;
+        }
+        final FileTime modified = getModified(candidateFile);
+        if (modified == null) {
+            if (candidateModified != null) {
+                candidateModified = null;
+                engine.stopShadowEvaluation();
+                logger.info("Stopped evaluating the candidate credit policy.");
+            }
+            return;
+        } else if (modified.equals(candidateModified)) {
+            return;
+        }
+        final CreditPolicy candidate = load(candidateFile);
+        if (candidate != null) {
+            final ShadowEvaluation evaluation = engine.startShadowEvaluation(candidate, sampleEvery, capacity);
+            logger.info("Evaluating candidate credit policy {} from {}.", evaluation.getCandidateVersion(),
+                    candidateFile);
+        }
+        candidateModified = modified;
+    }
+
+    private CreditPolicy load(Path file) {
+        try {
+            return CreditPolicy.load(file, maximumDecisions);
+        } catch (IOException | IllegalArgumentException e) {
+            logger.warn("Credit policy {} could not be loaded, keeping the current one: {}", file, e.getMessage());
+            return null;
+        }
+    }
+
+    private static FileTime getModified(Path file) {
+        try {
+            return Files.getLastModifiedTime(file);
+        } catch (NoSuchFileException e) {
+            return null;
+        } catch (IOException e) {
+            logger.warn("Credit policy {} could not be checked: {}", file, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,132 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+
+/**
+ * Packed representation of a loan decision.
+ * <p>
+ * A decision is stored in a single int, so getting one never allocates memory.
+ * The lowest 16 bits hold the loan amount, the next 8 bits the loan period, the next 4 bits the reason why a loan
+ * can not be given (0 if it can) and the next bit marks a counter-offer.
+ */
+public final class Decision {
+    private static final int periodShift = 16;
+    private static final int reasonShift = 24;
+    private static final int amountMask = 0xFFFF;
+    private static final int periodMask = 0xFF;
+    private static final int reasonMask = 0xF;
+    private static final int counterOfferFlag = 1 << 28;
+    private static final int invalidDataOffset = CantLoanException.Reason.values().length;
+    private static final RejectionReason[] reasons = getAllReasons();
+
+    /**
+     * Outcome of a loan request.
+     */
+    public enum Outcome {
+        APPROVED,
+        COUNTER_OFFER,
+        REJECTED
+    }
+
+    private Decision() {
+    }
+
+    /**
+     * Pack a loan that can be given to the client exactly as requested.
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return packed decision
+     */
+    public static int of(int loanAmount, int loanPeriod) {
+        return loanAmount | loanPeriod << periodShift;
+    }
+
+    /**
+     * Pack a loan that can be given to the client instead of the requested one.
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return packed decision
+     */
+    public static int counterOffer(int loanAmount, int loanPeriod) {
+        return of(loanAmount, loanPeriod) | counterOfferFlag;
+    }
+
+    /**
+     * Pack a decision where a loan can not be given.
+     * @param reason reason why a loan can not be given
+     * @return packed decision
+     */
+    public static int rejected(CantLoanException.Reason reason) {
+        return (reason.ordinal() + 1) << reasonShift;
+    }
+
+    /**
+     * Pack a decision where the request contained invalid data.
+     * @param reason reason why the data is invalid
+     * @return packed decision
+     */
+    public static int rejected(InvalidDataException.Reason reason) {
+        return (invalidDataOffset + reason.ordinal() + 1) << reasonShift;
+    }
+
+    /**
+     * Get the loan amount of a packed decision.
+     * @param decision packed decision
+     * @return offered loan amount, 0 if the loan was rejected
+     */
+    public static int getLoanAmount(int decision) {
+        return decision & amountMask;
+    }
+
+    /**
+     * Get the loan period of a packed decision.
+     * @param decision packed decision
+     * @return offered loan period, 0 if the loan was rejected
+     */
+    public static int getLoanPeriod(int decision) {
+        return (decision >>> periodShift) & periodMask;
+    }
+
+    /**
+     * Get the rejection reason of a packed decision.
+     * @param decision packed decision
+     * @return reason why a loan can not be given, null if a loan can be given
+     */
+    public static RejectionReason getRejectionReason(int decision) {
+        final int reason = (decision >>> reasonShift) & reasonMask;
+        return reason == 0 ? null : reasons[reason - 1];
+    }
+
+    /**
+     * Check if a packed decision rejects the loan.
+     * @param decision packed decision
+     * @return true if a loan can not be given
+     */
+    public static boolean isRejected(int decision) {
+        return ((decision >>> reasonShift) & reasonMask) != 0;
+    }
+
+    /**
+     * Get the outcome of a packed decision.
+     * @param decision packed decision
+     * @return whether the loan was approved as requested, counter-offered or rejected
+     */
+    public static Outcome getOutcome(int decision) {
+        if (isRejected(decision)) {
+            return Outcome.REJECTED;
+        }
+        return (decision & counterOfferFlag) != 0 ? Outcome.COUNTER_OFFER : Outcome.APPROVED;
+    }
+
+    private static RejectionReason[] getAllReasons() {
+        final CantLoanException.Reason[] cantLoanReasons = CantLoanException.Reason.values();
+        final InvalidDataException.Reason[] invalidDataReasons = InvalidDataException.Reason.values();
+        final RejectionReason[] all = new RejectionReason[cantLoanReasons.length + invalidDataReasons.length];
+
+        System.arraycopy(cantLoanReasons, 0, all, 0, cantLoanReasons.length);
+        System.arraycopy(invalidDataReasons, 0, all, cantLoanReasons.length, invalidDataReasons.length);
+        return all;
+    }
+}
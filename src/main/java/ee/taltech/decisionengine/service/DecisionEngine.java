@@ -2,74 +2,368 @@ package ee.taltech.decisionengine.service;
 
 import ee.taltech.decisionengine.exceptions.CantLoanException;
 import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.journal.DecisionJournal;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+import ee.taltech.decisionengine.service.modifier.DigitRuleCreditModifierProvider;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
 import ee.taltech.decisionengine.service.utils.DecisionEngineValidators;
+import ee.taltech.decisionengine.service.utils.PersonalCodes;
+import lombok.AccessLevel;
 import lombok.Getter;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Main class for the service side of the decision engine.
+ * <p>
+ * Decisions are made under a snapshot of the credit policy that every request reads once, so the policy can be
+ * replaced under load without locking or pausing requests. A candidate policy can be evaluated on a sample of the
+ * requests in the background before it replaces the live one. Every decision can be appended to a
+ * {@link DecisionJournal} together with the version of the policy it was made under.
  */
 @Service
 @Getter
 public class DecisionEngine {
+    private final CreditModifierProvider creditModifierProvider;
+    private final DecisionMetrics metrics;
+    @Getter(AccessLevel.NONE)
+    private volatile PolicySnapshot snapshot;
+    @Getter(AccessLevel.NONE)
+    private volatile ShadowEvaluation shadowEvaluation;
+    @Getter(AccessLevel.NONE)
+    private volatile DecisionJournal journal;
+
+    /**
+     * Create an engine that derives credit modifiers from personal codes and does not record any metrics.
+     */
+    public DecisionEngine() {
+        this(DecisionMetrics.disabled());
+    }
+
+    /**
+     * Create an engine that derives credit modifiers from personal codes.
+     * @param metrics metrics of the decisions
+     */
+    public DecisionEngine(DecisionMetrics metrics) {
+        this(new DigitRuleCreditModifierProvider(), metrics);
+    }
+
+    /**
+     * Create an engine with the default credit policy.
+     * @param creditModifierProvider source of clients' credit modifiers
+     * @param metrics metrics of the decisions
+     */
+    public DecisionEngine(CreditModifierProvider creditModifierProvider, DecisionMetrics metrics) {
+        this(CreditPolicy.getDefault(), creditModifierProvider, metrics);
+    }
+
+    /**
+     * Create an engine that decides under a credit policy.
+     * <p>
+     * Decisions for every credit modifier segment of the policy are precomputed here, the default policy's
+     * decisions are shared by all engines.
+     * @param policy loan limits and credit modifier bands
+     * @param creditModifierProvider source of clients' credit modifiers
+     * @param metrics metrics of the decisions
+     */
+    @Autowired
+    public DecisionEngine(CreditPolicy policy, CreditModifierProvider creditModifierProvider, DecisionMetrics metrics) {
+        this.creditModifierProvider = creditModifierProvider;
+        this.metrics = metrics;
+        this.snapshot = PolicySnapshot.of(policy);
+    }
+
+    /**
+     * Get the credit policy that decisions are made under.
+     * @return live credit policy
+     */
+    public CreditPolicy getPolicy() {
+        return snapshot.getPolicy();
+    }
+
+    /**
+     * Get the validators of the live credit policy's limits.
+     * @return request validators
+     */
+    public DecisionEngineValidators getValidators() {
+        return snapshot.getValidators();
+    }
+
+    /**
+     * Get the message of every rejection under the live credit policy, which quote the policy's limits.
+     * <p>
+     * The messages are built with the policy, so the same map is returned until the policy is replaced.
+     * @return rejection messages by reason
+     */
+    public Map<RejectionReason, String> getRejectionMessages() {
+        return snapshot.getRejectionMessages();
+    }
+
+    /**
+     * Get the snapshot of the live credit policy.
+     * <p>
+     * Decisions made with {@link #getDecision(PolicySnapshot, String, int, int)} under one snapshot, and the
+     * snapshot's rejection messages, all come from the same policy, even if it is replaced in the meantime.
+     * @return live policy snapshot
+     */
+    public PolicySnapshot getSnapshot() {
+        return snapshot;
+    }
+
+    /**
+     * Replace the credit policy that decisions are made under.
+     * <p>
+     * The new policy's decisions are precomputed on the calling thread, then the policy is swapped in at once.
+     * Requests that started before the swap finish under the old policy, later ones use the new policy.
+     * @param policy new credit policy
+     */
+    public void setPolicy(CreditPolicy policy) {
+        snapshot = PolicySnapshot.of(policy);
+    }
+
+    /**
+     * Get the version of the policy that decisions are made under.
+     * <p>
+     * The version is made of the credit policy's version and the version of its decisions, so it changes both when
+     * the policy changes and when the rules give any request a different decision. The same request gets the same
+     * decision under the same policy version, as long as the client's credit modifier doesn't change.
+     * @return policy version
+     */
+    public String getPolicyVersion() {
+        return snapshot.getVersion();
+    }
+
+    /**
+     * Get a digest of the policy that decisions are made under.
+     * <p>
+     * Unlike the version, the digest is a cryptographic hash of the policy and all of its decisions, so policies
+     * that give any request a different decision never have the same digest.
+     * @return policy digest in hex
+     */
+    public String getPolicyDigest() {
+        return snapshot.getDigest();
+    }
+
+    /**
+     * Get a tag of everything that the decision of a request depends on, without making the decision.
+     * <p>
+     * The tag is made of the policy digest, the client's credit modifier and the requested amount and period, so
+     * requests with the same tag get the same decision. Only the client's credit modifier is looked up, nothing is
+     * calculated, recorded or journaled.
+     * @param personalCode client's personal code
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return tag of the request's decision
+     */
+    public String getDecisionTag(String personalCode, int loanAmount, int loanPeriod) {
+        final PolicySnapshot current = snapshot;
+        final int lastThreeDigits = current.getValidators().validatePersonalCode(personalCode);
+        final String segment;
+        if (lastThreeDigits == PersonalCodes.invalid) {
+            segment = "c";
+        } else if (current.getValidators().validateLoan(loanAmount, loanPeriod) != null) {
+            segment = "l";
+        } else {
+            final int creditModifier =
+                    creditModifierProvider.getCreditModifier(personalCode, lastThreeDigits, current.getPolicy());
+            segment = creditModifier == CreditModifierProvider.unknownCreditModifier
+                    ? "u" : Integer.toString(creditModifier);
+        }
+        return current.getDigest() + '-' + segment + '-' + loanAmount + '-' + loanPeriod;
+    }
+
+    /**
+     * Get the version of the policy that decisions are made under as a number, as it is written to the journal.
+     * @return policy version number
+     */
+    public long getPolicyVersionNumber() {
+        return snapshot.getVersionNumber();
+    }
+
+    /**
+     * Write a policy version number the same way as {@link #getPolicyVersion()}.
+     * @param versionNumber policy version number
+     * @return policy version
+     */
+    public static String formatPolicyVersion(long versionNumber) {
+        return PolicySnapshot.formatVersion(versionNumber);
+    }
+
+    /**
+     * Append every decision made from now on to a journal.
+     * @param journal decision journal, null to stop journaling
+     */
+    public void setJournal(DecisionJournal journal) {
+        this.journal = journal;
+    }
+
+    /**
+     * Start evaluating a candidate credit policy on a sample of the requests, replacing any running evaluation.
+     * @param candidate candidate credit policy
+     * @param sampleEvery evaluate about one in every this many requests, 1 evaluates every request
+     * @param capacity largest number of requests waiting to be evaluated
+     * @return the started evaluation
+     */
+    public synchronized ShadowEvaluation startShadowEvaluation(CreditPolicy candidate, int sampleEvery, int capacity) {
+        final ShadowEvaluation evaluation =
+                new ShadowEvaluation(PolicySnapshot.of(candidate), creditModifierProvider, sampleEvery, capacity);
+        final ShadowEvaluation previous = shadowEvaluation;
+        shadowEvaluation = evaluation;
+        if (previous != null) {
+            previous.close();
+        }
+        return evaluation;
+    }
+
+    /**
+     * Stop evaluating the candidate credit policy.
+     */
+    public synchronized void stopShadowEvaluation() {
+        final ShadowEvaluation previous = shadowEvaluation;
+        shadowEvaluation = null;
+        if (previous != null) {
+            previous.close();
+        }
+    }
+
+    /**
+     * Get the running evaluation of a candidate credit policy.
+     * @return the evaluation, null if no candidate is being evaluated
+     */
+    public ShadowEvaluation getShadowEvaluation() {
+        return shadowEvaluation;
+    }
 
     /**
      * Get decision whether the client can loan money or not.
      * <p>
-     * Throws an exception if loan can not be requested, otherwise returns the appropriate loan amount and period.
+     * The result is a packed {@link Decision}, so no memory is allocated for it. It contains either the
+     * appropriate loan amount and period, or the reason why a loan can not be given.
      * @param personalCode client's personal code
      * @param loanAmount loan amount in euros
      * @param loanPeriod loan period in months
-     * @return calculated loan amount and period in an array
-     * @throws InvalidDataException gets thrown when one (or more) of the given variables are not valid
-     * @throws CantLoanException gets thrown when a loan cannot be given
-     */
-    public Integer[] getDecision(String personalCode, Integer loanAmount, Integer loanPeriod)
-            throws CantLoanException, InvalidDataException {
-        
-        DecisionEngineValidators validators = new DecisionEngineValidators();
-        validators.validateAllParameters(personalCode, loanAmount, loanPeriod);
-
-        Optional<Integer> creditModifier = getCreditModifier(personalCode);
-        if (creditModifier.isEmpty()) {
-            throw new CantLoanException(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER);
-        } else if (creditModifier.get() == 0) {
-            throw new CantLoanException(CantLoanException.Reason.CLIENT_IN_DEBT);
+     * @return calculated loan amount and period, or the rejection reason, as a packed decision
+     */
+    public int getDecision(String personalCode, int loanAmount, int loanPeriod) {
+        return getDecision(snapshot, personalCode, loanAmount, loanPeriod);
+    }
+
+    /**
+     * Get decision whether the client can loan money or not under a snapshot of the credit policy.
+     * @param current snapshot from {@link #getSnapshot()} that the decision is made under
+     * @param personalCode client's personal code
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return calculated loan amount and period, or the rejection reason, as a packed decision
+     */
+    public int getDecision(PolicySnapshot current, String personalCode, int loanAmount, int loanPeriod) {
+        final long validationStart = metrics.now();
+        final int lastThreeDigits = current.getValidators().validatePersonalCode(personalCode);
+        if (lastThreeDigits == PersonalCodes.invalid) {
+            metrics.recordStage(DecisionMetrics.Stage.VALIDATION, validationStart);
+            final int decision =
+                    metrics.recordDecision(Decision.rejected(InvalidDataException.Reason.PERSONAL_CODE_INVALID));
+            journal(current, personalCode, loanAmount, loanPeriod, decision);
+            return decision;
+        }
+        final InvalidDataException.Reason invalidData = current.getValidators().validateLoan(loanAmount, loanPeriod);
+        final long modifierStart = metrics.recordStage(DecisionMetrics.Stage.VALIDATION, validationStart);
+        final int decision = invalidData != null
+                ? metrics.recordDecision(Decision.rejected(invalidData))
+                : decide(current, creditModifierProvider.getCreditModifier(personalCode, lastThreeDigits,
+                        current.getPolicy()), loanAmount, loanPeriod, modifierStart);
+        journal(current, personalCode, loanAmount, loanPeriod, decision);
+        shadow(personalCode, lastThreeDigits, loanAmount, loanPeriod, decision);
+        return decision;
+    }
+
+    /**
+     * Get decision whether the client can loan money or not, without waiting for the client's credit modifier.
+     * <p>
+     * Invalid requests are answered right away. Otherwise the decision is made on the thread that finishes the
+     * credit modifier lookup, so no thread waits while the lookup is in flight.
+     * @param personalCode client's personal code
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return packed decision, when it has been made
+     */
+    public CompletableFuture<Integer> getDecisionAsync(String personalCode, int loanAmount, int loanPeriod) {
+        final PolicySnapshot current = snapshot;
+        final long validationStart = metrics.now();
+        final int lastThreeDigits = current.getValidators().validatePersonalCode(personalCode);
+        if (lastThreeDigits == PersonalCodes.invalid) {
+            metrics.recordStage(DecisionMetrics.Stage.VALIDATION, validationStart);
+            final int decision =
+                    metrics.recordDecision(Decision.rejected(InvalidDataException.Reason.PERSONAL_CODE_INVALID));
+            journal(current, personalCode, loanAmount, loanPeriod, decision);
+            return CompletableFuture.completedFuture(decision);
+        }
+        final InvalidDataException.Reason invalidData = current.getValidators().validateLoan(loanAmount, loanPeriod);
+        final long modifierStart = metrics.recordStage(DecisionMetrics.Stage.VALIDATION, validationStart);
+        if (invalidData != null) {
+            final int decision = metrics.recordDecision(Decision.rejected(invalidData));
+            journal(current, personalCode, loanAmount, loanPeriod, decision);
+            shadow(personalCode, lastThreeDigits, loanAmount, loanPeriod, decision);
+            return CompletableFuture.completedFuture(decision);
         }
 
-        LoanCalculator loanCalculator = new LoanCalculator(loanAmount, loanPeriod, creditModifier.get());
-        return loanCalculator.getLoanResult();
+        return creditModifierProvider.getCreditModifierAsync(personalCode, lastThreeDigits, current.getPolicy())
+                .thenApply(creditModifier -> {
+                    final int decision = decide(current, creditModifier, loanAmount, loanPeriod, modifierStart);
+                    journal(current, personalCode, loanAmount, loanPeriod, decision);
+                    shadow(personalCode, lastThreeDigits, loanAmount, loanPeriod, decision);
+                    return decision;
+                });
     }
 
     /**
-     * Get the client's credit modifier.
+     * Get the largest loan amount that can be approved for the client for every loan period.
      * <p>
-     * Currently, the method for determining credit modifiers is as follows:
-     * We take the last 3 digits of a client's personal code.
-     * A value between and including 000 and 199 is considered an unknown credit modifier.
-     * A value between and including 200 and 399 is a credit modifier of 0 (client in debt).
-     * A value between and including 400 and 599 is a credit modifier of 100.
-     * A value between and including 600 and 799 is a credit modifier of 300.
-     * A value between and including 800 and 999 is a credit modifier of 1000.
+     * The curve is shared by every client with the same credit modifier, so nothing is calculated for the request.
      * @param personalCode client's personal code
-     * @return an optional potentially containing the client's credit modifier
-     */
-    private Optional<Integer> getCreditModifier(String personalCode) {
-        final String lastThreeDigitsString = personalCode.substring(personalCode.length() - 3);
-        final int lastThreeDigits = Integer.parseInt(lastThreeDigitsString);
-
-        if (200 <= lastThreeDigits && lastThreeDigits < 400) {
-            return Optional.of(0);
-        } else if (400 <= lastThreeDigits && lastThreeDigits < 600) {
-            return Optional.of(100);
-        } else if (600 <= lastThreeDigits && lastThreeDigits < 800) {
-            return Optional.of(300);
-        } else if (800 <= lastThreeDigits) {
-            return Optional.of(1000);
+     * @return the client's offer curve, or a curve with the reason why no loan can be given
+     */
+    public OfferCurve getOfferCurve(String personalCode) {
+        final PolicySnapshot current = snapshot;
+        final int lastThreeDigits = current.getValidators().validatePersonalCode(personalCode);
+        if (lastThreeDigits == PersonalCodes.invalid) {
+            return OfferCurve.rejected(InvalidDataException.Reason.PERSONAL_CODE_INVALID);
+        }
+
+        final int creditModifier =
+                creditModifierProvider.getCreditModifier(personalCode, lastThreeDigits, current.getPolicy());
+        if (creditModifier == CreditModifierProvider.unknownCreditModifier) {
+            return OfferCurve.rejected(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER);
+        } else if (creditModifier == 0) {
+            return OfferCurve.rejected(CantLoanException.Reason.CLIENT_IN_DEBT);
         }
+        return current.getDecisionTable().getOfferCurve(creditModifier);
+    }
+
+    private int decide(PolicySnapshot current, int creditModifier, int loanAmount, int loanPeriod,
+                       long modifierStart) {
+        final long calculationStart = metrics.recordStage(DecisionMetrics.Stage.MODIFIER_RESOLUTION, modifierStart);
+        final int decision = current.decide(creditModifier, loanAmount, loanPeriod);
+        metrics.recordStage(DecisionMetrics.Stage.CALCULATION, calculationStart);
+        return metrics.recordDecision(decision);
+    }
 
-        return Optional.empty();
+    private void journal(PolicySnapshot current, String personalCode, int loanAmount, int loanPeriod, int decision) {
+        final DecisionJournal target = journal;
+        if (target != null) {
+            target.append(personalCode, loanAmount, loanPeriod, decision, current.getVersionNumber());
+        }
+    }
+
+    private void shadow(String personalCode, int lastThreeDigits, int loanAmount, int loanPeriod, int decision) {
+        final ShadowEvaluation evaluation = shadowEvaluation;
+        if (evaluation != null) {
+            evaluation.offer(personalCode, lastThreeDigits, loanAmount, loanPeriod, decision);
+        }
     }
 }
@@ -0,0 +1,145 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.util.Arrays;
+
+/**
+ * Precomputed loan decisions for every valid loan amount and period.
+ * <p>
+ * The table is built once for a fixed set of credit modifiers by running {@link LoanCalculator} over the whole
+ * input domain. Every outcome (offered amount, offered period and rejection reason) is stored as a packed
+ * {@link Decision}, so getting a decision is one array lookup.
+ */
+public class DecisionTable {
+    private final LoanLimits limits;
+    private final int periodCount;
+    private final int rowSize;
+    private final int[] creditModifiers;
+    private final int[] decisions;
+    private final String version;
+    private final OfferCurve[] offerCurves;
+
+    /**
+     * Build the table for the given credit modifiers with the default loan limits.
+     * <p>
+     * @param creditModifiers credit modifiers that get their own row in the table
+     */
+    public DecisionTable(int... creditModifiers) {
+        this(LoanLimits.defaultLimits, creditModifiers);
+    }
+
+    /**
+     * Build the table for the given loan limits and credit modifiers.
+     * <p>
+     * @param limits loan limits of the policy
+     * @param creditModifiers credit modifiers that get their own row in the table
+     */
+    public DecisionTable(LoanLimits limits, int... creditModifiers) {
+        this.limits = limits;
+        this.periodCount = limits.maximumLoanPeriod() - limits.minimumLoanPeriod() + 1;
+        this.rowSize = (limits.maximumLoanAmount() - limits.minimumLoanAmount() + 1) * periodCount;
+        this.creditModifiers = creditModifiers.clone();
+        this.decisions = new int[Math.multiplyExact(this.creditModifiers.length, rowSize)];
+
+        for (int row = 0; row < this.creditModifiers.length; row++) {
+            for (int amount = limits.minimumLoanAmount(); amount <= limits.maximumLoanAmount(); amount++) {
+                for (int period = limits.minimumLoanPeriod(); period <= limits.maximumLoanPeriod(); period++) {
+                    decisions[getIndex(row, amount, period)] =
+                            new LoanCalculator(amount, period, this.creditModifiers[row], limits).getLoanResult();
+                }
+            }
+        }
+        this.version = Integer.toHexString(31 * Arrays.hashCode(this.creditModifiers) + Arrays.hashCode(decisions));
+        this.offerCurves = new OfferCurve[this.creditModifiers.length];
+        for (int row = 0; row < this.creditModifiers.length; row++) {
+            offerCurves[row] = OfferCurve.build(limits, this.creditModifiers[row]);
+        }
+    }
+
+    /**
+     * Get the version of the decisions in the table.
+     * <p>
+     * The version is derived from every decision in the table, so it changes whenever the rules or the credit
+     * modifiers give any request a different decision.
+     * @return version of the table's decisions
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    /**
+     * Feed the limits, the credit modifiers and every decision of the table to a message digest.
+     * @param digest digest to update
+     */
+    void digest(MessageDigest digest) {
+        final ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES * 1024);
+        buffer.putInt(limits.minimumLoanAmount()).putInt(limits.maximumLoanAmount())
+                .putInt(limits.minimumLoanPeriod()).putInt(limits.maximumLoanPeriod())
+                .putInt(creditModifiers.length);
+        for (int creditModifier : creditModifiers) {
+            putInt(digest, buffer, creditModifier);
+        }
+        for (int decision : decisions) {
+            putInt(digest, buffer, decision);
+        }
+        digest.update(buffer.flip());
+    }
+
+    /**
+     * Get the packed decision of a loan request.
+     * <p>
+     * Requests that fall outside the table (unknown credit modifier or out of range values) are calculated
+     * directly with {@link LoanCalculator}, so the result is always the same as the calculator's.
+     * @param creditModifier client's credit modifier
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return packed decision
+     */
+    public int getDecision(int creditModifier, int loanAmount, int loanPeriod) {
+        final int row = getRow(creditModifier);
+
+        if (row < 0 || !limits.isValidAmount(loanAmount) || !limits.isValidPeriod(loanPeriod)) {
+            return new LoanCalculator(loanAmount, loanPeriod, creditModifier, limits).getLoanResult();
+        }
+        return decisions[getIndex(row, loanAmount, loanPeriod)];
+    }
+
+    /**
+     * Get the largest amount that can be approved for every loan period.
+     * <p>
+     * Curves of the table's credit modifiers are built with the table and shared, other curves are built when
+     * they are asked for.
+     * @param creditModifier client's credit modifier, above 0
+     * @return offer curve of the credit modifier
+     */
+    public OfferCurve getOfferCurve(int creditModifier) {
+        final int row = getRow(creditModifier);
+        return row < 0 ? OfferCurve.build(limits, creditModifier) : offerCurves[row];
+    }
+
+    private static void putInt(MessageDigest digest, ByteBuffer buffer, int value) {
+        if (!buffer.hasRemaining()) {
+            digest.update(buffer.flip());
+            buffer.clear();
+        }
+        buffer.putInt(value);
+    }
+
+    private int getRow(int creditModifier) {
+        for (int row = 0; row < creditModifiers.length; row++) {
+            if (creditModifiers[row] == creditModifier) {
+                return row;
+            }
+        }
+        return -1;
+    }
+
+    private int getIndex(int row, int loanAmount, int loanPeriod) {
+        return row * rowSize
+                + (loanAmount - limits.minimumLoanAmount()) * periodCount
+                + (loanPeriod - limits.minimumLoanPeriod());
+    }
+}
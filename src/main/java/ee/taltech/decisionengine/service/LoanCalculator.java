@@ -2,7 +2,7 @@ package ee.taltech.decisionengine.service;
 
 import ee.taltech.decisionengine.exceptions.CantLoanException;
 import ee.taltech.decisionengine.exceptions.InvalidDataException;
-import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+import ee.taltech.decisionengine.service.policy.LoanLimits;
 import lombok.AllArgsConstructor;
 
 /**
@@ -10,76 +10,56 @@ import lombok.AllArgsConstructor;
  */
 @AllArgsConstructor
 public class LoanCalculator {
-    private Integer loanAmount;
-    private Integer loanPeriod;
-    private final Integer creditModifier;
+    private final int loanAmount;
+    private final int loanPeriod;
+    private final int creditModifier;
+    private final LoanLimits limits;
 
     /**
-     * Get the loan amount and period of a loan that can be given to a specific client (if possible).
-     * <p>
-     * @return array containing a loan amount and period that can be given to the client
-     * @throws InvalidDataException gets thrown when one (or more) of the given variables are not valid
-     * @throws CantLoanException gets thrown when a loan cannot be given
+     * Create a calculator with the default loan limits.
+     * @param loanAmount requested loan amount in euros
+     * @param loanPeriod requested loan period in months
+     * @param creditModifier client's credit modifier
      */
-    public Integer[] getLoanResult() throws CantLoanException, InvalidDataException {
-        if (loanAmount == null || loanPeriod == null || creditModifier == null) {
-            throw new InvalidDataException(InvalidDataException.Reason.DATA_INVALID);
-        }
-
-        final int lowestPeriod = getLowestValidPeriod();
-        final int highestLoan = getHighestValidLoan();
-
-        if (getCreditScore() >= 1) {
-            return new Integer[] {loanAmount, loanPeriod};
-
-        } else if (highestLoan >= DecisionEngineConstants.minimumLoanAmount
-                && highestLoan <= DecisionEngineConstants.maximumLoanAmount) {
-            return new Integer[] {getHighestValidLoan(), loanPeriod};
-
-        } else if (lowestPeriod >= DecisionEngineConstants.minimumLoanPeriod
-                && lowestPeriod <= DecisionEngineConstants.maximumLoanPeriod) {
-            return new Integer[] {2000, getLowestValidPeriod()};
-
-        } else {
-            throw new CantLoanException(CantLoanException.Reason.NO_POSSIBLE_LOANS);
-        }
+    public LoanCalculator(int loanAmount, int loanPeriod, int creditModifier) {
+        this(loanAmount, loanPeriod, creditModifier, LoanLimits.defaultLimits);
     }
 
     /**
-     * Calculate the credit score of a person.
+     * Get the loan amount and period of a loan that can be given to a specific client (if possible).
      * <p>
-     * The formula for this calculation is as follows: (creditModifier / loanAmount) * loanPeriod
-     * @return result of the calculation
-     * @throws InvalidDataException gets thrown when one of the given variables is not valid
+     * The requested loan is given if the client's credit score (creditModifier / loanAmount) * loanPeriod is at
+     * least 1. Otherwise the largest amount for the requested period is offered, then the requested amount for the
+     * shortest period it can be given for, and finally the largest amount for any period.
+     * @return packed {@link Decision} containing a loan amount and period that can be given to the client,
+     * or the reason why a loan can not be given
      */
-    private float getCreditScore() throws InvalidDataException {
-        if (loanAmount < 2000 || loanAmount > 10000) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
+    public int getLoanResult() {
+        if (creditModifier <= 0) {
+            return Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT);
+        } else if (!limits.isValidPeriod(loanPeriod)) {
+            return Decision.rejected(InvalidDataException.Reason.LOAN_PERIOD_INVALID);
+        } else if (!limits.isValidAmount(loanAmount)) {
+            return Decision.rejected(InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
         }
-        return (float) ((creditModifier * loanPeriod)) / loanAmount;
-    }
 
-    /**
-     * Calculate the lowest valid loan period that can be offered for the client.
-     * @return result of the calculation
-     * @throws CantLoanException thrown when the credit modifier is less than or equal to 0
-     */
-    private int getLowestValidPeriod() throws CantLoanException {
-        if (creditModifier <= 0) {
-            throw new CantLoanException(CantLoanException.Reason.CLIENT_IN_DEBT);
+        final int highestLoan = OfferSolver.getMaximumAmount(limits, creditModifier, loanPeriod);
+        if (highestLoan >= loanAmount) {
+            return Decision.of(loanAmount, loanPeriod);
+
+        } else if (highestLoan > 0) {
+            return Decision.counterOffer(highestLoan, loanPeriod);
         }
-        return (int) Math.ceil((float) DecisionEngineConstants.minimumLoanAmount / creditModifier);
-    }
 
-    /**
-     * Calculate the highest valid loan amount that can be offered for the client.
-     * @return result of the calculation
-     * @throws InvalidDataException thrown when the loan period is not in the correct range
-     */
-    private int getHighestValidLoan() throws InvalidDataException {
-        if (loanPeriod < 12 || loanPeriod > 60) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_PERIOD_INVALID);
+        final int lowestPeriod = OfferSolver.getShortestPeriod(limits, creditModifier, loanAmount);
+        if (lowestPeriod > 0) {
+            return Decision.counterOffer(loanAmount, lowestPeriod);
+        }
+
+        final int bestLoan = OfferSolver.getMaximumAmount(limits, creditModifier);
+        if (bestLoan > 0) {
+            return Decision.counterOffer(bestLoan, OfferSolver.getShortestPeriod(limits, creditModifier, bestLoan));
         }
-        return (int) Math.floor(creditModifier * loanPeriod);
+        return Decision.rejected(CantLoanException.Reason.NO_POSSIBLE_LOANS);
     }
 }
@@ -0,0 +1,102 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * The largest loan amount that can be approved as requested for every loan period.
+ * <p>
+ * A curve only depends on the credit modifier, so the engine builds one for each modifier segment and every
+ * client in the segment shares it. Curves are immutable. When no loan can be given for any period, the curve
+ * holds the reason instead.
+ */
+public final class OfferCurve {
+    private static final Map<RejectionReason, OfferCurve> rejections = getRejections();
+
+    private final int[] maximumAmounts;
+    private final RejectionReason rejectionReason;
+
+    private OfferCurve(int[] maximumAmounts, RejectionReason rejectionReason) {
+        this.maximumAmounts = maximumAmounts;
+        this.rejectionReason = rejectionReason;
+    }
+
+    /**
+     * Build the curve of a credit modifier.
+     * <p>
+     * The largest amount of every period is solved from the credit score inequality by {@link OfferSolver}.
+     * @param limits loan limits of the policy
+     * @param creditModifier client's credit modifier, above 0
+     * @return offer curve of the credit modifier
+     */
+    static OfferCurve build(LoanLimits limits, int creditModifier) {
+        final int[] maximumAmounts = new int[limits.maximumLoanPeriod() + 1];
+        boolean anyOffers = false;
+        for (int period = limits.minimumLoanPeriod(); period <= limits.maximumLoanPeriod(); period++) {
+            maximumAmounts[period] = OfferSolver.getMaximumAmount(limits, creditModifier, period);
+            anyOffers |= maximumAmounts[period] > 0;
+        }
+        return anyOffers ? new OfferCurve(maximumAmounts, null) : rejected(CantLoanException.Reason.NO_POSSIBLE_LOANS);
+    }
+
+    /**
+     * Get the shared curve of a client who can't get any loan.
+     * @param reason reason why no loan can be given
+     * @return curve without offers
+     */
+    public static OfferCurve rejected(RejectionReason reason) {
+        return rejections.get(reason);
+    }
+
+    /**
+     * Check whether no loan can be given for any period.
+     * @return true if the curve has no offers
+     */
+    public boolean isRejected() {
+        return rejectionReason != null;
+    }
+
+    /**
+     * Get the reason why no loan can be given.
+     * @return rejection reason, null if the curve has offers
+     */
+    public RejectionReason getRejectionReason() {
+        return rejectionReason;
+    }
+
+    /**
+     * Get the longest loan period that the curve can have an offer for.
+     * @return loan period in months, 0 if the curve has no offers
+     */
+    public int getMaximumPeriod() {
+        return maximumAmounts == null ? 0 : maximumAmounts.length - 1;
+    }
+
+    /**
+     * Get the largest amount that can be approved for a loan period.
+     * @param loanPeriod loan period in months
+     * @return largest loan amount in euros, 0 if no loan can be given for the period
+     */
+    public int getMaximumAmount(int loanPeriod) {
+        if (maximumAmounts == null || loanPeriod < 0 || loanPeriod >= maximumAmounts.length) {
+            return 0;
+        }
+        return maximumAmounts[loanPeriod];
+    }
+
+    private static Map<RejectionReason, OfferCurve> getRejections() {
+        final Map<RejectionReason, OfferCurve> rejections = new IdentityHashMap<>();
+        for (CantLoanException.Reason reason : CantLoanException.Reason.values()) {
+            rejections.put(reason, new OfferCurve(null, reason));
+        }
+        for (InvalidDataException.Reason reason : InvalidDataException.Reason.values()) {
+            rejections.put(reason, new OfferCurve(null, reason));
+        }
+        return rejections;
+    }
+}
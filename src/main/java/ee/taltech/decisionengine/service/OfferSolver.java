@@ -0,0 +1,60 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+
+/**
+ * Best loans that can be offered to a client, solved in constant time.
+ * <p>
+ * A loan is approved when the credit score (creditModifier / loanAmount) * loanPeriod is at least 1, that is when
+ * loanAmount <= creditModifier * loanPeriod. The largest amount for a period and the shortest period for an amount
+ * follow directly from that inequality and the allowed ranges, so no amounts or periods have to be tried.
+ */
+public final class OfferSolver {
+
+    private OfferSolver() {
+    }
+
+    /**
+     * Get the largest loan amount that can be approved for a loan period.
+     * @param limits loan limits of the policy
+     * @param creditModifier client's credit modifier
+     * @param loanPeriod loan period in months
+     * @return largest loan amount in euros, 0 if no loan can be approved for the period
+     */
+    public static int getMaximumAmount(LoanLimits limits, int creditModifier, int loanPeriod) {
+        if (creditModifier <= 0 || !limits.isValidPeriod(loanPeriod)) {
+            return 0;
+        }
+        final long highestLoan = (long) creditModifier * loanPeriod;
+        if (highestLoan < limits.minimumLoanAmount()) {
+            return 0;
+        }
+        return (int) Math.min(highestLoan, limits.maximumLoanAmount());
+    }
+
+    /**
+     * Get the shortest loan period that a loan amount can be approved for.
+     * @param limits loan limits of the policy
+     * @param creditModifier client's credit modifier
+     * @param loanAmount loan amount in euros
+     * @return shortest loan period in months, 0 if the amount can't be approved for any period
+     */
+    public static int getShortestPeriod(LoanLimits limits, int creditModifier, int loanAmount) {
+        if (creditModifier <= 0 || !limits.isValidAmount(loanAmount)) {
+            return 0;
+        }
+        final int lowestPeriod = (int) Math.max(limits.minimumLoanPeriod(),
+                ((long) loanAmount + creditModifier - 1) / creditModifier);
+        return lowestPeriod <= limits.maximumLoanPeriod() ? lowestPeriod : 0;
+    }
+
+    /**
+     * Get the largest loan amount that can be approved for any loan period.
+     * @param limits loan limits of the policy
+     * @param creditModifier client's credit modifier
+     * @return largest loan amount in euros, 0 if no loan can be approved at all
+     */
+    public static int getMaximumAmount(LoanLimits limits, int creditModifier) {
+        return getMaximumAmount(limits, creditModifier, limits.maximumLoanPeriod());
+    }
+}
@@ -0,0 +1,148 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.exceptions.RejectionReason;
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import ee.taltech.decisionengine.service.utils.DecisionEngineValidators;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * Everything a decision is made from under one credit policy: the policy, its validators, its precomputed
+ * decisions and the messages of its rejections, which quote its limits.
+ * <p>
+ * Snapshots are immutable and are replaced as a whole when the policy changes, so a request that reads the
+ * snapshot once sees one policy from start to end without locking. Callers outside the engine can read it once too,
+ * so that a decision and the message that answers it come from the same policy.
+ * <p>
+ * Besides the short version that is written to the journal, every snapshot has a digest of its policy and all of
+ * its decisions. The digest is a SHA-256 hash, so two policies that give any request a different decision have
+ * different digests, and it is the same in every process that runs the same policy.
+ */
+public final class PolicySnapshot {
+    private static final PolicySnapshot defaultSnapshot = new PolicySnapshot(CreditPolicy.getDefault());
+    private static final int suffixCount = 1000;
+    private static final int digestBytes = 16;
+
+    private final CreditPolicy policy;
+    private final DecisionEngineValidators validators;
+    private final DecisionTable decisionTable;
+    private final long versionNumber;
+    private final String version;
+    private final String digest;
+    private final Map<RejectionReason, String> rejectionMessages;
+
+    private PolicySnapshot(CreditPolicy policy) {
+        this.policy = policy;
+        this.validators = new DecisionEngineValidators(policy.getLimits());
+        this.decisionTable = new DecisionTable(policy.getLimits(), policy.getSegmentModifiers());
+        this.versionNumber = (Integer.toUnsignedLong(Integer.parseUnsignedInt(policy.getVersion(), 16)) << 32)
+                | Integer.toUnsignedLong(Integer.parseUnsignedInt(decisionTable.getVersion(), 16));
+        this.version = formatVersion(versionNumber);
+        this.digest = digest(policy, decisionTable);
+        final Map<RejectionReason, String> messages = new IdentityHashMap<>();
+        for (RejectionReason reason : CantLoanException.Reason.values()) {
+            messages.put(reason, reason.getMessage(policy.getLimits()));
+        }
+        for (RejectionReason reason : InvalidDataException.Reason.values()) {
+            messages.put(reason, reason.getMessage(policy.getLimits()));
+        }
+        this.rejectionMessages = Collections.unmodifiableMap(messages);
+    }
+
+    /**
+     * Write a version number as the policy's version followed by the version of its decisions.
+     * @param versionNumber policy version as a number
+     * @return policy version
+     */
+    static String formatVersion(long versionNumber) {
+        return Integer.toHexString((int) (versionNumber >>> 32)) + '.' + Integer.toHexString((int) versionNumber);
+    }
+
+    /**
+     * Get the snapshot of a policy, building its decisions unless it is the default policy.
+     * @param policy credit policy
+     * @return snapshot of the policy
+     */
+    static PolicySnapshot of(CreditPolicy policy) {
+        return policy == CreditPolicy.getDefault() ? defaultSnapshot : new PolicySnapshot(policy);
+    }
+
+    CreditPolicy getPolicy() {
+        return policy;
+    }
+
+    DecisionEngineValidators getValidators() {
+        return validators;
+    }
+
+    DecisionTable getDecisionTable() {
+        return decisionTable;
+    }
+
+    String getVersion() {
+        return version;
+    }
+
+    long getVersionNumber() {
+        return versionNumber;
+    }
+
+    String getDigest() {
+        return digest;
+    }
+
+    /**
+     * Get the message of every rejection under the policy, which quote the policy's limits.
+     * @return rejection messages by reason
+     */
+    public Map<RejectionReason, String> getRejectionMessages() {
+        return rejectionMessages;
+    }
+
+    /**
+     * Decide a valid request under the policy.
+     * @param creditModifier client's credit modifier
+     * @param loanAmount loan amount in euros
+     * @param loanPeriod loan period in months
+     * @return packed decision
+     */
+    int decide(int creditModifier, int loanAmount, int loanPeriod) {
+        if (creditModifier == CreditModifierProvider.unknownCreditModifier) {
+            return Decision.rejected(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER);
+        } else if (creditModifier == 0) {
+            return Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT);
+        }
+        return decisionTable.getDecision(creditModifier, loanAmount, loanPeriod);
+    }
+
+    /**
+     * Hash the credit modifier of every suffix and every precomputed decision.
+     * @param policy credit policy
+     * @param decisionTable decisions of the policy
+     * @return the first 128 bits of the SHA-256 hash, in hex
+     */
+    private static String digest(CreditPolicy policy, DecisionTable decisionTable) {
+        final MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Every Java runtime has SHA-256.", e);
+        }
+        final ByteBuffer modifiers = ByteBuffer.allocate(suffixCount * Integer.BYTES);
+        for (int suffix = 0; suffix < suffixCount; suffix++) {
+            modifiers.putInt(policy.getCreditModifier(suffix));
+        }
+        digest.update(modifiers.flip());
+        decisionTable.digest(digest);
+        return HexFormat.of().formatHex(digest.digest(), 0, digestBytes);
+    }
+}
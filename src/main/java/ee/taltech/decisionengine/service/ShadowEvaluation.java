@@ -0,0 +1,171 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Evaluation of a candidate credit policy on a sample of live requests, before it is promoted.
+ * <p>
+ * Request threads only offer a sampled request to a bounded queue and never wait: when the queue is full the
+ * request is dropped and counted. A background thread decides every queued request again under the candidate
+ * policy and counts how often the candidate disagrees with the live decision, by the live decision's outcome.
+ * Credit modifiers are resolved again under the candidate policy, so band changes are evaluated too.
+ */
+public final class ShadowEvaluation implements AutoCloseable {
+    private static final long pollMillis = 10;
+    private static final long shutdownMillis = 5000;
+
+    private final PolicySnapshot candidate;
+    private final CreditModifierProvider creditModifierProvider;
+    private final int sampleEvery;
+    private final BlockingQueue<Sample> queue;
+    private final AtomicLongArray requests = new AtomicLongArray(Decision.Outcome.values().length);
+    private final AtomicLongArray disagreements = new AtomicLongArray(Decision.Outcome.values().length);
+    private final LongAdder dropped = new LongAdder();
+    private final Thread evaluatorThread;
+    private volatile boolean running = true;
+
+    private record Sample(String personalCode, int lastThreeDigits, int loanAmount, int loanPeriod, int decision) {
+    }
+
+    /**
+     * Create an evaluation and start its evaluator thread.
+     * @param candidate snapshot of the candidate policy
+     * @param creditModifierProvider source of clients' credit modifiers
+     * @param sampleEvery evaluate about one in every this many requests, 1 evaluates every request
+     * @param capacity largest number of requests waiting to be evaluated
+     */
+    ShadowEvaluation(PolicySnapshot candidate, CreditModifierProvider creditModifierProvider, int sampleEvery,
+                     int capacity) {
+        this.candidate = candidate;
+        this.creditModifierProvider = creditModifierProvider;
+        this.sampleEvery = Math.max(1, sampleEvery);
+        this.queue = new ArrayBlockingQueue<>(capacity);
+        this.evaluatorThread = new Thread(this::evaluateSamples, "shadow-policy-evaluator");
+        this.evaluatorThread.setDaemon(true);
+        this.evaluatorThread.start();
+    }
+
+    /**
+     * Offer a live request for evaluation, unless it isn't sampled or the queue is full.
+     * @param personalCode client's personal code, already validated
+     * @param lastThreeDigits last three digits of the personal code
+     * @param loanAmount requested loan amount
+     * @param loanPeriod requested loan period
+     * @param decision packed decision made under the live policy
+     */
+    void offer(String personalCode, int lastThreeDigits, int loanAmount, int loanPeriod, int decision) {
+        if (sampleEvery > 1 && ThreadLocalRandom.current().nextInt(sampleEvery) != 0) {
+            return;
+        }
+        if (!queue.offer(new Sample(personalCode, lastThreeDigits, loanAmount, loanPeriod, decision))) {
+            dropped.increment();
+        }
+    }
+
+    /**
+     * Get the version of the candidate policy.
+     * @return candidate policy version
+     */
+    public String getCandidateVersion() {
+        return candidate.getVersion();
+    }
+
+    /**
+     * Get the number of requests evaluated under the candidate policy.
+     * @param outcome outcome of the live decisions
+     * @return number of evaluated requests with that live outcome
+     */
+    public long getRequestCount(Decision.Outcome outcome) {
+        return requests.get(outcome.ordinal());
+    }
+
+    /**
+     * Get the number of evaluated requests that the candidate policy decided differently.
+     * @param outcome outcome of the live decisions
+     * @return number of disagreements on requests with that live outcome
+     */
+    public long getDisagreementCount(Decision.Outcome outcome) {
+        return disagreements.get(outcome.ordinal());
+    }
+
+    /**
+     * Get the share of evaluated requests that the candidate policy decided differently.
+     * @param outcome outcome of the live decisions
+     * @return disagreements divided by evaluated requests with that live outcome, 0 if there were none
+     */
+    public double getDisagreementRate(Decision.Outcome outcome) {
+        final long requestCount = getRequestCount(outcome);
+        return requestCount == 0 ? 0 : (double) getDisagreementCount(outcome) / requestCount;
+    }
+
+    /**
+     * Get the number of sampled requests that were not evaluated, because the queue was full or the credit
+     * modifier lookup failed.
+     * @return number of dropped requests
+     */
+    public long getDroppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Stop the evaluator thread. Requests that are still queued are not evaluated.
+     */
+    @Override
+    public void close() {
+        running = false;
+        evaluatorThread.interrupt();
+        try {
+            evaluatorThread.join(shutdownMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void evaluateSamples() {
+        while (running) {
+            final Sample sample;
+            try {
+                sample = queue.poll(pollMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                return;
+            }
+            if (sample != null) {
+                evaluate(sample);
+            }
+        }
+    }
+
+    private void evaluate(Sample sample) {
+        final int candidateDecision;
+        try {
+            candidateDecision = decide(sample);
+        } catch (RuntimeException e) {
+            dropped.increment();
+            return;
+        }
+        final int outcome = Decision.getOutcome(sample.decision()).ordinal();
+        requests.incrementAndGet(outcome);
+        if (candidateDecision != sample.decision()) {
+            disagreements.incrementAndGet(outcome);
+        }
+    }
+
+    private int decide(Sample sample) {
+        final InvalidDataException.Reason invalidData =
+                candidate.getValidators().validateLoan(sample.loanAmount(), sample.loanPeriod());
+        if (invalidData != null) {
+            return Decision.rejected(invalidData);
+        }
+        final int creditModifier = creditModifierProvider.getCreditModifier(sample.personalCode(),
+                sample.lastThreeDigits(), candidate.getPolicy());
+        return candidate.decide(creditModifier, sample.loanAmount(), sample.loanPeriod());
+    }
+}
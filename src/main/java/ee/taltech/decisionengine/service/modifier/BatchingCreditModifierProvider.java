@@ -0,0 +1,227 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collect lookups of different clients that arrive close together and send them to the provider in bulk.
+ * <p>
+ * A dispatcher thread waits for the first lookup, then gathers more for at most the batching window or until the
+ * batch is full, and hands the batch to a lookup thread that calls {@link CreditModifierProvider#getCreditModifiers}
+ * once. Every waiting request is then completed with its own client's modifier. Lookups of a client that is already
+ * waiting for the next batch share its result. A longer window and a larger batch mean fewer round trips to the
+ * provider but a longer wait for the first requests of every batch.
+ */
+public class BatchingCreditModifierProvider implements CreditModifierProvider {
+    private static final int queuedBatchesPerThread = 4;
+
+    private final CreditModifierProvider provider;
+    private final long windowNanos;
+    private final int maximumBatchSize;
+    private final Map<String, CompletableFuture<Integer>> pending = new ConcurrentHashMap<>();
+    private final BlockingQueue<String> queue = new LinkedBlockingQueue<>();
+    private final ExecutorService lookupExecutor;
+    private final Thread dispatcher;
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder batchedLookups = new LongAdder();
+    private final LongAdder lookupNanos = new LongAdder();
+    private volatile boolean running = true;
+
+    /**
+     * Create a provider that batches lookups and start its dispatcher thread.
+     * @param provider provider that does the bulk lookups
+     * @param window longest time to wait for more lookups after the first one of a batch
+     * @param maximumBatchSize largest number of clients looked up at once
+     * @param concurrency largest number of bulk lookups running at once
+     */
+    public BatchingCreditModifierProvider(CreditModifierProvider provider, Duration window, int maximumBatchSize,
+                                          int concurrency) {
+        this(provider, window, maximumBatchSize, createLookupExecutor(concurrency));
+    }
+
+    /**
+     * Create a provider that batches lookups on the given executor and start its dispatcher thread.
+     * <p>
+     * An executor that starts a virtual thread for every batch doesn't limit how many bulk lookups run at once.
+     * @param provider provider that does the bulk lookups
+     * @param window longest time to wait for more lookups after the first one of a batch
+     * @param maximumBatchSize largest number of clients looked up at once
+     * @param lookupExecutor executor that runs the bulk lookups, shut down when the provider is closed
+     */
+    public BatchingCreditModifierProvider(CreditModifierProvider provider, Duration window, int maximumBatchSize,
+                                          ExecutorService lookupExecutor) {
+        if (maximumBatchSize < 1) {
+            throw new IllegalArgumentException("Maximum batch size must be positive.");
+        }
+        this.provider = provider;
+        this.windowNanos = window.toNanos();
+        this.maximumBatchSize = maximumBatchSize;
+        this.lookupExecutor = lookupExecutor;
+        this.dispatcher = new Thread(this::dispatch, "credit-modifier-batcher");
+        this.dispatcher.setDaemon(true);
+        this.dispatcher.start();
+    }
+
+    @Override
+    public int getCreditModifier(String personalCode) {
+        return CreditModifierFutures.await(getCreditModifierAsync(personalCode));
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+        final CompletableFuture<Integer> lookup = pending.computeIfAbsent(personalCode, code -> {
+            queue.add(code);
+            return new CompletableFuture<>();
+        });
+        if (!running) {
+            fail(personalCode);
+        }
+        return lookup;
+    }
+
+    /**
+     * Get the provider that does the bulk lookups.
+     * @return wrapped provider
+     */
+    public CreditModifierProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Get the number of bulk lookups sent to the provider.
+     * @return number of batches
+     */
+    public long getBatchCount() {
+        return batches.sum();
+    }
+
+    /**
+     * Get the number of clients looked up in all batches together.
+     * @return number of batched lookups
+     */
+    public long getBatchedLookupCount() {
+        return batchedLookups.sum();
+    }
+
+    /**
+     * Get the total time spent in bulk lookups.
+     * @return total lookup time in nanoseconds
+     */
+    public long getLookupNanos() {
+        return lookupNanos.sum();
+    }
+
+    /**
+     * Stop batching and close the wrapped provider. Batches that were already handed to a lookup thread finish,
+     * lookups still waiting for a batch fail.
+     */
+    @Override
+    public void close() {
+        running = false;
+        dispatcher.interrupt();
+        lookupExecutor.shutdown();
+        for (String personalCode : pending.keySet()) {
+            fail(personalCode);
+        }
+        provider.close();
+    }
+
+    private void dispatch() {
+        final List<String> batch = new ArrayList<>(maximumBatchSize);
+        while (running) {
+            try {
+                batch.add(queue.take());
+                final long deadline = System.nanoTime() + windowNanos;
+                while (batch.size() < maximumBatchSize) {
+                    final long remaining = deadline - System.nanoTime();
+                    final String personalCode = remaining > 0
+                            ? queue.poll(remaining, TimeUnit.NANOSECONDS)
+                            : queue.poll();
+                    if (personalCode == null) {
+                        break;
+                    }
+                    batch.add(personalCode);
+                }
+            } catch (InterruptedException e) {
+                return;
+            }
+
+            final List<String> personalCodes = new ArrayList<>(batch.size());
+            final List<CompletableFuture<Integer>> lookups = new ArrayList<>(batch.size());
+            for (String personalCode : batch) {
+                final CompletableFuture<Integer> lookup = pending.remove(personalCode);
+                if (lookup != null) {
+                    personalCodes.add(personalCode);
+                    lookups.add(lookup);
+                }
+            }
+            batch.clear();
+            if (!lookups.isEmpty()) {
+                final String[] codes = personalCodes.toArray(new String[0]);
+                try {
+                    lookupExecutor.execute(() -> lookUp(codes, lookups));
+                } catch (RejectedExecutionException e) {
+                    // The dispatcher looks the batch up itself when the executor takes no more, or after closing
+                    lookUp(codes, lookups);
+                }
+            }
+        }
+    }
+
+    private void lookUp(String[] personalCodes, List<CompletableFuture<Integer>> lookups) {
+        final long start = System.nanoTime();
+        int[] creditModifiers = null;
+        Throwable failure = null;
+        try {
+            creditModifiers = provider.getCreditModifiers(personalCodes);
+        } catch (RuntimeException | Error e) {
+            failure = e;
+        }
+        // Counted before anyone is woken up, so the counts are up to date when a request returns
+        batches.increment();
+        batchedLookups.add(personalCodes.length);
+        lookupNanos.add(System.nanoTime() - start);
+
+        for (int i = 0; i < personalCodes.length; i++) {
+            if (failure == null) {
+                lookups.get(i).complete(creditModifiers[i]);
+            } else {
+                lookups.get(i).completeExceptionally(failure);
+            }
+        }
+    }
+
+    private static ExecutorService createLookupExecutor(int concurrency) {
+        if (concurrency < 1) {
+            throw new IllegalArgumentException("Concurrency must be positive.");
+        }
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(concurrency, concurrency, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(concurrency * queuedBatchesPerThread),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credit-modifier-lookup-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    private void fail(String personalCode) {
+        final CompletableFuture<Integer> lookup = pending.remove(personalCode);
+        if (lookup != null) {
+            lookup.completeExceptionally(new IllegalStateException("Credit modifier lookups have been stopped."));
+        }
+    }
+}
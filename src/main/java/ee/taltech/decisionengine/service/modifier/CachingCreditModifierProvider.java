@@ -0,0 +1,284 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Bounded cache in front of a slow credit modifier provider.
+ * <p>
+ * A cached modifier is used until it is older than the time to live, after which it is looked up again on the
+ * request thread. Modifiers that are older than the refresh time but still alive are returned right away and
+ * refreshed in the background, so clients that apply again and again never wait for the provider.
+ * <p>
+ * Clients are split into stripes by the hash of their personal code, and every stripe is locked on its own and
+ * keeps at most its share of the maximum size. When a stripe is full, the client that was used least recently is
+ * evicted, so clients that apply often stay cached however many others apply once.
+ */
+public class CachingCreditModifierProvider implements CreditModifierProvider {
+    private static final int refreshQueueSize = 1024;
+    private static final int maximumStripes = 64;
+    private static final int minimumStripeSize = 1024;
+
+    private final CreditModifierProvider provider;
+    private final int maximumSize;
+    private final long timeToLiveNanos;
+    private final long refreshAfterNanos;
+    private final Executor refreshExecutor;
+    private final LongSupplier clock;
+    private final Stripe[] stripes;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder refreshes = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    private static final class Entry {
+        private final int creditModifier;
+        private final long loadedAt;
+        private final AtomicBoolean refreshing = new AtomicBoolean();
+
+        private Entry(int creditModifier, long loadedAt) {
+            this.creditModifier = creditModifier;
+            this.loadedAt = loadedAt;
+        }
+    }
+
+    /**
+     * Create a cache that refreshes modifiers on its own background threads.
+     * @param provider provider whose modifiers are cached
+     * @param maximumSize largest number of cached clients
+     * @param timeToLive how long a modifier can be used
+     * @param refreshAfter age after which a modifier is refreshed in the background
+     * @param refreshThreads number of threads that refresh modifiers
+     */
+    public CachingCreditModifierProvider(CreditModifierProvider provider, int maximumSize, Duration timeToLive,
+                                         Duration refreshAfter, int refreshThreads) {
+        this(provider, maximumSize, timeToLive, refreshAfter, createRefreshExecutor(refreshThreads), System::nanoTime);
+    }
+
+    /**
+     * Create a cache.
+     * @param provider provider whose modifiers are cached
+     * @param maximumSize largest number of cached clients
+     * @param timeToLive how long a modifier can be used
+     * @param refreshAfter age after which a modifier is refreshed in the background
+     * @param refreshExecutor executor that runs the background refreshes
+     * @param clock source of the current time in nanoseconds
+     */
+    public CachingCreditModifierProvider(CreditModifierProvider provider, int maximumSize, Duration timeToLive,
+                                         Duration refreshAfter, Executor refreshExecutor, LongSupplier clock) {
+        if (maximumSize < 1) {
+            throw new IllegalArgumentException("Maximum size must be positive.");
+        }
+        if (refreshAfter.compareTo(timeToLive) > 0) {
+            throw new IllegalArgumentException("Refresh time can't be longer than the time to live.");
+        }
+        this.provider = provider;
+        this.maximumSize = maximumSize;
+        this.timeToLiveNanos = timeToLive.toNanos();
+        this.refreshAfterNanos = refreshAfter.toNanos();
+        this.refreshExecutor = refreshExecutor;
+        this.clock = clock;
+        final int stripeCount =
+                Math.min(maximumStripes, Integer.highestOneBit(Math.max(1, maximumSize / minimumStripeSize)));
+        this.stripes = new Stripe[stripeCount];
+        for (int i = 0; i < stripeCount; i++) {
+            this.stripes[i] = new Stripe(maximumSize / stripeCount + (i < maximumSize % stripeCount ? 1 : 0));
+        }
+    }
+
+    @Override
+    public int getCreditModifier(String personalCode) {
+        final Entry entry = getLiveEntry(personalCode);
+        if (entry != null) {
+            return entry.creditModifier;
+        }
+
+        misses.increment();
+        final int creditModifier = provider.getCreditModifier(personalCode);
+        store(personalCode, new Entry(creditModifier, clock.getAsLong()));
+        return creditModifier;
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+        final Entry entry = getLiveEntry(personalCode);
+        if (entry != null) {
+            return CompletableFuture.completedFuture(entry.creditModifier);
+        }
+
+        misses.increment();
+        return provider.getCreditModifierAsync(personalCode).thenApply(creditModifier -> {
+            store(personalCode, new Entry(creditModifier, clock.getAsLong()));
+            return creditModifier;
+        });
+    }
+
+    /**
+     * Get the provider whose modifiers are cached.
+     * @return wrapped provider
+     */
+    public CreditModifierProvider getProvider() {
+        return provider;
+    }
+
+    /**
+     * Get the number of lookups that were answered from the cache.
+     * @return number of hits
+     */
+    public long getHitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * Get the number of lookups that had to wait for the provider.
+     * @return number of misses
+     */
+    public long getMissCount() {
+        return misses.sum();
+    }
+
+    /**
+     * Get the number of modifiers that were refreshed in the background.
+     * @return number of refreshes
+     */
+    public long getRefreshCount() {
+        return refreshes.sum();
+    }
+
+    /**
+     * Get the number of clients that were evicted to keep the cache under its maximum size.
+     * @return number of evictions
+     */
+    public long getEvictionCount() {
+        return evictions.sum();
+    }
+
+    /**
+     * Get the number of cached clients.
+     * @return number of cached clients
+     */
+    public int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.size();
+            }
+        }
+        return size;
+    }
+
+    /**
+     * Stop refreshing modifiers in the background and close the wrapped provider.
+     */
+    @Override
+    public void close() {
+        if (refreshExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+        provider.close();
+    }
+
+    /**
+     * Get a cached modifier that is still alive, and refresh it in the background when it is getting old.
+     * @param personalCode client's personal code
+     * @return cached entry, null when the client isn't cached or the entry has expired
+     */
+    private Entry getLiveEntry(String personalCode) {
+        final Stripe stripe = getStripe(personalCode);
+        final Entry entry;
+        synchronized (stripe) {
+            entry = stripe.get(personalCode);
+        }
+        if (entry == null) {
+            return null;
+        }
+        final long age = clock.getAsLong() - entry.loadedAt;
+        if (age >= timeToLiveNanos) {
+            return null;
+        }
+        hits.increment();
+        if (age >= refreshAfterNanos && entry.refreshing.compareAndSet(false, true)) {
+            refresh(personalCode, entry);
+        }
+        return entry;
+    }
+
+    private void refresh(String personalCode, Entry entry) {
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    final int creditModifier = provider.getCreditModifier(personalCode);
+                    final Stripe stripe = getStripe(personalCode);
+                    synchronized (stripe) {
+                        // The entry may have been evicted or replaced by a lookup while it was being refreshed.
+                        if (stripe.get(personalCode) == entry) {
+                            stripe.put(personalCode, new Entry(creditModifier, clock.getAsLong()));
+                            refreshes.increment();
+                        }
+                    }
+                } finally {
+                    entry.refreshing.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            // Too many refreshes are waiting already, a later request will try again.
+            entry.refreshing.set(false);
+        }
+    }
+
+    private void store(String personalCode, Entry entry) {
+        final Stripe stripe = getStripe(personalCode);
+        synchronized (stripe) {
+            stripe.put(personalCode, entry);
+        }
+    }
+
+    private Stripe getStripe(String personalCode) {
+        final int hash = personalCode.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+    }
+
+    private static ExecutorService createRefreshExecutor(int threads) {
+        final AtomicInteger threadNumber = new AtomicInteger();
+        return new ThreadPoolExecutor(threads, threads, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(refreshQueueSize),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "credit-modifier-refresh-" + threadNumber.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+    }
+
+    /**
+     * Cached clients of one stripe in the order they were used, evicting the least recently used one when full.
+     */
+    private final class Stripe extends LinkedHashMap<String, Entry> {
+        private final int maximumSize;
+
+        private Stripe(int maximumSize) {
+            super(16, 0.75f, true);
+            this.maximumSize = maximumSize;
+        }
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachingCreditModifierProvider.Entry> eldest) {
+            if (size() > maximumSize) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        }
+    }
+}
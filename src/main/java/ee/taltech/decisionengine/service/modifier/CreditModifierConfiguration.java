@@ -0,0 +1,72 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import ee.taltech.decisionengine.execution.VirtualThreads;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+
+/**
+ * Choose where the decision engine gets credit modifiers from.
+ * <p>
+ * With the "digits" source modifiers are derived from the personal code by the credit policy's bands. With the
+ * "registry" source they are looked up from the file-backed registry, through a cache, because every registry lookup
+ * is slow. Concurrent cache misses for the same client share a single registry lookup, and misses for different
+ * clients that arrive close together are looked up in bulk. With decision-engine.threads.virtual=true on a runtime
+ * that has virtual threads, every bulk lookup and every background refresh runs on its own virtual thread, so the
+ * number of registry lookups in flight is not limited by decision-engine.credit-modifier.batch.concurrency.
+ */
+@Configuration
+public class CreditModifierConfiguration {
+    public static final String digitsSource = "digits";
+    public static final String registrySource = "registry";
+
+    @Bean
+    public CreditModifierProvider creditModifierProvider(
+            CreditPolicy policy,
+            @Value("${decision-engine.credit-modifier.source:digits}") String source,
+            @Value("${decision-engine.credit-modifier.registry.file:}") String registryFile,
+            @Value("${decision-engine.credit-modifier.registry.latency-ms:50}") long registryLatencyMillis,
+            @Value("${decision-engine.credit-modifier.cache.maximum-size:100000}") int cacheMaximumSize,
+            @Value("${decision-engine.credit-modifier.cache.time-to-live:PT1H}") Duration cacheTimeToLive,
+            @Value("${decision-engine.credit-modifier.cache.refresh-after:PT10M}") Duration cacheRefreshAfter,
+            @Value("${decision-engine.credit-modifier.cache.refresh-threads:2}") int cacheRefreshThreads,
+            @Value("${decision-engine.credit-modifier.batch.window:PT0.002S}") Duration batchWindow,
+            @Value("${decision-engine.credit-modifier.batch.maximum-size:128}") int batchMaximumSize,
+            @Value("${decision-engine.credit-modifier.batch.concurrency:4}") int batchConcurrency,
+            @Value("${decision-engine.threads.virtual:false}") boolean virtualThreads)
+            throws IOException {
+        switch (source) {
+            case digitsSource:
+                return new DigitRuleCreditModifierProvider(policy);
+            case registrySource:
+                if (registryFile.isBlank()) {
+                    throw new IllegalStateException(
+                            "decision-engine.credit-modifier.registry.file must be set for the registry source.");
+                }
+                final FileCreditModifierRegistry registry =
+                        new FileCreditModifierRegistry(Path.of(registryFile), registryLatencyMillis);
+                if (virtualThreads && VirtualThreads.isSupported()) {
+                    final ExecutorService lookupExecutor =
+                            VirtualThreads.newThreadPerTaskExecutor("credit-modifier-lookup-virtual-");
+                    return new CachingCreditModifierProvider(
+                            new SingleFlightCreditModifierProvider(new BatchingCreditModifierProvider(
+                                    registry, batchWindow, batchMaximumSize, lookupExecutor)),
+                            cacheMaximumSize, cacheTimeToLive, cacheRefreshAfter,
+                            VirtualThreads.newThreadPerTaskExecutor("credit-modifier-refresh-virtual-"),
+                            System::nanoTime);
+                }
+                return new CachingCreditModifierProvider(
+                        new SingleFlightCreditModifierProvider(new BatchingCreditModifierProvider(
+                                registry, batchWindow, batchMaximumSize, batchConcurrency)),
+                        cacheMaximumSize, cacheTimeToLive, cacheRefreshAfter, cacheRefreshThreads);
+            default:
+                throw new IllegalStateException("Unknown credit modifier source: " + source);
+        }
+    }
+}
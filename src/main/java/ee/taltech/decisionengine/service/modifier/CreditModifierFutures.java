@@ -0,0 +1,32 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Helpers for credit modifiers that are looked up by another thread.
+ */
+final class CreditModifierFutures {
+
+    private CreditModifierFutures() {
+    }
+
+    /**
+     * Wait for a lookup to finish.
+     * @param lookup lookup to wait for
+     * @return the looked up credit modifier
+     * @throws RuntimeException the exception that the lookup failed with
+     */
+    static int await(CompletableFuture<Integer> lookup) {
+        try {
+            return lookup.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            } else if (e.getCause() instanceof Error cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Source of clients' credit modifiers.
+ */
+public interface CreditModifierProvider extends AutoCloseable {
+    int unknownCreditModifier = -1;
+
+    /**
+     * Get the client's credit modifier.
+     * <p>
+     * A credit modifier of 0 means that the client is in debt.
+     * @param personalCode client's personal code, already validated
+     * @return the client's credit modifier, {@link #unknownCreditModifier} if it is unknown
+     */
+    int getCreditModifier(String personalCode);
+
+    /**
+     * Get the client's credit modifier under a credit policy, given the last three digits of the personal code that
+     * were read while validating it.
+     * <p>
+     * Providers that derive modifiers from those digits by the policy's bands should override this, so that the
+     * code isn't read again and the bands of the policy that the decision is made under are used. By default the
+     * modifier is looked up by the personal code.
+     * @param personalCode client's personal code, already validated
+     * @param lastThreeDigits last three digits of the personal code
+     * @param policy credit policy that the decision is made under
+     * @return the client's credit modifier, {@link #unknownCreditModifier} if it is unknown
+     */
+    default int getCreditModifier(String personalCode, int lastThreeDigits, CreditPolicy policy) {
+        return getCreditModifier(personalCode);
+    }
+
+    /**
+     * Get the client's credit modifier without waiting for it.
+     * <p>
+     * Providers that wait for I/O should override this so that no thread is held while the lookup is in flight,
+     * by default the modifier is looked up on the calling thread.
+     * @param personalCode client's personal code, already validated
+     * @return the client's credit modifier, when it has been looked up
+     */
+    default CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+        try {
+            return CompletableFuture.completedFuture(getCreditModifier(personalCode));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    /**
+     * Get the client's credit modifier under a credit policy without waiting for it.
+     * <p>
+     * Providers that derive modifiers from the policy's bands should override this like
+     * {@link #getCreditModifier(String, int, CreditPolicy)}, by default the modifier is looked up by the personal
+     * code.
+     * @param personalCode client's personal code, already validated
+     * @param lastThreeDigits last three digits of the personal code
+     * @param policy credit policy that the decision is made under
+     * @return the client's credit modifier, when it has been looked up
+     */
+    default CompletableFuture<Integer> getCreditModifierAsync(String personalCode, int lastThreeDigits,
+                                                              CreditPolicy policy) {
+        return getCreditModifierAsync(personalCode);
+    }
+
+    /**
+     * Get the credit modifiers of many clients at once.
+     * <p>
+     * Providers that can answer many clients in one round trip should override this, by default every client is
+     * looked up separately.
+     * @param personalCodes clients' personal codes, already validated
+     * @return the clients' credit modifiers, in the same order as the personal codes
+     */
+    default int[] getCreditModifiers(String[] personalCodes) {
+        final int[] creditModifiers = new int[personalCodes.length];
+        for (int i = 0; i < personalCodes.length; i++) {
+            creditModifiers[i] = getCreditModifier(personalCodes[i]);
+        }
+        return creditModifiers;
+    }
+
+    /**
+     * Release the threads and connections of the provider, and of the providers it wraps.
+     */
+    @Override
+    default void close() {
+    }
+}
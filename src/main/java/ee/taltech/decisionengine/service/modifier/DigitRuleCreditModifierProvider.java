@@ -0,0 +1,59 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Credit modifiers that are derived from the personal code itself.
+ */
+public class DigitRuleCreditModifierProvider implements CreditModifierProvider {
+    private final CreditPolicy policy;
+
+    /**
+     * Create a provider that uses the bands of the default credit policy.
+     */
+    public DigitRuleCreditModifierProvider() {
+        this(CreditPolicy.getDefault());
+    }
+
+    /**
+     * Create a provider that uses the bands of a credit policy, unless it is given the policy of a decision.
+     * @param policy policy that maps personal code suffixes to credit modifiers
+     */
+    public DigitRuleCreditModifierProvider(CreditPolicy policy) {
+        this.policy = policy;
+    }
+
+    /**
+     * Get the client's credit modifier.
+     * <p>
+     * The credit modifier is decided by the last 3 digits of a client's personal code, which the policy maps to
+     * credit modifiers. By default:
+     * A value between and including 000 and 199 is considered an unknown credit modifier.
+     * A value between and including 200 and 399 is a credit modifier of 0 (client in debt).
+     * A value between and including 400 and 599 is a credit modifier of 100.
+     * A value between and including 600 and 799 is a credit modifier of 300.
+     * A value between and including 800 and 999 is a credit modifier of 1000.
+     * @param personalCode client's personal code
+     * @return the client's credit modifier, -1 if it is unknown
+     */
+    @Override
+    public int getCreditModifier(String personalCode) {
+        final int length = personalCode.length();
+        return policy.getCreditModifier((personalCode.charAt(length - 3) - '0') * 100
+                + (personalCode.charAt(length - 2) - '0') * 10
+                + (personalCode.charAt(length - 1) - '0'));
+    }
+
+    @Override
+    public int getCreditModifier(String personalCode, int lastThreeDigits, CreditPolicy policy) {
+        return policy.getCreditModifier(lastThreeDigits);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode, int lastThreeDigits,
+                                                             CreditPolicy policy) {
+        return CompletableFuture.completedFuture(policy.getCreditModifier(lastThreeDigits));
+    }
+}
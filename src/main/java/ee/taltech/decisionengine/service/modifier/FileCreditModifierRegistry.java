@@ -0,0 +1,115 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Local stand-in for the credit registry, backed by a file.
+ * <p>
+ * Every line of the file holds a personal code and its credit modifier, separated by a comma. Blank lines and lines
+ * starting with # are skipped. Every lookup waits for the configured latency before answering, like a call to the
+ * real registry would. A bulk lookup of many clients waits only once, like a single round trip, and an asynchronous
+ * lookup is answered after the latency without holding a thread.
+ */
+public class FileCreditModifierRegistry implements CreditModifierProvider {
+    private final Map<String, Integer> creditModifiers;
+    private final long latencyNanos;
+
+    /**
+     * Load the registry from a file.
+     * @param file file with a personal code and credit modifier on every line
+     * @param latencyMillis time every lookup takes, in milliseconds
+     * @throws IOException when the file can't be read
+     * @throws IllegalArgumentException when a line of the file is malformed
+     */
+    public FileCreditModifierRegistry(Path file, long latencyMillis) throws IOException {
+        this.creditModifiers = load(file);
+        this.latencyNanos = TimeUnit.MILLISECONDS.toNanos(latencyMillis);
+    }
+
+    @Override
+    public int getCreditModifier(String personalCode) {
+        if (latencyNanos > 0) {
+            waitFor(latencyNanos);
+        }
+        return creditModifiers.getOrDefault(personalCode, unknownCreditModifier);
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+        return CompletableFuture.supplyAsync(
+                () -> creditModifiers.getOrDefault(personalCode, unknownCreditModifier),
+                CompletableFuture.delayedExecutor(latencyNanos, TimeUnit.NANOSECONDS));
+    }
+
+    @Override
+    public int[] getCreditModifiers(String[] personalCodes) {
+        if (latencyNanos > 0) {
+            waitFor(latencyNanos);
+        }
+        final int[] result = new int[personalCodes.length];
+        for (int i = 0; i < personalCodes.length; i++) {
+            result[i] = creditModifiers.getOrDefault(personalCodes[i], unknownCreditModifier);
+        }
+        return result;
+    }
+
+    /**
+     * Get the number of clients in the registry.
+     * @return number of clients
+     */
+    public int size() {
+        return creditModifiers.size();
+    }
+
+    private static Map<String, Integer> load(Path file) throws IOException {
+        final Map<String, Integer> creditModifiers = new HashMap<>();
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            int lineNumber = 0;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                line = line.strip();
+                if (line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                final int comma = line.indexOf(',');
+                try {
+                    if (comma < 0) {
+                        throw new NumberFormatException("Missing comma");
+                    }
+                    creditModifiers.put(line.substring(0, comma).strip(),
+                            Integer.parseInt(line.substring(comma + 1).strip()));
+                } catch (NumberFormatException e) {
+                    throw new IllegalArgumentException(
+                            "Invalid credit registry entry on line " + lineNumber + " of " + file, e);
+                }
+            }
+        }
+        return creditModifiers;
+    }
+
+    private static void waitFor(long nanos) {
+        final long deadline = System.nanoTime() + nanos;
+        long remaining = nanos;
+        boolean interrupted = false;
+        while (remaining > 0) {
+            try {
+                TimeUnit.NANOSECONDS.sleep(remaining);
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+            remaining = deadline - System.nanoTime();
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
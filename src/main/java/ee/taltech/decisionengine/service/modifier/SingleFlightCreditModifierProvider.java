@@ -0,0 +1,96 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Share one lookup between all concurrent requests for the same client.
+ * <p>
+ * The first request for a personal code looks the modifier up, and requests for the same code that arrive while
+ * the lookup is in flight wait for its result instead of starting their own. When the lookup fails they all get the
+ * same exception, and the next request starts a new lookup. Requests for different clients never wait for each
+ * other.
+ */
+public class SingleFlightCreditModifierProvider implements CreditModifierProvider {
+    private final CreditModifierProvider provider;
+    private final Map<String, CompletableFuture<Integer>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder coalesced = new LongAdder();
+
+    /**
+     * Create a provider that coalesces concurrent lookups.
+     * @param provider provider that does the lookups
+     */
+    public SingleFlightCreditModifierProvider(CreditModifierProvider provider) {
+        this.provider = provider;
+    }
+
+    @Override
+    public int getCreditModifier(String personalCode) {
+        final CompletableFuture<Integer> lookup = new CompletableFuture<>();
+        final CompletableFuture<Integer> running = inFlight.putIfAbsent(personalCode, lookup);
+        if (running != null) {
+            coalesced.increment();
+            return CreditModifierFutures.await(running);
+        }
+
+        try {
+            final int creditModifier = provider.getCreditModifier(personalCode);
+            lookup.complete(creditModifier);
+            return creditModifier;
+        } catch (RuntimeException | Error e) {
+            lookup.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(personalCode, lookup);
+        }
+    }
+
+    @Override
+    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+        final CompletableFuture<Integer> lookup = new CompletableFuture<>();
+        final CompletableFuture<Integer> running = inFlight.putIfAbsent(personalCode, lookup);
+        if (running != null) {
+            coalesced.increment();
+            return running;
+        }
+
+        CompletableFuture<Integer> providerLookup;
+        try {
+            providerLookup = provider.getCreditModifierAsync(personalCode);
+        } catch (RuntimeException e) {
+            providerLookup = CompletableFuture.failedFuture(e);
+        }
+        providerLookup.whenComplete((creditModifier, failure) -> {
+            inFlight.remove(personalCode, lookup);
+            if (failure == null) {
+                lookup.complete(creditModifier);
+            } else {
+                lookup.completeExceptionally(failure);
+            }
+        });
+        return lookup;
+    }
+
+    /**
+     * Get the provider that does the lookups.
+     * @return wrapped provider
+     */
+    public CreditModifierProvider getProvider() {
+        return provider;
+    }
+
+    @Override
+    public void close() {
+        provider.close();
+    }
+
+    /**
+     * Get the number of lookups that waited for another request's lookup instead of starting their own.
+     * @return number of coalesced lookups
+     */
+    public long getCoalescedCount() {
+        return coalesced.sum();
+    }
+}
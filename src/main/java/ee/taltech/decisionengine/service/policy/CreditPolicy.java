@@ -0,0 +1,229 @@
+package ee.taltech.decisionengine.service.policy;
+
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Properties;
+import java.util.Set;
+
+/**
+ * Credit policy: the loan limits and the credit modifier of every personal code suffix.
+ * <p>
+ * The policy is defined in a properties file and compiled when it is loaded into a 1000 entry array from the last
+ * three digits of a personal code to the credit modifier, so evaluating it never walks the rules. Policies are
+ * immutable.
+ * <pre>
+ * loan-amount.minimum=2000
+ * loan-amount.maximum=10000
+ * loan-period.minimum=12
+ * loan-period.maximum=60
+ * credit-modifier.200-399=0
+ * credit-modifier.400-599=100
+ * </pre>
+ * Suffixes that no band covers have an unknown credit modifier, and limits that are left out keep their defaults.
+ * <p>
+ * Every distinct credit modifier above 0 gets a row of precomputed decisions for every amount and period within the
+ * limits, so policies with more decisions than a maximum are refused before anything is allocated for them.
+ */
+public final class CreditPolicy {
+    public static final String defaultResource = "/credit-policy.properties";
+    public static final int defaultMaximumDecisions = 16_000_000;
+    private static final int suffixCount = 1000;
+    private static final String bandPrefix = "credit-modifier.";
+    private static final Set<String> limitNames = Set.of("loan-amount.minimum", "loan-amount.maximum",
+            "loan-period.minimum", "loan-period.maximum");
+    private static final CreditPolicy defaultPolicy = loadDefault();
+
+    private final LoanLimits limits;
+    private final int[] creditModifiers;
+    private final int[] segmentModifiers;
+    private final String version;
+
+    private CreditPolicy(LoanLimits limits, int[] creditModifiers) {
+        this.limits = limits;
+        this.creditModifiers = creditModifiers;
+        this.segmentModifiers = Arrays.stream(creditModifiers).filter(modifier -> modifier > 0).distinct().sorted()
+                .toArray();
+        this.version = Integer.toHexString(31 * limits.hashCode() + Arrays.hashCode(creditModifiers));
+    }
+
+    /**
+     * Get the policy that is shipped with the application.
+     * @return default policy
+     */
+    public static CreditPolicy getDefault() {
+        return defaultPolicy;
+    }
+
+    /**
+     * Load and compile a policy file with at most the default maximum of decisions.
+     * @param file properties file with the policy
+     * @return compiled policy
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the policy is not valid
+     */
+    public static CreditPolicy load(Path file) throws IOException {
+        return load(file, defaultMaximumDecisions);
+    }
+
+    /**
+     * Load and compile a policy file.
+     * @param file properties file with the policy
+     * @param maximumDecisions largest number of decisions that may be precomputed for the policy
+     * @return compiled policy
+     * @throws IOException if the file can't be read
+     * @throws IllegalArgumentException if the policy is not valid or has too many decisions
+     */
+    public static CreditPolicy load(Path file, int maximumDecisions) throws IOException {
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            final Properties properties = new Properties();
+            properties.load(reader);
+            return compile(properties, maximumDecisions);
+        }
+    }
+
+    /**
+     * Compile a policy from its properties with at most the default maximum of decisions.
+     * @param properties limits and credit modifier bands of the policy
+     * @return compiled policy
+     * @throws IllegalArgumentException if a property is unknown, a value is not valid or bands overlap
+     */
+    public static CreditPolicy compile(Properties properties) {
+        return compile(properties, defaultMaximumDecisions);
+    }
+
+    /**
+     * Compile a policy from its properties.
+     * @param properties limits and credit modifier bands of the policy
+     * @param maximumDecisions largest number of decisions that may be precomputed for the policy
+     * @return compiled policy
+     * @throws IllegalArgumentException if a property is unknown, a value is not valid, bands overlap or the policy
+     * has more decisions than the maximum
+     */
+    public static CreditPolicy compile(Properties properties, int maximumDecisions) {
+        final LoanLimits limits = new LoanLimits(
+                getInt(properties, "loan-amount.minimum", LoanLimits.defaultLimits.minimumLoanAmount()),
+                getInt(properties, "loan-amount.maximum", LoanLimits.defaultLimits.maximumLoanAmount()),
+                getInt(properties, "loan-period.minimum", LoanLimits.defaultLimits.minimumLoanPeriod()),
+                getInt(properties, "loan-period.maximum", LoanLimits.defaultLimits.maximumLoanPeriod()));
+
+        final int[] creditModifiers = new int[suffixCount];
+        Arrays.fill(creditModifiers, CreditModifierProvider.unknownCreditModifier);
+        for (String name : properties.stringPropertyNames()) {
+            if (limitNames.contains(name)) {
+                continue;
+            } else if (!name.startsWith(bandPrefix)) {
+                throw new IllegalArgumentException("Unknown credit policy property: " + name);
+            }
+
+            final String band = name.substring(bandPrefix.length());
+            final int separator = band.indexOf('-');
+            final int from = parseSuffix(name, separator < 0 ? band : band.substring(0, separator));
+            final int to = separator < 0 ? from : parseSuffix(name, band.substring(separator + 1));
+            final int creditModifier = getInt(properties, name, 0);
+            if (from > to || creditModifier < 0) {
+                throw new IllegalArgumentException("Invalid credit modifier band: " + name + "=" + creditModifier);
+            }
+            for (int suffix = from; suffix <= to; suffix++) {
+                if (creditModifiers[suffix] != CreditModifierProvider.unknownCreditModifier) {
+                    throw new IllegalArgumentException("Credit modifier bands overlap at suffix " + suffix + ".");
+                }
+                creditModifiers[suffix] = creditModifier;
+            }
+        }
+
+        final long segments = Arrays.stream(creditModifiers).filter(modifier -> modifier > 0).distinct().count();
+        final long decisions = segments
+                * (limits.maximumLoanAmount() - limits.minimumLoanAmount() + 1)
+                * (limits.maximumLoanPeriod() - limits.minimumLoanPeriod() + 1);
+        if (decisions > maximumDecisions) {
+            throw new IllegalArgumentException("Credit policy has " + decisions + " decisions for " + segments
+                    + " credit modifiers, more than the maximum of " + maximumDecisions + ".");
+        }
+        return new CreditPolicy(limits, creditModifiers);
+    }
+
+    /**
+     * Get the loan amounts and periods that can be requested and offered.
+     * @return loan limits
+     */
+    public LoanLimits getLimits() {
+        return limits;
+    }
+
+    /**
+     * Get the credit modifier of a personal code.
+     * @param lastThreeDigits last three digits of the personal code
+     * @return the client's credit modifier, {@link CreditModifierProvider#unknownCreditModifier} if it is unknown
+     */
+    public int getCreditModifier(int lastThreeDigits) {
+        if (lastThreeDigits < 0 || lastThreeDigits >= suffixCount) {
+            return CreditModifierProvider.unknownCreditModifier;
+        }
+        return creditModifiers[lastThreeDigits];
+    }
+
+    /**
+     * Get the credit modifiers that clients can get, other than unknown or in debt.
+     * @return distinct credit modifiers above 0, in ascending order
+     */
+    public int[] getSegmentModifiers() {
+        return segmentModifiers.clone();
+    }
+
+    /**
+     * Get the version of the policy.
+     * <p>
+     * The version is derived from the limits and every suffix's credit modifier, so policies that are the same
+     * have the same version no matter how their bands were written.
+     * @return version of the policy
+     */
+    public String getVersion() {
+        return version;
+    }
+
+    private static int getInt(Properties properties, String name, int defaultValue) {
+        final String value = properties.getProperty(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid credit policy value: " + name + "=" + value, e);
+        }
+    }
+
+    private static int parseSuffix(String name, String suffix) {
+        final int value;
+        try {
+            value = Integer.parseInt(suffix);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid credit modifier band: " + name, e);
+        }
+        if (value < 0 || value >= suffixCount) {
+            throw new IllegalArgumentException("Invalid credit modifier band: " + name);
+        }
+        return value;
+    }
+
+    private static CreditPolicy loadDefault() {
+        try (InputStream input = CreditPolicy.class.getResourceAsStream(defaultResource)) {
+            if (input == null) {
+                throw new IllegalStateException("Default credit policy " + defaultResource + " is missing.");
+            }
+            final Properties properties = new Properties();
+            properties.load(input);
+            return compile(properties);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package ee.taltech.decisionengine.service.policy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Choose the credit policy that decisions are made under.
+ * <p>
+ * Without a policy file the default policy shipped with the application is used. A policy file outside the
+ * application lets the limits and credit modifier bands be changed without building and deploying it again.
+ */
+@Configuration
+public class CreditPolicyConfiguration {
+
+    @Bean
+    public CreditPolicy creditPolicy(
+            @Value("${decision-engine.policy.file:}") String policyFile,
+            @Value("${decision-engine.policy.maximum-decisions:16000000}") int maximumDecisions) throws IOException {
+        return policyFile.isBlank()
+                ? CreditPolicy.getDefault()
+                : CreditPolicy.load(Path.of(policyFile), maximumDecisions);
+    }
+}
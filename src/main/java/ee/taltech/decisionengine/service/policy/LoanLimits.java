@@ -0,0 +1,52 @@
+package ee.taltech.decisionengine.service.policy;
+
+import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+
+/**
+ * Loan amounts and periods that can be requested and offered.
+ * <p>
+ * @param minimumLoanAmount smallest loan amount in euros
+ * @param maximumLoanAmount largest loan amount in euros
+ * @param minimumLoanPeriod shortest loan period in months
+ * @param maximumLoanPeriod longest loan period in months
+ */
+public record LoanLimits(int minimumLoanAmount, int maximumLoanAmount, int minimumLoanPeriod,
+                         int maximumLoanPeriod) {
+    public static final LoanLimits defaultLimits = new LoanLimits(DecisionEngineConstants.minimumLoanAmount,
+            DecisionEngineConstants.maximumLoanAmount, DecisionEngineConstants.minimumLoanPeriod,
+            DecisionEngineConstants.maximumLoanPeriod);
+    private static final int largestLoanAmount = 0xFFFF;
+    private static final int largestLoanPeriod = 0xFF;
+
+    /**
+     * Check that the limits are ranges that fit in a packed decision.
+     */
+    public LoanLimits {
+        if (minimumLoanAmount < 1 || minimumLoanAmount > maximumLoanAmount || maximumLoanAmount > largestLoanAmount) {
+            throw new IllegalArgumentException("Loan amounts must be from 1 to " + largestLoanAmount + " euros, not "
+                    + minimumLoanAmount + " to " + maximumLoanAmount + ".");
+        } else if (minimumLoanPeriod < 1 || minimumLoanPeriod > maximumLoanPeriod
+                || maximumLoanPeriod > largestLoanPeriod) {
+            throw new IllegalArgumentException("Loan periods must be from 1 to " + largestLoanPeriod + " months, not "
+                    + minimumLoanPeriod + " to " + maximumLoanPeriod + ".");
+        }
+    }
+
+    /**
+     * Check whether a loan amount is within the limits.
+     * @param loanAmount loan amount in euros
+     * @return true if the amount can be requested
+     */
+    public boolean isValidAmount(int loanAmount) {
+        return minimumLoanAmount <= loanAmount && loanAmount <= maximumLoanAmount;
+    }
+
+    /**
+     * Check whether a loan period is within the limits.
+     * @param loanPeriod loan period in months
+     * @return true if the period can be requested
+     */
+    public boolean isValidPeriod(int loanPeriod) {
+        return minimumLoanPeriod <= loanPeriod && loanPeriod <= maximumLoanPeriod;
+    }
+}
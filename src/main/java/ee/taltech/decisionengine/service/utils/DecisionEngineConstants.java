@@ -4,6 +4,9 @@ import lombok.Getter;
 
 /**
  * Constants used in the service side of the decision engine.
+ * <p>
+ * The loan limits here are the defaults of {@link ee.taltech.decisionengine.service.policy.LoanLimits}, the limits
+ * that decisions are made under come from the credit policy.
  */
 @Getter
 public class DecisionEngineConstants {
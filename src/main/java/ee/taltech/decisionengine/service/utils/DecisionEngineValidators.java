@@ -1,11 +1,28 @@
 package ee.taltech.decisionengine.service.utils;
 
 import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.policy.LoanLimits;
 
 /**
  * Validate the variables that are received via a POST request.
  */
 public class DecisionEngineValidators {
+    private final LoanLimits limits;
+
+    /**
+     * Create validators with the default loan limits.
+     */
+    public DecisionEngineValidators() {
+        this(LoanLimits.defaultLimits);
+    }
+
+    /**
+     * Create validators for the loan limits of a policy.
+     * @param limits loan amounts and periods that can be requested
+     */
+    public DecisionEngineValidators(LoanLimits limits) {
+        this.limits = limits;
+    }
 
     /**
      * Public method to validate all parameters received from a POST request.
@@ -13,70 +30,62 @@ public class DecisionEngineValidators {
      * @param personalCode a string representing a client's personal code
      * @param loanAmount amount that a client wants to loan (in euros)
      * @param loanPeriod period for the loan (in months)
-     * @throws InvalidDataException throws exception when a variable is not valid according to our rules
+     * @return reason why a variable is not valid according to our rules, null if all variables are valid
      */
-    public void validateAllParameters(String personalCode, Integer loanAmount, Integer loanPeriod) throws InvalidDataException {
-        personalCodeValidator(personalCode);
-        loanAmountValidator(loanAmount);
-        loanPeriodValidator(loanPeriod);
+    public InvalidDataException.Reason validateAllParameters(String personalCode, int loanAmount, int loanPeriod) {
+        if (validatePersonalCode(personalCode) == PersonalCodes.invalid) {
+            return InvalidDataException.Reason.PERSONAL_CODE_INVALID;
+        }
+        return validateLoan(loanAmount, loanPeriod);
     }
 
     /**
      * Validate a client's personal code.
      * <p>
-     * The code must be 11 digits long and numeric.
-     * @param code personal code
-     * @throws InvalidDataException throws exception when personal code is not valid
+     * The code must be a valid Estonian personal code: 11 ASCII digits with an existing birth date and the right
+     * check digit. The code is read only once, and the digits that credit modifiers are derived from are returned
+     * so that they don't have to be read again.
+     * @param personalCode personal code
+     * @return the last three digits of the personal code, {@link PersonalCodes#invalid} if the code is not valid
      */
-    private void personalCodeValidator(String code) throws InvalidDataException {
-        final int personalCodeLength = 11;
-
-        if (code == null) {
-            throw new InvalidDataException(InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        } else if (code.length() != personalCodeLength) {
-            throw new InvalidDataException(InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        }
+    public int validatePersonalCode(String personalCode) {
+        return PersonalCodes.parse(personalCode);
+    }
 
-        try {
-            Double.parseDouble(code);
-        } catch(NumberFormatException e){
-            throw new InvalidDataException(InvalidDataException.Reason.PERSONAL_CODE_INVALID);
+    /**
+     * Validate the requested loan.
+     * @param loanAmount amount that a client wants to loan (in euros)
+     * @param loanPeriod period for the loan (in months)
+     * @return reason why the loan amount or period is not valid, null if both are valid
+     */
+    public InvalidDataException.Reason validateLoan(int loanAmount, int loanPeriod) {
+        if (!loanAmountValidator(loanAmount)) {
+            return InvalidDataException.Reason.LOAN_AMOUNT_INVALID;
+        } else if (!loanPeriodValidator(loanPeriod)) {
+            return InvalidDataException.Reason.LOAN_PERIOD_INVALID;
         }
+        return null;
     }
 
     /**
      * Validate loan amount.
      * <p>
-     * Must be numeric and between 2000 and 10000 euros.
+     * Must be within the policy's loan amount limits, 2000 to 10000 euros by default.
      * @param amount loan amount
-     * @throws InvalidDataException throws exception when loan amount is not valid
+     * @return true if the loan amount is valid
      */
-    private void loanAmountValidator(Integer amount) throws InvalidDataException {
-        final int minimumLoanAmount = 2000;
-        final int maximumLoanAmount = 10000;
-
-        if (amount == null) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        } else if (minimumLoanAmount > amount || amount > maximumLoanAmount) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        }
+    private boolean loanAmountValidator(int amount) {
+        return limits.isValidAmount(amount);
     }
 
     /**
      * Validate loan period.
      * <p>
-     * Must be numeric and between 12 and 60 months.
+     * Must be within the policy's loan period limits, 12 to 60 months by default.
      * @param period loan period
-     * @throws InvalidDataException throws exception when loan period is not valid
+     * @return true if the loan period is valid
      */
-    private void loanPeriodValidator(Integer period) throws InvalidDataException {
-        final int minimumLoanPeriod = 12;
-        final int maximumLoanPeriod = 60;
-
-        if (period == null) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        } else if (minimumLoanPeriod > period || period > maximumLoanPeriod) {
-            throw new InvalidDataException(InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        }
+    private boolean loanPeriodValidator(int period) {
+        return limits.isValidPeriod(period);
     }
 }
@@ -0,0 +1,91 @@
+package ee.taltech.decisionengine.service.utils;
+
+/**
+ * Estonian personal codes (isikukood).
+ * <p>
+ * A code has 11 digits: the century and sex, the birth date as YYMMDD, a three digit serial number and a check
+ * digit. The check digit is the weighted sum of the other digits modulo 11, with weights 1 to 9 and 1. When that
+ * is 10, the weights 3 to 9 and 1 to 3 are used instead, and if it is 10 again the check digit is 0.
+ */
+public final class PersonalCodes {
+    public static final int invalid = -1;
+    private static final int length = 11;
+    private static final int checkDigitIndex = 10;
+
+    private PersonalCodes() {
+    }
+
+    /**
+     * Validate a personal code in one pass over its characters, without allocating.
+     * <p>
+     * The code must be 11 ASCII digits, start with a century digit from 1 to 8, contain a date that exists and
+     * end with the right check digit.
+     * @param code personal code
+     * @return the last three digits of the code, which credit modifiers can be derived from, or {@link #invalid}
+     */
+    public static int parse(String code) {
+        if (code == null || code.length() != length) {
+            return invalid;
+        }
+
+        int firstSum = 0;
+        int secondSum = 0;
+        int century = 0;
+        int year = 0;
+        int month = 0;
+        int day = 0;
+        int lastThreeDigits = 0;
+        for (int i = 0; i < length; i++) {
+            final int digit = code.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return invalid;
+            }
+
+            if (i < checkDigitIndex) {
+                firstSum += digit * (i % 9 + 1);
+                secondSum += digit * ((i + 2) % 9 + 1);
+            }
+            if (i == 0) {
+                century = digit;
+            } else if (i < 3) {
+                year = year * 10 + digit;
+            } else if (i < 5) {
+                month = month * 10 + digit;
+            } else if (i < 7) {
+                day = day * 10 + digit;
+            }
+            if (i >= length - 3) {
+                lastThreeDigits = lastThreeDigits * 10 + digit;
+            }
+        }
+
+        if (century < 1 || century > 8 || !isDate(getBirthYear(century, year), month, day)
+                || getCheckDigit(firstSum, secondSum) != code.charAt(checkDigitIndex) - '0') {
+            return invalid;
+        }
+        return lastThreeDigits;
+    }
+
+    private static int getCheckDigit(int firstSum, int secondSum) {
+        final int checkDigit = firstSum % 11;
+        if (checkDigit != 10) {
+            return checkDigit;
+        }
+        return secondSum % 11 == 10 ? 0 : secondSum % 11;
+    }
+
+    private static int getBirthYear(int century, int year) {
+        return 1800 + (century - 1) / 2 * 100 + year;
+    }
+
+    private static boolean isDate(int year, int month, int day) {
+        if (month < 1 || month > 12 || day < 1) {
+            return false;
+        }
+        if (month == 2) {
+            final boolean leapYear = year % 4 == 0 && (year % 100 != 0 || year % 400 == 0);
+            return day <= (leapYear ? 29 : 28);
+        }
+        return day <= (month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31);
+    }
+}
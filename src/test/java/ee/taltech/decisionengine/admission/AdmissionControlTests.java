@@ -0,0 +1,87 @@
+package ee.taltech.decisionengine.admission;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionControlTests {
+    @Test
+    public void testAdmit_ClientOverRate_ShouldBeRateLimitedBeforeOverloaded() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(1),
+                new ClientRateLimiter(0.001, 1, 1, 100));
+
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301103800"));
+        assertEquals(AdmissionControl.Admission.RATE_LIMITED, control.admit("50301103800"));
+        assertEquals(AdmissionControl.Admission.OVERLOADED, control.admit("50301104100"));
+
+        control.release(System.nanoTime());
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301105599"));
+        assertEquals(2, control.getCount(AdmissionControl.Admission.ADMITTED));
+        assertEquals(1, control.getCount(AdmissionControl.Admission.RATE_LIMITED));
+        assertEquals(1, control.getCount(AdmissionControl.Admission.OVERLOADED));
+    }
+
+    @Test
+    public void testAdmit_Overloaded_ShouldGiveTokenBack() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(1),
+                new ClientRateLimiter(0.001, 1, 1, 100));
+
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301103800"));
+        assertEquals(AdmissionControl.Admission.OVERLOADED, control.admit("50301104100"));
+
+        control.release(System.nanoTime());
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301104100"));
+    }
+
+    @Test
+    public void testAdmit_BatchWithClientOverRate_ShouldGiveTokensBack() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(10),
+                new ClientRateLimiter(0.001, 1, 1, 100));
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301105599"));
+
+        assertEquals(AdmissionControl.Admission.RATE_LIMITED,
+                control.admitBatch(new String[] {"50301103800", "50301104100", "50301105599"}));
+        assertEquals(1, control.getInFlight());
+        assertEquals(AdmissionControl.Admission.ADMITTED,
+                control.admitBatch(new String[] {"50301103800", "50301104100"}));
+        assertEquals(2, control.getInFlight());
+    }
+
+    @Test
+    public void testAdmit_StreamLines_ShouldHoldOnePlaceAndTakeTokenPerLine() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(1),
+                new ClientRateLimiter(0.001, 1, 1, 100));
+
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admitStream());
+        assertTrue(control.admitStreamLine("50301103800"));
+        assertFalse(control.admitStreamLine("50301103800"));
+        assertTrue(control.admitStreamLine("50301104100"));
+        assertEquals(AdmissionControl.Admission.OVERLOADED, control.admit("50301105599"));
+
+        control.releaseStream();
+        assertEquals(0, control.getInFlight());
+        assertEquals(1, control.getCount(AdmissionControl.Admission.RATE_LIMITED));
+    }
+
+    @Test
+    public void testAdmit_NoPersonalCode_ShouldShareOneBucket() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(10),
+                new ClientRateLimiter(0.001, 1, 1, 100));
+
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit(null));
+        assertEquals(AdmissionControl.Admission.RATE_LIMITED, control.admit(null));
+    }
+
+    @Test
+    public void testAdmit_WithoutRateLimiter_ShouldOnlyCheckConcurrency() {
+        AdmissionControl control = new AdmissionControl(ConcurrencyLimit.fixed(2), null);
+
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301103800"));
+        assertEquals(AdmissionControl.Admission.ADMITTED, control.admit("50301103800"));
+        assertEquals(AdmissionControl.Admission.OVERLOADED, control.admit("50301103800"));
+        assertEquals(2, control.getInFlight());
+        assertEquals(2, control.getLimit());
+    }
+}
@@ -0,0 +1,84 @@
+package ee.taltech.decisionengine.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ClientRateLimiterTests {
+    private static final long second = TimeUnit.SECONDS.toNanos(1);
+
+    @Test
+    public void testTryAcquire_OverBurst_ShouldRefuse() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 3, 4, 100);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertFalse(limiter.tryAcquire("50301103800", 0));
+    }
+
+    @Test
+    public void testTryAcquire_AfterRefill_ShouldLetThroughAtRate() {
+        ClientRateLimiter limiter = new ClientRateLimiter(2, 1, 4, 100);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertFalse(limiter.tryAcquire("50301103800", second / 4));
+        assertTrue(limiter.tryAcquire("50301103800", second / 2));
+        assertFalse(limiter.tryAcquire("50301103800", second / 2));
+    }
+
+    @Test
+    public void testTryAcquire_LongIdle_ShouldNotGoOverBurst() {
+        ClientRateLimiter limiter = new ClientRateLimiter(100, 2, 4, 100);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertTrue(limiter.tryAcquire("50301103800", 60 * second));
+        assertTrue(limiter.tryAcquire("50301103800", 60 * second));
+        assertFalse(limiter.tryAcquire("50301103800", 60 * second));
+    }
+
+    @Test
+    public void testRefund_TokenTaken_ShouldLetThroughAgainUpToBurst() {
+        ClientRateLimiter limiter = new ClientRateLimiter(0.001, 1, 4, 100);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        limiter.refund("50301103800");
+        limiter.refund("50301103800");
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertFalse(limiter.tryAcquire("50301103800", 0));
+    }
+
+    @Test
+    public void testTryAcquire_DifferentClients_ShouldHaveOwnBuckets() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1, 100);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertFalse(limiter.tryAcquire("50301103800", 0));
+        assertTrue(limiter.tryAcquire("50301104100", 0));
+    }
+
+    @Test
+    public void testTryAcquire_ForgottenClient_ShouldStartWithFullBucket() {
+        ClientRateLimiter limiter = new ClientRateLimiter(1, 1, 1, 2);
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertTrue(limiter.tryAcquire("50301104100", 0));
+        assertTrue(limiter.tryAcquire("50301105599", 0));
+
+        assertTrue(limiter.tryAcquire("50301103800", 0));
+        assertFalse(limiter.tryAcquire("50301105599", 0));
+    }
+
+    @Test
+    public void testConstructor_Stripes_ShouldRoundUpToPowerOfTwo() {
+        assertEquals(1, new ClientRateLimiter(1, 1, 1, 100).getStripeCount());
+        assertEquals(64, new ClientRateLimiter(1, 1, 64, 100).getStripeCount());
+        assertEquals(128, new ClientRateLimiter(1, 1, 100, 1000).getStripeCount());
+        assertThrows(IllegalArgumentException.class, () -> new ClientRateLimiter(0, 1, 1, 1));
+    }
+}
@@ -0,0 +1,103 @@
+package ee.taltech.decisionengine.admission;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ConcurrencyLimitTests {
+    private static final long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(100);
+
+    @Test
+    public void testTryAcquire_AtLimit_ShouldRefuseUntilReleased() {
+        ConcurrencyLimit limit = ConcurrencyLimit.fixed(2);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+        assertEquals(2, limit.getInFlight());
+
+        limit.release(System.nanoTime());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+    }
+
+    @Test
+    public void testRelease_FixedLimitSlowRequest_ShouldNotChangeLimit() {
+        ConcurrencyLimit limit = ConcurrencyLimit.fixed(10);
+
+        assertTrue(limit.tryAcquire());
+        limit.release(System.nanoTime() - TimeUnit.SECONDS.toNanos(10));
+
+        assertEquals(10, limit.getLimit());
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    public void testRelease_SlowRequests_ShouldDecreaseOncePerWindow() {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(100, 10, 200, targetLatencyNanos);
+        long slowStart = System.nanoTime() - 2 * targetLatencyNanos;
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+        }
+        for (int i = 0; i < 5; i++) {
+            limit.release(slowStart);
+        }
+
+        assertEquals(90, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_SlowRequests_ShouldNotGoBelowMinimum() throws InterruptedException {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(12, 10, 200, TimeUnit.MILLISECONDS.toNanos(1));
+
+        for (int i = 0; i < 5; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(System.nanoTime() - TimeUnit.MILLISECONDS.toNanos(10));
+            Thread.sleep(2);
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_FastRequestsAtLimit_ShouldIncrease() {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(4, 1, 5, targetLatencyNanos);
+
+        for (int round = 0; round < 10; round++) {
+            while (limit.tryAcquire()) {
+                // Fill the limit
+            }
+            while (limit.getInFlight() > 0) {
+                limit.release(System.nanoTime());
+            }
+        }
+
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    public void testRelease_FastRequestsFarBelowLimit_ShouldNotIncrease() {
+        ConcurrencyLimit limit = ConcurrencyLimit.adaptive(10, 1, 100, targetLatencyNanos);
+
+        for (int i = 0; i < 1000; i++) {
+            assertTrue(limit.tryAcquire());
+            limit.release(System.nanoTime());
+        }
+
+        assertEquals(10, limit.getLimit());
+    }
+
+    @Test
+    public void testAdaptive_InvalidLimits_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.adaptive(5, 10, 100, targetLatencyNanos));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.adaptive(10, 1, 5, targetLatencyNanos));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.adaptive(10, 1, 100, 0));
+        assertThrows(IllegalArgumentException.class, () -> ConcurrencyLimit.fixed(0));
+    }
+}
@@ -0,0 +1,134 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.admission.ConcurrencyLimit;
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.logging.DecisionLog;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.StringWriter;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@AutoConfigureMockMvc
+@SpringBootTest
+public class DecisionEngineAsyncControllerTests {
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private MockMvc mockMvc;
+    @MockBean
+    private DecisionEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        objectMapper = new ObjectMapper();
+        given(engine.getRejectionMessages()).willReturn(new DecisionEngine().getRejectionMessages());
+    }
+
+    @Test
+    void testGetDecisionAsync_LookupFinishesLater_ShouldGiveLoan() throws Exception {
+        CompletableFuture<Integer> decision = new CompletableFuture<>();
+        given(engine.getDecisionAsync(anyString(), anyInt(), anyInt())).willReturn(decision);
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 4000, 24);
+
+        MvcResult result = mockMvc.perform(post("/api/engine/async")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        decision.complete(Decision.counterOffer(3600, 24));
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.response").value(true))
+                .andExpect(jsonPath("$.loanAmount").value("3600"))
+                .andExpect(jsonPath("$.loanPeriod").value("24"))
+                .andExpect(jsonPath("$.message").value(DecisionEngineResponse.counterOfferMessage));
+    }
+
+    @Test
+    void testGetDecisionAsync_ClientInDebt_ShouldGiveErrorMessage() throws Exception {
+        given(engine.getDecisionAsync(anyString(), anyInt(), anyInt()))
+                .willReturn(CompletableFuture.completedFuture(
+                        Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT)));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 4000, 24);
+
+        MvcResult result = mockMvc.perform(post("/api/engine/async")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value(false))
+                .andExpect(jsonPath("$.message").value(CantLoanException.Reason.CLIENT_IN_DEBT.getMessage()));
+    }
+
+    @Test
+    void testGetDecisionAsync_LookupFails_ShouldGiveUnknownError() throws Exception {
+        given(engine.getDecisionAsync(anyString(), anyInt(), anyInt()))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("Registry is down")));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 4000, 24);
+
+        MvcResult result = mockMvc.perform(post("/api/engine/async")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value(false))
+                .andExpect(jsonPath("$.message").value(DecisionEngineResponse.unknownErrorMessage));
+    }
+
+    @Test
+    void testReceiveRequestAndRespondAsync_TooManyInFlight_ShouldBeRefused() throws Exception {
+        DecisionEngine slowEngine = mock(DecisionEngine.class);
+        CompletableFuture<Integer> decision = new CompletableFuture<>();
+        given(slowEngine.getDecisionAsync(anyString(), anyInt(), anyInt())).willReturn(decision);
+        DecisionLog decisionLog = new DecisionLog(16, 1, new StringWriter());
+        DecisionEngineAsyncController controller = new DecisionEngineAsyncController(slowEngine,
+                new DecisionEngineResponseBodies(objectMapper, new DecisionEngineJsonCodec(objectMapper),
+                        DecisionMetrics.disabled(), new DecisionEngine()), decisionLog,
+                new AdmissionControl(ConcurrencyLimit.fixed(10), null), 1);
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 4000, 24);
+
+        CompletableFuture<ResponseEntity<byte[]>> first = controller.receiveRequestAndRespondAsync(request);
+        ResponseEntity<byte[]> refused = controller.receiveRequestAndRespondAsync(request).get();
+        assertFalse(first.isDone());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, refused.getStatusCode());
+        assertEquals("1", refused.getHeaders().getFirst("Retry-After"));
+
+        decision.complete(Decision.of(4000, 24));
+        assertEquals(HttpStatus.OK, first.get().getStatusCode());
+        assertEquals(1, controller.getAvailablePermits());
+        decisionLog.close();
+    }
+}
@@ -0,0 +1,139 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = {
+        "decision-engine.admission.max-in-flight=1",
+        "decision-engine.admission.client.requests-per-second=0.001",
+        "decision-engine.admission.client.burst=2"})
+public class DecisionEngineControllerAdmissionTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private AdmissionControl admissionControl;
+    @MockBean
+    private DecisionEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        given(engine.getDecision(anyString(), anyInt(), anyInt())).willReturn(Decision.of(4000, 24));
+    }
+
+    @Test
+    void testGetDecision_ClientOverBurst_ShouldBeTooManyRequests() throws Exception {
+        send("50301103800").andExpect(status().isOk());
+        send("50301103800").andExpect(status().isOk());
+
+        send("50301103800")
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.response").value(false))
+                .andExpect(jsonPath("$.message").value(DecisionEngineResponse.rateLimitedMessage));
+        mockMvc.perform(get("/api/engine")
+                        .param("personalCode", "50301103800")
+                        .param("loanAmount", "4000")
+                        .param("loanPeriod", "24"))
+                .andExpect(status().isTooManyRequests());
+
+        send("50301104100").andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetDecision_OverConcurrencyLimit_ShouldBeServiceUnavailable() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch finish = new CountDownLatch(1);
+        given(engine.getDecision(eq("50301105599"), anyInt(), anyInt())).willAnswer(invocation -> {
+            entered.countDown();
+            finish.await();
+            return Decision.of(4000, 24);
+        });
+
+        CompletableFuture<Integer> slow = CompletableFuture.supplyAsync(() -> {
+            try {
+                return send("50301105599").andReturn().getResponse().getStatus();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        assertTrue(entered.await(10, TimeUnit.SECONDS));
+
+        send("50301108600")
+                .andExpect(status().isServiceUnavailable())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.response").value(false))
+                .andExpect(jsonPath("$.message").value(DecisionEngineResponse.overloadedMessage));
+
+        finish.countDown();
+        assertEquals(200, slow.get(10, TimeUnit.SECONDS));
+        assertEquals(0, admissionControl.getInFlight());
+        send("50301108600").andExpect(status().isOk());
+    }
+
+    @Test
+    void testGetDecisions_BatchOverClientBurst_ShouldBeTooManyRequestsAndGiveTokensBack() throws Exception {
+        String item = "{\"personalCode\":\"50301112200\",\"loanAmount\":4000,\"loanPeriod\":24}";
+
+        mockMvc.perform(post("/api/engine/batch")
+                        .content("[" + item + "," + item + "," + item + "]")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "1"))
+                .andExpect(jsonPath("$.message").value(DecisionEngineResponse.rateLimitedMessage));
+
+        for (int i = 0; i < 2; i++) {
+            send("50301112200")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.response").value(true))
+                    .andExpect(jsonPath("$.loanAmount").value("4000"))
+                    .andExpect(jsonPath("$.loanPeriod").value("24"));
+        }
+    }
+
+    @Test
+    void testGetOfferCurve_ClientOverBurst_ShouldBeTooManyRequests() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            mockMvc.perform(get("/api/engine/offers").param("personalCode", "50301112320"))
+                    .andExpect(status().isOk());
+        }
+
+        mockMvc.perform(get("/api/engine/offers").param("personalCode", "50301112320"))
+                .andExpect(status().isTooManyRequests());
+    }
+
+    private ResultActions send(String personalCode) throws Exception {
+        return mockMvc.perform(post("/api/engine")
+                .content("{\"personalCode\":\"" + personalCode + "\",\"loanAmount\":4000,\"loanPeriod\":24}")
+                .contentType(MediaType.APPLICATION_JSON));
+    }
+}
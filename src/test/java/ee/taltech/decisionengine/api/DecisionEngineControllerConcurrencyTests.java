@@ -0,0 +1,76 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+public class DecisionEngineControllerConcurrencyTests {
+    private static final int threadCount = 32;
+    private static final int requestsPerThread = 200;
+    private static final String[] personalCodes = {
+            "50301104100", "50301103300", "50301102400", "50301105599", "50301108600", "50301103800", "0000000080a"
+    };
+
+    @Autowired
+    private TestRestTemplate restTemplate;
+    @Autowired
+    private DecisionEngine engine;
+
+    @Test
+    void testReceiveRequestAndRespond_ConcurrentRequests_ShouldNotMixUpResponses() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Integer>> results = new ArrayList<>();
+
+        try {
+            for (int t = 0; t < threadCount; t++) {
+                final int thread = t;
+                results.add(executor.submit(sendRequests(thread, start)));
+            }
+            start.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(requestsPerThread, result.get());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private Callable<Integer> sendRequests(int thread, CountDownLatch start) {
+        return () -> {
+            start.await();
+            int checked = 0;
+
+            for (int i = 0; i < requestsPerThread; i++) {
+                // Every thread walks through a different sequence of codes, amounts and periods.
+                DecisionEngineRequest request = new DecisionEngineRequest(
+                        personalCodes[(thread + i) % personalCodes.length],
+                        1990 + (thread * 397 + i * 131) % 8100,
+                        11 + (thread * 7 + i * 3) % 52);
+
+                DecisionEngineResponse expected = DecisionEngineResponse.fromDecision(engine.getDecision(
+                        request.getPersonalCode(), request.getLoanAmount(), request.getLoanPeriod()));
+                DecisionEngineResponse actual =
+                        restTemplate.postForObject("/api/engine", request, DecisionEngineResponse.class);
+
+                assertEquals(expected, actual);
+                checked++;
+            }
+            return checked;
+        };
+    }
+}
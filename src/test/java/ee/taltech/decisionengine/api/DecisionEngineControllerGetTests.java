@@ -0,0 +1,136 @@
+package ee.taltech.decisionengine.api;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.SpyBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest(properties = "decision-engine.get.max-age=PT30S")
+public class DecisionEngineControllerGetTests {
+    @Autowired
+    private MockMvc mockMvc;
+    @SpyBean
+    private DecisionEngine engine;
+
+    @Test
+    void testGetDecision_SameRequestAsPost_ShouldGiveSameBody() throws Exception {
+        String postBody = mockMvc.perform(post("/api/engine")
+                        .content("{\"personalCode\":\"50301103485\",\"loanAmount\":9577,\"loanPeriod\":58}")
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andReturn().getResponse().getContentAsString();
+
+        mockMvc.perform(get("/api/engine")
+                        .param("personalCode", "50301103485")
+                        .param("loanAmount", "9577")
+                        .param("loanPeriod", "58"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(content().string(postBody))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testGetDecision_CurrentETag_ShouldBeNotModified() throws Exception {
+        String eTag = getETag("50301103800", 4000, 24);
+
+        MvcResult result = mockMvc.perform(get("/api/engine")
+                        .param("personalCode", "50301103800")
+                        .param("loanAmount", "4000")
+                        .param("loanPeriod", "24")
+                        .header(HttpHeaders.IF_NONE_MATCH, "\"other\", W/" + eTag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, eTag))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30"))
+                .andReturn();
+        assertEquals(0, result.getResponse().getContentLength());
+    }
+
+    @Test
+    void testGetDecision_CurrentETag_ShouldNotMakeDecision() throws Exception {
+        String eTag = getETag("50301103800", 4000, 24);
+        clearInvocations(engine);
+
+        mockMvc.perform(get("/api/engine")
+                        .param("personalCode", "50301103800")
+                        .param("loanAmount", "4000")
+                        .param("loanPeriod", "24")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isNotModified());
+        verify(engine, never()).getDecision(anyString(), anyInt(), anyInt());
+    }
+
+    @Test
+    void testGetDecision_OutdatedETag_ShouldGiveBody() throws Exception {
+        String eTag = getETag("50301103800", 4000, 24);
+
+        mockMvc.perform(get("/api/engine")
+                        .param("personalCode", "50301103800")
+                        .param("loanAmount", "5000")
+                        .param("loanPeriod", "24")
+                        .header(HttpHeaders.IF_NONE_MATCH, eTag))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
+    @Test
+    void testGetDecision_DifferentDecisions_ShouldHaveDifferentETags() throws Exception {
+        assertEquals(getETag("50301103800", 4000, 24), getETag("50301119800", 4000, 24));
+        assertNotEquals(getETag("50301103800", 4000, 24), getETag("50301103800", 4000, 36));
+        assertNotEquals(getETag("50301103800", 4000, 24), getETag("50301103300", 4000, 24));
+        assertNotEquals(getETag("50301103800", 4000, 24), getETag("50301103800", 4001, 24));
+    }
+
+    @Test
+    void testGetOfferCurve_ValidClient_ShouldListEveryPeriodWithOffers() throws Exception {
+        mockMvc.perform(get("/api/engine/offers").param("personalCode", "50301102400"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value(true))
+                .andExpect(jsonPath("$.offers.length()").value(41))
+                .andExpect(jsonPath("$.offers[0].loanPeriod").value("20"))
+                .andExpect(jsonPath("$.offers[0].maximumLoanAmount").value("2000"))
+                .andExpect(jsonPath("$.offers[40].loanPeriod").value("60"))
+                .andExpect(jsonPath("$.offers[40].maximumLoanAmount").value("6000"))
+                .andExpect(jsonPath("$.message").value(DecisionEngineOfferCurveResponse.offersMessage));
+    }
+
+    @Test
+    void testGetOfferCurve_ClientInDebt_ShouldGiveReason() throws Exception {
+        mockMvc.perform(get("/api/engine/offers").param("personalCode", "50301103300"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.response").value(false))
+                .andExpect(jsonPath("$.offers").isEmpty())
+                .andExpect(jsonPath("$.message").value(CantLoanException.Reason.CLIENT_IN_DEBT.getMessage()));
+    }
+
+    private String getETag(String personalCode, int loanAmount, int loanPeriod) throws Exception {
+        return mockMvc.perform(get("/api/engine")
+                        .param("personalCode", personalCode)
+                        .param("loanAmount", Integer.toString(loanAmount))
+                        .param("loanPeriod", Integer.toString(loanPeriod)))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+    }
+}
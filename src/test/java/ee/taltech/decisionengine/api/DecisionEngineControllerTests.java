@@ -3,6 +3,7 @@ package ee.taltech.decisionengine.api;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import ee.taltech.decisionengine.exceptions.CantLoanException;
 import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.Decision;
 import ee.taltech.decisionengine.service.DecisionEngine;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,8 +15,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.web.servlet.MockMvc;
 import org.springframework.test.web.servlet.MvcResult;
 
+import java.util.Collections;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.BDDMockito.given;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
@@ -34,13 +40,15 @@ public class DecisionEngineControllerTests {
     @BeforeEach
     public void setup() {
         objectMapper = new ObjectMapper();
+        given(engine.getRejectionMessages()).willReturn(new DecisionEngine().getRejectionMessages());
+        given(engine.getSnapshot()).willReturn(new DecisionEngine().getSnapshot());
     }
 
     @Test
-    void testGetDecision_InvalidPersonalCode_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_InvalidPersonalCode_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new InvalidDataException(InvalidDataException.Reason.PERSONAL_CODE_INVALID));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(InvalidDataException.Reason.PERSONAL_CODE_INVALID));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -51,15 +59,15 @@ public class DecisionEngineControllerTests {
                 .andExpect(jsonPath("$.response").value(false))
                 .andExpect(jsonPath("$.loanAmount").isEmpty())
                 .andExpect(jsonPath("$.loanPeriod").isEmpty())
-                .andExpect(jsonPath("$.message").value("Invalid personal code. Must consist of 11 digits."))
+                .andExpect(jsonPath("$.message").value("Invalid personal code. Must be a valid Estonian personal code."))
                 .andReturn();
     }
 
     @Test
-    void testGetDecision_InvalidLoanAmount_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_InvalidLoanAmount_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new InvalidDataException(InvalidDataException.Reason.LOAN_AMOUNT_INVALID));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(InvalidDataException.Reason.LOAN_AMOUNT_INVALID));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -75,10 +83,10 @@ public class DecisionEngineControllerTests {
     }
 
     @Test
-    void testGetDecision_InvalidLoanPeriod_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_InvalidLoanPeriod_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new InvalidDataException(InvalidDataException.Reason.LOAN_PERIOD_INVALID));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(InvalidDataException.Reason.LOAN_PERIOD_INVALID));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -94,10 +102,10 @@ public class DecisionEngineControllerTests {
     }
 
     @Test
-    void testGetDecision_ClientInDebt_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_ClientInDebt_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new CantLoanException(CantLoanException.Reason.CLIENT_IN_DEBT));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -113,10 +121,10 @@ public class DecisionEngineControllerTests {
     }
 
     @Test
-    void testGetDecision_UnknownCreditModifier_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_UnknownCreditModifier_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new CantLoanException(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -132,10 +140,10 @@ public class DecisionEngineControllerTests {
     }
 
     @Test
-    void testGetDecision_NoLoansAvailable_ShouldGiveErrorMessage() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_NoLoansAvailable_ShouldGiveErrorMessage() throws Exception {
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willThrow(new CantLoanException(CantLoanException.Reason.NO_POSSIBLE_LOANS));
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.rejected(CantLoanException.Reason.NO_POSSIBLE_LOANS));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         mockMvc.perform(post("/api/engine")
                         .content(objectMapper.writeValueAsString(request))
@@ -151,11 +159,11 @@ public class DecisionEngineControllerTests {
     }
 
     @Test
-    void testGetDecision_ValidRequest_ShouldPass() throws InvalidDataException, CantLoanException, Exception {
+    void testGetDecision_ValidRequest_ShouldPass() throws Exception {
         //given
         given(engine.getDecision(anyString(), anyInt(), anyInt()))
-                .willReturn(new Integer[] {5000, 50});
-        DecisionEngineRequest request = new DecisionEngineRequest("10000000800", 5000, 50);
+                .willReturn(Decision.of(5000, 50));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
 
         //when
         MvcResult result = mockMvc.perform(post("/api/engine")
@@ -173,8 +181,71 @@ public class DecisionEngineControllerTests {
         //then
         DecisionEngineResponse response = objectMapper
                 .readValue(result.getResponse().getContentAsString(), DecisionEngineResponse.class);
-        assertEquals("5000", response.getLoanAmount());
-        assertEquals("50", response.getLoanPeriod());
-        assertEquals("Success! We can offer you this loan:", response.getMessage());
+        assertEquals("5000", response.loanAmount());
+        assertEquals("50", response.loanPeriod());
+        assertEquals("Success! We can offer you this loan:", response.message());
+    }
+
+    @Test
+    void testGetDecision_CounterOffer_ShouldGiveAlternativeLoan() throws Exception {
+        given(engine.getDecision(anyString(), anyInt(), anyInt()))
+                .willReturn(Decision.counterOffer(4500, 50));
+        DecisionEngineRequest request = new DecisionEngineRequest("50301119800", 5000, 50);
+
+        mockMvc.perform(post("/api/engine")
+                        .content(objectMapper.writeValueAsString(request))
+                        .contentType(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.response").value(true))
+                .andExpect(jsonPath("$.loanAmount").value(4500))
+                .andExpect(jsonPath("$.loanPeriod").value(50))
+                .andExpect(jsonPath("$.message").value("We can offer you this loan instead:"))
+                .andReturn();
+    }
+
+    @Test
+    void testGetBatchDecision_MixedRequests_ShouldGiveResultsInOrder() throws Exception {
+        given(engine.getDecision(any(), eq("50301119800"), anyInt(), anyInt()))
+                .willReturn(Decision.of(5000, 50));
+        given(engine.getDecision(any(), eq("50301105485"), anyInt(), anyInt()))
+                .willReturn(Decision.counterOffer(4500, 50));
+        given(engine.getDecision(any(), eq("50301115300"), anyInt(), anyInt()))
+                .willReturn(Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT));
+        List<DecisionEngineRequest> requests = List.of(
+                new DecisionEngineRequest("50301119800", 5000, 50),
+                new DecisionEngineRequest("50301105485", 5000, 50),
+                new DecisionEngineRequest("50301115300", 5000, 50));
+
+        mockMvc.perform(post("/api/engine/batch")
+                        .content(objectMapper.writeValueAsString(requests))
+                        .contentType(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(jsonPath("$.length()").value(3))
+                .andExpect(jsonPath("$[0].status").value("APPROVED"))
+                .andExpect(jsonPath("$[0].result.loanAmount").value(5000))
+                .andExpect(jsonPath("$[0].result.message").value("Success! We can offer you this loan:"))
+                .andExpect(jsonPath("$[1].status").value("COUNTER_OFFER"))
+                .andExpect(jsonPath("$[1].result.loanAmount").value(4500))
+                .andExpect(jsonPath("$[1].result.message").value("We can offer you this loan instead:"))
+                .andExpect(jsonPath("$[2].status").value("REJECTED"))
+                .andExpect(jsonPath("$[2].result.response").value(false))
+                .andExpect(jsonPath("$[2].result.message").value("Client is in debt! Can't loan any money :("))
+                .andReturn();
+    }
+
+    @Test
+    void testGetBatchDecision_BatchTooLarge_ShouldBeRefused() throws Exception {
+        List<DecisionEngineRequest> requests =
+                Collections.nCopies(1001, new DecisionEngineRequest("50301119800", 5000, 50));
+
+        mockMvc.perform(post("/api/engine/batch")
+                        .content(objectMapper.writeValueAsString(requests))
+                        .contentType(MediaType.APPLICATION_JSON))
+
+                .andExpect(status().isPayloadTooLarge());
     }
 }
@@ -0,0 +1,273 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.service.Decision;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * The codec must read and write exactly what the application's object mapper does, so these tests compare the
+ * two on many generated requests and on every possible accepted response.
+ */
+public class DecisionEngineJsonCodecTests {
+    private static final int generatedRequests = 50_000;
+    private static final String whitespace = " \t\r\n";
+    private static final String mutationBytes = "{}[]\":,-.0123456789eE \\nulltrue";
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private DecisionEngineJsonCodec codec;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        codec = new DecisionEngineJsonCodec(objectMapper);
+    }
+
+    @Test
+    void testReadRequest_PlainRequest_ShouldParseWithoutJackson() {
+        byte[] body = "{\"personalCode\":\"50301103485\",\"loanAmount\":9577,\"loanPeriod\":58}"
+                .getBytes(StandardCharsets.UTF_8);
+
+        DecisionEngineRequest request = DecisionEngineJsonCodec.parseRequest(body, 0, body.length);
+
+        assertNotNull(request);
+        assertEquals("50301103485", request.getPersonalCode());
+        assertEquals(9577, request.getLoanAmount());
+        assertEquals(58, request.getLoanPeriod());
+    }
+
+    @Test
+    void testReadRequest_UnusualRequests_ShouldFallBackToJackson() throws Exception {
+        String[] bodies = {
+                "{\"personalCode\":\"0000000\\u0030485\",\"loanAmount\":9577,\"loanPeriod\":58}",
+                "{\"personalCode\":\"50301103485\",\"loanAmount\":9577.0,\"loanPeriod\":58}",
+                "{\"personalCode\":\"50301103485\",\"loanAmount\":9577,\"loanPeriod\":58,\"extra\":{\"a\":[1]}}",
+                "{\"personalCode\":\"50301103485\",\"loanPeriod\":58}",
+                "null"
+        };
+        for (String body : bodies) {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            assertNull(DecisionEngineJsonCodec.parseRequest(bytes, 0, bytes.length), body);
+            assertSameAsJackson(bytes);
+        }
+    }
+
+    @Test
+    void testReadRequest_GeneratedRequests_ShouldMatchJackson() throws Exception {
+        Random random = new Random(20230401);
+        int parsedWithoutJackson = 0;
+        for (int i = 0; i < generatedRequests; i++) {
+            byte[] body = generateRequest(random).getBytes(StandardCharsets.UTF_8);
+            if (random.nextInt(4) == 0) {
+                body = mutate(body, random);
+            }
+            if (assertSameAsJackson(body)) {
+                parsedWithoutJackson++;
+            }
+        }
+        // Most generated requests are plain ones, which must not fall back to Jackson.
+        assertTrue(parsedWithoutJackson > generatedRequests / 10, "Parsed " + parsedWithoutJackson);
+    }
+
+    @Test
+    void testWriteAcceptedResponse_EveryDecision_ShouldMatchJackson() throws Exception {
+        for (int loanAmount = 0; loanAmount <= 0xffff; loanAmount++) {
+            for (int loanPeriod = 0; loanPeriod <= 0xff; loanPeriod += loanAmount % 64 == 0 ? 1 : 37) {
+                for (int decision : new int[] {
+                        Decision.of(loanAmount, loanPeriod), Decision.counterOffer(loanAmount, loanPeriod)}) {
+                    assertArrayEquals(
+                            objectMapper.writeValueAsBytes(DecisionEngineResponse.fromDecision(decision)),
+                            codec.writeAcceptedResponse(decision));
+                }
+            }
+        }
+    }
+
+    /**
+     * Check that the codec reads the body like Jackson, both through its own parser and through the fallback.
+     * @return whether the codec's own parser read the body
+     */
+    private boolean assertSameAsJackson(byte[] body) throws Exception {
+        final String text = new String(body, StandardCharsets.UTF_8);
+        DecisionEngineRequest expected;
+        try {
+            expected = objectMapper.readValue(body, DecisionEngineRequest.class);
+        } catch (IOException e) {
+            assertNull(DecisionEngineJsonCodec.parseRequest(body, 0, body.length), text);
+            assertThrows(IOException.class, () -> codec.readRequest(body), text);
+            return false;
+        }
+
+        assertSameRequest(expected, codec.readRequest(body), text);
+        DecisionEngineRequest parsed = DecisionEngineJsonCodec.parseRequest(body, 0, body.length);
+        if (parsed == null) {
+            return false;
+        }
+        assertSameRequest(expected, parsed, text);
+        return true;
+    }
+
+    private static void assertSameRequest(DecisionEngineRequest expected, DecisionEngineRequest actual, String body) {
+        if (expected == null) {
+            assertNull(actual, body);
+            return;
+        }
+        assertNotNull(actual, body);
+        assertEquals(expected.getPersonalCode(), actual.getPersonalCode(), body);
+        assertEquals(expected.getLoanAmount(), actual.getLoanAmount(), body);
+        assertEquals(expected.getLoanPeriod(), actual.getLoanPeriod(), body);
+    }
+
+    private static String generateRequest(Random random) {
+        List<String> fields = new ArrayList<>();
+        if (random.nextInt(20) != 0) {
+            fields.add(field(random, "personalCode", generatePersonalCode(random)));
+        }
+        if (random.nextInt(20) != 0) {
+            fields.add(field(random, "loanAmount", generateInteger(random)));
+        }
+        if (random.nextInt(20) != 0) {
+            fields.add(field(random, "loanPeriod", generateInteger(random)));
+        }
+        if (random.nextInt(10) == 0) {
+            fields.add(fields.isEmpty() ? field(random, "loanAmount", "1") : fields.get(0));
+        }
+        for (int i = random.nextInt(3) == 0 ? random.nextInt(3) : 0; i > 0; i--) {
+            fields.add(field(random, "extra" + i, generateOtherValue(random)));
+        }
+        Collections.shuffle(fields, random);
+
+        StringBuilder body = new StringBuilder();
+        body.append(space(random)).append('{').append(space(random));
+        for (int i = 0; i < fields.size(); i++) {
+            if (i > 0) {
+                body.append(',').append(space(random));
+            }
+            body.append(fields.get(i)).append(space(random));
+        }
+        return body.append('}').append(space(random)).toString();
+    }
+
+    private static String field(Random random, String name, String value) {
+        return '"' + name + '"' + space(random) + ':' + space(random) + value;
+    }
+
+    private static String space(Random random) {
+        if (random.nextInt(3) != 0) {
+            return "";
+        }
+        StringBuilder space = new StringBuilder();
+        for (int i = random.nextInt(3) + 1; i > 0; i--) {
+            space.append(whitespace.charAt(random.nextInt(whitespace.length())));
+        }
+        return space.toString();
+    }
+
+    private static String generatePersonalCode(Random random) {
+        switch (random.nextInt(10)) {
+            case 0:
+                return "null";
+            case 1:
+                return generateInteger(random);
+            case 2:
+                return "\"3\\u0030307172740\"";
+            case 3: {
+                StringBuilder code = new StringBuilder("\"");
+                for (int i = random.nextInt(12); i > 0; i--) {
+                    char c = (char) (random.nextInt(3) == 0 ? random.nextInt(0x300) : 0x20 + random.nextInt(0x5f));
+                    if (c == '"' || c == '\\') {
+                        code.append('\\');
+                    }
+                    if (c < 0x20) {
+                        code.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        code.append(c);
+                    }
+                }
+                return code.append('"').toString();
+            }
+            default: {
+                StringBuilder code = new StringBuilder("\"");
+                for (int i = 0; i < 11; i++) {
+                    code.append((char) ('0' + random.nextInt(10)));
+                }
+                return code.append('"').toString();
+            }
+        }
+    }
+
+    private static String generateInteger(Random random) {
+        switch (random.nextInt(24)) {
+            case 0:
+                return "\"" + random.nextInt(20000) + "\"";
+            case 1:
+                return "0" + random.nextInt(100);
+            case 2:
+                return random.nextInt(20000) + ".0";
+            case 3:
+                return random.nextInt(200) + "e1";
+            case 4:
+                return Long.toString(random.nextLong());
+            case 5:
+                return Integer.toString(random.nextInt());
+            case 6:
+                return random.nextBoolean() ? "null" : "-0";
+            case 7:
+                return "\"\"";
+            default:
+                return Integer.toString(random.nextInt(20000) - 1000);
+        }
+    }
+
+    private static String generateOtherValue(Random random) {
+        switch (random.nextInt(8)) {
+            case 0:
+                return "true";
+            case 1:
+                return "false";
+            case 2:
+                return "null";
+            case 3:
+                return "{\"a\":[1,2]}";
+            case 4:
+                return "[]";
+            case 5:
+                return "\"te\\\"xt\"";
+            case 6:
+                return "-12.5e3";
+            default:
+                return "\"text\"";
+        }
+    }
+
+    private static byte[] mutate(byte[] body, Random random) {
+        StringBuilder mutated = new StringBuilder(new String(body, StandardCharsets.UTF_8));
+        for (int i = random.nextInt(3) + 1; i > 0 && mutated.length() > 0; i--) {
+            int position = random.nextInt(mutated.length());
+            char c = mutationBytes.charAt(random.nextInt(mutationBytes.length()));
+            int operation = random.nextInt(3);
+            if (operation == 0) {
+                mutated.deleteCharAt(position);
+            } else if (operation == 1) {
+                mutated.insert(position, c);
+            } else {
+                mutated.setCharAt(position, c);
+            }
+        }
+        return mutated.toString().getBytes(StandardCharsets.UTF_8);
+    }
+}
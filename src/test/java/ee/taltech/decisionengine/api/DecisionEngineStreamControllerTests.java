@@ -0,0 +1,122 @@
+package ee.taltech.decisionengine.api;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ee.taltech.decisionengine.admission.AdmissionControl;
+import ee.taltech.decisionengine.admission.ConcurrencyLimit;
+import ee.taltech.decisionengine.logging.DecisionLog;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@AutoConfigureMockMvc
+@SpringBootTest
+public class DecisionEngineStreamControllerTests {
+    private static final MediaType ndjson = MediaType.parseMediaType(DecisionEngineStreamController.ndjson);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void testStream_MixedLines_ShouldGiveOneResultPerLineInOrder() throws Exception {
+        String body = """
+                {"personalCode":"50301103800","loanAmount":9577,"loanPeriod":58}
+                {"personalCode":"50301103485","loanAmount":9577,"loanPeriod":58}
+
+                {"personalCode":"50301103300","loanAmount":5000,"loanPeriod":20}
+                not json
+                {"personalCode":"50301103800","loanAmount":1,"loanPeriod":58}
+                """;
+
+        MvcResult result = mockMvc.perform(post("/api/engine/stream").content(body).contentType(ndjson))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(ndjson))
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].contains("\"status\":\"APPROVED\""));
+        assertTrue(lines[0].contains("\"loanAmount\":\"9577\""));
+        assertTrue(lines[1].contains("\"status\":\"COUNTER_OFFER\""));
+        assertTrue(lines[1].contains("\"loanAmount\":\"5800\""));
+        assertTrue(lines[2].contains("Client is in debt!"));
+        assertTrue(lines[3].contains("Some of the data was invalid."));
+        assertTrue(lines[4].contains("Invalid loan amount."));
+    }
+
+    @Test
+    void testStream_ManyLines_ShouldAnswerEveryLine() throws Exception {
+        final int count = 20_000;
+        StringBuilder body = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            body.append("{\"personalCode\":\"50301108600\",\"loanAmount\":")
+                    .append(2000 + i % 8001)
+                    .append(",\"loanPeriod\":")
+                    .append(12 + i % 49)
+                    .append("}\n");
+        }
+
+        MvcResult result = mockMvc.perform(post("/api/engine/stream").content(body.toString()).contentType(ndjson))
+                .andExpect(status().isOk())
+                .andReturn();
+
+        assertEquals(count, result.getResponse().getContentAsString().split("\n").length);
+    }
+
+    @Test
+    void testStream_LineTooLong_ShouldBeRejectedWithoutStoppingTheStream() throws Exception {
+        String body = "{\"personalCode\":\"" + "1".repeat(10_000) + "\"}\n"
+                + "{\"personalCode\":\"50301103800\",\"loanAmount\":9577,\"loanPeriod\":58}\n";
+
+        MvcResult result = mockMvc.perform(post("/api/engine/stream").content(body).contentType(ndjson))
+                .andExpect(status().isOk())
+                .andReturn();
+        String[] lines = result.getResponse().getContentAsString().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("Some of the data was invalid."));
+        assertTrue(lines[1].contains("\"status\":\"APPROVED\""));
+    }
+
+    @Test
+    void testStream_DecidedLines_ShouldBeLogged() throws Exception {
+        ObjectMapper objectMapper = new ObjectMapper();
+        DecisionEngine engine = new DecisionEngine();
+        DecisionEngineJsonCodec codec = new DecisionEngineJsonCodec(objectMapper);
+        StringWriter out = new StringWriter();
+        DecisionLog decisionLog = new DecisionLog(16, 1, out);
+        DecisionEngineStreamController controller = new DecisionEngineStreamController(engine, codec, objectMapper,
+                new DecisionEngineResponseBodies(objectMapper, codec, DecisionMetrics.disabled(), engine),
+                new AdmissionControl(ConcurrencyLimit.fixed(10), null), decisionLog);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setContent("""
+                {"personalCode":"50301103800","loanAmount":9577,"loanPeriod":58}
+
+                not json
+                """.getBytes(StandardCharsets.UTF_8));
+
+        controller.receiveStreamAndRespond(request, new MockHttpServletResponse());
+        decisionLog.close();
+        String[] lines = out.toString().split("\n");
+
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"requestedAmount\":9577,\"requestedPeriod\":58,\"outcome\":\"APPROVED\""));
+        assertTrue(lines[1].endsWith("\"outcome\":\"REJECTED\",\"reason\":\"DATA_INVALID\"}"));
+    }
+}
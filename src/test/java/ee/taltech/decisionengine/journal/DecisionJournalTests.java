@@ -0,0 +1,233 @@
+package ee.taltech.decisionengine.journal;
+
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionJournalTests {
+    private static final Duration commitInterval = Duration.ofMillis(5);
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testAppend_Decisions_ShouldBeReadBack() throws Exception {
+        DecisionJournal journal = new DecisionJournal(directory, 100, commitInterval);
+        journal.append("50301103800", 4000, 24, Decision.counterOffer(3600, 24), 0x1234_5678_9abc_def0L);
+        journal.append("00307172746", 2000, 12, Decision.of(2000, 12), 7);
+        journal.close();
+
+        List<JournalRecord> records = readAll();
+        assertEquals(2, records.size());
+        JournalRecord first = records.get(0);
+        assertEquals("50301103800", first.getPersonalCode());
+        assertEquals(4000, first.loanAmount());
+        assertEquals(24, first.loanPeriod());
+        assertEquals(Decision.counterOffer(3600, 24), first.decision());
+        assertEquals(0x1234_5678_9abc_def0L, first.policyVersion());
+        assertTrue(Math.abs(System.currentTimeMillis() - first.time()) < 60_000);
+        assertEquals("00307172746", records.get(1).getPersonalCode());
+    }
+
+    @Test
+    public void testPackPersonalCode_NotElevenDigits_ShouldHaveNoCode() {
+        assertEquals(JournalRecord.noPersonalCode, JournalRecord.packPersonalCode(null));
+        assertEquals(JournalRecord.noPersonalCode, JournalRecord.packPersonalCode("5030110380"));
+        assertEquals(JournalRecord.noPersonalCode, JournalRecord.packPersonalCode("5030110380a"));
+        assertEquals(JournalRecord.noPersonalCode, JournalRecord.packPersonalCode("\uff150307172740"));
+        assertNull(JournalRecord.unpackPersonalCode(JournalRecord.noPersonalCode));
+        assertEquals("99999999999", JournalRecord.unpackPersonalCode(JournalRecord.packPersonalCode("99999999999")));
+    }
+
+    @Test
+    public void testAppend_MoreThanSegment_ShouldRollToNextSegments() throws Exception {
+        DecisionJournal journal = new DecisionJournal(directory, 10, commitInterval);
+        for (int i = 0; i < 35; i++) {
+            journal.append("50301103800", 2000 + i, 12, Decision.of(2000 + i, 12), 1);
+        }
+        journal.close();
+
+        assertEquals(4, DecisionJournal.getSegments(directory).size());
+        List<JournalRecord> records = readAll();
+        assertEquals(35, records.size());
+        for (int i = 0; i < 35; i++) {
+            assertEquals(2000 + i, records.get(i).loanAmount());
+        }
+    }
+
+    @Test
+    public void testAppend_NextSegmentCantBeCreated_ShouldDropDecisionsUntilCommitterCreatesIt() throws Exception {
+        DecisionJournal journal = new DecisionJournal(directory, 2, commitInterval);
+        Path blocked = directory.resolve(
+                DecisionJournal.segmentPrefix + "000000000001" + DecisionJournal.segmentSuffix);
+        Files.createDirectory(blocked);
+
+        for (int i = 0; i < 1000; i++) {
+            journal.append("50301103800", 2000 + i % 100, 12, Decision.of(2000 + i % 100, 12), 1);
+        }
+        assertEquals(998, journal.getDroppedCount());
+
+        Files.delete(blocked);
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        long dropped;
+        do {
+            dropped = journal.getDroppedCount();
+            journal.append("50301103800", 3000, 12, Decision.of(3000, 12), 1);
+        } while (journal.getDroppedCount() > dropped && System.nanoTime() < deadline);
+        journal.close();
+
+        assertEquals(dropped, journal.getDroppedCount());
+        List<JournalRecord> records = readAll();
+        assertEquals(3, records.size());
+        assertEquals(3000, records.get(2).loanAmount());
+    }
+
+    @Test
+    public void testClaim_FullSegment_ShouldNotCountFurtherClaims() throws Exception {
+        JournalSegment segment = JournalSegment.create(directory.resolve("segment"), 0, 2);
+        assertEquals(0, segment.claim());
+        assertEquals(1, segment.claim());
+
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(-1, segment.claim());
+        }
+        assertEquals(2, segment.getClaimedCount());
+    }
+
+    @Test
+    public void testCommit_SlotWrittenOutOfOrder_ShouldOnlyCommitWrittenPrefix() throws Exception {
+        JournalSegment segment = JournalSegment.create(directory.resolve("segment"), 0, 70);
+        for (int i = 0; i < 70; i++) {
+            assertEquals(i, segment.claim());
+        }
+        for (int slot = 0; slot < 70; slot++) {
+            if (slot != 3) {
+                segment.write(slot, 1, 1, 1, 2000, 12, Decision.of(2000, 12));
+            }
+        }
+
+        assertFalse(segment.commit());
+        assertEquals(3, segment.getCommittedCount());
+        assertFalse(segment.commit());
+        assertEquals(3, segment.getCommittedCount());
+
+        segment.write(3, 1, 1, 1, 2000, 12, Decision.of(2000, 12));
+        assertTrue(segment.commit());
+        assertEquals(70, segment.getCommittedCount());
+    }
+
+    @Test
+    public void testConstructor_ExistingJournal_ShouldAppendNewSegment() throws Exception {
+        DecisionJournal first = new DecisionJournal(directory, 10, commitInterval);
+        first.append("50301103800", 2000, 12, Decision.of(2000, 12), 1);
+        first.close();
+        DecisionJournal second = new DecisionJournal(directory, 10, commitInterval);
+        second.append("50301104100", 3000, 12, Decision.of(3000, 12), 1);
+        second.close();
+
+        assertEquals(2, DecisionJournal.getSegments(directory).size());
+        List<JournalRecord> records = readAll();
+        assertEquals("50301103800", records.get(0).getPersonalCode());
+        assertEquals("50301104100", records.get(1).getPersonalCode());
+    }
+
+    @Test
+    public void testAppend_ConcurrentThreads_ShouldKeepEveryRecord() throws Exception {
+        final int threads = 8;
+        final int perThread = 5000;
+        DecisionJournal journal = new DecisionJournal(directory, 1000, commitInterval);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> tasks = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            final int thread = t;
+            tasks.add(executor.submit(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    journal.append("50301103800", thread, i, Decision.of(2000, 12), 1);
+                }
+            }));
+        }
+        for (Future<?> task : tasks) {
+            task.get();
+        }
+        executor.shutdown();
+        journal.close();
+
+        Set<Integer> seen = new HashSet<>();
+        long torn = JournalReader.read(directory,
+                record -> seen.add(record.loanAmount() * perThread + record.loanPeriod()));
+        assertEquals(0, torn);
+        assertEquals(threads * perThread, seen.size());
+    }
+
+    @Test
+    public void testRead_PartlyWrittenRecord_ShouldBeCountedAsTorn() throws Exception {
+        DecisionJournal journal = new DecisionJournal(directory, 10, commitInterval);
+        journal.append("50301103800", 2000, 12, Decision.of(2000, 12), 1);
+        journal.append("50301104100", 3000, 12, Decision.of(3000, 12), 1);
+        journal.close();
+
+        Path segment = DecisionJournal.getSegments(directory).get(0);
+        try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE)) {
+            channel.write(ByteBuffer.allocate(4).putInt(0, 9999), JournalSegment.headerSize + 24);
+        }
+
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(1, JournalReader.read(directory, records::add));
+        assertEquals(1, records.size());
+        assertEquals(3000, records.get(0).loanAmount());
+    }
+
+    @Test
+    public void testGetDecision_EngineWithJournal_ShouldJournalEveryDecision() throws Exception {
+        DecisionEngine engine = new DecisionEngine();
+        DecisionJournal journal = new DecisionJournal(directory, 100, commitInterval);
+        engine.setJournal(journal);
+
+        int approved = engine.getDecision("50301108600", 4000, 24);
+        int invalidCode = engine.getDecision("5030110860", 4000, 24);
+        int invalidAmount = engine.getDecisionAsync("50301108600", 1000, 24).get();
+        engine.setJournal(null);
+        engine.getDecision("50301108600", 4000, 24);
+        journal.close();
+
+        List<JournalRecord> records = readAll();
+        assertEquals(3, records.size());
+        assertEquals(approved, records.get(0).decision());
+        assertEquals(invalidCode, records.get(1).decision());
+        assertEquals(Decision.rejected(InvalidDataException.Reason.PERSONAL_CODE_INVALID), invalidCode);
+        assertNull(records.get(1).getPersonalCode());
+        assertEquals(invalidAmount, records.get(2).decision());
+        for (JournalRecord record : records) {
+            assertEquals(engine.getPolicyVersionNumber(), record.policyVersion());
+        }
+    }
+
+    private List<JournalRecord> readAll() throws IOException {
+        List<JournalRecord> records = new ArrayList<>();
+        assertEquals(0, JournalReader.read(directory, records::add));
+        return records;
+    }
+}
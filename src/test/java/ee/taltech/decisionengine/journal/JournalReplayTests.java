@@ -0,0 +1,80 @@
+package ee.taltech.decisionengine.journal;
+
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class JournalReplayTests {
+    private static final String[] personalCodes = {
+            "50301102400", "50301103800", "50301103300", "50301104100", "50301105599", "50301108600", "5030110860"
+    };
+
+    @TempDir
+    private Path directory;
+
+    @Test
+    public void testReplay_SamePolicy_ShouldMatchEveryDecision() throws Exception {
+        writeJournal(new DecisionEngine());
+
+        JournalReplay replay = new JournalReplay(new DecisionEngine()).replay(directory);
+
+        assertEquals(700, replay.getRecords());
+        assertEquals(0, replay.getOtherPolicyRecords());
+        assertEquals(0, replay.getMismatches());
+        assertEquals(0, replay.getChangedByPolicy());
+        assertEquals(0, replay.getTornRecords());
+    }
+
+    @Test
+    public void testReplay_ChangedPolicy_ShouldCountChangesApart() throws Exception {
+        writeJournal(new DecisionEngine());
+        Properties properties = new Properties();
+        properties.setProperty("credit-modifier.200-399", "0");
+        properties.setProperty("credit-modifier.400-599", "300");
+        properties.setProperty("credit-modifier.600-799", "300");
+        properties.setProperty("credit-modifier.800-999", "1000");
+        DecisionEngine engine = new DecisionEngine();
+        engine.setPolicy(CreditPolicy.compile(properties));
+
+        JournalReplay replay = new JournalReplay(engine).replay(directory);
+
+        assertEquals(700, replay.getRecords());
+        assertEquals(700, replay.getOtherPolicyRecords());
+        assertEquals(0, replay.getMismatches());
+        assertTrue(replay.getChangedByPolicy() > 0);
+    }
+
+    @Test
+    public void testReplay_DifferentDecisionUnderSamePolicy_ShouldBeMismatch() throws Exception {
+        DecisionEngine engine = new DecisionEngine();
+        DecisionJournal journal = new DecisionJournal(directory, 100, Duration.ofMillis(5));
+        journal.append("50301108600", 4000, 24, Decision.of(3999, 24), engine.getPolicyVersionNumber());
+        journal.close();
+
+        JournalReplay replay = new JournalReplay(engine).replay(directory);
+
+        assertEquals(1, replay.getMismatches());
+        assertEquals(1, replay.getMismatchExamples().size());
+        assertTrue(replay.getMismatchExamples().get(0).contains("journal APPROVED 3999 24, replay APPROVED 4000 24"),
+                replay.getMismatchExamples().get(0));
+    }
+
+    private void writeJournal(DecisionEngine engine) throws Exception {
+        DecisionJournal journal = new DecisionJournal(directory, 256, Duration.ofMillis(5));
+        engine.setJournal(journal);
+        for (int i = 0; i < 700; i++) {
+            engine.getDecision(personalCodes[i % personalCodes.length], 1990 + (i * 131) % 8100, 11 + (i * 3) % 52);
+        }
+        engine.setJournal(null);
+        journal.close();
+    }
+}
@@ -0,0 +1,111 @@
+package ee.taltech.decisionengine.load;
+
+import ee.taltech.decisionengine.DecisionEngineApplication;
+import ee.taltech.decisionengine.api.DecisionEngineController;
+import ee.taltech.decisionengine.api.DecisionEngineRequest;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Capacity of {@link DecisionEngineController}: latency percentiles and throughput for request mixes arriving at
+ * fixed rates.
+ * <p>
+ * Every scenario is run against the controller over HTTP on a local port and in-process, where the controller is
+ * called on a pool as large as Tomcat's without HTTP or JSON in between, so the difference between the two is the
+ * cost of the web stack. Requests and their arrival times come from fixed seeds, so every run sends the same load.
+ * Run with gradle loadTest.
+ */
+@Tag("load")
+public class ControllerLoadTests {
+    private static final Duration warmupDuration = Duration.ofSeconds(3);
+    private static final Duration scenarioDuration = Duration.ofSeconds(5);
+    private static final Duration responseTimeout = Duration.ofSeconds(30);
+    private static final int inProcessThreads = 200;
+    private static final long seed = 20230301;
+    private static final RequestMix mixed = new RequestMix(80, 15, 5);
+    private static final List<LoadScenario> scenarios = List.of(
+            new LoadScenario("mixed", mixed, 1000, scenarioDuration),
+            new LoadScenario("mixed", mixed, 5000, scenarioDuration),
+            new LoadScenario("mixed", mixed, 10000, scenarioDuration),
+            new LoadScenario("valid", new RequestMix(100, 0, 0), 5000, scenarioDuration),
+            new LoadScenario("rejections", new RequestMix(20, 70, 10), 5000, scenarioDuration),
+            new LoadScenario("invalid", new RequestMix(20, 10, 70), 5000, scenarioDuration));
+
+    @Test
+    void testController_RequestMixes_ShouldReportLatencyAndThroughput() throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DecisionEngineApplication.class)
+                .properties(
+                        "server.port=0",
+                        "decision-engine.log.sample-every=1000")
+                .run();
+        ExecutorService inProcessPool = Executors.newFixedThreadPool(inProcessThreads);
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+
+        try {
+            DecisionEngineController controller = context.getBean(DecisionEngineController.class);
+            URI uri = URI.create("http://localhost:"
+                    + context.getEnvironment().getProperty("local.server.port") + "/api/engine");
+
+            LoadGenerator.Target inProcess = request -> CompletableFuture.supplyAsync(() -> controller
+                    .receiveRequestAndRespond(new DecisionEngineRequest(
+                            request.personalCode(), request.loanAmount(), request.loanPeriod()))
+                    .getStatusCode().value(), inProcessPool);
+            LoadGenerator.Target http = request -> client.sendAsync(HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .timeout(responseTimeout)
+                            .POST(HttpRequest.BodyPublishers.ofString(request.toJson()))
+                            .build(), HttpResponse.BodyHandlers.discarding())
+                    .thenApply(HttpResponse::statusCode);
+
+            List<LoadResult> results = new ArrayList<>();
+            results.addAll(runScenarios("in-process", inProcess));
+            results.addAll(runScenarios("http", http));
+
+            System.out.println(LoadResult.header);
+            for (LoadResult result : results) {
+                System.out.println(result);
+            }
+            for (LoadResult result : results) {
+                assertTrue(result.getPercentile(0.50) <= result.getPercentile(0.99));
+                assertTrue(result.getPercentile(0.99) <= result.getPercentile(0.999));
+                if (result.scenario() == scenarios.get(0)) {
+                    assertEquals(0, result.failures(), result.toString());
+                }
+            }
+        } finally {
+            inProcessPool.shutdownNow();
+            context.close();
+        }
+    }
+
+    private static List<LoadResult> runScenarios(String targetName, LoadGenerator.Target target)
+            throws InterruptedException {
+        LoadGenerator generator = new LoadGenerator(responseTimeout);
+        generator.run(new LoadScenario("warmup", mixed, 2000, warmupDuration), targetName, target, seed - 1);
+
+        List<LoadResult> results = new ArrayList<>();
+        for (int i = 0; i < scenarios.size(); i++) {
+            results.add(generator.run(scenarios.get(i), targetName, target, seed + i));
+        }
+        return results;
+    }
+}
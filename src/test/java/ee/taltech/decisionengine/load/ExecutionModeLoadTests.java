@@ -0,0 +1,206 @@
+package ee.taltech.decisionengine.load;
+
+import ee.taltech.decisionengine.DecisionEngineApplication;
+import ee.taltech.decisionengine.execution.VirtualThreads;
+import ee.taltech.decisionengine.service.utils.PersonalCodeGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compare how many concurrent clients the thread pool and virtual thread modes sustain when every credit modifier
+ * lookup goes to a slow registry.
+ * <p>
+ * Every request uses a personal code that hasn't been seen before, so none of them are answered from the cache. For
+ * every concurrency level each client sends requests back to back for a while, and the level is sustainable when no
+ * request fails and the 99th percentile latency stays under {@link #latencyTarget}. Run with gradle loadTest.
+ */
+@Tag("load")
+public class ExecutionModeLoadTests {
+    private static final LocalDate firstBirthDate = LocalDate.of(2000, 1, 1);
+    private static final int registryLatencyMillis = 50;
+    private static final Duration latencyTarget = Duration.ofMillis(250);
+    private static final Duration levelDuration = Duration.ofSeconds(3);
+    private static final int[] concurrencyLevels = {50, 100, 200, 400, 800};
+    private static final int registrySize = 500_000;
+
+    @TempDir
+    Path directory;
+
+    private record LevelResult(int concurrency, int requests, int failures, long p50Nanos, long p99Nanos) {
+
+        boolean isSustainable() {
+            return failures == 0 && p99Nanos <= latencyTarget.toNanos();
+        }
+
+        double getThroughput() {
+            return requests / (double) levelDuration.toSeconds();
+        }
+    }
+
+    @Test
+    void testExecutionModes_SlowRegistry_ShouldReportSustainableConcurrency() throws Exception {
+        Path registry = writeRegistry();
+
+        List<LevelResult> pooled = runLevels(registry, false);
+        report("thread pool", pooled);
+        assertEquals(0, pooled.get(0).failures());
+
+        if (VirtualThreads.isSupported()) {
+            List<LevelResult> virtual = runLevels(registry, true);
+            report("virtual threads", virtual);
+            assertEquals(0, virtual.get(0).failures());
+            assertTrue(getMaximumSustainable(virtual) >= getMaximumSustainable(pooled));
+        } else {
+            System.out.println("Virtual threads need Java 21 or newer, only the thread pool was measured.");
+        }
+    }
+
+    private Path writeRegistry() throws Exception {
+        Path registry = directory.resolve("registry.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(registry)) {
+            for (int i = 0; i < registrySize; i++) {
+                writer.write(getPersonalCode(i));
+                writer.write(",1000\n");
+            }
+        }
+        return registry;
+    }
+
+    private static String getPersonalCode(int index) {
+        return PersonalCodeGenerator.create(firstBirthDate.plusDays(index / 1000), index % 1000);
+    }
+
+    private static List<LevelResult> runLevels(Path registry, boolean virtualThreads) throws Exception {
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DecisionEngineApplication.class)
+                .properties(
+                        "server.port=0",
+                        "decision-engine.threads.virtual=" + virtualThreads,
+                        "decision-engine.credit-modifier.source=registry",
+                        "decision-engine.credit-modifier.registry.file=" + registry,
+                        "decision-engine.credit-modifier.registry.latency-ms=" + registryLatencyMillis,
+                        "decision-engine.credit-modifier.cache.maximum-size=" + registrySize,
+                        "decision-engine.log.sample-every=1000")
+                .run();
+        try {
+            URI uri = URI.create("http://localhost:"
+                    + context.getEnvironment().getProperty("local.server.port") + "/api/engine");
+            AtomicInteger nextPersonalCode = new AtomicInteger();
+            List<LevelResult> results = new ArrayList<>();
+            for (int concurrency : concurrencyLevels) {
+                results.add(runLevel(uri, concurrency, nextPersonalCode));
+            }
+            return results;
+        } finally {
+            context.close();
+        }
+    }
+
+    private static LevelResult runLevel(URI uri, int concurrency, AtomicInteger nextPersonalCode) throws Exception {
+        HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+        ExecutorService executor = Executors.newFixedThreadPool(concurrency);
+        CountDownLatch start = new CountDownLatch(1);
+        long[][] latencies = new long[concurrency][];
+        AtomicInteger failures = new AtomicInteger();
+
+        try {
+            List<Future<?>> clients = new ArrayList<>();
+            for (int c = 0; c < concurrency; c++) {
+                final int clientNumber = c;
+                clients.add(executor.submit(() -> {
+                    start.await();
+                    long[] clientLatencies = new long[1024];
+                    int count = 0;
+                    long deadline = System.nanoTime() + levelDuration.toNanos();
+                    while (System.nanoTime() < deadline) {
+                        String body = "{\"personalCode\":\""
+                                + getPersonalCode(nextPersonalCode.getAndIncrement() % registrySize)
+                                + "\",\"loanAmount\":4000,\"loanPeriod\":24}";
+                        HttpRequest request = HttpRequest.newBuilder(uri)
+                                .header("Content-Type", "application/json")
+                                .timeout(Duration.ofSeconds(30))
+                                .POST(HttpRequest.BodyPublishers.ofString(body))
+                                .build();
+                        long sent = System.nanoTime();
+                        try {
+                            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+                            if (response.statusCode() != 200) {
+                                failures.incrementAndGet();
+                            }
+                        } catch (Exception e) {
+                            failures.incrementAndGet();
+                        }
+                        if (count == clientLatencies.length) {
+                            clientLatencies = Arrays.copyOf(clientLatencies, count * 2);
+                        }
+                        clientLatencies[count++] = System.nanoTime() - sent;
+                    }
+                    latencies[clientNumber] = Arrays.copyOf(clientLatencies, count);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> clientResult : clients) {
+                clientResult.get(levelDuration.toSeconds() + 60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        long[] all = Arrays.stream(latencies).flatMapToLong(Arrays::stream).sorted().toArray();
+        return new LevelResult(concurrency, all.length, failures.get(),
+                getPercentile(all, 0.50), getPercentile(all, 0.99));
+    }
+
+    private static long getPercentile(long[] sorted, double percentile) {
+        if (sorted.length == 0) {
+            return Long.MAX_VALUE;
+        }
+        return sorted[Math.min(sorted.length - 1, (int) Math.ceil(percentile * sorted.length) - 1)];
+    }
+
+    private static int getMaximumSustainable(List<LevelResult> results) {
+        int maximum = 0;
+        for (LevelResult result : results) {
+            if (result.isSustainable()) {
+                maximum = result.concurrency();
+            }
+        }
+        return maximum;
+    }
+
+    private static void report(String mode, List<LevelResult> results) {
+        System.out.println("Mode: " + mode + ", registry latency " + registryLatencyMillis + " ms");
+        System.out.println("concurrency  requests/s   p50 ms   p99 ms  failures");
+        for (LevelResult result : results) {
+            System.out.printf("%11d %11.0f %8.1f %8.1f %9d%n", result.concurrency(), result.getThroughput(),
+                    result.p50Nanos() / 1e6, result.p99Nanos() / 1e6, result.failures());
+        }
+        System.out.println("Highest sustainable concurrency with p99 under " + latencyTarget.toMillis() + " ms: "
+                + getMaximumSustainable(results));
+    }
+}
@@ -0,0 +1,135 @@
+package ee.taltech.decisionengine.load;
+
+import ee.taltech.decisionengine.DecisionEngineApplication;
+import ee.taltech.decisionengine.service.utils.PersonalCodeGenerator;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.BufferedWriter;
+import java.lang.management.ManagementFactory;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Compare how much memory and how many threads a request waiting for its credit modifier holds on the servlet
+ * endpoint and on the asynchronous endpoint.
+ * <p>
+ * The registry takes seconds to answer, so all requests are still in flight when the heap and threads are measured.
+ * Requests are sent without a thread per request on the client side, so the difference between the endpoints is
+ * the server's cost. Run with gradle loadTest.
+ */
+@Tag("load")
+public class InFlightMemoryLoadTests {
+    private static final LocalDate firstBirthDate = LocalDate.of(2000, 1, 1);
+    private static final int inFlight = 1000;
+    private static final int registryLatencyMillis = 3000;
+    private static final Duration settleTime = Duration.ofSeconds(1);
+
+    @TempDir
+    Path directory;
+
+    private record InFlightCost(String endpoint, long heapBytes, int threads) {
+
+        double getHeapBytesPerRequest() {
+            return heapBytes / (double) inFlight;
+        }
+
+        double getThreadsPerRequest() {
+            return threads / (double) inFlight;
+        }
+    }
+
+    @Test
+    void testInFlightRequests_SlowRegistry_ShouldReportMemoryPerRequest() throws Exception {
+        Path registry = directory.resolve("registry.csv");
+        try (BufferedWriter writer = Files.newBufferedWriter(registry)) {
+            for (int i = 0; i < 2 * inFlight; i++) {
+                writer.write(getPersonalCode(i));
+                writer.write(",1000\n");
+            }
+        }
+
+        ConfigurableApplicationContext context = new SpringApplicationBuilder(DecisionEngineApplication.class)
+                .properties(
+                        "server.port=0",
+                        "server.tomcat.threads.max=" + (inFlight + 50),
+                        "decision-engine.credit-modifier.source=registry",
+                        "decision-engine.credit-modifier.registry.file=" + registry,
+                        "decision-engine.credit-modifier.registry.latency-ms=" + registryLatencyMillis,
+                        "decision-engine.credit-modifier.batch.concurrency=16",
+                        "decision-engine.log.sample-every=1000")
+                .run();
+        try {
+            String base = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            InFlightCost servlet = measure(URI.create(base + "/api/engine"), 0);
+            InFlightCost async = measure(URI.create(base + "/api/engine/async"), inFlight);
+
+            System.out.println("In flight: " + inFlight + " requests, registry latency " + registryLatencyMillis + " ms");
+            System.out.println("endpoint              heap bytes/request  threads/request");
+            for (InFlightCost cost : List.of(servlet, async)) {
+                System.out.printf("%-20s %20.0f %16.3f%n",
+                        cost.endpoint(), cost.getHeapBytesPerRequest(), cost.getThreadsPerRequest());
+            }
+            System.out.println("Every platform thread also reserves its own native stack, which the heap doesn't show.");
+        } finally {
+            context.close();
+        }
+    }
+
+    private static String getPersonalCode(int index) {
+        return PersonalCodeGenerator.create(firstBirthDate.plusDays(index / 1000), index % 1000);
+    }
+
+    private static InFlightCost measure(URI uri, int firstPersonalCode) throws Exception {
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .build();
+        long heapBefore = getUsedHeap();
+        int threadsBefore = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        List<CompletableFuture<HttpResponse<Void>>> responses = new ArrayList<>(inFlight);
+        for (int i = 0; i < inFlight; i++) {
+            String body = "{\"personalCode\":\"" + getPersonalCode(firstPersonalCode + i)
+                    + "\",\"loanAmount\":4000,\"loanPeriod\":24}";
+            responses.add(client.sendAsync(HttpRequest.newBuilder(uri)
+                            .header("Content-Type", "application/json")
+                            .timeout(Duration.ofSeconds(60))
+                            .POST(HttpRequest.BodyPublishers.ofString(body))
+                            .build(),
+                    HttpResponse.BodyHandlers.discarding()));
+        }
+        Thread.sleep(settleTime.toMillis());
+
+        long heapInFlight = getUsedHeap();
+        int threadsInFlight = ManagementFactory.getThreadMXBean().getThreadCount();
+
+        for (CompletableFuture<HttpResponse<Void>> response : responses) {
+            assertEquals(200, response.get(60, TimeUnit.SECONDS).statusCode());
+        }
+        return new InFlightCost(uri.getPath(), heapInFlight - heapBefore, threadsInFlight - threadsBefore);
+    }
+
+    private static long getUsedHeap() throws InterruptedException {
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+            Thread.sleep(100);
+        }
+        return ManagementFactory.getMemoryMXBean().getHeapMemoryUsage().getUsed();
+    }
+}
@@ -0,0 +1,127 @@
+package ee.taltech.decisionengine.load;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load generator: requests arrive on a schedule, whether or not earlier ones have been answered.
+ * <p>
+ * Arrivals follow a Poisson process with the scenario's average rate, drawn from a seeded random generator so that
+ * every run sends the same requests at the same offsets. A single thread sends every request when it is due and
+ * never waits for responses, so a slow target can't slow down the arrivals. Latencies are taken from the time a
+ * request was due, which corrects for coordinated omission: when the sender itself falls behind, the requests it
+ * sent late are charged for the delay instead of it being hidden.
+ */
+final class LoadGenerator {
+    private static final long spinNanos = TimeUnit.MICROSECONDS.toNanos(50);
+
+    /**
+     * Where the requests are sent.
+     */
+    interface Target {
+        /**
+         * Send a request without waiting for its response.
+         * @param request request to send
+         * @return status code of the response, when it arrives
+         */
+        CompletableFuture<Integer> send(LoadRequest request);
+    }
+
+    private final Duration timeout;
+
+    /**
+     * @param timeout how long to wait for the last responses after the last request was sent
+     */
+    LoadGenerator(Duration timeout) {
+        this.timeout = timeout;
+    }
+
+    /**
+     * Get the offsets from the start at which requests are due.
+     * @param count number of requests
+     * @param requestsPerSecond average arrival rate
+     * @param seed seed of the random generator
+     * @return offset of every request in nanoseconds, ascending
+     */
+    static long[] getArrivalOffsets(int count, int requestsPerSecond, long seed) {
+        final Random random = new Random(seed);
+        final double meanGapNanos = 1e9 / requestsPerSecond;
+        final long[] offsets = new long[count];
+        double offset = 0;
+        for (int i = 0; i < count; i++) {
+            offsets[i] = (long) offset;
+            offset -= Math.log(1 - random.nextDouble()) * meanGapNanos;
+        }
+        return offsets;
+    }
+
+    /**
+     * Run a scenario against a target.
+     * @param scenario scenario to run
+     * @param targetName name of the target in the report
+     * @param target where the requests are sent
+     * @param seed seed of the requests and their arrivals
+     * @return latencies and throughput of the run
+     * @throws InterruptedException when interrupted while waiting for responses
+     */
+    LoadResult run(LoadScenario scenario, String targetName, Target target, long seed) throws InterruptedException {
+        final int count = scenario.getRequestCount();
+        final LoadRequest[] requests = scenario.mix().generate(count, seed);
+        final long[] offsets = getArrivalOffsets(count, scenario.requestsPerSecond(), seed);
+        final AtomicLongArray latencies = new AtomicLongArray(count);
+        final AtomicInteger failures = new AtomicInteger();
+        final CountDownLatch done = new CountDownLatch(count);
+
+        final long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            final long due = start + offsets[i];
+            waitUntil(due);
+            final int index = i;
+            CompletableFuture<Integer> response;
+            try {
+                response = target.send(requests[i]);
+            } catch (RuntimeException e) {
+                response = CompletableFuture.failedFuture(e);
+            }
+            response.whenComplete((status, failure) -> {
+                if (latencies.compareAndSet(index, 0, Math.max(1, System.nanoTime() - due))
+                        && (failure != null || status != 200)) {
+                    failures.incrementAndGet();
+                }
+                done.countDown();
+            });
+        }
+
+        done.await(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        final long end = System.nanoTime();
+        int timedOut = 0;
+        final long[] sortedLatencies = new long[count];
+        for (int i = 0; i < count; i++) {
+            // Requests that never got a response are charged with the whole wait.
+            if (latencies.compareAndSet(i, 0, Math.max(1, end - (start + offsets[i])))) {
+                timedOut++;
+            }
+            sortedLatencies[i] = latencies.get(i);
+        }
+        Arrays.sort(sortedLatencies);
+        return new LoadResult(scenario, targetName, count, failures.get() + timedOut, end - start, sortedLatencies);
+    }
+
+    private static void waitUntil(long due) {
+        long remaining;
+        while ((remaining = due - System.nanoTime()) > 0) {
+            if (remaining > spinNanos) {
+                LockSupport.parkNanos(remaining - spinNanos);
+            } else {
+                Thread.onSpinWait();
+            }
+        }
+    }
+}
@@ -0,0 +1,28 @@
+package ee.taltech.decisionengine.load;
+
+/**
+ * One synthetic loan request of a load test.
+ * @param personalCode client's personal code
+ * @param loanAmount loan amount in euros
+ * @param loanPeriod loan period in months
+ * @param kind which part of the request mix the request belongs to
+ */
+record LoadRequest(String personalCode, int loanAmount, int loanPeriod, Kind kind) {
+
+    /**
+     * What the engine is expected to do with a request.
+     */
+    enum Kind {
+        // A client with a credit modifier above 0 asking for a valid loan, approved or countered
+        VALID,
+        // A valid request of a client in debt or with an unknown credit modifier
+        REJECTED,
+        // A request with an invalid personal code, loan amount or loan period
+        INVALID
+    }
+
+    String toJson() {
+        return "{\"personalCode\":\"" + personalCode + "\",\"loanAmount\":" + loanAmount
+                + ",\"loanPeriod\":" + loanPeriod + "}";
+    }
+}
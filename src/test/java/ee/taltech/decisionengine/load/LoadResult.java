@@ -0,0 +1,39 @@
+package ee.taltech.decisionengine.load;
+
+/**
+ * Latencies and throughput of one scenario against one target.
+ * <p>
+ * Latencies are measured from when a request was due to be sent by the arrival schedule, not from when it was
+ * actually sent, so time that requests spent waiting behind slow ones is counted.
+ * @param scenario scenario that was run
+ * @param target name of the target
+ * @param requests number of requests sent
+ * @param failures number of requests without a 200 response, including the ones that timed out
+ * @param elapsedNanos time from the first request being due to the last response
+ * @param sortedLatencies latency of every request in nanoseconds, sorted
+ */
+record LoadResult(LoadScenario scenario, String target, int requests, int failures, long elapsedNanos,
+                  long[] sortedLatencies) {
+
+    static final String header = String.format("%-16s %-11s %6s %8s %10s %9s %9s %9s %9s",
+            "scenario", "target", "mix", "rate/s", "achieved/s", "p50 ms", "p99 ms", "p999 ms", "failures");
+
+    long getPercentile(double percentile) {
+        if (sortedLatencies.length == 0) {
+            return Long.MAX_VALUE;
+        }
+        return sortedLatencies[Math.min(sortedLatencies.length - 1,
+                Math.max(0, (int) Math.ceil(percentile * sortedLatencies.length) - 1))];
+    }
+
+    double getThroughput() {
+        return (requests - failures) / (elapsedNanos / 1e9);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%-16s %-11s %6s %8d %10.0f %9.2f %9.2f %9.2f %9d",
+                scenario.name(), target, scenario.mix(), scenario.requestsPerSecond(), getThroughput(),
+                getPercentile(0.50) / 1e6, getPercentile(0.99) / 1e6, getPercentile(0.999) / 1e6, failures);
+    }
+}
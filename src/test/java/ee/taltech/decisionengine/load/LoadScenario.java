@@ -0,0 +1,17 @@
+package ee.taltech.decisionengine.load;
+
+import java.time.Duration;
+
+/**
+ * A load test run: requests in a mix arrive at a constant average rate for a while.
+ * @param name name of the scenario in the report
+ * @param mix mix of valid, rejected and invalid requests
+ * @param requestsPerSecond average arrival rate
+ * @param duration how long requests keep arriving
+ */
+record LoadScenario(String name, RequestMix mix, int requestsPerSecond, Duration duration) {
+
+    int getRequestCount() {
+        return (int) (requestsPerSecond * duration.toNanos() / 1_000_000_000L);
+    }
+}
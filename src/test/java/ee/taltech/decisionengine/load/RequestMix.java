@@ -0,0 +1,100 @@
+package ee.taltech.decisionengine.load;
+
+import ee.taltech.decisionengine.service.utils.PersonalCodeGenerator;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+/**
+ * Generate synthetic loan requests in a given mix of valid, rejected and invalid requests.
+ * <p>
+ * The last three digits of a personal code are two digits of its serial number followed by the check digit, so the
+ * serial number's last two digits choose the credit modifier segment: 00-19 unknown, 20-39 in debt, and 40-59,
+ * 60-79 and 80-99 the three segments with a modifier. Valid requests are spread evenly over the three segments
+ * with a modifier, rejected ones over the other two, and every request has a birth date of its own, so clients
+ * rarely repeat. The same seed always gives the same requests.
+ */
+final class RequestMix {
+    private static final LocalDate firstBirthDate = LocalDate.of(1950, 1, 1);
+    private static final int birthDates = 365 * 55;
+    private static final int minimumLoanAmount = 2000;
+    private static final int maximumLoanAmount = 10000;
+    private static final int minimumLoanPeriod = 12;
+    private static final int maximumLoanPeriod = 60;
+
+    private final double validShare;
+    private final double rejectedShare;
+
+    /**
+     * @param valid weight of valid requests
+     * @param rejected weight of requests that are rejected by the credit policy
+     * @param invalid weight of invalid requests
+     */
+    RequestMix(int valid, int rejected, int invalid) {
+        final double total = valid + rejected + invalid;
+        if (valid < 0 || rejected < 0 || invalid < 0 || total == 0) {
+            throw new IllegalArgumentException("Mix weights must not be negative and must not all be 0");
+        }
+        this.validShare = valid / total;
+        this.rejectedShare = rejected / total;
+    }
+
+    /**
+     * Generate requests in the mix.
+     * @param count number of requests
+     * @param seed seed of the random generator
+     * @return requests in the order they are sent
+     */
+    LoadRequest[] generate(int count, long seed) {
+        final Random random = new Random(seed);
+        final LoadRequest[] requests = new LoadRequest[count];
+        for (int i = 0; i < count; i++) {
+            final double kind = random.nextDouble();
+            if (kind < validShare) {
+                requests[i] = valid(random, 40 + random.nextInt(60), LoadRequest.Kind.VALID);
+            } else if (kind < validShare + rejectedShare) {
+                requests[i] = valid(random, random.nextInt(40), LoadRequest.Kind.REJECTED);
+            } else {
+                requests[i] = invalid(random);
+            }
+        }
+        return requests;
+    }
+
+    @Override
+    public String toString() {
+        final long valid = Math.round(validShare * 100);
+        final long rejected = Math.round(rejectedShare * 100);
+        return valid + "/" + rejected + "/" + (100 - valid - rejected);
+    }
+
+    private static LoadRequest valid(Random random, int segmentDigits, LoadRequest.Kind kind) {
+        return new LoadRequest(createPersonalCode(random, segmentDigits),
+                minimumLoanAmount + random.nextInt(maximumLoanAmount - minimumLoanAmount + 1),
+                minimumLoanPeriod + random.nextInt(maximumLoanPeriod - minimumLoanPeriod + 1),
+                kind);
+    }
+
+    private static LoadRequest invalid(Random random) {
+        final LoadRequest request = valid(random, random.nextInt(100), LoadRequest.Kind.INVALID);
+        return switch (random.nextInt(3)) {
+            case 0 -> new LoadRequest(breakCheckDigit(request.personalCode()),
+                    request.loanAmount(), request.loanPeriod(), LoadRequest.Kind.INVALID);
+            case 1 -> new LoadRequest(request.personalCode(),
+                    random.nextBoolean() ? minimumLoanAmount - 1 : maximumLoanAmount + 1, request.loanPeriod(),
+                    LoadRequest.Kind.INVALID);
+            default -> new LoadRequest(request.personalCode(), request.loanAmount(),
+                    random.nextBoolean() ? minimumLoanPeriod - 1 : maximumLoanPeriod + 1, LoadRequest.Kind.INVALID);
+        };
+    }
+
+    private static String createPersonalCode(Random random, int segmentDigits) {
+        return PersonalCodeGenerator.create(firstBirthDate.plusDays(random.nextInt(birthDates)),
+                random.nextInt(10) * 100 + segmentDigits);
+    }
+
+    private static String breakCheckDigit(String personalCode) {
+        final char checkDigit = personalCode.charAt(personalCode.length() - 1);
+        return personalCode.substring(0, personalCode.length() - 1) + (char) ('0' + (checkDigit - '0' + 1) % 10);
+    }
+}
@@ -0,0 +1,94 @@
+package ee.taltech.decisionengine.load;
+
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RequestMixTests {
+    private final DecisionEngine engine = new DecisionEngine();
+
+    @Test
+    public void testGenerate_Mix_ShouldGiveDecisionsOfEveryKind() {
+        LoadRequest[] requests = new RequestMix(60, 30, 10).generate(10000, 1);
+        Map<LoadRequest.Kind, Integer> counts = new EnumMap<>(LoadRequest.Kind.class);
+        Set<Integer> segments = new HashSet<>();
+
+        for (LoadRequest request : requests) {
+            counts.merge(request.kind(), 1, Integer::sum);
+            int decision = engine.getDecision(request.personalCode(), request.loanAmount(), request.loanPeriod());
+            switch (request.kind()) {
+                case VALID -> assertFalse(Decision.isRejected(decision), request.toString());
+                case REJECTED -> assertTrue(Decision.isRejected(decision)
+                        && !(Decision.getRejectionReason(decision) instanceof InvalidDataException.Reason),
+                        request.toString());
+                case INVALID -> assertTrue(
+                        Decision.getRejectionReason(decision) instanceof InvalidDataException.Reason,
+                        request.toString());
+            }
+            if (request.kind() != LoadRequest.Kind.INVALID) {
+                segments.add(Integer.parseInt(request.personalCode().substring(8)) / 200);
+            }
+        }
+
+        assertEquals(0.6, counts.get(LoadRequest.Kind.VALID) / 10000.0, 0.02);
+        assertEquals(0.3, counts.get(LoadRequest.Kind.REJECTED) / 10000.0, 0.02);
+        assertEquals(0.1, counts.get(LoadRequest.Kind.INVALID) / 10000.0, 0.02);
+        assertEquals(Set.of(0, 1, 2, 3, 4), segments);
+    }
+
+    @Test
+    public void testGenerate_SameSeed_ShouldGiveSameRequests() {
+        RequestMix mix = new RequestMix(80, 15, 5);
+
+        assertArrayEquals(mix.generate(1000, 7), mix.generate(1000, 7));
+        assertArrayEquals(LoadGenerator.getArrivalOffsets(1000, 5000, 7),
+                LoadGenerator.getArrivalOffsets(1000, 5000, 7));
+    }
+
+    @Test
+    public void testGetArrivalOffsets_Rate_ShouldAverageToRate() {
+        long[] offsets = LoadGenerator.getArrivalOffsets(100_000, 10_000, 3);
+
+        for (int i = 1; i < offsets.length; i++) {
+            assertTrue(offsets[i] >= offsets[i - 1]);
+        }
+        assertEquals(10.0, offsets[offsets.length - 1] / 1e9, 0.2);
+    }
+
+    @Test
+    public void testRun_StalledTarget_ShouldChargeWaitingRequests() throws InterruptedException {
+        // Every request takes 20 ms on a single thread, so requests arriving every millisecond queue up behind it.
+        ExecutorService single = Executors.newSingleThreadExecutor();
+        LoadGenerator.Target slow = request -> CompletableFuture.supplyAsync(() -> {
+            try {
+                Thread.sleep(20);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return 200;
+        }, single);
+        LoadScenario scenario = new LoadScenario("stalled", new RequestMix(1, 0, 0), 1000, Duration.ofMillis(50));
+
+        LoadResult result = new LoadGenerator(Duration.ofSeconds(10)).run(scenario, "test", slow, 1);
+        single.shutdown();
+
+        assertEquals(50, result.requests());
+        assertEquals(0, result.failures());
+        assertTrue(result.getPercentile(0.99) >= Duration.ofMillis(500).toNanos(), result.toString());
+    }
+}
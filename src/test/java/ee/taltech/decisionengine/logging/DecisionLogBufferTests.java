@@ -0,0 +1,95 @@
+package ee.taltech.decisionengine.logging;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionLogBufferTests {
+
+    @Test
+    void testConstructor_CapacityNotPowerOfTwo_ShouldRoundUp() {
+        assertEquals(1, new DecisionLogBuffer(1).getCapacity());
+        assertEquals(8, new DecisionLogBuffer(5).getCapacity());
+        assertEquals(1024, new DecisionLogBuffer(1024).getCapacity());
+    }
+
+    @Test
+    void testDrainTo_RecordsOffered_ShouldBeDrainedInOrder() throws Exception {
+        DecisionLogBuffer buffer = new DecisionLogBuffer(4);
+        List<String> records = new ArrayList<>();
+        DecisionLogBuffer.RecordHandler handler = (time, loanAmount, loanPeriod, decision) ->
+                records.add(time + "," + loanAmount + "," + loanPeriod + "," + decision);
+
+        // Wraps around the ring several times
+        for (int round = 0; round < 3; round++) {
+            records.clear();
+            assertTrue(buffer.offer(round, 2000, 12, 1));
+            assertTrue(buffer.offer(round, 3000, 24, 2));
+            assertTrue(buffer.offer(round, 4000, 36, 3));
+
+            assertEquals(3, buffer.drainTo(handler));
+            assertEquals(List.of(round + ",2000,12,1", round + ",3000,24,2", round + ",4000,36,3"), records);
+            assertEquals(0, buffer.drainTo(handler));
+        }
+    }
+
+    @Test
+    void testOffer_BufferFull_ShouldDropAndCount() throws Exception {
+        DecisionLogBuffer buffer = new DecisionLogBuffer(2);
+
+        assertTrue(buffer.offer(0, 2000, 12, 1));
+        assertTrue(buffer.offer(0, 2000, 12, 2));
+        assertFalse(buffer.offer(0, 2000, 12, 3));
+        assertFalse(buffer.offer(0, 2000, 12, 4));
+        assertEquals(2, buffer.getDroppedCount());
+
+        List<Integer> decisions = new ArrayList<>();
+        assertEquals(2, buffer.drainTo((time, loanAmount, loanPeriod, decision) -> decisions.add(decision)));
+        assertEquals(List.of(1, 2), decisions);
+        assertTrue(buffer.offer(0, 2000, 12, 5));
+    }
+
+    @Test
+    void testOffer_ManyWriters_ShouldNotLoseOrDuplicateRecords() throws Exception {
+        final int writers = 8;
+        final int recordsPerWriter = 20_000;
+        DecisionLogBuffer buffer = new DecisionLogBuffer(1024);
+        long[] drainedPerWriter = new long[writers];
+        int[] drained = new int[1];
+        DecisionLogBuffer.RecordHandler handler = (time, loanAmount, loanPeriod, decision) -> {
+            drainedPerWriter[loanAmount] += decision;
+            drained[0]++;
+        };
+
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writers; w++) {
+            final int writer = w;
+            Thread thread = new Thread(() -> {
+                for (int i = 1; i <= recordsPerWriter; i++) {
+                    buffer.offer(0, writer, 0, i);
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        boolean writing = true;
+        while (writing) {
+            writing = false;
+            for (Thread thread : threads) {
+                writing |= thread.isAlive();
+            }
+            buffer.drainTo(handler);
+        }
+        buffer.drainTo(handler);
+
+        assertEquals((long) writers * recordsPerWriter, drained[0] + buffer.getDroppedCount());
+        for (long sum : drainedPerWriter) {
+            assertTrue(sum <= (long) recordsPerWriter * (recordsPerWriter + 1) / 2);
+        }
+    }
+}
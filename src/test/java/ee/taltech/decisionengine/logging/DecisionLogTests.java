@@ -0,0 +1,50 @@
+package ee.taltech.decisionengine.logging;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.service.Decision;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringWriter;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionLogTests {
+
+    @Test
+    void testLog_DifferentOutcomes_ShouldWriteJsonLines() throws Exception {
+        StringWriter out = new StringWriter();
+        DecisionLog log = new DecisionLog(16, 1, out);
+
+        log.log(5000, 24, Decision.of(5000, 24));
+        log.log(9000, 12, Decision.counterOffer(6000, 12));
+        log.log(4000, 36, Decision.rejected(CantLoanException.Reason.CLIENT_IN_DEBT));
+        log.logUnknownError(3000, 48);
+        log.close();
+
+        String[] lines = out.toString().split("\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("{\"time\":\""));
+        assertTrue(lines[0].endsWith("\"requestedAmount\":5000,\"requestedPeriod\":24,"
+                + "\"outcome\":\"APPROVED\",\"loanAmount\":5000,\"loanPeriod\":24}"));
+        assertTrue(lines[1].endsWith("\"requestedAmount\":9000,\"requestedPeriod\":12,"
+                + "\"outcome\":\"COUNTER_OFFER\",\"loanAmount\":6000,\"loanPeriod\":12}"));
+        assertTrue(lines[2].endsWith("\"requestedAmount\":4000,\"requestedPeriod\":36,"
+                + "\"outcome\":\"REJECTED\",\"reason\":\"CLIENT_IN_DEBT\"}"));
+        assertTrue(lines[3].endsWith("\"requestedAmount\":3000,\"requestedPeriod\":48,\"outcome\":\"ERROR\"}"));
+    }
+
+    @Test
+    void testLog_Sampled_ShouldWriteFewerLines() throws Exception {
+        StringWriter out = new StringWriter();
+        DecisionLog log = new DecisionLog(1 << 16, 100, out);
+
+        for (int i = 0; i < 10_000; i++) {
+            log.log(5000, 24, Decision.of(5000, 24));
+        }
+        log.close();
+
+        int lines = out.toString().split("\n").length;
+        assertTrue(lines > 20 && lines < 500, "Expected about 100 lines, got " + lines);
+    }
+}
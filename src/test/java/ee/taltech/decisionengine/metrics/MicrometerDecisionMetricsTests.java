@@ -0,0 +1,85 @@
+package ee.taltech.decisionengine.metrics;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+public class MicrometerDecisionMetricsTests {
+    private SimpleMeterRegistry registry;
+    private DecisionEngine engine;
+
+    @BeforeEach
+    public void setup() {
+        registry = new SimpleMeterRegistry();
+        engine = new DecisionEngine(new MicrometerDecisionMetrics(registry));
+    }
+
+    @Test
+    void testConstructor_AllMeters_ShouldBeRegisteredUpFront() {
+        for (DecisionMetrics.Stage stage : DecisionMetrics.Stage.values()) {
+            assertNotNull(registry.find(MicrometerDecisionMetrics.stageTimerName)
+                    .tag("stage", stage.name()).timer());
+        }
+        for (CantLoanException.Reason reason : CantLoanException.Reason.values()) {
+            assertEquals(0, getDecisionCount("REJECTED", reason.name()));
+        }
+        for (InvalidDataException.Reason reason : InvalidDataException.Reason.values()) {
+            assertEquals(0, getDecisionCount("REJECTED", reason.name()));
+        }
+        assertEquals(0, getDecisionCount("APPROVED", "NONE"));
+        assertEquals(0, getDecisionCount("COUNTER_OFFER", "NONE"));
+    }
+
+    @Test
+    void testGetDecision_ApprovedLoan_ShouldCountOutcomeAndTimeStages() {
+        int decision = engine.getDecision("50307172740", 2000, 20);
+
+        assertEquals(Decision.Outcome.APPROVED, Decision.getOutcome(decision));
+        assertEquals(1, getDecisionCount("APPROVED", "NONE"));
+        assertEquals(1, getStageCount(DecisionMetrics.Stage.VALIDATION));
+        assertEquals(1, getStageCount(DecisionMetrics.Stage.MODIFIER_RESOLUTION));
+        assertEquals(1, getStageCount(DecisionMetrics.Stage.CALCULATION));
+        assertEquals(0, getStageCount(DecisionMetrics.Stage.SERIALIZATION));
+    }
+
+    @Test
+    void testGetDecision_InvalidPersonalCode_ShouldCountReasonAndSkipLaterStages() {
+        engine.getDecision("1234", 2000, 20);
+
+        assertEquals(1, getDecisionCount("REJECTED", InvalidDataException.Reason.PERSONAL_CODE_INVALID.name()));
+        assertEquals(1, getStageCount(DecisionMetrics.Stage.VALIDATION));
+        assertEquals(0, getStageCount(DecisionMetrics.Stage.MODIFIER_RESOLUTION));
+        assertEquals(0, getStageCount(DecisionMetrics.Stage.CALCULATION));
+    }
+
+    @Test
+    void testGetDecision_ClientInDebt_ShouldCountReason() {
+        engine.getDecision("50301101240", 2000, 20);
+
+        assertEquals(1, getDecisionCount("REJECTED", CantLoanException.Reason.CLIENT_IN_DEBT.name()));
+        assertEquals(1, getStageCount(DecisionMetrics.Stage.MODIFIER_RESOLUTION));
+        assertEquals(0, getStageCount(DecisionMetrics.Stage.CALCULATION));
+    }
+
+    private double getDecisionCount(String outcome, String reason) {
+        return registry.get(MicrometerDecisionMetrics.decisionCounterName)
+                .tag("outcome", outcome)
+                .tag("reason", reason)
+                .counter()
+                .count();
+    }
+
+    private long getStageCount(DecisionMetrics.Stage stage) {
+        return registry.get(MicrometerDecisionMetrics.stageTimerName)
+                .tag("stage", stage.name())
+                .timer()
+                .count();
+    }
+}
@@ -0,0 +1,106 @@
+package ee.taltech.decisionengine.scorer;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.service.Decision;
+import ee.taltech.decisionengine.service.DecisionEngine;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileScorerTests {
+    private static final String[] personalCodes = {
+            "50301104100", "50301103300", "50301102400", "50301105599", "50301108600", "50301103800", "abc"
+    };
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testScore_CsvWithHeader_ShouldScoreEveryLineInOrder() throws IOException, InterruptedException {
+        Path input = directory.resolve("input.csv");
+        Path output = directory.resolve("output.csv");
+        Files.writeString(input, """
+                personalCode,loanAmount,loanPeriod
+                50301103800,9577,58
+                50301103485, 9577 ,58
+
+                50301103300,5000,20
+                not a request
+                50301103800,abc,58
+                """);
+
+        ScoringTotals totals = new FileScorer(new DecisionEngine(), 3).score(input, output);
+        List<String> lines = Files.readAllLines(output);
+
+        assertEquals(List.of(
+                "50301103800,9577,58,APPROVED,9577,58,",
+                "50301103485,9577,58,COUNTER_OFFER,5800,58,",
+                "50301103300,5000,20,REJECTED,,,CLIENT_IN_DEBT",
+                ",,,REJECTED,,,DATA_INVALID",
+                "50301103800,,58,REJECTED,,,LOAN_AMOUNT_INVALID"), lines);
+        assertEquals(5, totals.getTotal());
+        assertEquals(1, totals.getOutcomeCount(Decision.Outcome.APPROVED));
+        assertEquals(1, totals.getOutcomeCount(Decision.Outcome.COUNTER_OFFER));
+        assertEquals(3, totals.getOutcomeCount(Decision.Outcome.REJECTED));
+        assertEquals(1, totals.getRejectionCount(CantLoanException.Reason.CLIENT_IN_DEBT));
+        assertEquals(1, totals.getUnreadableLines());
+        assertTrue(Files.exists(directory.resolve("output.csv.summary")));
+    }
+
+    @Test
+    public void testScore_Ndjson_ShouldScoreEveryLineInOrder() throws IOException, InterruptedException {
+        Path input = directory.resolve("input.ndjson");
+        Path output = directory.resolve("output.csv");
+        Files.writeString(input, """
+                {"personalCode":"50301103800","loanAmount":9577,"loanPeriod":58}
+                { "loanPeriod" : 58, "loanAmount" : 9577, "personalCode" : "50301103485" }
+                {"personalCode":"50301103800"}
+                [1, 2, 3]
+                """);
+
+        ScoringTotals totals = new FileScorer(new DecisionEngine(), 2).score(input, output);
+        List<String> lines = Files.readAllLines(output);
+
+        assertEquals(List.of(
+                "50301103800,9577,58,APPROVED,9577,58,",
+                "50301103485,9577,58,COUNTER_OFFER,5800,58,",
+                "50301103800,0,0,REJECTED,,,LOAN_AMOUNT_INVALID",
+                ",,,REJECTED,,,DATA_INVALID"), lines);
+        assertEquals(1, totals.getRejectionCount(InvalidDataException.Reason.DATA_INVALID));
+    }
+
+    @Test
+    public void testScore_LargeFileOnManyThreads_ShouldMatchDecisionEngine() throws IOException, InterruptedException {
+        Path input = directory.resolve("input.csv");
+        Path output = directory.resolve("output.csv");
+        DecisionEngine engine = new DecisionEngine();
+        final int count = 100_000;
+
+        StringBuilder csv = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            csv.append(personalCodes[i % personalCodes.length]).append(',')
+                    .append(1990 + (i * 131) % 8100).append(',')
+                    .append(11 + (i * 7) % 52).append('\n');
+        }
+        Files.writeString(input, csv);
+
+        ScoringTotals totals = new FileScorer(engine, 8).score(input, output);
+        List<String> lines = Files.readAllLines(output);
+
+        assertEquals(count, totals.getTotal());
+        assertEquals(count, lines.size());
+        for (int i = 0; i < count; i++) {
+            final int decision = engine.getDecision(personalCodes[i % personalCodes.length],
+                    1990 + (i * 131) % 8100, 11 + (i * 7) % 52);
+            assertEquals(Decision.getOutcome(decision).name(), lines.get(i).split(",", -1)[3]);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class BatchDecisionEngineTests {
+    private static final String[] personalCodes = {
+            "50301104100", "50301103300", "50301102400", "50301105599", "50301108600", "50301103800", "abc"
+    };
+
+    @Test
+    public void testGetDecisions_LargeBatch_ShouldMatchSingleDecisionsInOrder() {
+        DecisionEngine de = new DecisionEngine();
+        BatchDecisionEngine bde = new BatchDecisionEngine(de, 4);
+        final int count = 10_000;
+        String[] codes = new String[count];
+        int[] amounts = new int[count];
+        int[] periods = new int[count];
+        for (int i = 0; i < count; i++) {
+            codes[i] = personalCodes[i % personalCodes.length];
+            amounts[i] = 1990 + (i * 131) % 8100;
+            periods[i] = 11 + (i * 7) % 52;
+        }
+
+        int[] results = bde.getDecisions(codes, amounts, periods);
+        bde.shutdown();
+
+        assertEquals(count, results.length);
+        for (int i = 0; i < count; i++) {
+            assertEquals(de.getDecision(codes[i], amounts[i], periods[i]), results[i]);
+        }
+    }
+
+    @Test
+    public void testGetDecisions_SmallBatch_ShouldPass() {
+        BatchDecisionEngine bde = new BatchDecisionEngine(new DecisionEngine(), 0);
+
+        int[] results = bde.getDecisions(
+                new String[] {"50301103800", "50301103485", null},
+                new int[] {9577, 9577, 5000},
+                new int[] {58, 58, 20});
+        bde.shutdown();
+
+        assertEquals(Decision.of(9577, 58), results[0]);
+        assertEquals(Decision.counterOffer(5800, 58), results[1]);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(results[2]));
+    }
+
+    @Test
+    public void testGetDecisions_EmptyBatch_ShouldPass() {
+        BatchDecisionEngine bde = new BatchDecisionEngine(new DecisionEngine(), 2);
+
+        int[] results = bde.getDecisions(new String[0], new int[0], new int[0]);
+        bde.shutdown();
+
+        assertEquals(0, results.length);
+    }
+}
@@ -0,0 +1,124 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.modifier.DigitRuleCreditModifierProvider;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class CreditPolicyReloaderTests {
+    private static final String defaultBands = "credit-modifier.200-399=0\ncredit-modifier.400-599=100\n"
+            + "credit-modifier.600-799=300\ncredit-modifier.800-999=1000\n";
+    private static final String raisedBands = "credit-modifier.200-399=0\ncredit-modifier.400-599=300\n"
+            + "credit-modifier.600-799=300\ncredit-modifier.800-999=1000\n";
+
+    @TempDir
+    Path directory;
+
+    @Test
+    public void testCheck_PolicyFileChanged_ShouldReplaceLivePolicy() throws IOException {
+        Path policyFile = directory.resolve("policy.properties");
+        write(policyFile, defaultBands, 0);
+        DecisionEngine de = new DecisionEngine(CreditPolicy.load(policyFile), new DigitRuleCreditModifierProvider(),
+                DecisionMetrics.disabled());
+
+        try (CreditPolicyReloader reloader = createReloader(de, policyFile, directory.resolve("candidate"))) {
+            String version = de.getPolicyVersion();
+            assertEquals(Decision.counterOffer(2000, 20), de.getDecision("50301102400", 5000, 20));
+
+            write(policyFile, raisedBands, 1);
+            reloader.check();
+
+            assertNotEquals(version, de.getPolicyVersion());
+            assertEquals(Decision.of(5000, 20), de.getDecision("50301102400", 5000, 20));
+        }
+    }
+
+    @Test
+    public void testCheck_InvalidPolicyFile_ShouldKeepLivePolicy() throws IOException {
+        Path policyFile = directory.resolve("policy.properties");
+        write(policyFile, defaultBands, 0);
+        DecisionEngine de = new DecisionEngine(CreditPolicy.load(policyFile), new DigitRuleCreditModifierProvider(),
+                DecisionMetrics.disabled());
+
+        try (CreditPolicyReloader reloader = createReloader(de, policyFile, directory.resolve("candidate"))) {
+            String version = de.getPolicyVersion();
+
+            write(policyFile, "credit-modifier.400-599=one hundred\n", 1);
+            reloader.check();
+
+            assertEquals(version, de.getPolicyVersion());
+        }
+    }
+
+    @Test
+    public void testCheck_TableConstructionFails_ShouldKeepLivePolicyAndLoadLaterFile() throws IOException {
+        Path policyFile = directory.resolve("policy.properties");
+        write(policyFile, defaultBands, 0);
+        // Stands in for a policy whose decisions can't be precomputed, like one that runs out of memory
+        DecisionEngine de = new DecisionEngine(CreditPolicy.load(policyFile), new DigitRuleCreditModifierProvider(),
+                DecisionMetrics.disabled()) {
+            @Override
+            public void setPolicy(CreditPolicy policy) {
+                if (policy.getLimits().maximumLoanAmount() == 65535) {
+                    throw new OutOfMemoryError("Java heap space");
+                }
+                super.setPolicy(policy);
+            }
+        };
+
+        try (CreditPolicyReloader reloader = createReloader(de, policyFile, directory.resolve("candidate"))) {
+            String version = de.getPolicyVersion();
+
+            write(policyFile, raisedBands + "loan-amount.maximum=65535\n", 1);
+            reloader.check();
+            assertEquals(version, de.getPolicyVersion());
+
+            write(policyFile, raisedBands, 2);
+            reloader.check();
+            assertNotEquals(version, de.getPolicyVersion());
+            assertEquals(Decision.of(5000, 20), de.getDecision("50301102400", 5000, 20));
+        }
+    }
+
+    @Test
+    public void testCheck_CandidateFileCreatedAndDeleted_ShouldStartAndStopEvaluation() throws IOException {
+        Path candidateFile = directory.resolve("candidate.properties");
+        DecisionEngine de = new DecisionEngine();
+
+        try (CreditPolicyReloader reloader = createReloader(de, directory.resolve("policy"), candidateFile)) {
+            assertNull(de.getShadowEvaluation());
+
+            write(candidateFile, raisedBands, 0);
+            reloader.check();
+            assertNotNull(de.getShadowEvaluation());
+            assertEquals(CreditPolicy.load(candidateFile).getVersion(),
+                    de.getShadowEvaluation().getCandidateVersion().split("\\.")[0]);
+
+            Files.delete(candidateFile);
+            reloader.check();
+            assertNull(de.getShadowEvaluation());
+        }
+    }
+
+    private static CreditPolicyReloader createReloader(DecisionEngine de, Path policyFile, Path candidateFile) {
+        return new CreditPolicyReloader(de, policyFile.toString(), candidateFile.toString(), Duration.ofHours(1), 1,
+                100, CreditPolicy.defaultMaximumDecisions);
+    }
+
+    private static void write(Path file, String policy, int version) throws IOException {
+        Files.writeString(file, policy);
+        Files.setLastModifiedTime(file, FileTime.fromMillis(1_000_000_000_000L + version * 1000L));
+    }
+}
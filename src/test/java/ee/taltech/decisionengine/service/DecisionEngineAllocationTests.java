@@ -0,0 +1,53 @@
+package ee.taltech.decisionengine.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class DecisionEngineAllocationTests {
+    private static final int warmupRounds = 20_000;
+    private static final int measuredRounds = 100_000;
+    private static final String[] acceptedPersonalCodes = {"50301102400", "50301105599", "50301108600", "50301103800"};
+    private static final String[] rejectedPersonalCodes = {"50301101000", "50301107200", "0000000040a", null};
+
+    private final com.sun.management.ThreadMXBean threads =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    @Test
+    public void testGetDecision_AcceptedLoans_ShouldNotAllocate() {
+        assertNoAllocation(acceptedPersonalCodes);
+    }
+
+    @Test
+    public void testGetDecision_RejectedLoans_ShouldNotAllocate() {
+        assertNoAllocation(rejectedPersonalCodes);
+    }
+
+    private void assertNoAllocation(String[] personalCodes) {
+        DecisionEngine de = new DecisionEngine();
+        runDecisions(de, personalCodes, warmupRounds);
+
+        final long emptyMeasurement = measureAllocatedBytes(de, personalCodes, 0);
+        final long allocated = measureAllocatedBytes(de, personalCodes, measuredRounds) - emptyMeasurement;
+
+        // Less than one byte per decision: nothing is allocated per request, only the occasional JIT/TLAB noise.
+        assertTrue(allocated < measuredRounds, "Allocated " + allocated + " bytes for " + measuredRounds + " decisions.");
+    }
+
+    private long measureAllocatedBytes(DecisionEngine de, String[] personalCodes, int rounds) {
+        final long before = threads.getCurrentThreadAllocatedBytes();
+        runDecisions(de, personalCodes, rounds);
+        return threads.getCurrentThreadAllocatedBytes() - before;
+    }
+
+    private static int runDecisions(DecisionEngine de, String[] personalCodes, int rounds) {
+        int checksum = 0;
+        for (int i = 0; i < rounds; i++) {
+            final String personalCode = personalCodes[i & 3];
+            checksum += de.getDecision(personalCode, 2000 + (i & 4095), 12 + (i & 31));
+        }
+        return checksum;
+    }
+}
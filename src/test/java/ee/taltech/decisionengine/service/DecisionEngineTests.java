@@ -2,10 +2,18 @@ package ee.taltech.decisionengine.service;
 
 import ee.taltech.decisionengine.exceptions.CantLoanException;
 import ee.taltech.decisionengine.exceptions.InvalidDataException;
+import ee.taltech.decisionengine.metrics.DecisionMetrics;
+import ee.taltech.decisionengine.service.modifier.DigitRuleCreditModifierProvider;
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
 import org.junit.jupiter.api.Test;
 
+import java.util.Properties;
+
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 public class DecisionEngineTests {
     @Test
@@ -17,180 +25,265 @@ public class DecisionEngineTests {
         String code3 = "6432784623";
         String code4 = "635632465745";
 
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision(code0, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision(code1, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision(code2, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision(code3, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision(code4, 2000, 20),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
+        int result0 = de.getDecision(code0, 2000, 20);
+        int result1 = de.getDecision(code1, 2000, 20);
+        int result2 = de.getDecision(code2, 2000, 20);
+        int result3 = de.getDecision(code3, 2000, 20);
+        int result4 = de.getDecision(code4, 2000, 20);
+
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(result0));
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(result1));
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(result2));
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(result3));
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, Decision.getRejectionReason(result4));
     }
 
     @Test
     public void testGetDecision_InvalidLoanAmount_ReturnEmptyOptional() {
         DecisionEngine de = new DecisionEngine();
-        Integer loan0 = null;
-        Integer loan1 = 0;
-        Integer loan2 = 1999;
-        Integer loan3 = 10001;
-        Integer loan4 = -2000;
-
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", loan0, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", loan1, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", loan2, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", loan3, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", loan4, 20),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-    }
-
-    @Test
-    public void testGetDecision_InvalidLoanPeriod_ShouldThrowException() {
+        int loan0 = Integer.MIN_VALUE;
+        int loan1 = 0;
+        int loan2 = 1999;
+        int loan3 = 10001;
+        int loan4 = -2000;
+
+        int result0 = de.getDecision("50301117000", loan0, 20);
+        int result1 = de.getDecision("50301117000", loan1, 20);
+        int result2 = de.getDecision("50301117000", loan2, 20);
+        int result3 = de.getDecision("50301117000", loan3, 20);
+        int result4 = de.getDecision("50301117000", loan4, 20);
+
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result0));
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result1));
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result2));
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result3));
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result4));
+    }
+
+    @Test
+    public void testGetDecision_InvalidLoanPeriod_ShouldBeRejected() {
+        DecisionEngine de = new DecisionEngine();
+        int period0 = Integer.MIN_VALUE;
+        int period1 = 0;
+        int period2 = 11;
+        int period3 = 61;
+        int period4 = -12;
+
+        int result0 = de.getDecision("50301117000", 5000, period0);
+        int result1 = de.getDecision("50301117000", 5000, period1);
+        int result2 = de.getDecision("50301117000", 5000, period2);
+        int result3 = de.getDecision("50301117000", 5000, period3);
+        int result4 = de.getDecision("50301117000", 5000, period4);
+
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, Decision.getRejectionReason(result0));
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, Decision.getRejectionReason(result1));
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, Decision.getRejectionReason(result2));
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, Decision.getRejectionReason(result3));
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, Decision.getRejectionReason(result4));
+    }
+
+    @Test
+    public void testGetDecision_UnknownCreditModifier_ShouldBeRejected() {
+        DecisionEngine de = new DecisionEngine();
+
+        int result0 = de.getDecision("50301110000", 2000, 20);
+        int result1 = de.getDecision("50301104199", 2000, 20);
+
+        assertEquals(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER, Decision.getRejectionReason(result0));
+        assertEquals(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER, Decision.getRejectionReason(result1));
+    }
+
+    @Test
+    public void testGetDecision_ClientInDebt_ShouldBeRejected() {
+        DecisionEngine de = new DecisionEngine();
+
+        int result0 = de.getDecision("50301112200", 2000, 20);
+        int result1 = de.getDecision("50301115399", 2000, 20);
+
+        assertEquals(CantLoanException.Reason.CLIENT_IN_DEBT, Decision.getRejectionReason(result0));
+        assertEquals(CantLoanException.Reason.CLIENT_IN_DEBT, Decision.getRejectionReason(result1));
+    }
+
+    @Test
+    public void testGetDecision_WorkingParameters_ShouldPass() {
+        DecisionEngine de = new DecisionEngine();
+
+        int result0 = de.getDecision("50301102400", 2000, 20);
+        int result1 = de.getDecision("50301105599", 2000, 12);
+        int result2 = de.getDecision("50301108600", 10000, 15);
+        int result3 = de.getDecision("50301103485", 9577, 58);
+        int result4 = de.getDecision("50301103800", 9577, 58);
+
+        assertEquals(2000, Decision.getLoanAmount(result0));
+        assertEquals(20, Decision.getLoanPeriod(result0));
+        assertEquals(2000, Decision.getLoanAmount(result1));
+        assertEquals(20, Decision.getLoanPeriod(result1));
+        assertEquals(4500, Decision.getLoanAmount(result2));
+        assertEquals(15, Decision.getLoanPeriod(result2));
+        assertEquals(5800, Decision.getLoanAmount(result3));
+        assertEquals(58, Decision.getLoanPeriod(result3));
+        assertEquals(9577, Decision.getLoanAmount(result4));
+        assertEquals(58, Decision.getLoanPeriod(result4));
+    }
+
+    @Test
+    public void testGetDecision_CounterOffers_ShouldMatchLoanCalculator() {
+        DecisionEngine de = new DecisionEngine();
+
+        int result0 = de.getDecision("50301103485", 9577, 58);
+        int result1 = de.getDecision("50301108600", 10000, 12);
+        int result2 = de.getDecision("50301105599", 8000, 60);
+
+        assertEquals(Decision.Outcome.COUNTER_OFFER, Decision.getOutcome(result0));
+        assertEquals(new LoanCalculator(9577, 58, 100).getLoanResult(), result0);
+        assertEquals(Decision.Outcome.COUNTER_OFFER, Decision.getOutcome(result1));
+        assertEquals(new LoanCalculator(10000, 12, 300).getLoanResult(), result1);
+        assertEquals(Decision.Outcome.COUNTER_OFFER, Decision.getOutcome(result2));
+        assertEquals(new LoanCalculator(8000, 60, 100).getLoanResult(), result2);
+    }
+
+    @Test
+    public void testGetDecisionAsync_SameRequests_ShouldMatchGetDecision() throws Exception {
+        DecisionEngine de = new DecisionEngine();
+        String[] codes = {"50301109140", "50301101240", "50301100440", "50301102640", "50301108840", "1234"};
+        int[] amounts = {2000, 4000, 10000, 1999};
+        int[] periods = {12, 36, 60, 61};
+
+        for (String code : codes) {
+            for (int amount : amounts) {
+                for (int period : periods) {
+                    assertEquals(de.getDecision(code, amount, period),
+                            de.getDecisionAsync(code, amount, period).get());
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetOfferCurve_ClientsInSameSegment_ShouldShareCurve() {
+        DecisionEngine de = new DecisionEngine();
+
+        OfferCurve curve0 = de.getOfferCurve("50301103800");
+        OfferCurve curve1 = de.getOfferCurve("50301119800");
+
+        assertSame(curve0, curve1);
+        assertEquals(10000, curve0.getMaximumAmount(12));
+    }
+
+    @Test
+    public void testGetOfferCurve_RejectedClients_ShouldGiveReason() {
+        DecisionEngine de = new DecisionEngine();
+
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID,
+                de.getOfferCurve("50307172741").getRejectionReason());
+        assertEquals(CantLoanException.Reason.CLIENT_IN_DEBT, de.getOfferCurve("50301103300").getRejectionReason());
+        assertEquals(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER,
+                de.getOfferCurve("50301104100").getRejectionReason());
+    }
+
+    @Test
+    public void testGetDecision_CustomPolicy_ShouldUseItsBandsAndLimits() {
+        Properties properties = new Properties();
+        properties.setProperty("loan-amount.maximum", "5000");
+        properties.setProperty("credit-modifier.000-399", "500");
+        CreditPolicy policy = CreditPolicy.compile(properties);
+        DecisionEngine de = new DecisionEngine(policy, new DigitRuleCreditModifierProvider(policy),
+                DecisionMetrics.disabled());
+
+        int result0 = de.getDecision("50301103300", 5000, 12);
+        int result1 = de.getDecision("50301103300", 6000, 12);
+        int result2 = de.getDecision("50301102400", 5000, 12);
+
+        assertEquals(Decision.of(5000, 12), result0);
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result1));
+        assertEquals(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER, Decision.getRejectionReason(result2));
+        assertEquals(5000, de.getOfferCurve("50301104100").getMaximumAmount(12));
+        assertNotEquals(new DecisionEngine().getPolicyVersion(), de.getPolicyVersion());
+    }
+
+    @Test
+    public void testSetPolicy_NewPolicy_ShouldBeUsedByLaterDecisions() {
+        Properties properties = new Properties();
+        properties.setProperty("credit-modifier.400-599", "300");
+        CreditPolicy policy = CreditPolicy.compile(properties);
         DecisionEngine de = new DecisionEngine();
-        Integer period0 = null;
-        Integer period1 = 0;
-        Integer period2 = 11;
-        Integer period3 = 61;
-        Integer period4 = -12;
-
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", 5000, period0),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", 5000, period1),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", 5000, period2),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", 5000, period3),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> de.getDecision("50000000000", 5000, period4),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-    }
-
-    @Test
-    public void testGetDecision_UnknownCreditModifier_ShouldThrowException() {
+        String version = de.getPolicyVersion();
+
+        int result0 = de.getDecision("50301102400", 5000, 20);
+        de.setPolicy(policy);
+        int result1 = de.getDecision("50301102400", 5000, 20);
+        int result2 = de.getDecision("50301103800", 5000, 20);
+
+        assertEquals(Decision.counterOffer(2000, 20), result0);
+        assertEquals(Decision.of(5000, 20), result1);
+        assertEquals(CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER, Decision.getRejectionReason(result2));
+        assertSame(policy, de.getPolicy());
+        assertNotEquals(version, de.getPolicyVersion());
+    }
+
+    @Test
+    public void testGetDecision_SnapshotReadBeforePolicyChanged_ShouldUseOldPolicyAndMessages() {
+        Properties properties = new Properties();
+        properties.setProperty("loan-amount.minimum", "1000");
+        properties.setProperty("credit-modifier.000-999", "1000");
         DecisionEngine de = new DecisionEngine();
+        PolicySnapshot snapshot = de.getSnapshot();
+
+        de.setPolicy(CreditPolicy.compile(properties));
+        int result = de.getDecision(snapshot, "50301103800", 1500, 20);
 
-        CantLoanException e0 = assertThrows(
-                CantLoanException.class,
-                () -> de.getDecision("12312312000", 2000, 20),
-                "Expected error to be thrown."
-        );
-        CantLoanException e1 = assertThrows(
-                CantLoanException.class,
-                () -> de.getDecision("12312312199", 2000, 20),
-                "Expected error to be thrown."
-        );
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, Decision.getRejectionReason(result));
+        assertEquals("Invalid loan amount. Must be between 2000 and 10000 euros.",
+                snapshot.getRejectionMessages().get(InvalidDataException.Reason.LOAN_AMOUNT_INVALID));
+        assertFalse(Decision.isRejected(de.getDecision("50301103800", 1500, 20)));
+    }
+
+    @Test
+    public void testGetDecisionTag_SameCreditModifier_ShouldBeSameTag() {
+        DecisionEngine de = new DecisionEngine();
 
-        assertEquals(e0.getReason(), CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER);
-        assertEquals(e1.getReason(), CantLoanException.Reason.UNKNOWN_CREDIT_MODIFIER);
+        assertEquals(de.getDecisionTag("50301103800", 4000, 24), de.getDecisionTag("50301119800", 4000, 24));
+        assertEquals(de.getDecisionTag("50301103801", 4000, 24), de.getDecisionTag("1234567890", 4000, 24));
+        assertNotEquals(de.getDecisionTag("50301103800", 4000, 24), de.getDecisionTag("50301103300", 4000, 24));
+        assertNotEquals(de.getDecisionTag("50301103800", 4000, 24), de.getDecisionTag("50301103800", 4000, 25));
+        assertTrue(de.getDecisionTag("50301103800", 4000, 24).startsWith(de.getPolicyDigest() + '-'));
     }
 
     @Test
-    public void testGetDecision_ClientInDebt_ShouldThrowException() {
+    public void testGetPolicyDigest_PolicyChanged_ShouldChange() {
+        Properties properties = new Properties();
+        properties.setProperty("credit-modifier.400-599", "300");
         DecisionEngine de = new DecisionEngine();
+        String digest = de.getPolicyDigest();
 
-        CantLoanException e0 = assertThrows(
-                CantLoanException.class,
-                () -> de.getDecision("12312312200", 2000, 20),
-                "Expected error to be thrown."
-        );
-        CantLoanException e1 = assertThrows(
-                CantLoanException.class,
-                () -> de.getDecision("12312312399", 2000, 20),
-                "Expected error to be thrown."
-        );
+        de.setPolicy(CreditPolicy.compile(properties));
+        assertNotEquals(digest, de.getPolicyDigest());
+        assertEquals(32, de.getPolicyDigest().length());
 
-        assertEquals(e0.getReason(), CantLoanException.Reason.CLIENT_IN_DEBT);
-        assertEquals(e1.getReason(), CantLoanException.Reason.CLIENT_IN_DEBT);
+        de.setPolicy(CreditPolicy.getDefault());
+        assertEquals(digest, de.getPolicyDigest());
     }
 
     @Test
-    public void testGetDecision_WorkingParameters_ShouldPass() throws InvalidDataException, CantLoanException {
+    public void testGetRejectionMessages_PolicyLimitsChanged_ShouldQuoteNewLimits() {
+        Properties properties = new Properties();
+        properties.setProperty("credit-modifier.400-599", "300");
+        properties.setProperty("loan-amount.minimum", "1000");
+        properties.setProperty("loan-amount.maximum", "8000");
+        properties.setProperty("loan-period.minimum", "6");
+        properties.setProperty("loan-period.maximum", "48");
         DecisionEngine de = new DecisionEngine();
+        assertEquals("Invalid loan amount. Must be between 2000 and 10000 euros.",
+                de.getRejectionMessages().get(InvalidDataException.Reason.LOAN_AMOUNT_INVALID));
+        assertSame(InvalidDataException.Reason.LOAN_AMOUNT_INVALID.getMessage(),
+                InvalidDataException.Reason.LOAN_AMOUNT_INVALID.getMessage());
 
-        Integer[] result0 = de.getDecision("00000000400", 2000, 20);
-        Integer[] result1 = de.getDecision("00000000599", 2000, 12);
-        Integer[] result2 = de.getDecision("00000000600", 10000, 15);
-        Integer[] result3 = de.getDecision("00000000485", 9577, 58);
-        Integer[] result4 = de.getDecision("00000000800", 9577, 58);
-
-        assertEquals(2000, result0[0]);
-        assertEquals(20, result0[1]);
-        assertEquals(2000, result1[0]);
-        assertEquals(20, result1[1]);
-        assertEquals(4500, result2[0]);
-        assertEquals(15, result2[1]);
-        assertEquals(5800, result3[0]);
-        assertEquals(58, result3[1]);
-        assertEquals(9577, result4[0]);
-        assertEquals(58, result4[1]);
+        de.setPolicy(CreditPolicy.compile(properties));
+        assertEquals("Invalid loan amount. Must be between 1000 and 8000 euros.",
+                de.getRejectionMessages().get(InvalidDataException.Reason.LOAN_AMOUNT_INVALID));
+        assertEquals("Invalid loan period. Must be between 6 and 48 months.",
+                de.getRejectionMessages().get(InvalidDataException.Reason.LOAN_PERIOD_INVALID));
+        assertEquals(CantLoanException.Reason.CLIENT_IN_DEBT.getMessage(),
+                de.getRejectionMessages().get(CantLoanException.Reason.CLIENT_IN_DEBT));
     }
 }
@@ -0,0 +1,62 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+public class DecisionTableTests {
+    @Test
+    public void testGetDecision_WholeInputDomain_ShouldMatchLoanCalculator() {
+        final int[] creditModifiers = {5, 33, 100, 123, 145, 300, 900, 1000};
+        DecisionTable table = new DecisionTable(creditModifiers);
+
+        for (int creditModifier : creditModifiers) {
+            for (int amount = DecisionEngineConstants.minimumLoanAmount;
+                 amount <= DecisionEngineConstants.maximumLoanAmount; amount++) {
+                for (int period = DecisionEngineConstants.minimumLoanPeriod;
+                     period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+                    assertSameAsLoanCalculator(table, creditModifier, amount, period);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testGetDecision_ModifierNotInTable_ShouldMatchLoanCalculator() {
+        DecisionTable table = new DecisionTable(100);
+
+        assertSameAsLoanCalculator(table, 300, 5432, 30);
+        assertSameAsLoanCalculator(table, 145, 10000, 60);
+        assertSameAsLoanCalculator(table, 5, 9999, 59);
+        assertSameAsLoanCalculator(table, 100, 1999, 20);
+        assertSameAsLoanCalculator(table, 100, 5000, 61);
+    }
+
+    @Test
+    public void testGetDecision_NoPossibleLoans_ShouldGiveReason() {
+        DecisionTable table = new DecisionTable(5, 33);
+
+        int result0 = table.getDecision(5, 9999, 59);
+        int result1 = table.getDecision(33, 5000, 20);
+
+        assertEquals(CantLoanException.Reason.NO_POSSIBLE_LOANS, Decision.getRejectionReason(result0));
+        assertEquals(CantLoanException.Reason.NO_POSSIBLE_LOANS, Decision.getRejectionReason(result1));
+        assertEquals(0, Decision.getLoanAmount(result0));
+        assertEquals(0, Decision.getLoanPeriod(result0));
+    }
+
+    private static void assertSameAsLoanCalculator(DecisionTable table, int creditModifier, int amount, int period) {
+        int expected = new LoanCalculator(amount, period, creditModifier).getLoanResult();
+
+        assertEquals(expected, table.getDecision(creditModifier, amount, period));
+    }
+
+    @Test
+    public void testGetVersion_SameOrDifferentModifiers_ShouldMatchOnlyForSameDecisions() {
+        assertEquals(new DecisionTable(100, 300).getVersion(), new DecisionTable(100, 300).getVersion());
+        assertNotEquals(new DecisionTable(100, 300).getVersion(), new DecisionTable(100, 1000).getVersion());
+    }
+}
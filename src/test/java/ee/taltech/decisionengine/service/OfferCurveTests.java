@@ -0,0 +1,56 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.exceptions.CantLoanException;
+import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OfferCurveTests {
+    @Test
+    public void testGetOfferCurve_EveryPeriod_ShouldMatchLargestApprovedLoan() {
+        DecisionTable table = new DecisionTable(33, 100, 300, 1000);
+
+        for (int creditModifier : new int[] {34, 100, 145, 300, 1000}) {
+            OfferCurve curve = table.getOfferCurve(creditModifier);
+            assertFalse(curve.isRejected());
+            for (int period = DecisionEngineConstants.minimumLoanPeriod;
+                 period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+                assertEquals(getLargestApprovedLoan(creditModifier, period), curve.getMaximumAmount(period),
+                        "modifier " + creditModifier + ", period " + period);
+            }
+        }
+    }
+
+    @Test
+    public void testGetOfferCurve_TableModifier_ShouldBeShared() {
+        DecisionTable table = new DecisionTable(100, 300);
+
+        assertSame(table.getOfferCurve(300), table.getOfferCurve(300));
+        assertEquals(0, table.getOfferCurve(100).getMaximumAmount(19));
+        assertEquals(2000, table.getOfferCurve(100).getMaximumAmount(20));
+        assertEquals(6000, table.getOfferCurve(100).getMaximumAmount(60));
+    }
+
+    @Test
+    public void testGetOfferCurve_NoPossibleLoans_ShouldGiveReason() {
+        OfferCurve curve = new DecisionTable(5).getOfferCurve(5);
+
+        assertTrue(curve.isRejected());
+        assertEquals(CantLoanException.Reason.NO_POSSIBLE_LOANS, curve.getRejectionReason());
+        assertEquals(0, curve.getMaximumAmount(60));
+    }
+
+    private static int getLargestApprovedLoan(int creditModifier, int period) {
+        for (int amount = DecisionEngineConstants.maximumLoanAmount;
+             amount >= DecisionEngineConstants.minimumLoanAmount; amount--) {
+            if (new LoanCalculator(amount, period, creditModifier).getLoanResult() == Decision.of(amount, period)) {
+                return amount;
+            }
+        }
+        return 0;
+    }
+}
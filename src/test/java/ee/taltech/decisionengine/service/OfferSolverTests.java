@@ -0,0 +1,120 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.LoanLimits;
+import ee.taltech.decisionengine.service.utils.DecisionEngineConstants;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class OfferSolverTests {
+    private static final LoanLimits limits = LoanLimits.defaultLimits;
+    private static final int[] creditModifiers = {-100, 0, 1, 5, 33, 34, 99, 100, 123, 145, 166, 167, 300, 833, 834,
+            1000, Integer.MAX_VALUE};
+
+    @Test
+    public void testGetMaximumAmount_EveryPeriod_ShouldMatchBruteForce() {
+        for (int creditModifier : creditModifiers) {
+            for (int period = DecisionEngineConstants.minimumLoanPeriod - 1;
+                 period <= DecisionEngineConstants.maximumLoanPeriod + 1; period++) {
+                assertEquals(getMaximumAmountByEnumeration(creditModifier, period),
+                        OfferSolver.getMaximumAmount(limits, creditModifier, period),
+                        "modifier " + creditModifier + ", period " + period);
+            }
+        }
+    }
+
+    @Test
+    public void testGetShortestPeriod_EveryAmount_ShouldMatchBruteForce() {
+        for (int creditModifier : creditModifiers) {
+            for (int amount = DecisionEngineConstants.minimumLoanAmount - 1;
+                 amount <= DecisionEngineConstants.maximumLoanAmount + 1; amount++) {
+                assertEquals(getShortestPeriodByEnumeration(creditModifier, amount),
+                        OfferSolver.getShortestPeriod(limits, creditModifier, amount),
+                        "modifier " + creditModifier + ", amount " + amount);
+            }
+        }
+    }
+
+    @Test
+    public void testGetMaximumAmount_RandomModifiers_ShouldMatchBruteForce() {
+        Random random = new Random(20);
+
+        for (int i = 0; i < 200; i++) {
+            int creditModifier = 1 + random.nextInt(1200);
+            assertEquals(getMaximumAmountByEnumeration(creditModifier),
+                    OfferSolver.getMaximumAmount(limits, creditModifier), "modifier " + creditModifier);
+            int amount = DecisionEngineConstants.minimumLoanAmount + random.nextInt(8001);
+            assertEquals(getShortestPeriodByEnumeration(creditModifier, amount),
+                    OfferSolver.getShortestPeriod(limits, creditModifier, amount),
+                    "modifier " + creditModifier + ", amount " + amount);
+        }
+    }
+
+    @Test
+    public void testGetLoanResult_RandomRequests_ShouldBeBestApprovableOffer() {
+        Random random = new Random(21);
+
+        for (int i = 0; i < 500; i++) {
+            int creditModifier = 1 + random.nextInt(400);
+            int amount = DecisionEngineConstants.minimumLoanAmount + random.nextInt(8001);
+            int period = DecisionEngineConstants.minimumLoanPeriod + random.nextInt(49);
+            int decision = new LoanCalculator(amount, period, creditModifier).getLoanResult();
+            String request = "modifier " + creditModifier + ", amount " + amount + ", period " + period;
+
+            if (Decision.isRejected(decision)) {
+                assertEquals(0, getMaximumAmountByEnumeration(creditModifier), request);
+                continue;
+            }
+            int offeredAmount = Decision.getLoanAmount(decision);
+            int offeredPeriod = Decision.getLoanPeriod(decision);
+            assertTrue(isApprovable(creditModifier, offeredAmount, offeredPeriod), request);
+            if (offeredPeriod != period) {
+                int expectedAmount = getShortestPeriodByEnumeration(creditModifier, amount) > 0
+                        ? amount : getMaximumAmountByEnumeration(creditModifier);
+                assertEquals(expectedAmount, offeredAmount, request);
+                assertEquals(getShortestPeriodByEnumeration(creditModifier, offeredAmount), offeredPeriod, request);
+            }
+        }
+    }
+
+    private static boolean isApprovable(int creditModifier, int amount, int period) {
+        return creditModifier > 0
+                && amount >= DecisionEngineConstants.minimumLoanAmount
+                && amount <= DecisionEngineConstants.maximumLoanAmount
+                && period >= DecisionEngineConstants.minimumLoanPeriod
+                && period <= DecisionEngineConstants.maximumLoanPeriod
+                && (long) creditModifier * period >= amount;
+    }
+
+    private static int getMaximumAmountByEnumeration(int creditModifier, int period) {
+        for (int amount = DecisionEngineConstants.maximumLoanAmount;
+             amount >= DecisionEngineConstants.minimumLoanAmount; amount--) {
+            if (isApprovable(creditModifier, amount, period)) {
+                return amount;
+            }
+        }
+        return 0;
+    }
+
+    private static int getMaximumAmountByEnumeration(int creditModifier) {
+        int maximumAmount = 0;
+        for (int period = DecisionEngineConstants.minimumLoanPeriod;
+             period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+            maximumAmount = Math.max(maximumAmount, getMaximumAmountByEnumeration(creditModifier, period));
+        }
+        return maximumAmount;
+    }
+
+    private static int getShortestPeriodByEnumeration(int creditModifier, int amount) {
+        for (int period = DecisionEngineConstants.minimumLoanPeriod;
+             period <= DecisionEngineConstants.maximumLoanPeriod; period++) {
+            if (isApprovable(creditModifier, amount, period)) {
+                return period;
+            }
+        }
+        return 0;
+    }
+}
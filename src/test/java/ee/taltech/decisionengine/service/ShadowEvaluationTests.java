@@ -0,0 +1,84 @@
+package ee.taltech.decisionengine.service;
+
+import ee.taltech.decisionengine.service.policy.CreditPolicy;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+public class ShadowEvaluationTests {
+    private static final String[] personalCodes = {"50301102400", "50301103800", "50301103300", "50301104100"};
+
+    @Test
+    public void testShadowEvaluation_SamePolicy_ShouldNotDisagree() throws InterruptedException {
+        DecisionEngine de = new DecisionEngine();
+        ShadowEvaluation evaluation = de.startShadowEvaluation(CreditPolicy.getDefault(), 1, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            de.getDecision(personalCodes[i % personalCodes.length], 5000, 20);
+        }
+        awaitRequests(evaluation, 100);
+        de.stopShadowEvaluation();
+
+        for (Decision.Outcome outcome : Decision.Outcome.values()) {
+            assertEquals(0, evaluation.getDisagreementCount(outcome), outcome.name());
+        }
+        assertEquals(de.getPolicyVersion(), evaluation.getCandidateVersion());
+    }
+
+    @Test
+    public void testShadowEvaluation_MovedBand_ShouldDisagreeOnlyForMovedClients() throws InterruptedException {
+        Properties properties = new Properties();
+        properties.setProperty("credit-modifier.200-399", "0");
+        properties.setProperty("credit-modifier.400-599", "300");
+        properties.setProperty("credit-modifier.600-799", "300");
+        properties.setProperty("credit-modifier.800-999", "1000");
+        DecisionEngine de = new DecisionEngine();
+        ShadowEvaluation evaluation = de.startShadowEvaluation(CreditPolicy.compile(properties), 1, 1000);
+
+        for (int i = 0; i < 100; i++) {
+            de.getDecision(personalCodes[i % personalCodes.length], 5000, 20);
+        }
+        de.getDecision("50301102400", 5000, 61);
+        awaitRequests(evaluation, 101);
+        de.stopShadowEvaluation();
+
+        assertEquals(25, evaluation.getRequestCount(Decision.Outcome.COUNTER_OFFER));
+        assertEquals(25, evaluation.getDisagreementCount(Decision.Outcome.COUNTER_OFFER));
+        assertEquals(1.0, evaluation.getDisagreementRate(Decision.Outcome.COUNTER_OFFER));
+        assertEquals(25, evaluation.getRequestCount(Decision.Outcome.APPROVED));
+        assertEquals(0, evaluation.getDisagreementCount(Decision.Outcome.APPROVED));
+        assertEquals(51, evaluation.getRequestCount(Decision.Outcome.REJECTED));
+        assertEquals(0, evaluation.getDisagreementCount(Decision.Outcome.REJECTED));
+    }
+
+    @Test
+    public void testShadowEvaluation_Stopped_ShouldNotSampleRequests() {
+        DecisionEngine de = new DecisionEngine();
+        ShadowEvaluation evaluation = de.startShadowEvaluation(CreditPolicy.getDefault(), 1, 1000);
+        de.stopShadowEvaluation();
+
+        de.getDecision("50301103800", 5000, 20);
+
+        assertNull(de.getShadowEvaluation());
+        assertEquals(0, evaluation.getRequestCount(Decision.Outcome.APPROVED) + evaluation.getDroppedCount());
+    }
+
+    private static void awaitRequests(ShadowEvaluation evaluation, long count) throws InterruptedException {
+        final long deadline = System.nanoTime() + 5_000_000_000L;
+        while (getRequestCount(evaluation) + evaluation.getDroppedCount() < count && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(count, getRequestCount(evaluation));
+    }
+
+    private static long getRequestCount(ShadowEvaluation evaluation) {
+        long count = 0;
+        for (Decision.Outcome outcome : Decision.Outcome.values()) {
+            count += evaluation.getRequestCount(outcome);
+        }
+        return count;
+    }
+}
@@ -0,0 +1,194 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class BatchingCreditModifierProviderTests {
+    private static final int requests = 32;
+
+    /**
+     * Provider that answers every client with the number in its personal code, and remembers its bulk lookups.
+     */
+    private static class RecordingProvider implements CreditModifierProvider {
+        private final List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+
+        @Override
+        public int getCreditModifier(String personalCode) {
+            throw new AssertionError("Clients should be looked up in bulk");
+        }
+
+        @Override
+        public int[] getCreditModifiers(String[] personalCodes) {
+            batchSizes.add(personalCodes.length);
+            int[] creditModifiers = new int[personalCodes.length];
+            for (int i = 0; i < personalCodes.length; i++) {
+                creditModifiers[i] = Integer.parseInt(personalCodes[i].substring(8));
+            }
+            return creditModifiers;
+        }
+    }
+
+    @Test
+    void testGetCreditModifier_ManyClientsAtOnce_ShouldBeLookedUpInBulk() throws Exception {
+        RecordingProvider recording = new RecordingProvider();
+        BatchingCreditModifierProvider provider =
+                new BatchingCreditModifierProvider(recording, Duration.ofMillis(100), 128, 2);
+
+        List<Integer> results = lookUpConcurrently(provider, requests);
+
+        for (int i = 0; i < requests; i++) {
+            assertEquals(100 + i, results.get(i));
+        }
+        assertTrue(recording.batchSizes.size() < requests, "Expected batches, got " + recording.batchSizes);
+        assertEquals(recording.batchSizes.size(), provider.getBatchCount());
+        assertEquals(requests, provider.getBatchedLookupCount());
+        provider.close();
+    }
+
+    @Test
+    void testGetCreditModifier_MoreClientsThanMaximumBatchSize_ShouldSplitBatches() throws Exception {
+        RecordingProvider recording = new RecordingProvider();
+        BatchingCreditModifierProvider provider =
+                new BatchingCreditModifierProvider(recording, Duration.ofMillis(100), 4, 2);
+
+        List<Integer> results = lookUpConcurrently(provider, requests);
+
+        for (int i = 0; i < requests; i++) {
+            assertEquals(100 + i, results.get(i));
+        }
+        assertTrue(recording.batchSizes.size() >= requests / 4);
+        for (int batchSize : recording.batchSizes) {
+            assertTrue(batchSize <= 4);
+        }
+        provider.close();
+    }
+
+    @Test
+    void testGetCreditModifier_SameClientTwice_ShouldBeLookedUpOnce() throws Exception {
+        RecordingProvider recording = new RecordingProvider();
+        BatchingCreditModifierProvider provider =
+                new BatchingCreditModifierProvider(recording, Duration.ofMillis(100), 128, 1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<Integer> first = executor.submit(() -> provider.getCreditModifier("50307172740"));
+            Future<Integer> second = executor.submit(() -> provider.getCreditModifier("50307172740"));
+            assertEquals(740, first.get(5, TimeUnit.SECONDS));
+            assertEquals(740, second.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, provider.getBatchedLookupCount());
+        provider.close();
+    }
+
+    @Test
+    void testGetCreditModifierAsync_ManyClients_ShouldNotBlockCaller() throws Exception {
+        RecordingProvider recording = new RecordingProvider();
+        BatchingCreditModifierProvider provider =
+                new BatchingCreditModifierProvider(recording, Duration.ofMillis(100), 128, 1);
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(provider.getCreditModifierAsync("50307172" + (100 + i)));
+        }
+
+        for (int i = 0; i < requests; i++) {
+            assertEquals(100 + i, results.get(i).get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(requests, provider.getBatchedLookupCount());
+        assertTrue(provider.getBatchCount() < requests);
+        provider.close();
+    }
+
+    @Test
+    void testGetCreditModifierAsync_ThreadPerTaskExecutor_ShouldRunBatchesAtOnce() throws Exception {
+        int concurrentBatches = 8;
+        CountDownLatch inFlight = new CountDownLatch(concurrentBatches);
+        BatchingCreditModifierProvider provider = new BatchingCreditModifierProvider(new CreditModifierProvider() {
+            @Override
+            public int getCreditModifier(String personalCode) {
+                throw new AssertionError("Clients should be looked up in bulk");
+            }
+
+            @Override
+            public int[] getCreditModifiers(String[] personalCodes) {
+                // Every batch waits until all of them are in flight, which a fixed pool of threads never reaches
+                inFlight.countDown();
+                try {
+                    assertTrue(inFlight.await(5, TimeUnit.SECONDS));
+                } catch (InterruptedException e) {
+                    throw new IllegalStateException(e);
+                }
+                return new int[]{Integer.parseInt(personalCodes[0].substring(8))};
+            }
+        }, Duration.ZERO, 1, Executors.newCachedThreadPool());
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < concurrentBatches; i++) {
+            results.add(provider.getCreditModifierAsync("50307172" + (100 + i)));
+        }
+
+        for (int i = 0; i < concurrentBatches; i++) {
+            assertEquals(100 + i, results.get(i).get(10, TimeUnit.SECONDS));
+        }
+        assertEquals(concurrentBatches, provider.getBatchCount());
+        provider.close();
+    }
+
+    @Test
+    void testGetCreditModifier_BulkLookupFails_ShouldFailEveryRequestInBatch() {
+        BatchingCreditModifierProvider provider = new BatchingCreditModifierProvider(new CreditModifierProvider() {
+            @Override
+            public int getCreditModifier(String personalCode) {
+                return 100;
+            }
+
+            @Override
+            public int[] getCreditModifiers(String[] personalCodes) {
+                throw new IllegalStateException("Registry is down");
+            }
+        }, Duration.ZERO, 128, 1);
+
+        assertThrows(IllegalStateException.class, () -> provider.getCreditModifier("50307172740"));
+        provider.close();
+    }
+
+    private static List<Integer> lookUpConcurrently(CreditModifierProvider provider, int count) throws Exception {
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(count);
+        try {
+            List<Future<Integer>> futures = new ArrayList<>();
+            for (int i = 0; i < count; i++) {
+                final String personalCode = "50307172" + (100 + i);
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return provider.getCreditModifier(personalCode);
+                }));
+            }
+            start.countDown();
+
+            List<Integer> results = new ArrayList<>();
+            for (Future<Integer> future : futures) {
+                results.add(future.get(5, TimeUnit.SECONDS));
+            }
+            return results;
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class CachingCreditModifierProviderTests {
+    private final Map<String, Integer> registry = new HashMap<>();
+    private final List<String> lookups = new ArrayList<>();
+    private final List<Runnable> refreshes = new ArrayList<>();
+    private long now;
+    private CachingCreditModifierProvider cache;
+
+    @BeforeEach
+    public void setup() {
+        registry.put("50307172740", 300);
+        registry.put("50301108840", 1000);
+        registry.put("50301100440", 100);
+        CreditModifierProvider provider = personalCode -> {
+            lookups.add(personalCode);
+            return registry.getOrDefault(personalCode, CreditModifierProvider.unknownCreditModifier);
+        };
+        cache = new CachingCreditModifierProvider(provider, 2, Duration.ofSeconds(60), Duration.ofSeconds(10),
+                refreshes::add, () -> now);
+    }
+
+    @Test
+    void testGetCreditModifier_RepeatApplicant_ShouldHitCache() {
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+
+        assertEquals(1, lookups.size());
+        assertEquals(2, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testGetCreditModifier_UnknownClient_ShouldBeCachedToo() {
+        assertEquals(-1, cache.getCreditModifier("50301122000"));
+        assertEquals(-1, cache.getCreditModifier("50301122000"));
+
+        assertEquals(1, lookups.size());
+    }
+
+    @Test
+    void testGetCreditModifier_OlderThanRefreshTime_ShouldRefreshInBackground() {
+        cache.getCreditModifier("50307172740");
+        registry.put("50307172740", 1000);
+        now = Duration.ofSeconds(15).toNanos();
+
+        // The old modifier is returned while a single refresh is scheduled
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+        assertEquals(1, refreshes.size());
+        assertEquals(1, lookups.size());
+
+        refreshes.get(0).run();
+        assertEquals(1000, cache.getCreditModifier("50307172740"));
+        assertEquals(2, lookups.size());
+        assertEquals(1, cache.getRefreshCount());
+        assertEquals(1, cache.getMissCount());
+    }
+
+    @Test
+    void testGetCreditModifier_OlderThanTimeToLive_ShouldLookUpAgain() {
+        cache.getCreditModifier("50307172740");
+        registry.put("50307172740", 1000);
+        now = Duration.ofSeconds(60).toNanos();
+
+        assertEquals(1000, cache.getCreditModifier("50307172740"));
+        assertEquals(2, lookups.size());
+        assertEquals(2, cache.getMissCount());
+        assertEquals(0, refreshes.size());
+    }
+
+    @Test
+    void testGetCreditModifier_MoreClientsThanMaximumSize_ShouldEvictOldest() {
+        cache.getCreditModifier("50307172740");
+        cache.getCreditModifier("50301108840");
+        cache.getCreditModifier("50301100440");
+
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getEvictionCount());
+
+        cache.getCreditModifier("50301108840");
+        cache.getCreditModifier("50301100440");
+        assertEquals(3, lookups.size());
+        cache.getCreditModifier("50307172740");
+        assertEquals(4, lookups.size());
+    }
+
+    @Test
+    void testGetCreditModifier_RecentlyUsedClient_ShouldStayCached() {
+        cache.getCreditModifier("50307172740");
+        cache.getCreditModifier("50301108840");
+        cache.getCreditModifier("50307172740");
+        cache.getCreditModifier("50301100440");
+
+        assertEquals(2, cache.size());
+        assertEquals(3, lookups.size());
+        cache.getCreditModifier("50307172740");
+        assertEquals(3, lookups.size());
+        cache.getCreditModifier("50301108840");
+        assertEquals(4, lookups.size());
+    }
+
+    @Test
+    void testGetCreditModifier_RefreshedClients_ShouldStayWithinMaximumSize() {
+        for (int i = 0; i < 10; i++) {
+            now = i * Duration.ofSeconds(15).toNanos();
+            cache.getCreditModifier("50307172740");
+            cache.getCreditModifier("50301108840");
+            refreshes.forEach(Runnable::run);
+            refreshes.clear();
+        }
+
+        assertEquals(2, cache.size());
+        assertEquals(0, cache.getEvictionCount());
+    }
+
+    @Test
+    void testConstructor_RefreshLongerThanTimeToLive_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> new CachingCreditModifierProvider(
+                personalCode -> 100, 10, Duration.ofSeconds(1), Duration.ofSeconds(2), Runnable::run, () -> 0));
+    }
+
+    @Test
+    void testGetCreditModifierAsync_MissThenHit_ShouldLookUpOnce() throws Exception {
+        assertEquals(300, cache.getCreditModifierAsync("50307172740").get());
+        assertEquals(300, cache.getCreditModifierAsync("50307172740").get());
+        assertEquals(300, cache.getCreditModifier("50307172740"));
+
+        assertEquals(1, lookups.size());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(2, cache.getHitCount());
+    }
+}
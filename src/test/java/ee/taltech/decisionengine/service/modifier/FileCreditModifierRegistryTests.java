@@ -0,0 +1,62 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class FileCreditModifierRegistryTests {
+    @TempDir
+    Path directory;
+
+    @Test
+    void testGetCreditModifier_ClientsInFile_ShouldReturnTheirModifiers() throws Exception {
+        Path file = directory.resolve("registry.csv");
+        Files.writeString(file, "# personalCode,creditModifier\n50307172740,300\n\n 50301101240 , 0 \n");
+        FileCreditModifierRegistry registry = new FileCreditModifierRegistry(file, 0);
+
+        assertEquals(2, registry.size());
+        assertEquals(300, registry.getCreditModifier("50307172740"));
+        assertEquals(0, registry.getCreditModifier("50301101240"));
+        assertEquals(CreditModifierProvider.unknownCreditModifier, registry.getCreditModifier("50301108840"));
+    }
+
+    @Test
+    void testGetCreditModifier_WithLatency_ShouldTakeAtLeastThatLong() throws Exception {
+        Path file = directory.resolve("registry.csv");
+        Files.writeString(file, "50307172740,300\n");
+        FileCreditModifierRegistry registry = new FileCreditModifierRegistry(file, 20);
+
+        long start = System.nanoTime();
+        registry.getCreditModifier("50307172740");
+        assertTrue(System.nanoTime() - start >= 20_000_000);
+    }
+
+    @Test
+    void testGetCreditModifierAsync_WithLatency_ShouldAnswerLater() throws Exception {
+        Path file = directory.resolve("registry.csv");
+        Files.writeString(file, "50307172740,300\n");
+        FileCreditModifierRegistry registry = new FileCreditModifierRegistry(file, 20);
+
+        long start = System.nanoTime();
+        CompletableFuture<Integer> lookup = registry.getCreditModifierAsync("50307172740");
+        assertTrue(System.nanoTime() - start < 20_000_000);
+        assertEquals(300, lookup.get(5, TimeUnit.SECONDS));
+        assertTrue(System.nanoTime() - start >= 20_000_000);
+    }
+
+    @Test
+    void testConstructor_MalformedLine_ShouldThrow() throws Exception {
+        Path file = directory.resolve("registry.csv");
+        Files.writeString(file, "50307172740,300\n50301108840\n");
+
+        assertThrows(IllegalArgumentException.class, () -> new FileCreditModifierRegistry(file, 0));
+    }
+}
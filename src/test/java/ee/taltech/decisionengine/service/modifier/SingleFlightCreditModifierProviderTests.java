@@ -0,0 +1,158 @@
+package ee.taltech.decisionengine.service.modifier;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class SingleFlightCreditModifierProviderTests {
+    private static final int requests = 16;
+
+    @Test
+    void testGetCreditModifier_DuplicateConcurrentRequests_ShouldLookUpOnce() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCreditModifierProvider provider = new SingleFlightCreditModifierProvider(personalCode -> {
+            lookups.incrementAndGet();
+            awaitQuietly(release);
+            return 300;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> provider.getCreditModifier("50307172740")));
+            }
+            awaitCoalesced(provider, requests - 1);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                assertEquals(300, result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, lookups.get());
+        assertEquals(requests - 1, provider.getCoalescedCount());
+    }
+
+    @Test
+    void testGetCreditModifier_SharedLookupFails_ShouldFailEveryRequestAndRetryLater() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCreditModifierProvider provider = new SingleFlightCreditModifierProvider(personalCode -> {
+            if (lookups.incrementAndGet() == 1) {
+                awaitQuietly(release);
+                throw new IllegalStateException("Registry is down");
+            }
+            return 1000;
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(requests);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < requests; i++) {
+                results.add(executor.submit(() -> provider.getCreditModifier("50301108840")));
+            }
+            awaitCoalesced(provider, requests - 1);
+            release.countDown();
+
+            for (Future<Integer> result : results) {
+                Exception e = assertThrows(Exception.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertTrue(e.getCause() instanceof IllegalStateException);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, lookups.get());
+
+        assertEquals(1000, provider.getCreditModifier("50301108840"));
+        assertEquals(2, lookups.get());
+    }
+
+    @Test
+    void testGetCreditModifier_DifferentClients_ShouldNotWaitForEachOther() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        SingleFlightCreditModifierProvider provider = new SingleFlightCreditModifierProvider(personalCode -> {
+            if (personalCode.equals("50307172740")) {
+                awaitQuietly(release);
+            }
+            return 100;
+        });
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<Integer> blocked = executor.submit(() -> provider.getCreditModifier("50307172740"));
+            assertEquals(100, provider.getCreditModifier("50301100440"));
+            release.countDown();
+            assertEquals(100, blocked.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(0, provider.getCoalescedCount());
+    }
+
+    private static void awaitCoalesced(SingleFlightCreditModifierProvider provider, long expected)
+            throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (provider.getCoalescedCount() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, provider.getCoalescedCount());
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    @Test
+    void testGetCreditModifierAsync_DuplicateRequests_ShouldShareOneLookup() throws Exception {
+        AtomicInteger lookups = new AtomicInteger();
+        CompletableFuture<Integer> registryLookup = new CompletableFuture<>();
+        SingleFlightCreditModifierProvider provider = new SingleFlightCreditModifierProvider(
+                new CreditModifierProvider() {
+                    @Override
+                    public int getCreditModifier(String personalCode) {
+                        throw new AssertionError("Should be looked up asynchronously");
+                    }
+
+                    @Override
+                    public CompletableFuture<Integer> getCreditModifierAsync(String personalCode) {
+                        lookups.incrementAndGet();
+                        return registryLookup;
+                    }
+                });
+
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        for (int i = 0; i < requests; i++) {
+            results.add(provider.getCreditModifierAsync("50307172740"));
+        }
+        for (CompletableFuture<Integer> result : results) {
+            assertFalse(result.isDone());
+        }
+        registryLookup.complete(300);
+
+        for (CompletableFuture<Integer> result : results) {
+            assertEquals(300, result.get());
+        }
+        assertEquals(1, lookups.get());
+        assertEquals(requests - 1, provider.getCoalescedCount());
+    }
+}
@@ -0,0 +1,94 @@
+package ee.taltech.decisionengine.service.policy;
+
+import ee.taltech.decisionengine.service.modifier.CreditModifierProvider;
+import org.junit.jupiter.api.Test;
+
+import java.util.Properties;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class CreditPolicyTests {
+    @Test
+    public void testGetDefault_EverySuffix_ShouldMatchDefaultBands() {
+        CreditPolicy policy = CreditPolicy.getDefault();
+
+        for (int suffix = 0; suffix < 1000; suffix++) {
+            int expected = suffix < 200 ? CreditModifierProvider.unknownCreditModifier
+                    : suffix < 400 ? 0 : suffix < 600 ? 100 : suffix < 800 ? 300 : 1000;
+            assertEquals(expected, policy.getCreditModifier(suffix), "suffix " + suffix);
+        }
+        assertEquals(LoanLimits.defaultLimits, policy.getLimits());
+        assertArrayEquals(new int[] {100, 300, 1000}, policy.getSegmentModifiers());
+    }
+
+    @Test
+    public void testCompile_CustomBandsAndLimits_ShouldBeUsed() {
+        CreditPolicy policy = CreditPolicy.compile(properties(
+                "loan-amount.maximum", "8000",
+                "loan-period.minimum", "6",
+                "credit-modifier.0-499", "0",
+                "credit-modifier.500-998", "250",
+                "credit-modifier.999", "2000"));
+
+        assertEquals(new LoanLimits(2000, 8000, 6, 60), policy.getLimits());
+        assertEquals(0, policy.getCreditModifier(0));
+        assertEquals(250, policy.getCreditModifier(998));
+        assertEquals(2000, policy.getCreditModifier(999));
+        assertEquals(CreditModifierProvider.unknownCreditModifier, policy.getCreditModifier(1000));
+        assertArrayEquals(new int[] {250, 2000}, policy.getSegmentModifiers());
+    }
+
+    @Test
+    public void testCompile_InvalidPolicy_ShouldThrow() {
+        String[][] policies = {
+                {"credit-modifier.0-500", "0", "credit-modifier.500", "100"},
+                {"credit-modifier.5-1", "0"},
+                {"credit-modifier.1000", "0"},
+                {"credit-modifier.1", "-1"},
+                {"credit-modifier.x", "1"},
+                {"loan-period.maximum", "9"},
+                {"loan-amount.maximum", "70000"},
+                {"loan-amount.max", "9000"}
+        };
+
+        for (String[] policy : policies) {
+            assertThrows(IllegalArgumentException.class, () -> CreditPolicy.compile(properties(policy)));
+        }
+    }
+
+    @Test
+    public void testCompile_TooManyDecisions_ShouldThrow() {
+        Properties wide = properties("loan-amount.minimum", "1", "loan-amount.maximum", "60000",
+                "loan-period.minimum", "1", "loan-period.maximum", "240",
+                "credit-modifier.0-99", "100", "credit-modifier.100-199", "200");
+
+        IllegalArgumentException e = assertThrows(IllegalArgumentException.class, () -> CreditPolicy.compile(wide));
+        assertTrue(e.getMessage().contains("28800000 decisions"), e.getMessage());
+        assertEquals(2, CreditPolicy.compile(wide, 28_800_000).getSegmentModifiers().length);
+        assertThrows(IllegalArgumentException.class,
+                () -> CreditPolicy.compile(properties("credit-modifier.0", "100"), 100_000));
+    }
+
+    @Test
+    public void testGetVersion_SameOrDifferentPolicies_ShouldMatchOnlyForSamePolicy() {
+        CreditPolicy split = CreditPolicy.compile(properties("credit-modifier.400-499", "100",
+                "credit-modifier.500-599", "100"));
+        CreditPolicy joined = CreditPolicy.compile(properties("credit-modifier.400-599", "100"));
+        CreditPolicy wider = CreditPolicy.compile(properties("credit-modifier.400-600", "100"));
+
+        assertEquals(split.getVersion(), joined.getVersion());
+        assertNotEquals(joined.getVersion(), wider.getVersion());
+    }
+
+    private static Properties properties(String... namesAndValues) {
+        Properties properties = new Properties();
+        for (int i = 0; i < namesAndValues.length; i += 2) {
+            properties.setProperty(namesAndValues[i], namesAndValues[i + 1]);
+        }
+        return properties;
+    }
+}
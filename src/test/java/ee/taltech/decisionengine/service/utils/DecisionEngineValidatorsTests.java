@@ -4,11 +4,10 @@ import ee.taltech.decisionengine.exceptions.InvalidDataException;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
 
 public class DecisionEngineValidatorsTests {
     @Test
-    public void testValidateAllParameters_InvalidPersonalCode_ShouldThrowException() {
+    public void testValidateAllParameters_InvalidPersonalCode_ShouldBeRejected() {
         DecisionEngineValidators v = new DecisionEngineValidators();
         String code0 = "abcdefghasd";
         String code1 = "4124175903";
@@ -16,129 +15,90 @@ public class DecisionEngineValidatorsTests {
         String code3 = "";
         String code4 = null;
 
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters(code0, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters(code1, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters(code2, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters(code3, 2000, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters(code4, 2000, 20),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.PERSONAL_CODE_INVALID);
+        InvalidDataException.Reason result0 = v.validateAllParameters(code0, 2000, 20);
+        InvalidDataException.Reason result1 = v.validateAllParameters(code1, 2000, 20);
+        InvalidDataException.Reason result2 = v.validateAllParameters(code2, 2000, 20);
+        InvalidDataException.Reason result3 = v.validateAllParameters(code3, 2000, 20);
+        InvalidDataException.Reason result4 = v.validateAllParameters(code4, 2000, 20);
+
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result0);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result1);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result2);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result3);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result4);
+    }
+
+    @Test
+    public void testValidateAllParameters_WrongCheckDigitOrDate_ShouldBeRejected() {
+        DecisionEngineValidators v = new DecisionEngineValidators();
+
+        InvalidDataException.Reason result0 = v.validateAllParameters("50307172741", 2000, 20);
+        InvalidDataException.Reason result1 = v.validateAllParameters("50313171237", 2000, 20);
+        InvalidDataException.Reason result2 = v.validateAllParameters("1e100000000", 2000, 20);
+
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result0);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result1);
+        assertEquals(InvalidDataException.Reason.PERSONAL_CODE_INVALID, result2);
+    }
+
+    @Test
+    public void testValidatePersonalCode_ValidCode_ShouldGiveLastThreeDigits() {
+        DecisionEngineValidators v = new DecisionEngineValidators();
+
+        assertEquals(740, v.validatePersonalCode("50307172740"));
+        assertEquals(PersonalCodes.invalid, v.validatePersonalCode("50307172741"));
     }
 
     @Test
-    public void testValidateAllParameters_InvalidLoanAmount_ShouldThrowException() {
+    public void testValidateAllParameters_InvalidLoanAmount_ShouldBeRejected() {
         DecisionEngineValidators v = new DecisionEngineValidators();
-        Integer loan0 = 10001;
-        Integer loan1 = 1999;
-        Integer loan2 = -50;
-        Integer loan3 = 0;
-        Integer loan4 = null;
-
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", loan0, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", loan1, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", loan2, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", loan3, 20),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", loan4, 20),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.LOAN_AMOUNT_INVALID);
+        int loan0 = 10001;
+        int loan1 = 1999;
+        int loan2 = -50;
+        int loan3 = 0;
+        int loan4 = Integer.MIN_VALUE;
+
+        InvalidDataException.Reason result0 = v.validateAllParameters("50301117000", loan0, 20);
+        InvalidDataException.Reason result1 = v.validateAllParameters("50301117000", loan1, 20);
+        InvalidDataException.Reason result2 = v.validateAllParameters("50301117000", loan2, 20);
+        InvalidDataException.Reason result3 = v.validateAllParameters("50301117000", loan3, 20);
+        InvalidDataException.Reason result4 = v.validateAllParameters("50301117000", loan4, 20);
+
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, result0);
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, result1);
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, result2);
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, result3);
+        assertEquals(InvalidDataException.Reason.LOAN_AMOUNT_INVALID, result4);
     }
 
     @Test
-    public void testValidateAllParameters_InvalidLoanPeriod_ShouldThrowException() {
+    public void testValidateAllParameters_InvalidLoanPeriod_ShouldBeRejected() {
         DecisionEngineValidators v = new DecisionEngineValidators();
-        Integer period0 = 61;
-        Integer period1 = 11;
-        Integer period2 = -13;
-        Integer period3 = 0;
-        Integer period4 = null;
-
-        InvalidDataException e0 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", 5000, period0),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e1 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", 5000, period1),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e2 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", 5000, period2),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e3 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", 5000, period3),
-                "Expected error to be thrown."
-        );
-        InvalidDataException e4 = assertThrows(
-                InvalidDataException.class,
-                () -> v.validateAllParameters("50000000000", 5000, period4),
-                "Expected error to be thrown."
-        );
-
-        assertEquals(e0.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e1.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e2.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e3.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
-        assertEquals(e4.getReason(), InvalidDataException.Reason.LOAN_PERIOD_INVALID);
+        int period0 = 61;
+        int period1 = 11;
+        int period2 = -13;
+        int period3 = 0;
+        int period4 = Integer.MIN_VALUE;
+
+        InvalidDataException.Reason result0 = v.validateAllParameters("50301117000", 5000, period0);
+        InvalidDataException.Reason result1 = v.validateAllParameters("50301117000", 5000, period1);
+        InvalidDataException.Reason result2 = v.validateAllParameters("50301117000", 5000, period2);
+        InvalidDataException.Reason result3 = v.validateAllParameters("50301117000", 5000, period3);
+        InvalidDataException.Reason result4 = v.validateAllParameters("50301117000", 5000, period4);
+
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, result0);
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, result1);
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, result2);
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, result3);
+        assertEquals(InvalidDataException.Reason.LOAN_PERIOD_INVALID, result4);
     }
 
     @Test
-    public void testValidateAllParameters_ValidParams_ShouldPass() throws InvalidDataException {
+    public void testValidateAllParameters_ValidParams_ShouldPass() {
         DecisionEngineValidators v = new DecisionEngineValidators();
 
-        v.validateAllParameters("12345678901", 2000, 12);
-        v.validateAllParameters("00000000000", 10000, 60);
-        v.validateAllParameters("90274928759", 6344, 47);
+        v.validateAllParameters("50301102901", 2000, 12);
+        v.validateAllParameters("50301101000", 10000, 60);
+        v.validateAllParameters("50301106759", 6344, 47);
     }
 }
@@ -0,0 +1,44 @@
+package ee.taltech.decisionengine.service.utils;
+
+import java.time.LocalDate;
+
+/**
+ * Create valid Estonian personal codes for tests and load tests.
+ * <p>
+ * The check digit is calculated here on its own rather than with {@link PersonalCodes}, so that the codes also
+ * check the parser.
+ */
+public final class PersonalCodeGenerator {
+    private static final int checkDigitIndex = 10;
+
+    private PersonalCodeGenerator() {
+    }
+
+    /**
+     * Create a valid personal code of a man.
+     * @param birthDate birth date, from 1800 to 2199
+     * @param serialNumber serial number among the people born on the same date, from 0 to 999
+     * @return personal code with the right check digit
+     */
+    public static String create(LocalDate birthDate, int serialNumber) {
+        final int birthYear = birthDate.getYear();
+        if (birthYear < 1800 || birthYear > 2199 || serialNumber < 0 || serialNumber > 999) {
+            throw new IllegalArgumentException("No personal code for " + birthDate + " and " + serialNumber);
+        }
+
+        final char[] code = String.format("%d%02d%02d%02d%03d0", (birthYear / 100 - 18) * 2 + 1, birthYear % 100,
+                birthDate.getMonthValue(), birthDate.getDayOfMonth(), serialNumber).toCharArray();
+        int firstSum = 0;
+        int secondSum = 0;
+        for (int i = 0; i < checkDigitIndex; i++) {
+            firstSum += (code[i] - '0') * (i % 9 + 1);
+            secondSum += (code[i] - '0') * ((i + 2) % 9 + 1);
+        }
+        int checkDigit = firstSum % 11;
+        if (checkDigit == 10) {
+            checkDigit = secondSum % 11 == 10 ? 0 : secondSum % 11;
+        }
+        code[checkDigitIndex] = (char) ('0' + checkDigit);
+        return new String(code);
+    }
+}
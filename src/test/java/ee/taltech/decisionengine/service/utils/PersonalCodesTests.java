@@ -0,0 +1,75 @@
+package ee.taltech.decisionengine.service.utils;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PersonalCodesTests {
+    @Test
+    public void testParse_ValidCodes_ShouldGiveLastThreeDigits() {
+        assertEquals(740, PersonalCodes.parse("50307172740"));
+        assertEquals(299, PersonalCodes.parse("37605030299"));
+        assertEquals(965, PersonalCodes.parse("49002010965"));
+        assertEquals(906, PersonalCodes.parse("60001019906"));
+    }
+
+    @Test
+    public void testParse_CheckDigitFromSecondWeights_ShouldBeValid() {
+        assertEquals(9, PersonalCodes.parse("50307172009"));
+        assertEquals(630, PersonalCodes.parse("50307101630"));
+    }
+
+    @Test
+    public void testParse_WrongCheckDigit_ShouldBeInvalid() {
+        for (char checkDigit = '1'; checkDigit <= '9'; checkDigit++) {
+            assertEquals(PersonalCodes.invalid, PersonalCodes.parse("5030717274" + checkDigit));
+        }
+    }
+
+    @Test
+    public void testParse_ImpossibleDates_ShouldBeInvalid() {
+        assertEquals(239, PersonalCodes.parse("50002291239"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("30002291237"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("50313171237"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("50307001231"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("50304311230"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("00307172746"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("90307172744"));
+    }
+
+    @Test
+    public void testParse_NotDigits_ShouldBeInvalid() {
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse(null));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse(""));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("1e100000000"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("  123.45678"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("5030717274 "));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("\uff150307172740"));
+        assertEquals(PersonalCodes.invalid, PersonalCodes.parse("503071727400"));
+    }
+
+    @Test
+    public void testCreate_KnownCode_ShouldMatch() {
+        assertEquals("50307172740", PersonalCodeGenerator.create(LocalDate.of(2003, 7, 17), 274));
+        assertEquals("37605030299", PersonalCodeGenerator.create(LocalDate.of(1976, 5, 3), 29));
+    }
+
+    @Test
+    public void testCreate_EveryCentury_ShouldBeValid() {
+        for (LocalDate date = LocalDate.of(1800, 1, 1); date.getYear() < 2200; date = date.plusDays(97)) {
+            for (int serialNumber = 0; serialNumber < 1000; serialNumber += 111) {
+                String code = PersonalCodeGenerator.create(date, serialNumber);
+                assertEquals(serialNumber % 100, PersonalCodes.parse(code) / 10, code);
+            }
+        }
+    }
+
+    @Test
+    public void testCreate_OutOfRange_ShouldThrow() {
+        assertThrows(IllegalArgumentException.class, () -> PersonalCodeGenerator.create(LocalDate.of(1799, 12, 31), 1));
+        assertThrows(IllegalArgumentException.class, () -> PersonalCodeGenerator.create(LocalDate.of(2000, 1, 1), 1000));
+    }
+}